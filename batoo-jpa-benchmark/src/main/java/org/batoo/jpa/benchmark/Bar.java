@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.TableGenerator;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+@TableGenerator(name = Bar.GENERATOR, allocationSize = 100)
+public class Bar {
+
+	/**
+	 * The name of the id generator
+	 */
+	public static final String GENERATOR = "barId";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = Bar.GENERATOR)
+	private Long id;
+
+	private String name;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Foo foo;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Bar() {
+		super();
+	}
+
+	/**
+	 * @param foo
+	 *            the foo
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Bar(Foo foo, String name) {
+		super();
+
+		this.foo = foo;
+		this.name = name;
+
+		this.foo.getBars().add(this);
+	}
+
+	/**
+	 * Returns the foo.
+	 * 
+	 * @return the foo
+	 * @since 2.0.1
+	 */
+	public Foo getFoo() {
+		return this.foo;
+	}
+
+	/**
+	 * Returns the id.
+	 * 
+	 * @return the id
+	 * @since 2.0.1
+	 */
+	public Long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the name.
+	 * 
+	 * @param name
+	 *            the name to set
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Persistence;
+
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Base class of the benchmarks.
+ * <p>
+ * Deploys the <code>benchmark</code> persistence unit against the in-memory database selected by the <code>database</code> parameter
+ * once per trial and lets the benchmark populate the data it works on.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class BaseBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	/**
+	 * The in-memory database to run against, <code>h2</code> or <code>hsqldb</code>.
+	 */
+	@Param({ "h2", "hsqldb" })
+	public String database;
+
+	private EntityManagerFactoryImpl emf;
+
+	/**
+	 * Closes the entity manager factory.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Trial)
+	public final void close() {
+		if (this.emf != null) {
+			this.emf.close();
+		}
+	}
+
+	/**
+	 * Returns a new entity manager.
+	 * 
+	 * @return the entity manager
+	 * 
+	 * @since 2.0.1
+	 */
+	protected EntityManager em() {
+		return this.emf.createEntityManager();
+	}
+
+	/**
+	 * Returns the entity manager factory.
+	 * 
+	 * @return the entity manager factory
+	 * 
+	 * @since 2.0.1
+	 */
+	protected EntityManagerFactoryImpl emf() {
+		return this.emf;
+	}
+
+	private Map<String, Object> getProperties() {
+		final Map<String, Object> properties = Maps.newHashMap();
+
+		if ("hsqldb".equals(this.database)) {
+			properties.put("javax.persistence.jdbc.driver", "org.hsqldb.jdbcDriver");
+			properties.put("javax.persistence.jdbc.url", "jdbc:hsqldb:mem:benchmark");
+			properties.put("javax.persistence.jdbc.user", "sa");
+		}
+		else if ("h2".equals(this.database)) {
+			properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+			properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:benchmark;ALIAS_COLUMN_NAME=TRUE");
+			properties.put("javax.persistence.jdbc.user", "root");
+		}
+		else {
+			throw new IllegalArgumentException("Unknown database " + this.database);
+		}
+
+		properties.put("javax.persistence.jdbc.password", "");
+
+		return properties;
+	}
+
+	/**
+	 * Persists the foos each with the bars in batches.
+	 * 
+	 * @param foos
+	 *            the number of foos
+	 * @param bars
+	 *            the number of bars of each foo
+	 * @return the ids of the foos persisted
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Long[] populate(int foos, int bars) {
+		final List<Long> ids = Lists.newArrayList();
+
+		for (int i = 0; i < foos; i += BaseBenchmark.BATCH_SIZE) {
+			final EntityManager em = this.em();
+			try {
+				em.getTransaction().begin();
+
+				final List<Foo> batch = Lists.newArrayList();
+				for (int j = i; j < Math.min(foos, i + BaseBenchmark.BATCH_SIZE); j++) {
+					final Foo foo = new Foo("Foo" + j, j);
+					for (int k = 0; k < bars; k++) {
+						new Bar(foo, "Bar" + k);
+					}
+
+					em.persist(foo);
+					batch.add(foo);
+				}
+
+				em.getTransaction().commit();
+
+				for (final Foo foo : batch) {
+					ids.add(foo.getId());
+				}
+			}
+			finally {
+				em.close();
+			}
+		}
+
+		return ids.toArray(new Long[ids.size()]);
+	}
+
+	/**
+	 * Prepares the data the benchmark works on. Called once per trial after the entity manager factory is deployed.
+	 * 
+	 * @since 2.0.1
+	 */
+	protected void prepare() {
+		// noop
+	}
+
+	/**
+	 * Deploys the entity manager factory and prepares the data.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Setup(Level.Trial)
+	public final void setup() {
+		this.emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory("benchmark", this.getProperties());
+
+		this.prepare();
+	}
+}
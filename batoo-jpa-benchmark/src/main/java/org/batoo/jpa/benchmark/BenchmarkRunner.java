@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks.
+ * <p>
+ * Without arguments all the benchmarks are run against all the databases with the allocation profiler (<code>-prof gc</code>) and the
+ * results are written to <code>baseline.json</code>, the format the baseline numbers are published in. With arguments, the arguments
+ * are passed to the JMH command line runner as is.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class BenchmarkRunner {
+
+	private static final String BASELINE = "baseline.json";
+
+	/**
+	 * The main entry point.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             thrown in case of an underlying exception
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			Main.main(args);
+
+			return;
+		}
+
+		final Options options = new OptionsBuilder() //
+			.addProfiler(GCProfiler.class) //
+			.resultFormat(ResultFormatType.JSON) //
+			.result(BenchmarkRunner.BASELINE) //
+			.build();
+
+		new Runner(options).run();
+	}
+}
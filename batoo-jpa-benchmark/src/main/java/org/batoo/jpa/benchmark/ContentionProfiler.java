@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.lang.Thread.State;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multiset.Entry;
+
+/**
+ * A profiler that reports the lock contention of the benchmark threads.
+ * <p>
+ * During each iteration the benchmark threads are sampled and each thread found blocked on a monitor or parked on a lock is attributed
+ * to the innermost Batoo frame of its stack. The total contention and the contention of each site are reported as the percentage of
+ * the samples, <code>contention</code> and <code>contention:&lt;class&gt;.&lt;method&gt;</code> respectively.
+ * <p>
+ * Used with <code>-prof org.batoo.jpa.benchmark.ContentionProfiler</code>.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ContentionProfiler implements InternalProfiler {
+
+	/**
+	 * The thread that samples the benchmark threads.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class Sampler extends Thread {
+
+		private final Multiset<String> sites = HashMultiset.create();
+		private int samples;
+
+		private Sampler() {
+			super("Contention Sampler");
+
+			this.setDaemon(true);
+		}
+
+		private String getSite(StackTraceElement[] stackTrace) {
+			for (final StackTraceElement element : stackTrace) {
+				final String className = element.getClassName();
+				if (className.startsWith(ContentionProfiler.BATOO) && !className.startsWith(ContentionProfiler.BENCHMARK)) {
+					return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName();
+				}
+			}
+
+			return "other";
+		}
+
+		private boolean isContended(ThreadInfo info) {
+			if (info.getThreadState() == State.BLOCKED) {
+				return true;
+			}
+
+			// parked on a lock rather than sleeping
+			return ((info.getThreadState() == State.WAITING) || (info.getThreadState() == State.TIMED_WAITING)) && (info.getLockName() != null);
+		}
+
+		@Override
+		public void run() {
+			final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+			while (!this.isInterrupted()) {
+				for (final ThreadInfo info : threads.dumpAllThreads(false, false)) {
+					if ((info == null) || !info.getThreadName().contains(ContentionProfiler.WORKER)) {
+						continue;
+					}
+
+					this.samples++;
+
+					if (this.isContended(info)) {
+						this.sites.add(this.getSite(info.getStackTrace()));
+					}
+				}
+
+				try {
+					Thread.sleep(ContentionProfiler.INTERVAL);
+				}
+				catch (final InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	private static final String BATOO = "org.batoo.";
+	private static final String BENCHMARK = "org.batoo.jpa.benchmark.";
+	private static final String WORKER = "jmh-worker";
+
+	private static final long INTERVAL = 10;
+
+	private Sampler sampler;
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams, IterationResult result) {
+		final Sampler sampler = this.sampler;
+		this.sampler = null;
+
+		sampler.interrupt();
+		try {
+			sampler.join();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		final List<Result> results = Lists.newArrayList();
+
+		final double samples = Math.max(1, sampler.samples);
+
+		results.add(new ScalarResult("contention", (100 * sampler.sites.size()) / samples, "%", AggregationPolicy.AVG));
+		for (final Entry<String> site : sampler.sites.entrySet()) {
+			results.add(new ScalarResult("contention:" + site.getElement(), (100 * site.getCount()) / samples, "%", AggregationPolicy.AVG));
+		}
+
+		return results;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+		this.sampler = new Sampler();
+		this.sampler.start();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String getDescription() {
+		return "Lock contention of the benchmark threads per Batoo call site";
+	}
+}
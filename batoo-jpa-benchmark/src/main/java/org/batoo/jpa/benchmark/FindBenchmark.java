@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures finding an entity by its id with a new entity manager, for an existing and a missing id.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class FindBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 1000;
+
+	private Long[] ids;
+	private int next;
+
+	/**
+	 * Finds an existing entity.
+	 * 
+	 * @return the entity found
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo findHit() {
+		final EntityManager em = this.em();
+		try {
+			return em.find(Foo.class, this.ids[this.next++ % this.ids.length]);
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Finds an entity that does not exist.
+	 * 
+	 * @return <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo findMiss() {
+		final EntityManager em = this.em();
+		try {
+			return em.find(Foo.class, -1L);
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.ids = this.populate(FindBenchmark.FOOS, 0);
+	}
+}
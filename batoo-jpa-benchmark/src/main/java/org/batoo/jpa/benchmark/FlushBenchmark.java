@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures flushing a session with a varying number of dirty entities.
+ * <p>
+ * The entities are loaded into a single transaction per iteration, each invocation updates all of them and flushes the session.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class FlushBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 1000;
+
+	/**
+	 * The number of dirty entities per flush.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int dirty;
+
+	private EntityManager em;
+	private List<Foo> foos;
+	private int quantity;
+
+	/**
+	 * Commits the transaction of the iteration.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Iteration)
+	public void commit() {
+		try {
+			this.em.getTransaction().commit();
+		}
+		finally {
+			this.em.close();
+		}
+	}
+
+	/**
+	 * Updates the entities and flushes the session.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public void flush() {
+		this.quantity++;
+
+		for (final Foo foo : this.foos) {
+			foo.setQuantity(this.quantity);
+		}
+
+		this.em.flush();
+	}
+
+	/**
+	 * Loads the entities in a new transaction.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Setup(Level.Iteration)
+	public void load() {
+		this.em = this.em();
+		this.em.getTransaction().begin();
+
+		this.foos = this.em.createQuery("select f from Foo f order by f.id", Foo.class).setMaxResults(this.dirty).getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.populate(FlushBenchmark.FOOS, 0);
+	}
+}
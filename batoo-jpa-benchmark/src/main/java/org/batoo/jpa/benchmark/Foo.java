@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+import javax.persistence.TableGenerator;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+@TableGenerator(name = Foo.GENERATOR, allocationSize = 100)
+public class Foo {
+
+	/**
+	 * The name of the id generator
+	 */
+	public static final String GENERATOR = "fooId";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = Foo.GENERATOR)
+	private Long id;
+
+	private String name;
+
+	private int quantity;
+
+	@OneToMany(mappedBy = "foo", cascade = CascadeType.ALL)
+	private final List<Bar> bars = Lists.newArrayList();
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param name
+	 *            the name
+	 * @param quantity
+	 *            the quantity
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(String name, int quantity) {
+		super();
+
+		this.name = name;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Returns the bars.
+	 * 
+	 * @return the bars
+	 * @since 2.0.1
+	 */
+	public List<Bar> getBars() {
+		return this.bars;
+	}
+
+	/**
+	 * Returns the id.
+	 * 
+	 * @return the id
+	 * @since 2.0.1
+	 */
+	public Long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the quantity.
+	 * 
+	 * @return the quantity
+	 * @since 2.0.1
+	 */
+	public int getQuantity() {
+		return this.quantity;
+	}
+
+	/**
+	 * Sets the name.
+	 * 
+	 * @param name
+	 *            the name to set
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Sets the quantity.
+	 * 
+	 * @param quantity
+	 *            the quantity to set
+	 * @since 2.0.1
+	 */
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
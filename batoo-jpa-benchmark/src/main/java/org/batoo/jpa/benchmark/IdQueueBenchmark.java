@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the throughput of the table id generator queue with the threads contending on it.
+ * <p>
+ * The number of threads defaults to 4 and can be changed with the <code>-t</code> option of the runner.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class IdQueueBenchmark extends BaseBenchmark {
+
+	private MetamodelImpl metamodel;
+
+	/**
+	 * Takes the next id from the queue.
+	 * 
+	 * @return the next id
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Long nextId() {
+		return this.metamodel.getNextTableValue(Foo.GENERATOR);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.metamodel = this.emf().getMetamodel();
+	}
+}
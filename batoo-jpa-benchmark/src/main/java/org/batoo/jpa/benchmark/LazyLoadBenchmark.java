@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures initializing a lazy collection of varying size.
+ * <p>
+ * The owner is loaded before each invocation so that only the initialization of the collection is measured.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class LazyLoadBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 100;
+
+	/**
+	 * The number of elements of the collection.
+	 */
+	@Param({ "1", "10", "100" })
+	public int bars;
+
+	private Long[] ids;
+	private int next;
+
+	private EntityManager em;
+	private Foo foo;
+
+	/**
+	 * Initializes the collection.
+	 * 
+	 * @return the size of the collection
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public int initialize() {
+		return this.foo.getBars().size();
+	}
+
+	/**
+	 * Loads the owner of the collection with a new entity manager.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Setup(Level.Invocation)
+	public void load() {
+		this.em = this.em();
+		this.foo = this.em.find(Foo.class, this.ids[this.next++ % this.ids.length]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.ids = this.populate(LazyLoadBenchmark.FOOS, this.bars);
+	}
+
+	/**
+	 * Closes the entity manager.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Invocation)
+	public void release() {
+		this.em.close();
+	}
+}
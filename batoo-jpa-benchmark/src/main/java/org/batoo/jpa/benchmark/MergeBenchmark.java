@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures merging detached graphs, each an entity with a modified name and its collection.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MergeBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 100;
+	private static final int BARS = 10;
+
+	private List<Foo> detached;
+	private int next;
+
+	/**
+	 * Merges a detached graph and commits.
+	 * 
+	 * @return the merged entity
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo merge() {
+		final Foo foo = this.detached.get(this.next++ % this.detached.size());
+		foo.setName("Foo" + this.next);
+
+		final EntityManager em = this.em();
+		try {
+			em.getTransaction().begin();
+
+			final Foo merged = em.merge(foo);
+
+			em.getTransaction().commit();
+
+			return merged;
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.populate(MergeBenchmark.FOOS, MergeBenchmark.BARS);
+
+		final EntityManager em = this.em();
+		try {
+			this.detached = em.createQuery("select distinct f from Foo f left join fetch f.bars", Foo.class).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures persisting new entities and committing them in batches of varying size.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class PersistBenchmark extends BaseBenchmark {
+
+	/**
+	 * The number of entities persisted per transaction.
+	 */
+	@Param({ "1", "10", "100" })
+	public int batchSize;
+
+	/**
+	 * Removes the entities persisted during the iteration so that the database does not grow unbounded.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Iteration)
+	public void clear() {
+		final EntityManager em = this.em();
+		try {
+			em.getTransaction().begin();
+			em.createQuery("delete from Foo").executeUpdate();
+			em.getTransaction().commit();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Persists and commits a batch of entities.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public void persist() {
+		final EntityManager em = this.em();
+		try {
+			em.getTransaction().begin();
+
+			for (int i = 0; i < this.batchSize; i++) {
+				em.persist(new Foo("Foo" + i, i));
+			}
+
+			em.getTransaction().commit();
+		}
+		finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures selecting the entities with JPQL and Criteria queries, with and without fetch joining the collection.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class QueryBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 100;
+	private static final int BARS = 5;
+
+	/**
+	 * Selects the entities with a Criteria query.
+	 * 
+	 * @return the entities
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public List<Foo> criteria() {
+		final EntityManager em = this.em();
+		try {
+			final CriteriaBuilder cb = em.getCriteriaBuilder();
+			final CriteriaQuery<Foo> q = cb.createQuery(Foo.class);
+			q.select(q.from(Foo.class));
+
+			return em.createQuery(q).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Selects the entities with a Criteria query fetch joining the collection.
+	 * 
+	 * @return the entities
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public List<Foo> criteriaFetchJoin() {
+		final EntityManager em = this.em();
+		try {
+			final CriteriaBuilder cb = em.getCriteriaBuilder();
+			final CriteriaQuery<Foo> q = cb.createQuery(Foo.class);
+			final Root<Foo> r = q.from(Foo.class);
+			r.fetch("bars", JoinType.LEFT);
+			q.select(r).distinct(true);
+
+			return em.createQuery(q).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Selects the entities with a JPQL query.
+	 * 
+	 * @return the entities
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public List<Foo> jpql() {
+		final EntityManager em = this.em();
+		try {
+			return em.createQuery("select f from Foo f", Foo.class).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Selects the entities with a JPQL query fetch joining the collection.
+	 * 
+	 * @return the entities
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public List<Foo> jpqlFetchJoin() {
+		final EntityManager em = this.em();
+		try {
+			return em.createQuery("select distinct f from Foo f left join fetch f.bars", Foo.class).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.populate(QueryBenchmark.FOOS, QueryBenchmark.BARS);
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Measures the throughput of the structures shared by the threads of a single entity manager factory.
+ * <p>
+ * Each benchmark stresses a single shared structure, so that the contention reported by the {@link ContentionProfiler} can be
+ * attributed to it, except <code>mixed</code> which runs a read / write workload. The benchmarks are meant to be run with an increasing
+ * number of threads by the {@link ScalabilityRunner}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScalabilityBenchmark extends BaseBenchmark {
+
+	private static final int FOOS = 1000;
+	private static final int BARS = 5;
+
+	/**
+	 * The percentage of the writes in the mixed workload
+	 */
+	private static final int WRITES = 20;
+
+	private Long[] ids;
+	private MetamodelImpl metamodel;
+
+	/**
+	 * Creates a literal, looking up the basic type from the metamodel.
+	 * 
+	 * @return the literal
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Object basicType() {
+		final EntityManager em = this.em();
+		try {
+			return em.getCriteriaBuilder().literal(ThreadLocalRandom.current().nextInt());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Leases a connection from the pool and returns it.
+	 * 
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public void dataSource() throws SQLException {
+		final EntityManager em = this.em();
+		try {
+			final Connection connection = em.unwrap(DataSource.class).getConnection();
+			connection.close();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Creates a reference, instantiating the enhanced class of the entity.
+	 * 
+	 * @return the reference
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo enhancer() {
+		final EntityManager em = this.em();
+		try {
+			return em.getReference(Foo.class, this.nextId());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Takes the next id from the table id generator queue.
+	 * 
+	 * @return the next id
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Long idQueue() {
+		return this.metamodel.getNextTableValue(Bar.GENERATOR);
+	}
+
+	/**
+	 * Creates a query, looking up the compiled query from the JPQL cache.
+	 * 
+	 * @return the query
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Object jpqlCache() {
+		final EntityManager em = this.em();
+		try {
+			return em.createQuery("select f from Foo f where f.name = :name", Foo.class);
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Runs the mixed workload, either reading an entity with its collection and querying an entity by name, or updating an entity.
+	 * 
+	 * @return the entity read or updated
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Object mixed() {
+		if (ThreadLocalRandom.current().nextInt(100) < ScalabilityBenchmark.WRITES) {
+			return this.tableSql();
+		}
+
+		final EntityManager em = this.em();
+		try {
+			final Foo foo = em.find(Foo.class, this.nextId());
+			foo.getBars().size();
+
+			return em.createQuery("select f from Foo f where f.name = :name", Foo.class) //
+				.setParameter("name", foo.getName()) //
+				.getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	private Long nextId() {
+		return this.ids[ThreadLocalRandom.current().nextInt(this.ids.length)];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void prepare() {
+		this.ids = this.populate(ScalabilityBenchmark.FOOS, ScalabilityBenchmark.BARS);
+		this.metamodel = this.emf().getMetamodel();
+	}
+
+	/**
+	 * Updates an entity, looking up the update SQL of the table.
+	 * 
+	 * @return the entity updated
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo tableSql() {
+		final EntityManager em = this.em();
+		try {
+			em.getTransaction().begin();
+
+			final Foo foo = em.find(Foo.class, this.nextId());
+			foo.setQuantity(ThreadLocalRandom.current().nextInt());
+
+			em.getTransaction().commit();
+
+			return foo;
+		}
+		finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.benchmark;
+
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Runs the {@link ScalabilityBenchmark} with an increasing number of threads and writes the scaling curve.
+ * <p>
+ * The curve is written as CSV to the file given as the first argument, <code>scalability.csv</code> by default, with a row for the
+ * throughput and a row for each contention figure of each benchmark, database and number of threads, so that the curves of the
+ * releases can be compared. The numbers of threads are controlled by the system property <code>scalability.threads</code> (comma
+ * separated) and the benchmarks by the regular expression in <code>scalability.include</code>.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ScalabilityRunner {
+
+	private static final String DEFAULT_THREADS = "1,2,4,8,16,32,64";
+	private static final String DEFAULT_CURVE = "scalability.csv";
+
+	/**
+	 * The main entry point.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             thrown in case of an underlying exception
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void main(String[] args) throws Exception {
+		final String include = System.getProperty("scalability.include", ScalabilityBenchmark.class.getSimpleName());
+
+		final PrintWriter writer = new PrintWriter(new FileWriter(args.length > 0 ? args[0] : ScalabilityRunner.DEFAULT_CURVE));
+		try {
+			writer.println("benchmark,database,threads,metric,score,error,unit");
+
+			for (final String threads : Splitter.on(",").trimResults().omitEmptyStrings().split(
+				System.getProperty("scalability.threads", ScalabilityRunner.DEFAULT_THREADS))) {
+				final Options options = new OptionsBuilder() //
+					.include(include) //
+					.threads(Integer.valueOf(threads)) //
+					.addProfiler(ContentionProfiler.class) //
+					.build();
+
+				for (final RunResult result : new Runner(options).run()) {
+					ScalabilityRunner.write(writer, result, "throughput", result.getPrimaryResult());
+
+					for (final Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+						ScalabilityRunner.write(writer, result, secondary.getKey(), secondary.getValue());
+					}
+				}
+
+				writer.flush();
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static void write(PrintWriter writer, RunResult runResult, String metric, Result<?> result) {
+		final String benchmark = runResult.getParams().getBenchmark();
+
+		writer.println(benchmark.substring(benchmark.lastIndexOf('.') + 1) + "," //
+			+ runResult.getParams().getParam("database") + "," //
+			+ runResult.getParams().getThreads() + "," //
+			+ metric + "," //
+			+ result.getScore() + "," //
+			+ result.getScoreError() + "," //
+			+ result.getScoreUnit());
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.common.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open addressing hash map keyed by primitive <code>long</code>s.
+ * <p>
+ * Keys and values are kept in two parallel arrays and collisions are resolved with linear probing, so neither lookups nor insertions
+ * allocate any objects unless the table needs to grow. Removals use backward shift deletion, hence no tombstones are left behind.
+ * <p>
+ * <code>null</code> values are not supported. The map is not thread safe.
+ *
+ * @param <V>
+ *            the type of the values
+ *
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class LongHashMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+	private int threshold;
+
+	/**
+	 * Constructs an empty map with the default capacity.
+	 *
+	 * @since 2.0.1
+	 */
+	public LongHashMap() {
+		this(LongHashMap.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty map that can hold <code>expectedSize</code> entries without resizing.
+	 *
+	 * @param expectedSize
+	 *            the expected size
+	 *
+	 * @since 2.0.1
+	 */
+	public LongHashMap(int expectedSize) {
+		super();
+
+		int capacity = LongHashMap.DEFAULT_CAPACITY;
+		while ((capacity >> 1) < expectedSize) {
+			capacity <<= 1;
+		}
+
+		this.allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.threshold = (capacity >> 1) + (capacity >> 2); // 0.75 load factor
+	}
+
+	/**
+	 * Removes all the entries from the map. The capacity of the map is retained.
+	 *
+	 * @since 2.0.1
+	 */
+	public void clear() {
+		if (this.size > 0) {
+			for (int i = 0; i < this.values.length; i++) {
+				this.values[i] = null;
+			}
+
+			this.size = 0;
+		}
+	}
+
+	/**
+	 * Returns the value mapped to the key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value or <code>null</code> if the key is not mapped
+	 *
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		final long[] _keys = this.keys;
+		final Object[] _values = this.values;
+
+		int i = LongHashMap.hash(key) & this.mask;
+
+		Object value;
+		while ((value = _values[i]) != null) {
+			if (_keys[i] == key) {
+				return (V) value;
+			}
+
+			i = (i + 1) & this.mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns if the map is empty.
+	 *
+	 * @return true if the map is empty, false otherwise
+	 *
+	 * @since 2.0.1
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Maps the value to the key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value, may not be null
+	 * @return the previous value mapped to the key or <code>null</code>
+	 * @throws NullPointerException
+	 *             if the value is null
+	 *
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+
+		int i = LongHashMap.hash(key) & this.mask;
+
+		Object existing;
+		while ((existing = this.values[i]) != null) {
+			if (this.keys[i] == key) {
+				this.values[i] = value;
+
+				return (V) existing;
+			}
+
+			i = (i + 1) & this.mask;
+		}
+
+		this.keys[i] = key;
+		this.values[i] = value;
+
+		if (++this.size > this.threshold) {
+			this.rehash();
+		}
+
+		return null;
+	}
+
+	private void rehash() {
+		final long[] oldKeys = this.keys;
+		final Object[] oldValues = this.values;
+
+		this.allocate(oldKeys.length << 1);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int j = LongHashMap.hash(oldKeys[i]) & this.mask;
+				while (this.values[j] != null) {
+					j = (j + 1) & this.mask;
+				}
+
+				this.keys[j] = oldKeys[i];
+				this.values[j] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Removes the mapping for the key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value removed or <code>null</code> if the key is not mapped
+	 *
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int i = LongHashMap.hash(key) & this.mask;
+
+		Object existing;
+		while ((existing = this.values[i]) != null) {
+			if (this.keys[i] == key) {
+				this.shiftBack(i);
+				this.size--;
+
+				return (V) existing;
+			}
+
+			i = (i + 1) & this.mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Closes the gap at <code>hole</code> by moving back the entries of the probe chain that would otherwise become unreachable.
+	 */
+	private void shiftBack(int hole) {
+		int i = hole;
+
+		while (true) {
+			i = (i + 1) & this.mask;
+
+			if (this.values[i] == null) {
+				break;
+			}
+
+			final int home = LongHashMap.hash(this.keys[i]) & this.mask;
+
+			// move the entry only if its home slot does not lie cyclically in (hole, i]
+			if ((hole <= i) ? ((hole < home) && (home <= i)) : ((hole < home) || (home <= i))) {
+				continue;
+			}
+
+			this.keys[hole] = this.keys[i];
+			this.values[hole] = this.values[i];
+
+			hole = i;
+		}
+
+		this.values[hole] = null;
+	}
+
+	/**
+	 * Returns the number of entries in the map.
+	 *
+	 * @return the number of entries in the map
+	 *
+	 * @since 2.0.1
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns a snapshot of the values in the map.
+	 *
+	 * @return the list of values
+	 *
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> values() {
+		final ArrayList<V> list = new ArrayList<V>(this.size);
+
+		for (final Object value : this.values) {
+			if (value != null) {
+				list.add((V) value);
+			}
+		}
+
+		return list;
+	}
+
+	private static int hash(long key) {
+		// murmur3 finalizer, spreads sequential ids over the table
+		long h = key;
+
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+
+		return (int) h;
+	}
+}
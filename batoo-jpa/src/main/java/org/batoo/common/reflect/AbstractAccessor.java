@@ -20,6 +20,10 @@ package org.batoo.common.reflect;
 
 /**
  * Abstract definition of accessors.
+ * <p>
+ * Besides the generic {@link #get(Object)} and {@link #set(Object, Object)}, accessors provide typed methods for the primitive members.
+ * The default implementations box through the generic methods, implementations override them to access the primitive members without
+ * allocation.
  * 
  * @author hceylan
  * @since 2.0.1
@@ -37,6 +41,110 @@ public abstract class AbstractAccessor {
 	 */
 	public abstract Object get(Object instance);
 
+	/**
+	 * Returns the value of the <code>boolean</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean getBoolean(Object instance) {
+		return AbstractAccessor.toBoolean(this.get(instance));
+	}
+
+	/**
+	 * Returns the value of the <code>byte</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public byte getByte(Object instance) {
+		return ((Number) this.get(instance)).byteValue();
+	}
+
+	/**
+	 * Returns the value of the <code>char</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public char getChar(Object instance) {
+		return AbstractAccessor.toChar(this.get(instance));
+	}
+
+	/**
+	 * Returns the value of the <code>double</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public double getDouble(Object instance) {
+		return ((Number) this.get(instance)).doubleValue();
+	}
+
+	/**
+	 * Returns the value of the <code>float</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public float getFloat(Object instance) {
+		return ((Number) this.get(instance)).floatValue();
+	}
+
+	/**
+	 * Returns the value of the <code>int</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getInt(Object instance) {
+		return ((Number) this.get(instance)).intValue();
+	}
+
+	/**
+	 * Returns the value of the <code>long</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getLong(Object instance) {
+		return ((Number) this.get(instance)).longValue();
+	}
+
+	/**
+	 * Returns the value of the <code>short</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member value to return
+	 * @return the value of the member
+	 * 
+	 * @since 2.0.1
+	 */
+	public short getShort(Object instance) {
+		return ((Number) this.get(instance)).shortValue();
+	}
+
 	/**
 	 * Sets the value of the member.
 	 * 
@@ -48,4 +156,169 @@ public abstract class AbstractAccessor {
 	 * @since 2.0.1
 	 */
 	public abstract void set(Object instance, Object value);
+
+	/**
+	 * Sets the value of the <code>boolean</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setBoolean(Object instance, boolean value) {
+		this.set(instance, Boolean.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>byte</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setByte(Object instance, byte value) {
+		this.set(instance, Byte.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>char</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setChar(Object instance, char value) {
+		this.set(instance, Character.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>double</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setDouble(Object instance, double value) {
+		this.set(instance, Double.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>float</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setFloat(Object instance, float value) {
+		this.set(instance, Float.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>int</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setInt(Object instance, int value) {
+		this.set(instance, Integer.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>long</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setLong(Object instance, long value) {
+		this.set(instance, Long.valueOf(value));
+	}
+
+	/**
+	 * Sets the value of the <code>short</code> member.
+	 * 
+	 * @param instance
+	 *            the instance of which the member will be set
+	 * @param value
+	 *            the value to set
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setShort(Object instance, short value) {
+		this.set(instance, Short.valueOf(value));
+	}
+
+	/**
+	 * Marks the access to the instance as internal so that enhanced instances do not track it.
+	 * 
+	 * @param instance
+	 *            the instance
+	 * @param internal
+	 *            true if the calls to the instance are internal
+	 * 
+	 * @since 2.0.1
+	 */
+	protected static void setInternalCall(Object instance, boolean internal) {
+		if (instance instanceof InternalInstance) {
+			((InternalInstance) instance).__enhanced__$$__setInternalCall(internal);
+		}
+	}
+
+	/**
+	 * Converts the value to <code>boolean</code>, numbers are treated as <code>true</code> if non-zero.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the boolean value
+	 * 
+	 * @since 2.0.1
+	 */
+	protected static boolean toBoolean(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).byteValue() != 0;
+		}
+
+		return (Boolean) value;
+	}
+
+	/**
+	 * Converts the value to <code>char</code>, <code>null</code> and empty strings are treated as the null character, for the other
+	 * strings the first character is used.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the char value
+	 * 
+	 * @since 2.0.1
+	 */
+	protected static char toChar(Object value) {
+		if (value instanceof CharSequence) {
+			final CharSequence chars = (CharSequence) value;
+
+			return chars.length() > 0 ? chars.charAt(0) : '\u0000';
+		}
+
+		return value != null ? (Character) value : '\u0000';
+	}
 }
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.common.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates {@link AbstractAccessor} implementations that access the member directly through bytecode.
+ * <p>
+ * The generated accessor for a member of primitive type <code>T</code> implements the typed <code>getT</code> / <code>setT</code>
+ * methods without boxing. The generic methods box and unbox around the typed ones.
+ * <p>
+ * The accessor is defined in the class loader and the package of the class declaring the member so that the package private and
+ * protected members are accessible. Private members, members of private classes and final fields cannot be accessed from the generated
+ * code, for those no accessor is generated.
+ *
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class AccessorGenerator {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(AccessorGenerator.class);
+
+	private static final String SUFFIX_FIELD_ACCESSOR = "$FieldAccessor$";
+	private static final String SUFFIX_PROPERTY_ACCESSOR = "$PropertyAccessor$";
+
+	private static final String CONSTRUCTOR_INIT = "<init>";
+	private static final String METHOD_GET = "get";
+	private static final String METHOD_SET = "set";
+	private static final String METHOD_SET_INTERNAL_CALL = "setInternalCall";
+	private static final String METHOD_TO_BOOLEAN = "toBoolean";
+	private static final String METHOD_TO_CHAR = "toChar";
+	private static final String METHOD_CONVERT_NUMBER = "convertNumber";
+	private static final String METHOD_VALUE_OF = "valueOf";
+
+	private static final String INTERNAL_ABSTRACT_ACCESSOR = Type.getInternalName(AbstractAccessor.class);
+	private static final String INTERNAL_REFLECT_HELPER = Type.getInternalName(ReflectHelper.class);
+	private static final String INTERNAL_NUMBER = Type.getInternalName(Number.class);
+
+	private static final String DESCRIPTOR_GET = Type.getMethodDescriptor(Type.getType(Object.class), new Type[] { Type.getType(Object.class) });
+	private static final String DESCRIPTOR_SET = Type.getMethodDescriptor(Type.VOID_TYPE,
+		new Type[] { Type.getType(Object.class), Type.getType(Object.class) });
+	private static final String DESCRIPTOR_SET_INTERNAL_CALL = Type.getMethodDescriptor(Type.VOID_TYPE,
+		new Type[] { Type.getType(Object.class), Type.BOOLEAN_TYPE });
+	private static final String DESCRIPTOR_CONVERT_NUMBER = Type.getMethodDescriptor(Type.getType(Number.class),
+		new Type[] { Type.getType(Number.class), Type.getType(Class.class) });
+
+	private static final Object[] LOCKS = new Object[64];
+
+	static {
+		for (int i = 0; i < AccessorGenerator.LOCKS.length; i++) {
+			AccessorGenerator.LOCKS[i] = new Object();
+		}
+	}
+
+	/**
+	 * Returns the generated accessor for the field.
+	 *
+	 * @param field
+	 *            the field
+	 * @return the accessor or <code>null</code> if an accessor cannot be generated for the field
+	 *
+	 * @since 2.0.1
+	 */
+	public static AbstractAccessor generate(Field field) {
+		if (Modifier.isFinal(field.getModifiers()) || !AccessorGenerator.isAccessible(field)) {
+			return null;
+		}
+
+		return AccessorGenerator.generate(field.getDeclaringClass(), field.getName(), field.getType(), field, null, null);
+	}
+
+	/**
+	 * Returns the generated accessor for the property.
+	 *
+	 * @param descriptor
+	 *            the property descriptor
+	 * @return the accessor or <code>null</code> if an accessor cannot be generated for the property
+	 *
+	 * @since 2.0.1
+	 */
+	public static AbstractAccessor generate(PropertyDescriptor descriptor) {
+		final Method reader = descriptor.getReader();
+		final Method writer = descriptor.getWriter();
+
+		if ((writer == null) || !AccessorGenerator.isAccessible(reader) || !AccessorGenerator.isAccessible(writer)) {
+			return null;
+		}
+
+		final Class<?> declaringClass = reader.getDeclaringClass();
+
+		// the writer must be reachable from the package of the reader
+		if ((writer.getDeclaringClass() != declaringClass) && !Modifier.isPublic(writer.getDeclaringClass().getModifiers())
+			&& (writer.getDeclaringClass().getPackage() != declaringClass.getPackage())) {
+			return null;
+		}
+
+		return AccessorGenerator.generate(declaringClass, descriptor.getName(), reader.getReturnType(), null, reader, writer);
+	}
+
+	private static AbstractAccessor generate(Class<?> declaringClass, String name, Class<?> type, Field field, Method reader, Method writer) {
+		final ClassLoader classLoader = declaringClass.getClassLoader();
+		if (classLoader == null) {
+			return null;
+		}
+
+		// the field and the property of the same name are accessed differently
+		final String suffix = field != null ? AccessorGenerator.SUFFIX_FIELD_ACCESSOR : AccessorGenerator.SUFFIX_PROPERTY_ACCESSOR;
+		final String className = declaringClass.getName() + suffix + name;
+
+		try {
+			final Class<?> accessorClass = AccessorGenerator.loadClass(classLoader, className, declaringClass, type, field, reader, writer);
+
+			return (AbstractAccessor) accessorClass.getConstructor().newInstance();
+		}
+		catch (final Throwable e) {
+			AccessorGenerator.LOG.debug(e, "Cannot generate accessor for {0}.{1}", declaringClass.getName(), name);
+
+			return null;
+		}
+	}
+
+	private static void generateGet(ClassWriter cw, String className, Class<?> declaringClass, Class<?> type, Field field, Method reader) {
+		final Type memberType = Type.getType(type);
+
+		if (type.isPrimitive()) {
+			// public T getT(Object instance) { return ((Declaring) instance).member; }
+			final String typedName = AccessorGenerator.METHOD_GET + AccessorGenerator.getTypedSuffix(type);
+			final String typedDescriptor = Type.getMethodDescriptor(memberType, new Type[] { Type.getType(Object.class) });
+
+			MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, typedName, typedDescriptor, null, null);
+			mv.visitCode();
+			AccessorGenerator.generateRead(mv, declaringClass, type, field, reader);
+			mv.visitInsn(memberType.getOpcode(Opcodes.IRETURN));
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+
+			// public Object get(Object instance) { return Box.valueOf(this.getT(instance)); }
+			final Class<?> boxType = AccessorGenerator.getBoxType(type);
+
+			mv = cw.visitMethod(Opcodes.ACC_PUBLIC, AccessorGenerator.METHOD_GET, AccessorGenerator.DESCRIPTOR_GET, null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, className, typedName, typedDescriptor);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(boxType), AccessorGenerator.METHOD_VALUE_OF,
+				Type.getMethodDescriptor(Type.getType(boxType), new Type[] { memberType }));
+			mv.visitInsn(Opcodes.ARETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+		else {
+			// public Object get(Object instance) { return ((Declaring) instance).member; }
+			final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, AccessorGenerator.METHOD_GET, AccessorGenerator.DESCRIPTOR_GET, null, null);
+			mv.visitCode();
+			AccessorGenerator.generateRead(mv, declaringClass, type, field, reader);
+			mv.visitInsn(Opcodes.ARETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+	}
+
+	private static void generateInternalCall(MethodVisitor mv, boolean internal) {
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitInsn(internal ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, AccessorGenerator.INTERNAL_ABSTRACT_ACCESSOR, AccessorGenerator.METHOD_SET_INTERNAL_CALL,
+			AccessorGenerator.DESCRIPTOR_SET_INTERNAL_CALL);
+	}
+
+	/**
+	 * Leaves the value of the member on the stack. The instance is in the local 1, the locals from <code>2</code> are free to use.
+	 */
+	private static void generateRead(MethodVisitor mv, Class<?> declaringClass, Class<?> type, Field field, Method reader) {
+		final String owner = Type.getInternalName(declaringClass);
+
+		if (field != null) {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			mv.visitFieldInsn(Opcodes.GETFIELD, owner, field.getName(), Type.getDescriptor(type));
+
+			return;
+		}
+
+		// the property is read as internal call so that the enhanced instances do not track the access
+		final Type memberType = Type.getType(type);
+		final Label lStart = new Label();
+		final Label lEnd = new Label();
+		final Label lHandler = new Label();
+
+		mv.visitTryCatchBlock(lStart, lEnd, lHandler, null);
+
+		AccessorGenerator.generateInternalCall(mv, true);
+
+		mv.visitLabel(lStart);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, reader.getName(), Type.getMethodDescriptor(reader));
+		mv.visitVarInsn(memberType.getOpcode(Opcodes.ISTORE), 2);
+		mv.visitLabel(lEnd);
+
+		AccessorGenerator.generateInternalCall(mv, false);
+		mv.visitVarInsn(memberType.getOpcode(Opcodes.ILOAD), 2);
+
+		final Label lOut = new Label();
+		mv.visitJumpInsn(Opcodes.GOTO, lOut);
+
+		mv.visitLabel(lHandler);
+		mv.visitVarInsn(Opcodes.ASTORE, 2);
+		AccessorGenerator.generateInternalCall(mv, false);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitInsn(Opcodes.ATHROW);
+
+		mv.visitLabel(lOut);
+	}
+
+	private static void generateSet(ClassWriter cw, String className, Class<?> declaringClass, Class<?> type, Field field, Method writer) {
+		final Type memberType = Type.getType(type);
+
+		if (type.isPrimitive()) {
+			// public void setT(Object instance, T value) { ((Declaring) instance).member = value; }
+			final String typedName = AccessorGenerator.METHOD_SET + AccessorGenerator.getTypedSuffix(type);
+			final String typedDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] { Type.getType(Object.class), memberType });
+
+			MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, typedName, typedDescriptor, null, null);
+			mv.visitCode();
+			AccessorGenerator.generateWrite(mv, declaringClass, type, field, writer);
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+
+			// public void set(Object instance, Object value) { this.setT(instance, convert(value)); }
+			mv = cw.visitMethod(Opcodes.ACC_PUBLIC, AccessorGenerator.METHOD_SET, AccessorGenerator.DESCRIPTOR_SET, null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+
+			if (type == Boolean.TYPE) {
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, AccessorGenerator.INTERNAL_ABSTRACT_ACCESSOR, AccessorGenerator.METHOD_TO_BOOLEAN,
+					Type.getMethodDescriptor(Type.BOOLEAN_TYPE, new Type[] { Type.getType(Object.class) }));
+			}
+			else if (type == Character.TYPE) {
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, AccessorGenerator.INTERNAL_ABSTRACT_ACCESSOR, AccessorGenerator.METHOD_TO_CHAR,
+					Type.getMethodDescriptor(Type.CHAR_TYPE, new Type[] { Type.getType(Object.class) }));
+			}
+			else {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, AccessorGenerator.INTERNAL_NUMBER);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, AccessorGenerator.INTERNAL_NUMBER, type.getName() + "Value",
+					Type.getMethodDescriptor(memberType, new Type[] {}));
+			}
+
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, className, typedName, typedDescriptor);
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+		else {
+			// public void set(Object instance, Object value) { ((Declaring) instance).member = (T) value; }
+			final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, AccessorGenerator.METHOD_SET, AccessorGenerator.DESCRIPTOR_SET, null, null);
+			mv.visitCode();
+
+			// numbers are converted to the type of the member
+			if (Number.class.isAssignableFrom(type)) {
+				mv.visitVarInsn(Opcodes.ALOAD, 2);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, AccessorGenerator.INTERNAL_NUMBER);
+				mv.visitLdcInsn(memberType);
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, AccessorGenerator.INTERNAL_REFLECT_HELPER, AccessorGenerator.METHOD_CONVERT_NUMBER,
+					AccessorGenerator.DESCRIPTOR_CONVERT_NUMBER);
+				mv.visitVarInsn(Opcodes.ASTORE, 2);
+			}
+
+			AccessorGenerator.generateWrite(mv, declaringClass, type, field, writer);
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+	}
+
+	/**
+	 * Writes the value in local 2 to the member of the instance in local 1. The locals after the value are free to use.
+	 */
+	private static void generateWrite(MethodVisitor mv, Class<?> declaringClass, Class<?> type, Field field, Method writer) {
+		final String owner = Type.getInternalName(declaringClass);
+		final Type memberType = Type.getType(type);
+
+		if (field != null) {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			mv.visitVarInsn(memberType.getOpcode(Opcodes.ILOAD), 2);
+			if (!type.isPrimitive()) {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, memberType.getInternalName());
+			}
+			mv.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), memberType.getDescriptor());
+
+			return;
+		}
+
+		// the property is written as internal call so that the enhanced instances do not track the access
+		final String writerOwner = Type.getInternalName(writer.getDeclaringClass());
+		final int exceptionLocal = 2 + memberType.getSize();
+		final Label lStart = new Label();
+		final Label lEnd = new Label();
+		final Label lHandler = new Label();
+
+		mv.visitTryCatchBlock(lStart, lEnd, lHandler, null);
+
+		AccessorGenerator.generateInternalCall(mv, true);
+
+		mv.visitLabel(lStart);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, writerOwner);
+		mv.visitVarInsn(memberType.getOpcode(Opcodes.ILOAD), 2);
+		if (!type.isPrimitive()) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, memberType.getInternalName());
+		}
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, writerOwner, writer.getName(), Type.getMethodDescriptor(writer));
+
+		// discard the return value of the fluent setters
+		final int returnSize = Type.getReturnType(writer).getSize();
+		if (returnSize == 1) {
+			mv.visitInsn(Opcodes.POP);
+		}
+		else if (returnSize == 2) {
+			mv.visitInsn(Opcodes.POP2);
+		}
+		mv.visitLabel(lEnd);
+
+		AccessorGenerator.generateInternalCall(mv, false);
+
+		final Label lOut = new Label();
+		mv.visitJumpInsn(Opcodes.GOTO, lOut);
+
+		mv.visitLabel(lHandler);
+		mv.visitVarInsn(Opcodes.ASTORE, exceptionLocal);
+		AccessorGenerator.generateInternalCall(mv, false);
+		mv.visitVarInsn(Opcodes.ALOAD, exceptionLocal);
+		mv.visitInsn(Opcodes.ATHROW);
+
+		mv.visitLabel(lOut);
+	}
+
+	private static Class<?> getBoxType(Class<?> type) {
+		if (type == Boolean.TYPE) {
+			return Boolean.class;
+		}
+
+		if (type == Byte.TYPE) {
+			return Byte.class;
+		}
+
+		if (type == Character.TYPE) {
+			return Character.class;
+		}
+
+		if (type == Double.TYPE) {
+			return Double.class;
+		}
+
+		if (type == Float.TYPE) {
+			return Float.class;
+		}
+
+		if (type == Integer.TYPE) {
+			return Integer.class;
+		}
+
+		if (type == Long.TYPE) {
+			return Long.class;
+		}
+
+		return Short.class;
+	}
+
+	/**
+	 * Returns the suffix of the typed accessor methods of {@link AbstractAccessor}, such as <code>Long</code> for
+	 * {@link AbstractAccessor#getLong(Object)}.
+	 */
+	private static String getTypedSuffix(Class<?> type) {
+		if (type == Integer.TYPE) {
+			return "Int";
+		}
+
+		return Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+	}
+
+	private static Object getLock(ClassLoader classLoader, String className) {
+		final int hash = (31 * System.identityHashCode(classLoader)) + className.hashCode();
+
+		return AccessorGenerator.LOCKS[(hash & Integer.MAX_VALUE) % AccessorGenerator.LOCKS.length];
+	}
+
+	private static boolean isAccessible(Member member) {
+		if (Modifier.isPrivate(member.getModifiers()) || Modifier.isStatic(member.getModifiers())) {
+			return false;
+		}
+
+		// the generated class must be able to see the declaring class and all its enclosing classes
+		Class<?> clazz = member.getDeclaringClass();
+		while (clazz != null) {
+			if (Modifier.isPrivate(clazz.getModifiers()) || clazz.isInterface()) {
+				return false;
+			}
+
+			clazz = clazz.getDeclaringClass();
+		}
+
+		return true;
+	}
+
+	private static Class<?> loadClass(ClassLoader classLoader, String className, Class<?> declaringClass, Class<?> type, Field field,
+		Method reader, Method writer) throws Exception {
+		// different accessors are generated concurrently, the same accessor only once per class loader
+		synchronized (AccessorGenerator.getLock(classLoader, className)) {
+			// may have been generated by another persistence unit sharing the class loader
+			try {
+				return classLoader.loadClass(className);
+			}
+			catch (final ClassNotFoundException e) {}
+
+			return AccessorGenerator.loadClass0(classLoader, className, declaringClass, type, field, reader, writer);
+		}
+	}
+
+	private static Class<?> loadClass0(ClassLoader classLoader, String className, Class<?> declaringClass, Class<?> type, Field field,
+		Method reader, Method writer) throws Exception {
+		final String internalName = className.replace('.', '/');
+
+		final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC + Opcodes.ACC_FINAL + Opcodes.ACC_SUPER + Opcodes.ACC_SYNTHETIC, internalName, null,
+			AccessorGenerator.INTERNAL_ABSTRACT_ACCESSOR, null);
+
+		final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, AccessorGenerator.CONSTRUCTOR_INIT,
+			Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {}), null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, AccessorGenerator.INTERNAL_ABSTRACT_ACCESSOR, AccessorGenerator.CONSTRUCTOR_INIT,
+			Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {}));
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		AccessorGenerator.generateGet(cw, internalName, declaringClass, type, field, reader);
+		AccessorGenerator.generateSet(cw, internalName, declaringClass, type, field, writer);
+
+		cw.visitEnd();
+
+		final byte[] byteCode = cw.toByteArray();
+
+		final Method method = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class, Integer.TYPE, Integer.TYPE);
+
+		// protected method invocation
+		method.setAccessible(true);
+		try {
+			return (Class<?>) method.invoke(classLoader, new Object[] { className, byteCode, Integer.valueOf(0), Integer.valueOf(byteCode.length) });
+		}
+		finally {
+			method.setAccessible(false);
+		}
+	}
+}
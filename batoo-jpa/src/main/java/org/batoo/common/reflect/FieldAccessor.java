@@ -106,6 +106,150 @@ public class FieldAccessor extends AbstractAccessor {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean getBoolean(Object instance) {
+		if (this.primitiveType == PrimitiveType.BOOLEAN) {
+			try {
+				return this.field.getBoolean(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getBoolean(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public byte getByte(Object instance) {
+		if (this.primitiveType == PrimitiveType.BYTE) {
+			try {
+				return this.field.getByte(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getByte(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public char getChar(Object instance) {
+		if (this.primitiveType == PrimitiveType.CHAR) {
+			try {
+				return this.field.getChar(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getChar(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public double getDouble(Object instance) {
+		if (this.primitiveType == PrimitiveType.DOUBLE) {
+			try {
+				return this.field.getDouble(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getDouble(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public float getFloat(Object instance) {
+		if (this.primitiveType == PrimitiveType.FLOAT) {
+			try {
+				return this.field.getFloat(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getFloat(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getInt(Object instance) {
+		if (this.primitiveType == PrimitiveType.INTEGER) {
+			try {
+				return this.field.getInt(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getInt(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getLong(Object instance) {
+		if (this.primitiveType == PrimitiveType.LONG) {
+			try {
+				return this.field.getLong(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getLong(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public short getShort(Object instance) {
+		if (this.primitiveType == PrimitiveType.SHORT) {
+			try {
+				return this.field.getShort(instance);
+			}
+			catch (final Exception e) {
+				throw new BatooException("Cannot get field value: " + this.field, e);
+			}
+		}
+
+		return super.getShort(instance);
+	}
+
 	/**
 	 * @return
 	 * 
@@ -147,12 +291,7 @@ public class FieldAccessor extends AbstractAccessor {
 			else {
 				switch (this.primitiveType) {
 					case BOOLEAN:
-						if (value instanceof Number) {
-							this.field.set(instance, ((Number) value).byteValue() == 0 ? false : true);
-						}
-						else {
-							this.field.set(instance, value);
-						}
+						this.field.setBoolean(instance, AbstractAccessor.toBoolean(value));
 						break;
 					case INTEGER:
 						this.field.set(instance, value);
@@ -173,12 +312,7 @@ public class FieldAccessor extends AbstractAccessor {
 						this.field.set(instance, ((Number) value).byteValue());
 						break;
 					default: // CHAR
-						if (value == null) {
-							this.field.set(instance, '\u0000');
-						}
-						else {
-							this.field.set(instance, value);
-						}
+						this.field.setChar(instance, AbstractAccessor.toChar(value));
 						break;
 				}
 			}
@@ -187,4 +321,156 @@ public class FieldAccessor extends AbstractAccessor {
 			throw new RuntimeException("Cannot set field value: " + this.field, e);
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setBoolean(Object instance, boolean value) {
+		if (this.primitiveType == PrimitiveType.BOOLEAN) {
+			try {
+				this.field.setBoolean(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setBoolean(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setByte(Object instance, byte value) {
+		if (this.primitiveType == PrimitiveType.BYTE) {
+			try {
+				this.field.setByte(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setByte(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setChar(Object instance, char value) {
+		if (this.primitiveType == PrimitiveType.CHAR) {
+			try {
+				this.field.setChar(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setChar(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setDouble(Object instance, double value) {
+		if (this.primitiveType == PrimitiveType.DOUBLE) {
+			try {
+				this.field.setDouble(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setDouble(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setFloat(Object instance, float value) {
+		if (this.primitiveType == PrimitiveType.FLOAT) {
+			try {
+				this.field.setFloat(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setFloat(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setInt(Object instance, int value) {
+		if (this.primitiveType == PrimitiveType.INTEGER) {
+			try {
+				this.field.setInt(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setInt(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setLong(Object instance, long value) {
+		if (this.primitiveType == PrimitiveType.LONG) {
+			try {
+				this.field.setLong(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setLong(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setShort(Object instance, short value) {
+		if (this.primitiveType == PrimitiveType.SHORT) {
+			try {
+				this.field.setShort(instance, value);
+			}
+			catch (final Exception e) {
+				throw new RuntimeException("Cannot set field value: " + this.field, e);
+			}
+		}
+		else {
+			super.setShort(instance, value);
+		}
+	}
 }
@@ -66,7 +66,7 @@ public class PropertyAccessor extends AbstractAccessor {
 					return this.reader.invoke(instance);
 				}
 				finally {
-					enhancedInstance.__enhanced__$$__setInternalCall(true);
+					enhancedInstance.__enhanced__$$__setInternalCall(false);
 				}
 			}
 			else {
@@ -93,7 +93,7 @@ public class PropertyAccessor extends AbstractAccessor {
 					this.writer.invoke(instance, value);
 				}
 				finally {
-					enhancedInstance.__enhanced__$$__setInternalCall(true);
+					enhancedInstance.__enhanced__$$__setInternalCall(false);
 				}
 			}
 			else {
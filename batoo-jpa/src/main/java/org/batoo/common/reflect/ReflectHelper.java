@@ -189,6 +189,8 @@ public class ReflectHelper {
 
 	/**
 	 * Returns the accessor for the member
+	 * <p>
+	 * Generated accessors are preferred where the member can be accessed by the generated code, see {@link AccessorGenerator}.
 	 * 
 	 * @param javaMember
 	 *            the java member
@@ -198,7 +200,17 @@ public class ReflectHelper {
 	 */
 	public static AbstractAccessor getAccessor(Member javaMember) {
 		if (javaMember instanceof Field) {
-			return ReflectHelper.unsafe != null ? new UnsafeFieldAccessor((Field) javaMember) : new FieldAccessor((Field) javaMember);
+			final Field field = (Field) javaMember;
+
+			// Unsafe does not type check the references, prefer it for reference fields
+			if (field.getType().isPrimitive() || (ReflectHelper.unsafe == null)) {
+				final AbstractAccessor accessor = AccessorGenerator.generate(field);
+				if (accessor != null) {
+					return accessor;
+				}
+			}
+
+			return ReflectHelper.unsafe != null ? new UnsafeFieldAccessor(field) : new FieldAccessor(field);
 		}
 		else {
 			String name = javaMember.getName().startsWith(ReflectHelper.IS_PREFIX) ? javaMember.getName().substring(2) : javaMember.getName().substring(3);
@@ -209,7 +221,9 @@ public class ReflectHelper {
 			final PropertyDescriptor[] properties = ReflectHelper.getProperties(declaringClass);
 			for (final PropertyDescriptor descriptor : properties) {
 				if (descriptor.getName().equals(name)) {
-					return new PropertyAccessor(descriptor);
+					final AbstractAccessor accessor = AccessorGenerator.generate(descriptor);
+
+					return accessor != null ? accessor : new PropertyAccessor(descriptor);
 				}
 			}
 
@@ -125,6 +125,118 @@ public class UnsafeFieldAccessor extends AbstractAccessor {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public boolean getBoolean(Object instance) {
+		if (this.primitiveType == PrimitiveType.BOOLEAN) {
+			return ReflectHelper.unsafe.getBoolean(instance, this.fieldOffset);
+		}
+
+		return super.getBoolean(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public byte getByte(Object instance) {
+		if (this.primitiveType == PrimitiveType.BYTE) {
+			return ReflectHelper.unsafe.getByte(instance, this.fieldOffset);
+		}
+
+		return super.getByte(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public char getChar(Object instance) {
+		if (this.primitiveType == PrimitiveType.CHAR) {
+			return ReflectHelper.unsafe.getChar(instance, this.fieldOffset);
+		}
+
+		return super.getChar(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public double getDouble(Object instance) {
+		if (this.primitiveType == PrimitiveType.DOUBLE) {
+			return ReflectHelper.unsafe.getDouble(instance, this.fieldOffset);
+		}
+
+		return super.getDouble(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public float getFloat(Object instance) {
+		if (this.primitiveType == PrimitiveType.FLOAT) {
+			return ReflectHelper.unsafe.getFloat(instance, this.fieldOffset);
+		}
+
+		return super.getFloat(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public int getInt(Object instance) {
+		if (this.primitiveType == PrimitiveType.INTEGER) {
+			return ReflectHelper.unsafe.getInt(instance, this.fieldOffset);
+		}
+
+		return super.getInt(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public long getLong(Object instance) {
+		if (this.primitiveType == PrimitiveType.LONG) {
+			return ReflectHelper.unsafe.getLong(instance, this.fieldOffset);
+		}
+
+		return super.getLong(instance);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public short getShort(Object instance) {
+		if (this.primitiveType == PrimitiveType.SHORT) {
+			return ReflectHelper.unsafe.getShort(instance, this.fieldOffset);
+		}
+
+		return super.getShort(instance);
+	}
+
 	/**
 	 * @return
 	 * 
@@ -167,12 +279,7 @@ public class UnsafeFieldAccessor extends AbstractAccessor {
 		else {
 			switch (this.primitiveType) {
 				case BOOLEAN:
-					if (value instanceof Number) {
-						ReflectHelper.unsafe.putBoolean(instance, this.fieldOffset, ((Number) value).byteValue() == 0 ? false : true);
-					}
-					else {
-						ReflectHelper.unsafe.putBoolean(instance, this.fieldOffset, (Boolean) value);
-					}
+					ReflectHelper.unsafe.putBoolean(instance, this.fieldOffset, AbstractAccessor.toBoolean(value));
 					break;
 				case INTEGER:
 					ReflectHelper.unsafe.putInt(instance, this.fieldOffset, ((Number) value).intValue());
@@ -193,15 +300,162 @@ public class UnsafeFieldAccessor extends AbstractAccessor {
 					ReflectHelper.unsafe.putByte(instance, this.fieldOffset, ((Number) value).byteValue());
 					break;
 				default: // CHAR
-					if (value == null) {
-						ReflectHelper.unsafe.putChar(instance, this.fieldOffset, '\u0000');
-					}
-					else {
-						ReflectHelper.unsafe.putChar(instance, this.fieldOffset, (Character) value);
-					}
+					ReflectHelper.unsafe.putChar(instance, this.fieldOffset, AbstractAccessor.toChar(value));
 					break;
 			}
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setBoolean(Object instance, boolean value) {
+		if (this.primitiveType == PrimitiveType.BOOLEAN) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putBoolean(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setBoolean(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setByte(Object instance, byte value) {
+		if (this.primitiveType == PrimitiveType.BYTE) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putByte(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setByte(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setChar(Object instance, char value) {
+		if (this.primitiveType == PrimitiveType.CHAR) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putChar(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setChar(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setDouble(Object instance, double value) {
+		if (this.primitiveType == PrimitiveType.DOUBLE) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putDouble(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setDouble(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setFloat(Object instance, float value) {
+		if (this.primitiveType == PrimitiveType.FLOAT) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putFloat(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setFloat(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setInt(Object instance, int value) {
+		if (this.primitiveType == PrimitiveType.INTEGER) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putInt(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setInt(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setLong(Object instance, long value) {
+		if (this.primitiveType == PrimitiveType.LONG) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putLong(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setLong(instance, value);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("restriction")
+	public void setShort(Object instance, short value) {
+		if (this.primitiveType == PrimitiveType.SHORT) {
+			if (instance == null) {
+				throw new NullPointerException();
+			}
+
+			ReflectHelper.unsafe.putShort(instance, this.fieldOffset, value);
+		}
+		else {
+			super.setShort(instance, value);
+		}
+	}
+
 }
@@ -54,6 +54,82 @@ public interface BJPASettings {
 	 */
 	Long DEFAULT_SLOW_SQL_THRESHOLD = 2500l;
 
+	/**
+	 * Integer value, the max number of entities loaded from the database a session holds before it starts to evict the least recently
+	 * used unmodified ones. 0 means the session is unbounded.
+	 * <p>
+	 * The capacity only applies to the entities loaded from the database. The entities persisted or merged by the application are not
+	 * counted and never evicted, so the capacity does not bound a session that mostly writes. Evicted entities remain managed as long
+	 * as the application references them.
+	 * <p>
+	 * Can also be given as an entity manager property to override the persistence unit setting.
+	 */
+	String SESSION_CAPACITY = "org.batoo.jpa.session_capacity";
+
+	/**
+	 * Default value for {@link #SESSION_CAPACITY} that is 0, unbounded.
+	 */
+	Integer DEFAULT_SESSION_CAPACITY = 0;
+
+	/**
+	 * String value, the directory to cache the index of the persistent classes located in the persistence unit root and the jar files.
+	 * <p>
+	 * When set, each root is scanned only once for its contents; the index built into the root by the enhancer plugin is used whether
+	 * this is set or not.
+	 */
+	String DEPLOYMENT_INDEX = "org.batoo.jpa.deployment_index";
+
+	/**
+	 * Boolean value, indicating that the SQL for the entities, i.e. the insert, update, remove and select statements, should be
+	 * generated at the startup, concurrently with the DDL operations, rather than on the first use.
+	 */
+	String PRECOMPILE = "org.batoo.jpa.precompile";
+
+	/**
+	 * Default value for {@link #PRECOMPILE} that is true.
+	 */
+	Boolean DEFAULT_PRECOMPILE = true;
+
+	/**
+	 * Boolean value, indicating that the statistics should be collected. The collection can also be switched at runtime through
+	 * {@link org.batoo.jpa.core.stats.Statistics#setEnabled(boolean)}.
+	 */
+	String STATISTICS = "org.batoo.jpa.statistics";
+
+	/**
+	 * Default value for {@link #STATISTICS} that is false.
+	 */
+	Boolean DEFAULT_STATISTICS = false;
+
+	/**
+	 * Integer value, the number of times an association may be lazy loaded within an entity manager before it is reported as N+1
+	 * selects. 0 means the detection is disabled.
+	 * <p>
+	 * Can also be given as an entity manager property to override the persistence unit setting.
+	 */
+	String N_PLUS_ONE_THRESHOLD = "org.batoo.jpa.n_plus_one_threshold";
+
+	/**
+	 * Default value for {@link #N_PLUS_ONE_THRESHOLD} that is 0, disabled.
+	 */
+	Integer DEFAULT_N_PLUS_ONE_THRESHOLD = 0;
+
+	/**
+	 * Boolean value, indicating that the MBeans of the persistence unit should be registered to the platform MBean server.
+	 */
+	String JMX = "org.batoo.jpa.jmx";
+
+	/**
+	 * Default value for {@link #JMX} that is false.
+	 */
+	Boolean DEFAULT_JMX = false;
+
+	/**
+	 * String value, the file to capture the workload of the entity managers into, to be replayed by the
+	 * {@link org.batoo.jpa.core.workload.WorkloadReplayer}. If not set the workload is not captured.
+	 */
+	String WORKLOAD_CAPTURE = "org.batoo.jpa.workload_capture";
+
 	/**
 	 * The default for {@link #MAX_CONNECTIONS} that is 50.
 	 */
@@ -79,6 +155,16 @@ public interface BJPASettings {
 	 */
 	Integer DEFAULT_REMOVE_BATCH_SIZE = 10;
 
+	/**
+	 * The default for {@link #IMPORT_SQL_BATCH_SIZE}
+	 */
+	Integer DEFAULT_IMPORT_SQL_BATCH_SIZE = 100;
+
+	/**
+	 * The default for {@link #IMPORT_SQL_COMMIT_SIZE}
+	 */
+	Integer DEFAULT_IMPORT_SQL_COMMIT_SIZE = 1000;
+
 	/**
 	 * The default for {@link #STATEMENT_CACHE_SIZE} that is 50.
 	 */
@@ -129,6 +215,16 @@ public interface BJPASettings {
 	 */
 	String IMPORT_SQL = "org.batoo.jdbc.import_sql";
 
+	/**
+	 * The size of the batches the consecutive insert statements of the import sql are executed in.
+	 */
+	String IMPORT_SQL_BATCH_SIZE = "org.batoo.jdbc.import_sql_batch_size";
+
+	/**
+	 * The number of import sql statements to commit at once.
+	 */
+	String IMPORT_SQL_COMMIT_SIZE = "org.batoo.jdbc.import_sql_commit_size";
+
 	/**
 	 * Pluggable DataSource implementation
 	 */
@@ -57,6 +57,10 @@ import org.batoo.jpa.core.impl.instance.ManagedInstance;
 import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
 import org.batoo.jpa.core.impl.manager.SessionImpl;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
+import org.batoo.jpa.core.workload.WorkloadOperation;
+import org.batoo.jpa.core.workload.WorkloadRecorder;
 import org.batoo.jpa.jdbc.PreparedStatementProxy;
 import org.batoo.jpa.jdbc.ValueConverter;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor.PaginationParamsOrder;
@@ -320,9 +324,18 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 
 			this.fillStatement(statement, parameters, repeat);
 
+			final EventRecorder recorder = this.em.getEntityManagerFactory().getStatistics().getEventRecorder();
+			final long start = recorder != null ? System.nanoTime() : 0;
+
 			resultSet = statement.executeQuery();
 
+			final long executed = recorder != null ? System.nanoTime() : 0;
+
 			this.handle(resultSet);
+
+			if (recorder != null) {
+				recorder.queryExecuted(_sql, this.results.size(), executed - start, System.nanoTime() - executed);
+			}
 		}
 		finally {
 			try {
@@ -405,6 +418,21 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 	 */
 	@Override
 	public int executeUpdate() {
+		final WorkloadRecorder recorder = this.q.isInternal() ? null : this.em.getWorkloadRecorder();
+		if (recorder == null) {
+			return this.executeUpdateImpl();
+		}
+
+		final long start = System.nanoTime();
+		try {
+			return this.executeUpdateImpl();
+		}
+		finally {
+			this.workloadCaptured(recorder, WorkloadOperation.UPDATE, start);
+		}
+	}
+
+	private int executeUpdateImpl() {
 		// flush if specified
 		if (!this.q.isInternal() && this.em.hasActiveTransaction()
 			&& ((this.flushMode == FlushModeType.AUTO) || (this.em.getFlushMode() == FlushModeType.AUTO))) {
@@ -417,7 +445,24 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		try {
 			this.em.assertTransaction();
 
-			return new QueryRunner(this.em.getJdbcAdaptor(), false).update(connection, this.sql, parameters);
+			final Statistics statistics = this.em.getEntityManagerFactory().getStatistics();
+			final EventRecorder recorder = statistics.getEventRecorder();
+			final boolean collect = statistics.isEnabled() || (recorder != null);
+			final long start = collect ? System.nanoTime() : 0;
+
+			final int updated = new QueryRunner(this.em.getJdbcAdaptor(), false).update(connection, this.sql, parameters);
+
+			if (collect) {
+				final long time = System.nanoTime() - start;
+
+				statistics.queryExecuted(this.q.getJpql(), updated, time);
+
+				if (recorder != null) {
+					recorder.queryExecuted(this.sql, updated, time, 0);
+				}
+			}
+
+			return updated;
 		}
 		catch (final SQLException e) {
 			QueryImpl.LOG.error(e, "Query failed" + QueryImpl.LOG.lazyBoxed(this.sql, parameters));
@@ -732,6 +777,9 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 	 */
 	@Override
 	public List<X> getResultList() {
+		final WorkloadRecorder recorder = this.q.isInternal() ? null : this.em.getWorkloadRecorder();
+		final long start = recorder != null ? System.nanoTime() : 0;
+
 		// flush if specified
 		if (!this.q.isInternal() && this.em.hasActiveTransaction()
 			&& ((this.flushMode == FlushModeType.AUTO) || (this.em.getFlushMode() == FlushModeType.AUTO))) {
@@ -744,6 +792,10 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		}
 		finally {
 			ManagedInstance.LOCK_CONTEXT.set(null);
+
+			if (recorder != null) {
+				this.workloadCaptured(recorder, WorkloadOperation.QUERY, start);
+			}
 		}
 	}
 
@@ -761,7 +813,17 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 
 			final Object[] parameters = this.applyParameters(connection);
 
-			return this.buildResultSet(connection, parameters);
+			final Statistics statistics = this.em.getEntityManagerFactory().getStatistics();
+			final boolean collect = statistics.isEnabled();
+			final long start = collect ? System.nanoTime() : 0;
+
+			final List<X> resultList = this.buildResultSet(connection, parameters);
+
+			if (collect) {
+				statistics.queryExecuted(this.q.getJpql(), resultList.size(), System.nanoTime() - start);
+			}
+
+			return resultList;
 		}
 		finally {
 			this.em.getSession().releaseLoadTracker();
@@ -1048,4 +1110,15 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 	public <T> T unwrap(Class<T> cls) {
 		return (T) this;
 	}
+
+	private void workloadCaptured(WorkloadRecorder recorder, WorkloadOperation operation, long start) {
+		final long time = System.nanoTime() - start;
+
+		final Map<String, Object> parameters = Maps.newHashMap();
+		for (final Entry<ParameterExpressionImpl<?>, Object> entry : this.parameters.entrySet()) {
+			parameters.put(entry.getKey().getAlias(), entry.getValue());
+		}
+
+		recorder.query(this.em.getWorkloadSession(), operation, this.q.getJpql(), parameters, this.startPosition, this.maxResult, start, time);
+	}
 }
@@ -617,13 +617,13 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 	@SuppressWarnings("unchecked")
 	private <Y extends X> ManagedInstance<Y> getInstance(SessionImpl session, ResultSet row) throws SQLException {
 		// get the id of for the instance
-		final ManagedId<X> managedId = this.entity.getId(session, row, this.idFields);
-		if (managedId == null) {
+		final Object id = this.entity.getIdValue(session, row, this.idFields);
+		if (id == null) {
 			return null;
 		}
 
 		// look for it in the session
-		ManagedInstance<Y> instance = session.get(managedId);
+		ManagedInstance<Y> instance = session.get(this.entity, id);
 
 		// if found then return it
 		if (instance != null) {
@@ -645,6 +645,8 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 			return instance;
 		}
 
+		final ManagedId<X> managedId = new ManagedId<X>(id, this.entity);
+
 		// if no inheritance then initialize and return
 		if (this.entity.getInheritanceType() == null) {
 			instance = (ManagedInstance<Y>) this.entity.getManagedInstanceById(session, managedId, false);
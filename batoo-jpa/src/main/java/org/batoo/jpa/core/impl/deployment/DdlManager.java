@@ -71,8 +71,20 @@ public class DdlManager extends DeploymentManager<EntityTypeImpl<?>> {
 	 * @since 2.0.0
 	 */
 	public static void perform(DataSource datasource, MetamodelImpl metamodel, DDLMode ddlMode) throws BatooException {
-		new DdlManager(datasource, metamodel, ddlMode, DdlPhase.TABLES).perform();
-		new DdlManager(datasource, metamodel, ddlMode, DdlPhase.FOREIGN_KEYS).perform();
+		if (ddlMode == DDLMode.NONE) {
+			return;
+		}
+
+		// read the metadata of the existing tables in bulk for the workers to share
+		metamodel.readTablesMetadata(datasource);
+
+		try {
+			new DdlManager(datasource, metamodel, ddlMode, DdlPhase.TABLES).perform();
+			new DdlManager(datasource, metamodel, ddlMode, DdlPhase.FOREIGN_KEYS).perform();
+		}
+		finally {
+			metamodel.getJdbcAdaptor().releaseTablesMetadata();
+		}
 	}
 
 	private final DataSource datasource;
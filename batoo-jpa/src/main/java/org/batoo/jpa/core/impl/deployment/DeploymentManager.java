@@ -20,12 +20,11 @@
 package org.batoo.jpa.core.impl.deployment;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RunnableFuture;
@@ -43,7 +42,7 @@ import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Maps;
 
 /**
  * Abstract base class for Deployment Managers.
@@ -169,7 +168,6 @@ public abstract class DeploymentManager<X> {
 	private final List<ManagedType<?>> types = Lists.newArrayList();
 	private final Collection<NamedQueryMetadata> namedQueries = Lists.newArrayList();
 
-	private final Set<TypeImpl<?>> performed = Collections.synchronizedSet(Sets.<TypeImpl<?>> newHashSet());
 	private final ThreadPoolExecutor executer;
 	private final Context context;
 
@@ -252,94 +250,160 @@ public abstract class DeploymentManager<X> {
 	}
 
 	/**
-	 * Returns if the type has performed.
-	 * 
-	 * @param type
-	 *            the type
-	 * @return true if the type has performed
+	 * Performs the deployment unit for all the types.
 	 * 
 	 * @since 2.0.0
+	 * @throws BatooException
 	 */
-	public boolean hasPerformed(TypeImpl<?> type) {
-		if (type == null) {
-			return true;
-		}
+	protected final void perform() throws BatooException {
+		final long start = System.currentTimeMillis();
 
-		if (!this.types.contains(type)) {
-			return true;
+		final ExecutorCompletionService<Void> completionService = new ExecutorCompletionService<Void>(this.executer);
+
+		try {
+			if (this.context == Context.NAMED_QUERIES) {
+				for (final NamedQueryMetadata query : this.namedQueries) {
+					completionService.submit(new DeploymentUnitTask(this, query));
+				}
+
+				// wait until tasks finish or one bails out with an exception
+				for (int i = 0; i < this.namedQueries.size(); i++) {
+					completionService.take().get();
+				}
+			}
+			else {
+				this.performTypes(completionService);
+			}
+		}
+		catch (final Exception t) {
+			this.handleException(t);
+		}
+		finally {
+			this.executer.shutdownNow();
 		}
 
-		return this.performed.contains(type);
+		this.log.debug("Deployment pass took {0} msecs", System.currentTimeMillis() - start);
 	}
 
 	/**
-	 * Performs the deployment unit for all the types.
+	 * Performs the tasks for the types as a dependency graph.
+	 * <p>
+	 * A task is submitted only after the tasks for its super type and the types of its derived ids have completed, so no worker ever
+	 * waits for another. The calling thread drives the graph by taking the completed tasks and submitting the tasks that become ready.
 	 * 
-	 * @since 2.0.0
-	 * @throws BatooException
+	 * @param completionService
+	 *            the completion service to submit the tasks to
+	 * @throws Exception
+	 *             thrown in case a task fails
+	 * 
+	 * @since 2.0.1
 	 */
-	protected final void perform() throws BatooException {
-		final long start = System.currentTimeMillis();
+	private void performTypes(ExecutorCompletionService<Void> completionService) throws Exception {
+		final List<DeploymentUnitTask> sortedTasks = this.sortTasks();
 
-		// Submit the tasks
-		final List<Future<?>> futures = Lists.newArrayList();
+		final Map<Object, DeploymentUnitTask> tasks = Maps.newHashMap();
+		for (final DeploymentUnitTask task : sortedTasks) {
+			tasks.put(task.getUnit(), task);
+		}
 
-		if (this.context == Context.NAMED_QUERIES) {
-			for (final NamedQueryMetadata query : this.namedQueries) {
-				futures.add(this.executer.submit(new DeploymentUnitTask(this, query)));
+		// resolve the dependencies among the tasks of this pass
+		final Map<DeploymentUnitTask, Integer> pending = Maps.newHashMap();
+		final Map<DeploymentUnitTask, List<DeploymentUnitTask>> dependents = Maps.newHashMap();
+		for (final DeploymentUnitTask task : sortedTasks) {
+			int count = 0;
+			for (final TypeImpl<?> dependency : task.getDependencies()) {
+				final DeploymentUnitTask dependencyTask = tasks.get(dependency);
+				if ((dependencyTask != null) && (dependencyTask != task)) {
+					List<DeploymentUnitTask> list = dependents.get(dependencyTask);
+					if (list == null) {
+						list = Lists.newArrayList();
+						dependents.put(dependencyTask, list);
+					}
+
+					list.add(task);
+					count++;
+				}
 			}
+
+			pending.put(task, count);
 		}
-		else {
-			final List<DeploymentUnitTask> unSortedTasks = Lists.newArrayList(Lists.transform(this.types, new Function<ManagedType<?>, DeploymentUnitTask>() {
 
-				@Override
-				public DeploymentUnitTask apply(ManagedType<?> type) {
-					return new DeploymentUnitTask(DeploymentManager.this, type);
-				}
-			}));
+		int inFlight = 0;
+		for (final DeploymentUnitTask task : sortedTasks) {
+			if (pending.get(task) == 0) {
+				completionService.submit(task);
+				inFlight++;
+			}
+		}
 
-			final List<DeploymentUnitTask> sortedTasks = Lists.newArrayList();
+		int remaining = sortedTasks.size();
+		while (inFlight > 0) {
+			final DeploymentUnitFuture future = (DeploymentUnitFuture) completionService.take();
+			inFlight--;
+			remaining--;
 
-			while (unSortedTasks.size() > 0) {
-				for (final Iterator<DeploymentUnitTask> i = unSortedTasks.iterator(); i.hasNext();) {
-					final DeploymentUnitTask task = i.next();
+			// bail out with the exception of the task
+			future.get();
 
-					boolean hasDependency = false;
-					for (final DeploymentUnitTask other : unSortedTasks) {
-						if (task.compareTo(other) > 0) {
-							hasDependency = true;
-							break;
-						}
+			final List<DeploymentUnitTask> list = dependents.get(future.task);
+			if (list != null) {
+				for (final DeploymentUnitTask dependent : list) {
+					final int count = pending.get(dependent) - 1;
+					pending.put(dependent, count);
+
+					if (count == 0) {
+						completionService.submit(dependent);
+						inFlight++;
 					}
+				}
+			}
+		}
 
-					if (!hasDependency) {
-						i.remove();
-						sortedTasks.add(task);
+		if (remaining > 0) {
+			throw new BatooException("Circular dependency among the types detected during deployment");
+		}
+	}
 
+	/**
+	 * Returns the tasks for the types sorted by their precedence.
+	 * 
+	 * @return the sorted tasks
+	 * 
+	 * @since 2.0.1
+	 */
+	private List<DeploymentUnitTask> sortTasks() {
+		final List<DeploymentUnitTask> unSortedTasks = Lists.newArrayList(Lists.transform(this.types, new Function<ManagedType<?>, DeploymentUnitTask>() {
+
+			@Override
+			public DeploymentUnitTask apply(ManagedType<?> type) {
+				return new DeploymentUnitTask(DeploymentManager.this, type);
+			}
+		}));
+
+		final List<DeploymentUnitTask> sortedTasks = Lists.newArrayList();
+
+		while (unSortedTasks.size() > 0) {
+			for (final Iterator<DeploymentUnitTask> i = unSortedTasks.iterator(); i.hasNext();) {
+				final DeploymentUnitTask task = i.next();
+
+				boolean hasDependency = false;
+				for (final DeploymentUnitTask other : unSortedTasks) {
+					if (task.compareTo(other) > 0) {
+						hasDependency = true;
 						break;
 					}
 				}
-			}
 
-			for (final DeploymentUnitTask task : sortedTasks) {
-				futures.add(this.executer.submit(task));
-			}
-		}
+				if (!hasDependency) {
+					i.remove();
+					sortedTasks.add(task);
 
-		// wait until tasks finish or one bails out with an exception
-		try {
-			for (final Future<?> future : futures) {
-				future.get();
+					break;
+				}
 			}
 		}
-		catch (final Exception t) {
-			this.handleException(t);
-		}
-		finally {
-			this.executer.shutdownNow();
-		}
 
-		this.log.debug("Deployment pass took {0} msecs", System.currentTimeMillis() - start);
+		return sortedTasks;
 	}
 
 	/**
@@ -354,18 +418,4 @@ public abstract class DeploymentManager<X> {
 	 * @since 2.0.0
 	 */
 	public abstract Void perform(X type) throws BatooException;
-
-	/**
-	 * Marks the type as performed.
-	 * 
-	 * @param type
-	 *            the type to mark
-	 * 
-	 * @since 2.0.0
-	 */
-	public void performed(X type) {
-		if (!(type instanceof NamedQueryMetadata)) {
-			this.performed.add((TypeImpl<?>) type);
-		}
-	}
 }
@@ -19,6 +19,7 @@
 
 package org.batoo.jpa.core.impl.deployment;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import javax.persistence.metamodel.ManagedType;
@@ -28,13 +29,17 @@ import org.batoo.jpa.core.impl.model.EmbeddableTypeImpl;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.IdentifiableTypeImpl;
 import org.batoo.jpa.core.impl.model.MappedSuperclassTypeImpl;
+import org.batoo.jpa.core.impl.model.TypeImpl;
 import org.batoo.jpa.core.impl.model.attribute.AssociatedSingularAttribute;
 import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
 
+import com.google.common.collect.Lists;
+
 /**
  * Implementation for deployment unit tasks.
  * <p>
- * Implements common behavior like ordering and waiting for the super type to perform first.
+ * Implements common behavior like ordering and the dependencies to the super type and the types of the derived ids that must perform
+ * first.
  * 
  * @author hceylan
  * @since 2.0.0
@@ -68,15 +73,7 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 	@Override
 	@SuppressWarnings({ "unchecked" })
 	public final Void call() throws Exception {
-		this.waitForSuper();
-		this.waitforIdDependency();
-
-		try {
-			return this.manager.perform(this.unit);
-		}
-		finally {
-			this.manager.performed(this.unit);
-		}
+		return this.manager.perform(this.unit);
 	}
 
 	/**
@@ -158,6 +155,53 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 		return true;
 	}
 
+	/**
+	 * Returns the types that must perform before the unit of this task.
+	 * <p>
+	 * These are the super type and the types of the associations that are part of the id class.
+	 * 
+	 * @param <X>
+	 *            the type of the entity
+	 * @return the types that must perform before the unit of this task
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public <X> List<TypeImpl<?>> getDependencies() {
+		final List<TypeImpl<?>> dependencies = Lists.newArrayList();
+
+		if (this.unit instanceof IdentifiableTypeImpl) {
+			final IdentifiableTypeImpl<?> supertype = ((IdentifiableTypeImpl<?>) this.unit).getSupertype();
+			if (supertype != null) {
+				dependencies.add(supertype);
+			}
+		}
+
+		if (this.unit instanceof EntityTypeImpl) {
+			final EntityTypeImpl<X> entity = (EntityTypeImpl<X>) this.unit;
+			if (!entity.hasSingleIdAttribute()) {
+				for (final SingularAttribute<? super X, ?> idAttribute : entity.getIdClassAttributes()) {
+					if (idAttribute instanceof AssociatedSingularAttribute) {
+						dependencies.add(((AssociatedSingularAttribute<? super X, ?>) idAttribute).getType());
+					}
+				}
+			}
+		}
+
+		return dependencies;
+	}
+
+	/**
+	 * Returns the unit of the task.
+	 * 
+	 * @return the unit of the task
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object getUnit() {
+		return this.unit;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -180,34 +224,4 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 	public String toString() {
 		return "DeploymentUnitTask [unit=" + this.unit + "]";
 	}
-
-	@SuppressWarnings("unchecked")
-	private <X> void waitforIdDependency() throws InterruptedException {
-		if (this.unit instanceof EntityTypeImpl) {
-			final EntityTypeImpl<X> entity = (EntityTypeImpl<X>) this.unit;
-			if (!entity.hasSingleIdAttribute()) {
-				for (final SingularAttribute<? super X, ?> idAttribute : entity.getIdClassAttributes()) {
-					if (idAttribute instanceof AssociatedSingularAttribute) {
-						final EntityTypeImpl<?> type = ((AssociatedSingularAttribute<? super X, ?>) idAttribute).getType();
-
-						while (!this.manager.hasPerformed(type)) {
-							Thread.sleep(10);
-						}
-					}
-				}
-			}
-		}
-	}
-
-	@SuppressWarnings("unchecked")
-	private void waitForSuper() throws InterruptedException {
-		if (this.unit instanceof IdentifiableTypeImpl) {
-			final IdentifiableTypeImpl<?> supertype = ((IdentifiableTypeImpl<?>) this.unit).getSupertype();
-
-			// if the super type hasn't performed yet, then wait for to finish
-			while (!this.manager.hasPerformed(supertype)) {
-				Thread.sleep(10);
-			}
-		}
-	}
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.impl.deployment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.batoo.common.BatooException;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.common.util.IncrementalNamingThreadFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A Manager that performs the startup phases of the entity manager factory.
+ * <p>
+ * Each phase declares the phases it must follow. Phases that do not depend on each other are performed concurrently and the time
+ * each phase takes is recorded.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class StartupManager {
+
+	/**
+	 * A phase of the startup.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	public static abstract class Phase implements Callable<Phase> {
+
+		private final String name;
+		private final Phase[] dependencies;
+		private long time;
+
+		/**
+		 * @param name
+		 *            the name of the phase
+		 * @param dependencies
+		 *            the phases that must be performed before this phase
+		 * 
+		 * @since 2.0.1
+		 */
+		public Phase(String name, Phase... dependencies) {
+			super();
+
+			this.name = name;
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public final Phase call() throws Exception {
+			final long start = System.currentTimeMillis();
+
+			try {
+				this.perform();
+			}
+			finally {
+				this.time = System.currentTimeMillis() - start;
+			}
+
+			return this;
+		}
+
+		/**
+		 * Returns the name of the phase.
+		 * 
+		 * @return the name of the phase
+		 * 
+		 * @since 2.0.1
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Performs the phase.
+		 * 
+		 * @throws BatooException
+		 *             thrown in case of an underlying exception
+		 * 
+		 * @since 2.0.1
+		 */
+		protected abstract void perform() throws BatooException;
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public String toString() {
+			return "Phase [name=" + this.name + "]";
+		}
+	}
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(StartupManager.class);
+
+	private final List<Phase> phases = Lists.newArrayList();
+	private final Map<String, Long> timings = Maps.newLinkedHashMap();
+
+	/**
+	 * Adds the phase to the startup.
+	 * <p>
+	 * The dependencies of the phase must have been added before the phase.
+	 * 
+	 * @param phase
+	 *            the phase to add
+	 * @return the phase added
+	 * 
+	 * @since 2.0.1
+	 */
+	public Phase add(Phase phase) {
+		for (final Phase dependency : phase.dependencies) {
+			if (!this.phases.contains(dependency)) {
+				throw new IllegalArgumentException("Dependency " + dependency.getName() + " of phase " + phase.getName() + " has not been added");
+			}
+		}
+
+		this.phases.add(phase);
+
+		return phase;
+	}
+
+	/**
+	 * Returns the time each phase took in milliseconds, in the order of the phases completed.
+	 * 
+	 * @return the time each phase took in milliseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public Map<String, Long> getTimings() {
+		return Collections.unmodifiableMap(this.timings);
+	}
+
+	private void handleException(Throwable t) throws BatooException {
+		if (t instanceof ExecutionException) {
+			this.handleException(t.getCause());
+		}
+
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+
+		throw new BatooException("Unknown error occurred during startup", t);
+	}
+
+	/**
+	 * Performs the phases, running the phases that do not depend on each other concurrently.
+	 * 
+	 * @throws BatooException
+	 *             thrown in case a phase fails
+	 * 
+	 * @since 2.0.1
+	 */
+	public void perform() throws BatooException {
+		final long start = System.currentTimeMillis();
+
+		final ThreadPoolExecutor executer = new ThreadPoolExecutor(this.phases.size(), this.phases.size(), 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<Runnable>(), new IncrementalNamingThreadFactory("Startup Manager"));
+
+		final ExecutorCompletionService<Phase> completionService = new ExecutorCompletionService<Phase>(executer);
+
+		final List<Phase> remaining = Lists.newArrayList(this.phases);
+		final List<Phase> completed = Lists.newArrayList();
+
+		try {
+			int inFlight = this.submitReady(completionService, remaining, completed);
+
+			while (inFlight > 0) {
+				final Future<Phase> future = completionService.take();
+				inFlight--;
+
+				// bail out with the exception of the phase
+				final Phase phase = future.get();
+
+				completed.add(phase);
+				this.timings.put(phase.getName(), phase.time);
+
+				StartupManager.LOG.debug("Startup phase {0} took {1} msecs", phase.getName(), phase.time);
+
+				inFlight += this.submitReady(completionService, remaining, completed);
+			}
+		}
+		catch (final Exception e) {
+			this.handleException(e);
+		}
+		finally {
+			executer.shutdownNow();
+		}
+
+		StartupManager.LOG.debug("Startup took {0} msecs, phases: {1}", System.currentTimeMillis() - start, this.timings);
+	}
+
+	private int submitReady(ExecutorCompletionService<Phase> completionService, List<Phase> remaining, List<Phase> completed) {
+		int submitted = 0;
+
+		for (int i = 0; i < remaining.size();) {
+			final Phase phase = remaining.get(i);
+
+			boolean ready = true;
+			for (final Phase dependency : phase.dependencies) {
+				if (!completed.contains(dependency)) {
+					ready = false;
+					break;
+				}
+			}
+
+			if (ready) {
+				remaining.remove(i);
+				completionService.submit(phase);
+				submitted++;
+			}
+			else {
+				i++;
+			}
+		}
+
+		return submitted;
+	}
+}
@@ -48,10 +48,16 @@ public final class Enhancer {
 
 	private static final Set<String> IGNORED_METHODS = Sets.newHashSet();
 
+	private static final Object[] LOCKS = new Object[64];
+
 	static {
 		for (final Method method : Object.class.getMethods()) {
 			Enhancer.IGNORED_METHODS.add(method.getName());
 		}
+
+		for (int i = 0; i < Enhancer.LOCKS.length; i++) {
+			Enhancer.LOCKS[i] = new Object();
+		}
 	}
 
 	/**
@@ -80,7 +86,7 @@ public final class Enhancer {
 	private static final String METHOD_ENHANCED_GET_MANAGED_INSTANCE = "__enhanced__$$__getManagedInstance";
 	private static final String METHOD_ENHANCED_SET_MANAGED_INSTANCE = "__enhanced__$$__setManagedInstance";
 	private static final String METHOD_ENHANCED_SET_INTERNAL = "__enhanced__$$__setInternalCall";
-	private static final String METHOD_FIND = "find";
+	private static final String METHOD_INITIALIZE_REFERENCE = "initializeReference";
 	private static final String METHOD_CHANGED = "changed";
 
 	private static final String DESCRIPTOR_BOOLEAN = Type.getDescriptor(Boolean.TYPE);
@@ -262,7 +268,7 @@ public final class Enhancer {
 		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Enhancer.INTERNAL_PERSISTENCE_EXCEPTION, Enhancer.CONSTRUCTOR_INIT, Enhancer.makeDescription(Void.TYPE, String.class));
 		mv.visitInsn(Opcodes.ATHROW);
 
-		//	    this.__enhanced_$$__session.getEntityManager().find(this.__enhanced_$$__type, this.__enhanced__$$__id);
+		//	    this.__enhanced_$$__session.getEntityManager().initializeReference(this.__enhanced_$$__type, this.__enhanced__$$__id);
 		mv.visitLabel(lFind);
 		mv.visitFrame(Opcodes.F_NEW, 1, new Object[] { enhancedClassName }, 0, new Object[] {});
 		mv.visitVarInsn(Opcodes.ALOAD, 0);
@@ -272,7 +278,8 @@ public final class Enhancer {
 		mv.visitFieldInsn(Opcodes.GETFIELD, enhancedClassName, Enhancer.FIELD_ENHANCED_TYPE, Enhancer.DESCRIPTOR_CLASS);
 		mv.visitVarInsn(Opcodes.ALOAD, 0);
 		mv.visitFieldInsn(Opcodes.GETFIELD, enhancedClassName, Enhancer.FIELD_ENHANCED_ID, Enhancer.DESCRIPTOR_OBJECT);
-		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Enhancer.INTERNAL_ENTITY_MANAGER, Enhancer.METHOD_FIND, Enhancer.makeDescription(Object.class, Class.class, Object.class));
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Enhancer.INTERNAL_ENTITY_MANAGER, Enhancer.METHOD_INITIALIZE_REFERENCE,
+			Enhancer.makeDescription(Object.class, Class.class, Object.class));
 		mv.visitInsn(Opcodes.POP);
 
 		//	this.__enhanced__$$__initialized = true;
@@ -522,12 +529,19 @@ public final class Enhancer {
 		return Enhancer.enhance0(javaType, classLoader, className);
 	}
 
-	private synchronized static <T> Class<T> enhance0(final Class<T> javaType, final ClassLoader classLoader, final String className) throws Exception {
-		final byte[] byteCode = Enhancer.create(javaType);
+	@SuppressWarnings("unchecked")
+	private static <T> Class<T> enhance0(final Class<T> javaType, final ClassLoader classLoader, final String className) throws Exception {
+		// different classes are enhanced concurrently, the same class only once per class loader
+		synchronized (Enhancer.getLock(classLoader, className)) {
+			final Class<T> enhancedClass = (Class<T>) Enhancer.tryLoadClass(classLoader, className);
+			if (enhancedClass != null) {
+				return enhancedClass;
+			}
 
-		final Class<T> enhancedClass = Enhancer.loadClass(classLoader, byteCode, className);
+			final byte[] byteCode = Enhancer.create(javaType);
 
-		return enhancedClass;
+			return Enhancer.loadClass(classLoader, byteCode, className);
+		}
 	}
 
 	private static void getDescriptor(final StringBuffer buf, final Class<?> c) {
@@ -583,6 +597,12 @@ public final class Enhancer {
 		}
 	}
 
+	private static Object getLock(ClassLoader classLoader, String className) {
+		final int hash = (31 * System.identityHashCode(classLoader)) + className.hashCode();
+
+		return Enhancer.LOCKS[(hash & Integer.MAX_VALUE) % Enhancer.LOCKS.length];
+	}
+
 	private static int getLoadType(Class<?> paramClass) {
 		if (!paramClass.isPrimitive() || paramClass.isArray()) {
 			return Opcodes.ALOAD;
@@ -684,16 +704,12 @@ public final class Enhancer {
 	}
 
 	private static Class<?> tryLoadClass(final ClassLoader classLoader, final String className) {
-		final ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
 		try {
-			Thread.currentThread().setContextClassLoader(classLoader);
-			return Class.forName(className);
+			// resolve through the class loader of the entity, that is where the build time enhanced classes are
+			return Class.forName(className, true, classLoader);
 		}
 		catch (final ClassNotFoundException e) {
 			return null;
 		}
-		finally {
-			Thread.currentThread().setContextClassLoader(oldClassLoader);
-		}
 	}
 }
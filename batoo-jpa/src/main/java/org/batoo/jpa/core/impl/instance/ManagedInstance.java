@@ -24,8 +24,6 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -59,8 +57,6 @@ import org.batoo.jpa.jdbc.mapping.SingularMapping;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata.EntityListenerType;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 
 /**
  * The managed instance to track entity instances.
@@ -75,29 +71,39 @@ public class ManagedInstance<X> {
 
 	private static final BLogger LOG = BLoggerFactory.getLogger(ManagedInstance.class);
 
+	private static final int LOADING = 1;
+	private static final int LOADING_FROM_CACHE = 1 << 1;
+	private static final int REFRESHING = 1 << 2;
+	private static final int CHANGED = 1 << 3;
+	private static final int HAS_INITIAL_ID = 1 << 4;
+	private static final int PRE_PERSIST_CALLED = 1 << 5;
+	private static final int PRE_REMOVE_CALLED = 1 << 6;
+
+	// the status and the old status are kept as ordinal + 1 in the flags, 0 stands for null
+	private static final int STATUS_SHIFT = 8;
+	private static final int OLD_STATUS_SHIFT = 12;
+	private static final int STATUS_MASK = 0xF;
+	private static final Status[] STATUSES = Status.values();
+
 	private final EntityTypeImpl<X> type;
 	private final SessionImpl session;
 	private final X instance;
-	private Status status;
-	private Status oldStatus;
 	private LockModeType lockMode;
 
-	private final HashMap<AbstractMapping<?, ?, ?>, Object> snapshot = Maps.newHashMap();
-	private final HashSet<String> joinsLoaded;
-	private final ArrayList<PluralMappingEx<?, ?, ?>> collectionsChanged;
+	private int flags;
+
+	// values of the singular mappings, indexed by the position of the mapping in EntityTypeImpl.getMappingsSingular()
+	private Object[] snapshot;
 
-	private boolean loading;
-	private boolean loadingFromCache;
-	private boolean refreshing;
-	private boolean changed;
+	// loaded joins, indexed by EntityTypeImpl.getJoinedMappingOrdinal(JoinedMapping), the overflow holds the ordinals beyond 63
+	private long joinsLoaded;
+	private long[] joinsLoadedOverflow;
+
+	private ArrayList<PluralMappingEx<?, ?, ?>> collectionsChanged;
 
-	private boolean hasInitialId;
 	private ManagedId<? super X> id;
 	private int h;
 
-	private boolean prePersistCalled;
-	private boolean preRemoveCalled;
-
 	private Object oldVersion;
 
 	/**
@@ -123,10 +129,7 @@ public class ManagedInstance<X> {
 		this.instance = instance;
 		this.lockMode = ManagedInstance.LOCK_CONTEXT.get();
 
-		this.collectionsChanged = Lists.newArrayList();
-		this.joinsLoaded = Sets.newHashSet();
-
-		this.status = Status.MANAGED;
+		this.flags = (Status.MANAGED.ordinal() + 1) << ManagedInstance.STATUS_SHIFT;
 	}
 
 	/**
@@ -158,7 +161,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void cascadeDetach(EntityManagerImpl entityManager) {
-		this.status = Status.DETACHED;
+		this.setStatusImpl(ManagedInstance.STATUS_SHIFT, Status.DETACHED);
 
 		ManagedInstance.LOG.debug("Cascading detach on {0}", this);
 
@@ -336,14 +339,14 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void changed() {
-		if (!this.changed && (this.collectionsChanged.size() == 0)) {
+		if (!this.is(ManagedInstance.CHANGED) && !this.hasCollectionsChanged()) {
 			this.session.setChanged(this);
 
 		}
 
-		if (!this.changed) {
+		if (!this.is(ManagedInstance.CHANGED)) {
 			this.snapshot();
-			this.changed = true;
+			this.set(ManagedInstance.CHANGED, true);
 		}
 	}
 
@@ -367,7 +370,7 @@ public class ManagedInstance<X> {
 	 */
 	public void checkUpdated() {
 		// no snapshot, nothing to check
-		if ((this.snapshot.size() == 0) || this.changed) {
+		if ((this.snapshot == null) || this.is(ManagedInstance.CHANGED)) {
 			return;
 		}
 
@@ -377,10 +380,13 @@ public class ManagedInstance<X> {
 	}
 
 	private boolean checkUpdatedImpl() {
+		final AbstractMapping<?, ?, ?>[] mappings = this.type.getMappingsSingular();
+
 		// iterate over old values
-		for (final AbstractMapping<?, ?, ?> mapping : this.type.getMappingsSingular()) {
+		for (int i = 0; i < mappings.length; i++) {
+			final AbstractMapping<?, ?, ?> mapping = mappings[i];
 			final Object newValue = mapping.get(this.instance);
-			final Object oldValue = this.snapshot.get(mapping);
+			final Object oldValue = this.snapshot[i];
 
 			// if it is changed then mark as changed and bail out
 			if (mapping.getAttribute().getPersistentAttributeType() == PersistentAttributeType.BASIC) {
@@ -441,7 +447,11 @@ public class ManagedInstance<X> {
 	public boolean fillIdValues() {
 		ManagedInstance.LOG.debug("Auto generating id values for {0}", this);
 
-		return this.hasInitialId = this.fillValuesImpl();
+		final boolean hasInitialId = this.fillValuesImpl();
+
+		this.set(ManagedInstance.HAS_INITIAL_ID, hasInitialId);
+
+		return hasInitialId;
 	}
 
 	private boolean fillValuesImpl() {
@@ -472,25 +482,25 @@ public class ManagedInstance<X> {
 	public void fireCallbacks(EntityListenerType type) {
 		EntityListenerType typeToFire = type;
 
-		if ((type == EntityListenerType.PRE_UPDATE) && (this.status == Status.NEW)) {
+		if ((type == EntityListenerType.PRE_UPDATE) && (this.getStatus() == Status.NEW)) {
 			typeToFire = EntityListenerType.PRE_PERSIST;
 		}
 
-		if ((type == EntityListenerType.POST_UPDATE) && (this.oldStatus == Status.NEW)) {
+		if ((type == EntityListenerType.POST_UPDATE) && (this.getStatusImpl(ManagedInstance.OLD_STATUS_SHIFT) == Status.NEW)) {
 			typeToFire = EntityListenerType.POST_PERSIST;
 		}
 
 		// safeguard single invocation for PrePersists
 		if (typeToFire == EntityListenerType.PRE_PERSIST) {
-			if (!this.prePersistCalled) {
-				this.prePersistCalled = true;
+			if (!this.is(ManagedInstance.PRE_PERSIST_CALLED)) {
+				this.set(ManagedInstance.PRE_PERSIST_CALLED, true);
 
 				this.type.fireCallbacks(this.instance, typeToFire);
 			}
 		}
 		else if (typeToFire == EntityListenerType.PRE_REMOVE) {
-			if (!this.preRemoveCalled) {
-				this.preRemoveCalled = true;
+			if (!this.is(ManagedInstance.PRE_REMOVE_CALLED)) {
+				this.set(ManagedInstance.PRE_REMOVE_CALLED, true);
 
 				this.type.fireCallbacks(this.instance, typeToFire);
 			}
@@ -515,7 +525,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void flushAssociations(Connection connection, boolean removals, boolean force) throws SQLException {
-		if (!removals || (this.status != Status.NEW)) {
+		if (!removals || (this.getStatus() != Status.NEW)) {
 			ManagedInstance.LOG.debug("Flushing associations for instance {0}", this);
 
 			for (final JoinedMapping<?, ?, ?> collection : this.type.getMappingsJoined()) {
@@ -588,7 +598,13 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public Status getStatus() {
-		return this.status;
+		return this.getStatusImpl(ManagedInstance.STATUS_SHIFT);
+	}
+
+	private Status getStatusImpl(int shift) {
+		final int ordinal = (this.flags >>> shift) & ManagedInstance.STATUS_MASK;
+
+		return ordinal != 0 ? ManagedInstance.STATUSES[ordinal - 1] : null;
 	}
 
 	/**
@@ -612,6 +628,10 @@ public class ManagedInstance<X> {
 	public void handleAdditions(EntityManagerImpl entityManager) {
 		ManagedInstance.LOG.debug("Inspecting additions for instance {0}", this);
 
+		if (this.collectionsChanged == null) {
+			return;
+		}
+
 		for (int i = 0; i < this.collectionsChanged.size(); i++) {
 			final PluralMappingEx<?, ?, ?> collection = this.collectionsChanged.get(i);
 
@@ -632,6 +652,10 @@ public class ManagedInstance<X> {
 	public void handleOrphans(EntityManagerImpl entityManager) {
 		ManagedInstance.LOG.debug("Inspecting orphans for instance {0}", this);
 
+		if (this.collectionsChanged == null) {
+			return;
+		}
+
 		for (int i = 0; i < this.collectionsChanged.size(); i++) {
 			final PluralMappingEx<?, ?, ?> collection = this.collectionsChanged.get(i);
 			if (collection.isAssociation()) {
@@ -660,6 +684,10 @@ public class ManagedInstance<X> {
 		return this.h = result;
 	}
 
+	private boolean hasCollectionsChanged() {
+		return (this.collectionsChanged != null) && (this.collectionsChanged.size() > 0);
+	}
+
 	/**
 	 * Returns if the instance has initial id.
 	 * 
@@ -668,7 +696,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean hasInitialId() {
-		return this.hasInitialId;
+		return this.is(ManagedInstance.HAS_INITIAL_ID);
 	}
 
 	/**
@@ -679,11 +707,11 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean hasSelfUpdate() {
-		if (!this.changed && (this.snapshot.size() == 0)) {
+		if (!this.is(ManagedInstance.CHANGED) && (this.snapshot == null)) {
 			return false;
 		}
 
-		if (this.collectionsChanged.size() > 0) {
+		if (this.hasCollectionsChanged()) {
 			return true;
 		}
 
@@ -692,106 +720,21 @@ public class ManagedInstance<X> {
 
 	/**
 	 * Increments the version of the instance.
-	 * 
-	 * @param connection
-	 *            the connection
-	 * @param commit
-	 *            true if version update should be committed immediately
-	 * @throws SQLException
-	 *             thrown in case of an underlying SQL error
+	 * <p>
+	 * The instance is marked as changed so that the new version is written with the next flush.
 	 * 
 	 * @since 2.0.0
 	 */
-	public void incrementVersion(Connection connection, boolean commit) throws SQLException {
+	public void incrementVersion() {
 		if (!this.type.getRootType().hasVersionAttribute()) {
 			return;
 		}
 
-		final EntityTypeImpl<? super X> rootType = this.type.getRootType();
-
-		final BasicAttribute<? super X, ?> version = rootType.getVersionAttribute();
-
 		if (this.oldVersion == null) {
-			switch (this.type.getVersionType()) {
-				case SHORT:
-					final short shortValue = (((Number) version.get(this.instance)).shortValue());
-					this.oldVersion = shortValue;
-					version.set(this.instance, shortValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortValue);
-
-					break;
-				case SHORT_OBJECT:
-					final Short shortObjValue = version.get(this.instance) == null ? 0 : //
-						Short.valueOf((((Number) version.get(this.instance)).shortValue()));
-					this.oldVersion = shortObjValue;
-
-					version.set(this.instance, shortObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortObjValue);
-
-					break;
-
-				case INT:
-					final int intValue = (((Number) version.get(this.instance)).intValue());
-					this.oldVersion = intValue;
-
-					version.set(this.instance, intValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intValue);
-
-					break;
-				case INT_OBJECT:
-					final Integer intObjValue = version.get(this.instance) == null ? 0 : //
-						Integer.valueOf(((Number) version.get(this.instance)).intValue());
-					this.oldVersion = intObjValue;
-
-					version.set(this.instance, intObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intObjValue);
-
-					break;
-				case LONG:
-					final long longValue = (((Number) version.get(this.instance)).longValue());
-					this.oldVersion = longValue;
-
-					version.set(this.instance, longValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longValue);
-
-					break;
-				case LONG_OBJECT:
-					final Long longObjValue = version.get(this.instance) == null ? 0l : //
-						Long.valueOf((((Number) version.get(this.instance)).longValue()));
-					this.oldVersion = longObjValue;
-
-					version.set(this.instance, longObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longObjValue);
-
-					break;
-
-				case TIMESTAMP:
-					final Timestamp value = new Timestamp(System.currentTimeMillis());
-					this.oldVersion = version.get(this.instance);
-
-					version.set(this.instance, value);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, value);
-			}
+			this.upgradeVersion();
 		}
 
-		if (commit) {
-			final Object newVersion = version.get(this.instance);
-			rootType.performVersionUpdate(connection, this, this.oldVersion, newVersion);
-
-			ManagedInstance.LOG.debug("Version committed instance: {0} - {1} -> {2}", this, this.oldVersion, newVersion);
-
-			this.oldVersion = null;
-		}
-		else {
-			this.changed();
-		}
+		this.changed();
 	}
 
 	/**
@@ -814,7 +757,27 @@ public class ManagedInstance<X> {
 			return true;
 		}
 
-		return this.joinsLoaded.contains(mapping.getPath());
+		return this.isJoinLoaded((JoinedMapping<?, ?, ?>) mapping);
+	}
+
+	private boolean isJoinLoaded(JoinedMapping<?, ?, ?> mapping) {
+		final int ordinal = this.type.getJoinedMappingOrdinal(mapping);
+		if (ordinal < 0) {
+			return false;
+		}
+
+		if (ordinal < 64) {
+			return (this.joinsLoaded & (1L << ordinal)) != 0;
+		}
+
+		final int index = (ordinal >> 6) - 1;
+
+		return (this.joinsLoadedOverflow != null) && (index < this.joinsLoadedOverflow.length)
+			&& ((this.joinsLoadedOverflow[index] & (1L << ordinal)) != 0);
+	}
+
+	private boolean is(int flag) {
+		return (this.flags & flag) != 0;
 	}
 
 	/**
@@ -825,7 +788,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean isLoading() {
-		return this.loading;
+		return this.is(ManagedInstance.LOADING);
 	}
 
 	/**
@@ -836,7 +799,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean isLoadingFromCache() {
-		return this.loadingFromCache;
+		return this.is(ManagedInstance.LOADING_FROM_CACHE);
 	}
 
 	/**
@@ -847,7 +810,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean isRefreshing() {
-		return this.refreshing;
+		return this.is(ManagedInstance.REFRESHING);
 	}
 
 	/**
@@ -889,11 +852,8 @@ public class ManagedInstance<X> {
 	public void processJoinedMappings() {
 		ManagedInstance.LOG.debug("Post processing associations for instance {0}", this);
 
-		final HashSet<String> _joinsLoaded = this.joinsLoaded;
-
 		for (final PluralMappingEx<?, ?, ?> mapping : this.type.getMappingsPlural()) {
-			final HashSet<String> joinsLoaded2 = _joinsLoaded;
-			if (!joinsLoaded2.contains(mapping.getPath())) {
+			if (!this.isJoinLoaded(mapping)) {
 				if (mapping.isEager()) {
 					mapping.load(this);
 				}
@@ -908,7 +868,7 @@ public class ManagedInstance<X> {
 
 		for (final SingularAssociationMappingImpl<?, ?> mapping : this.type.getAssociationsSingular()) {
 			if (mapping.isEager()) {
-				if (!_joinsLoaded.contains(mapping.getPath())) {
+				if (!this.isJoinLoaded(mapping)) {
 					mapping.initialize(this);
 				}
 				else {
@@ -957,12 +917,25 @@ public class ManagedInstance<X> {
 	public void reset() {
 		ManagedInstance.LOG.trace("Reset instance {0}", this);
 
-		this.collectionsChanged.clear();
+		this.collectionsChanged = null;
 
-		this.changed = false;
+		this.set(ManagedInstance.CHANGED, false);
 
-		this.snapshot.clear();
-		this.snapshot();
+		if (this.snapshot != null) {
+			this.snapshotImpl();
+		}
+		else {
+			this.snapshot();
+		}
+	}
+
+	private void set(int flag, boolean value) {
+		if (value) {
+			this.flags |= flag;
+		}
+		else {
+			this.flags &= ~flag;
+		}
 	}
 
 	/**
@@ -974,10 +947,14 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setChanged(PluralMappingEx<?, ?, ?> association) {
-		if ((this.collectionsChanged.size() == 0) && !this.changed) {
+		if (!this.hasCollectionsChanged() && !this.is(ManagedInstance.CHANGED)) {
 			this.session.setChanged(this);
 		}
 
+		if (this.collectionsChanged == null) {
+			this.collectionsChanged = Lists.newArrayListWithCapacity(2);
+		}
+
 		this.collectionsChanged.add(association);
 	}
 
@@ -990,7 +967,28 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setJoinLoaded(JoinedMapping<?, ?, ?> mapping) {
-		this.joinsLoaded.add(mapping.getPath());
+		final int ordinal = this.type.getJoinedMappingOrdinal(mapping);
+		if (ordinal < 0) {
+			return;
+		}
+
+		if (ordinal < 64) {
+			this.joinsLoaded |= 1L << ordinal;
+
+			return;
+		}
+
+		final int index = (ordinal >> 6) - 1;
+		if ((this.joinsLoadedOverflow == null) || (index >= this.joinsLoadedOverflow.length)) {
+			final long[] joinsLoadedOverflow = new long[index + 1];
+			if (this.joinsLoadedOverflow != null) {
+				System.arraycopy(this.joinsLoadedOverflow, 0, joinsLoadedOverflow, 0, this.joinsLoadedOverflow.length);
+			}
+
+			this.joinsLoadedOverflow = joinsLoadedOverflow;
+		}
+
+		this.joinsLoadedOverflow[index] |= 1L << ordinal;
 	}
 
 	/**
@@ -1002,7 +1000,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setLoading(boolean loading) {
-		this.loading = loading;
+		this.set(ManagedInstance.LOADING, loading);
 	}
 
 	/**
@@ -1014,7 +1012,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setLoadingFromCache(boolean loadingFromCache) {
-		this.loadingFromCache = loadingFromCache;
+		this.set(ManagedInstance.LOADING_FROM_CACHE, loadingFromCache);
 	}
 
 	/**
@@ -1026,7 +1024,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setRefreshing(boolean refreshing) {
-		this.refreshing = refreshing;
+		this.set(ManagedInstance.REFRESHING, refreshing);
 	}
 
 	/**
@@ -1037,15 +1035,23 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public void setStatus(Status status) {
-		this.oldStatus = this.status;
+		final Status oldStatus = this.getStatus();
 
-		if (status != this.status) {
-			ManagedInstance.LOG.debug("Instance status changing for {0}: {1} -> {2}", this, this.status, status);
+		this.setStatusImpl(ManagedInstance.OLD_STATUS_SHIFT, oldStatus);
 
-			this.status = status;
+		if (status != oldStatus) {
+			ManagedInstance.LOG.debug("Instance status changing for {0}: {1} -> {2}", this, oldStatus, status);
+
+			this.setStatusImpl(ManagedInstance.STATUS_SHIFT, status);
 		}
 	}
 
+	private void setStatusImpl(int shift, Status status) {
+		final int ordinal = status != null ? status.ordinal() + 1 : 0;
+
+		this.flags = (this.flags & ~(ManagedInstance.STATUS_MASK << shift)) | (ordinal << shift);
+	}
+
 	/**
 	 * Creates a snapshot of the entity.
 	 * 
@@ -1054,10 +1060,18 @@ public class ManagedInstance<X> {
 	private void snapshot() {
 		ManagedInstance.LOG.trace("Snapshot generated for instance {0}", this);
 
-		if (this.snapshot.size() == 0) {
-			for (final AbstractMapping<?, ?, ?> mapping : this.type.getMappingsSingular()) {
-				this.snapshot.put(mapping, mapping.get(this.instance));
-			}
+		if (this.snapshot == null) {
+			this.snapshot = new Object[this.type.getMappingsSingular().length];
+
+			this.snapshotImpl();
+		}
+	}
+
+	private void snapshotImpl() {
+		final AbstractMapping<?, ?, ?>[] mappings = this.type.getMappingsSingular();
+
+		for (int i = 0; i < mappings.length; i++) {
+			this.snapshot[i] = mappings[i].get(this.instance);
 		}
 	}
 
@@ -1080,7 +1094,93 @@ public class ManagedInstance<X> {
 	public String toString() {
 		return "ManagedInstance [session=" + this.session //
 			+ ", type=" + this.type.getName() //
-			+ ", status=" + this.status //
+			+ ", status=" + this.getStatus() //
 			+ ", id=" + (this.id != null ? this.id.getId() : null) + "]";
 	}
+
+	/**
+	 * Upgrades the version of the instance in memory, retaining the old version to restrict the version update with.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void upgradeVersion() {
+		final BasicAttribute<? super X, ?> version = this.type.getRootType().getVersionAttribute();
+
+		switch (this.type.getVersionType()) {
+			case SHORT:
+				final short shortValue = (((Number) version.get(this.instance)).shortValue());
+				this.oldVersion = shortValue;
+				version.set(this.instance, shortValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortValue);
+
+				break;
+			case SHORT_OBJECT:
+				final Short shortObjValue = version.get(this.instance) == null ? 0 : //
+					Short.valueOf((((Number) version.get(this.instance)).shortValue()));
+				this.oldVersion = shortObjValue;
+
+				version.set(this.instance, shortObjValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortObjValue);
+
+				break;
+
+			case INT:
+				final int intValue = (((Number) version.get(this.instance)).intValue());
+				this.oldVersion = intValue;
+
+				version.set(this.instance, intValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intValue);
+
+				break;
+			case INT_OBJECT:
+				final Integer intObjValue = version.get(this.instance) == null ? 0 : //
+					Integer.valueOf(((Number) version.get(this.instance)).intValue());
+				this.oldVersion = intObjValue;
+
+				version.set(this.instance, intObjValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intObjValue);
+
+				break;
+			case LONG:
+				final long longValue = (((Number) version.get(this.instance)).longValue());
+				this.oldVersion = longValue;
+
+				version.set(this.instance, longValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longValue);
+
+				break;
+			case LONG_OBJECT:
+				final Long longObjValue = version.get(this.instance) == null ? 0l : //
+					Long.valueOf((((Number) version.get(this.instance)).longValue()));
+				this.oldVersion = longObjValue;
+
+				version.set(this.instance, longObjValue + 1);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longObjValue);
+
+				break;
+
+			case TIMESTAMP:
+				final Timestamp value = new Timestamp(System.currentTimeMillis());
+				this.oldVersion = version.get(this.instance);
+
+				version.set(this.instance, value);
+
+				ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, value);
+		}
+	}
+
+	/**
+	 * Marks the upgraded version of the instance as written to the database.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void versionUpdated() {
+		this.oldVersion = null;
+	}
 }
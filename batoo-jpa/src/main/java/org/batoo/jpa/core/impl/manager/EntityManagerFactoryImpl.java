@@ -19,6 +19,8 @@
 
 package org.batoo.jpa.core.impl.manager;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -51,7 +53,12 @@ import org.batoo.jpa.core.impl.criteria.jpql.JpqlQuery;
 import org.batoo.jpa.core.impl.deployment.DdlManager;
 import org.batoo.jpa.core.impl.deployment.LinkManager;
 import org.batoo.jpa.core.impl.deployment.NamedQueriesManager;
+import org.batoo.jpa.core.impl.deployment.StartupManager;
+import org.batoo.jpa.core.impl.deployment.StartupManager.Phase;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.jmx.MBeanRegistrar;
+import org.batoo.jpa.core.stats.Statistics;
+import org.batoo.jpa.core.workload.WorkloadRecorder;
 import org.batoo.jpa.jdbc.AbstractDataSource;
 import org.batoo.jpa.jdbc.BoneCPDataSource;
 import org.batoo.jpa.jdbc.DDLMode;
@@ -93,6 +100,10 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	private final Map<String, JpqlQuery> namedQueries = Maps.newHashMap();
 	private final CriteriaBuilderImpl criteriaBuilder;
 	private final PersistenceUnitUtilImpl persistenceUtil;
+	private final Map<String, Long> startupTimings;
+	private final Statistics statistics;
+	private final MBeanRegistrar mBeanRegistrar;
+	private final WorkloadRecorder workloadRecorder;
 
 	private final HashMap<String, JpqlQuery> jpqlCache = Maps.newHashMap();
 	private final ClassLoader classloader;
@@ -103,6 +114,8 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	private final Class<?>[] removeValidators;
 
 	private final int maxFetchJoinDepth;
+	private final int sessionCapacity;
+	private final int nPlusOneThreshold;
 
 	private boolean open;
 
@@ -145,6 +158,26 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.SQL_LOGGING) + " for " + BJPASettings.SQL_LOGGING);
 		}
 
+		try {
+			this.sessionCapacity = this.getProperty(BJPASettings.SESSION_CAPACITY) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.SESSION_CAPACITY))) : //
+				BJPASettings.DEFAULT_SESSION_CAPACITY;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.SESSION_CAPACITY) + " for " + BJPASettings.SESSION_CAPACITY);
+		}
+
+		try {
+			this.nPlusOneThreshold = this.getProperty(BJPASettings.N_PLUS_ONE_THRESHOLD) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.N_PLUS_ONE_THRESHOLD))) : //
+				BJPASettings.DEFAULT_N_PLUS_ONE_THRESHOLD;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.N_PLUS_ONE_THRESHOLD) + " for "
+				+ BJPASettings.N_PLUS_ONE_THRESHOLD);
+		}
+
+		this.statistics = new Statistics(this.readStatistics());
 		this.dataSource = this.createDatasource(name, parser);
 
 		this.ddlMode = this.readDdlMode();
@@ -152,32 +185,13 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		this.jdbcAdaptor = this.createJdbcAdaptor();
 		this.metamodel = new MetamodelImpl(this, this.jdbcAdaptor, parser.getMetadata());
 
-		LinkManager.perform(this.metamodel);
-
-		this.metamodel.checkTables();
-
-		// drop all tables if ddl mode is drop
-		if (this.ddlMode == DDLMode.DROP) {
-			this.metamodel.dropAllTables(this.dataSource);
-		}
-
-		DdlManager.perform(this.dataSource, this.metamodel, this.ddlMode);
-
-		this.metamodel.performSequencesDdl(this.dataSource, this.ddlMode);
-		this.metamodel.performTableGeneratorsDdl(this.dataSource, this.ddlMode);
-
-		this.metamodel.preFillGenerators(this.dataSource);
 		this.criteriaBuilder = new CriteriaBuilderImpl(this.metamodel);
-
-		NamedQueriesManager.perform(this.metamodel, this.criteriaBuilder);
-
-		// lets init static metamodel class if exist
-		this.metamodel.initStaticMetamodels();
-		//
-
 		this.persistenceUtil = new PersistenceUnitUtilImpl(this);
 
-		this.jdbcAdaptor.importSql(this.classloader, this.dataSource, (String) this.getProperties().get(BJPASettings.IMPORT_SQL));
+		this.startupTimings = this.performStartup();
+
+		this.mBeanRegistrar = this.readJmx() ? new MBeanRegistrar(name, this) : null;
+		this.workloadRecorder = this.createWorkloadRecorder();
 
         BatooUtils.gaBoot(this.properties);
 		this.open = true;
@@ -255,6 +269,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		}
 	}
 
+	/**
+	 * Clears the JPQL query cache.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void clearJpqlCache() {
+		synchronized (this) {
+			this.jpqlCache.clear();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -263,6 +288,14 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	public void close() {
 		this.assertOpen();
 
+		if (this.mBeanRegistrar != null) {
+			this.mBeanRegistrar.unregister();
+		}
+
+		if (this.workloadRecorder != null) {
+			this.workloadRecorder.close();
+		}
+
 		this.metamodel.stopIdGenerators();
 
 		final String dropOnClose = (String) this.getProperty(BJPASettings.DROP_ON_CLOSE);
@@ -374,16 +407,16 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	private DataSourceProxy createDatasourceProxy(PersistenceParser parser, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
 		final boolean external = (parser.getJtaDataSource() != null) || (parser.getNonJtaDataSource() != null);
 		if (parser.getJtaDataSource() != null) {
-			return new DataSourceProxy(parser.getJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+			return new DataSourceProxy(parser.getJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize, this.statistics);
 		}
 		if (parser.getNonJtaDataSource() != null) {
-			return new DataSourceProxy(parser.getNonJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+			return new DataSourceProxy(parser.getNonJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize, this.statistics);
 		}
 
 		if (this.dataSourcePool != null) {
-			return new DataSourceProxy(this.dataSourcePool, external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+			return new DataSourceProxy(this.dataSourcePool, external, sqlLogging, slowSqlThreshold, jdbcFetchSize, this.statistics);
 		}
-		return new DataSourceProxy(this.createDatasource0(parser), external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+		return new DataSourceProxy(this.createDatasource0(parser), external, sqlLogging, slowSqlThreshold, jdbcFetchSize, this.statistics);
 	}
 
 	/**
@@ -436,6 +469,26 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.REMOVE_BATCH_SIZE) + " for " + BJPASettings.REMOVE_BATCH_SIZE);
 		}
 
+		int importSqlBatchSize;
+		try {
+			importSqlBatchSize = this.getProperty(BJPASettings.IMPORT_SQL_BATCH_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.IMPORT_SQL_BATCH_SIZE))) : //
+				BJPASettings.DEFAULT_IMPORT_SQL_BATCH_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.IMPORT_SQL_BATCH_SIZE) + " for " + BJPASettings.IMPORT_SQL_BATCH_SIZE);
+		}
+
+		int importSqlCommitSize;
+		try {
+			importSqlCommitSize = this.getProperty(BJPASettings.IMPORT_SQL_COMMIT_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.IMPORT_SQL_COMMIT_SIZE))) : //
+				BJPASettings.DEFAULT_IMPORT_SQL_COMMIT_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.IMPORT_SQL_COMMIT_SIZE) + " for " + BJPASettings.IMPORT_SQL_COMMIT_SIZE);
+		}
+
 		try {
 			final Connection connection = this.dataSource.getConnection();
 			try {
@@ -443,6 +496,8 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 
 				adapter.setInsertBatchSize(insertBatchSize);
 				adapter.setRemoveBatchSize(removeBatchSize);
+				adapter.setImportSqlBatchSize(importSqlBatchSize);
+				adapter.setImportSqlCommitSize(importSqlCommitSize);
 
 				return adapter;
 			}
@@ -472,6 +527,20 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		}
 	}
 
+	private WorkloadRecorder createWorkloadRecorder() {
+		final String file = (String) this.getProperty(BJPASettings.WORKLOAD_CAPTURE);
+		if (StringUtils.isBlank(file)) {
+			return null;
+		}
+
+		try {
+			return new WorkloadRecorder(this.metamodel, new File(file));
+		}
+		catch (final IOException e) {
+			throw new IllegalArgumentException("Illegal value " + file + " for " + BJPASettings.WORKLOAD_CAPTURE, e);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -539,6 +608,9 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			EntityManagerFactoryImpl.LOG.debug("JPQL: {0}", qlString);
 
 			JpqlQuery jpqlQuery = this.jpqlCache.get(qlString);
+
+			this.statistics.jpqlCacheLookup(jpqlQuery != null);
+
 			if (jpqlQuery == null) {
 				jpqlQuery = new JpqlQuery(EntityManagerFactoryImpl.this, qlString);
 
@@ -583,6 +655,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		}
 	}
 
+	/**
+	 * Returns the number of JPQL queries in the cache.
+	 * 
+	 * @return the number of JPQL queries in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getJpqlCacheSize() {
+		return this.jpqlCache.size();
+	}
+
 	/**
 	 * Returns the global max fetch join depth.
 	 * 
@@ -603,6 +686,18 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.metamodel;
 	}
 
+	/**
+	 * Returns the default number of times an association may be lazy loaded within an entity manager before it is reported as N+1
+	 * selects.
+	 * 
+	 * @return the default threshold of the N+1 selects, 0 for disabled
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getNPlusOneThreshold() {
+		return this.nPlusOneThreshold;
+	}
+
 	/**
 	 * Returns the named query with the name <code>name</code>.
 	 * 
@@ -669,6 +764,39 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.removeValidators;
 	}
 
+	/**
+	 * Returns the default capacity of the sessions.
+	 * 
+	 * @return the default capacity of the sessions, 0 for unbounded
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getSessionCapacity() {
+		return this.sessionCapacity;
+	}
+
+	/**
+	 * Returns the time each startup phase took in milliseconds.
+	 * 
+	 * @return the time each startup phase took in milliseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public Map<String, Long> getStartupTimings() {
+		return this.startupTimings;
+	}
+
+	/**
+	 * Returns the statistics of the entity manager factory.
+	 * 
+	 * @return the statistics of the entity manager factory
+	 * 
+	 * @since 2.0.1
+	 */
+	public Statistics getStatistics() {
+		return this.statistics;
+	}
+
 	/**
 	 * Returns the set of update validators.
 	 * 
@@ -691,6 +819,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.validationFactory;
 	}
 
+	/**
+	 * Returns the recorder capturing the workload.
+	 * 
+	 * @return the workload recorder or <code>null</code> if the workload is not captured
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecorder getWorkloadRecorder() {
+		return this.workloadRecorder;
+	}
+
 	private Class<?>[] getValidatorsFor(PersistenceParser parser, String group) {
 
 		final String groups = (String) parser.getProperties().get(group);
@@ -733,6 +872,88 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.open;
 	}
 
+	private Map<String, Long> performStartup() {
+		final StartupManager startupManager = new StartupManager();
+
+		final Phase link = startupManager.add(new Phase("link") {
+
+			@Override
+			protected void perform() throws BatooException {
+				LinkManager.perform(EntityManagerFactoryImpl.this.metamodel);
+
+				EntityManagerFactoryImpl.this.metamodel.checkTables();
+			}
+		});
+
+		// the DDL and the id generator prefetch do not depend on the named queries and the static metamodels
+		final Phase ddl = startupManager.add(new Phase("ddl", link) {
+
+			@Override
+			protected void perform() throws BatooException {
+				final EntityManagerFactoryImpl emf = EntityManagerFactoryImpl.this;
+
+				// drop all tables if ddl mode is drop
+				if (emf.ddlMode == DDLMode.DROP) {
+					emf.metamodel.dropAllTables(emf.dataSource);
+				}
+
+				DdlManager.perform(emf.dataSource, emf.metamodel, emf.ddlMode);
+
+				emf.metamodel.performSequencesDdl(emf.dataSource, emf.ddlMode);
+				emf.metamodel.performTableGeneratorsDdl(emf.dataSource, emf.ddlMode);
+			}
+		});
+
+		final Phase generators = startupManager.add(new Phase("generators", ddl) {
+
+			@Override
+			protected void perform() throws BatooException {
+				EntityManagerFactoryImpl.this.metamodel.preFillGenerators(EntityManagerFactoryImpl.this.dataSource);
+			}
+		});
+
+		startupManager.add(new Phase("namedQueries", link) {
+
+			@Override
+			protected void perform() throws BatooException {
+				NamedQueriesManager.perform(EntityManagerFactoryImpl.this.metamodel, EntityManagerFactoryImpl.this.criteriaBuilder);
+			}
+		});
+
+		startupManager.add(new Phase("staticMetamodels", link) {
+
+			@Override
+			protected void perform() throws BatooException {
+				// lets init static metamodel class if exist
+				EntityManagerFactoryImpl.this.metamodel.initStaticMetamodels();
+			}
+		});
+
+		if (this.readPrecompile()) {
+			startupManager.add(new Phase("precompile", link) {
+
+				@Override
+				protected void perform() throws BatooException {
+					EntityManagerFactoryImpl.this.metamodel.precompile(EntityManagerFactoryImpl.this.criteriaBuilder);
+				}
+			});
+		}
+
+		startupManager.add(new Phase("importSql", generators) {
+
+			@Override
+			protected void perform() throws BatooException {
+				final EntityManagerFactoryImpl emf = EntityManagerFactoryImpl.this;
+
+				emf.jdbcAdaptor.importSql(emf.classloader, emf.dataSource, (String) emf.getProperties().get(BJPASettings.IMPORT_SQL));
+			}
+		});
+
+		startupManager.perform();
+
+		return startupManager.getTimings();
+	}
+
 	private void prepareProperties(PersistenceParser parser) {
 		final Enumeration<?> e = System.getProperties().propertyNames();
 
@@ -758,6 +979,33 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return DDLMode.valueOf(ddlMode.toUpperCase());
 	}
 
+	private boolean readJmx() {
+		final Object jmx = this.getProperty(BJPASettings.JMX);
+		if (jmx == null) {
+			return BJPASettings.DEFAULT_JMX;
+		}
+
+		return Boolean.valueOf(jmx.toString());
+	}
+
+	private boolean readPrecompile() {
+		final Object precompile = this.getProperty(BJPASettings.PRECOMPILE);
+		if (precompile == null) {
+			return BJPASettings.DEFAULT_PRECOMPILE;
+		}
+
+		return Boolean.valueOf(precompile.toString());
+	}
+
+	private boolean readStatistics() {
+		final Object statistics = this.getProperty(BJPASettings.STATISTICS);
+		if (statistics == null) {
+			return BJPASettings.DEFAULT_STATISTICS;
+		}
+
+		return Boolean.valueOf(statistics.toString());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -769,6 +1017,10 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			return (T) this;
 		}
 
+		if (clazz == Statistics.class) {
+			return (T) this.statistics;
+		}
+
 		if ((clazz == BoneCPDataSource.class) && (this.dataSource.getDelegate() instanceof BoneCPDataSource)) {
 			return (T) this.dataSource.getDelegate();
 		}
@@ -47,6 +47,7 @@ import org.apache.commons.lang.mutable.MutableBoolean;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.common.util.StringUtils;
+import org.batoo.jpa.BJPASettings;
 import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
 import org.batoo.jpa.core.impl.criteria.CriteriaDeleteImpl;
 import org.batoo.jpa.core.impl.criteria.CriteriaQueryImpl;
@@ -62,6 +63,11 @@ import org.batoo.jpa.core.impl.model.MetamodelImpl;
 import org.batoo.jpa.core.impl.model.mapping.AssociationMappingImpl;
 import org.batoo.jpa.core.impl.model.mapping.PluralAssociationMappingImpl;
 import org.batoo.jpa.core.impl.nativequery.NativeQuery;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.NPlusOneDetector;
+import org.batoo.jpa.core.stats.Statistics;
+import org.batoo.jpa.core.workload.WorkloadOperation;
+import org.batoo.jpa.core.workload.WorkloadRecorder;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata.EntityListenerType;
 import org.batoo.jpa.parser.metadata.NamedNativeQueryMetadata;
@@ -88,6 +94,9 @@ public class EntityManagerImpl implements EntityManager {
 	private final JdbcAdaptor jdbcAdaptor;
 	private final Map<String, Object> properties;
 	private final SessionImpl session;
+	private final NPlusOneDetector nPlusOneDetector;
+	private final WorkloadRecorder workloadRecorder;
+	private final int workloadSession;
 
 	private boolean open;
 
@@ -96,6 +105,7 @@ public class EntityManagerImpl implements EntityManager {
 
 	private FlushModeType flushMode;
 	private boolean inFlush;
+	private MergePlanner mergePlanner;
 
 	/**
 	 * @param entityManagerFactory
@@ -119,10 +129,16 @@ public class EntityManagerImpl implements EntityManager {
 		this.metamodel = metamodel;
 		this.datasource = datasource;
 		this.jdbcAdaptor = jdbcAdaptor;
+		this.properties = properties;
 		this.session = new SessionImpl(this, metamodel);
 		this.criteriaBuilder = this.emf.getCriteriaBuilder();
 
-		this.properties = properties;
+		final int nPlusOneThreshold = this.readNPlusOneThreshold();
+		this.nPlusOneDetector = nPlusOneThreshold > 0 ? new NPlusOneDetector(this.emf.getStatistics(), nPlusOneThreshold) : null;
+
+		this.workloadRecorder = this.emf.getWorkloadRecorder();
+		this.workloadSession = this.workloadRecorder != null ? this.workloadRecorder.nextSession() : 0;
+
 		this.flushMode = FlushModeType.AUTO;
 
 		this.open = true;
@@ -233,15 +249,23 @@ public class EntityManagerImpl implements EntityManager {
 		}
 
 		this.session.clear();
+
+		if (this.nPlusOneDetector != null) {
+			this.nPlusOneDetector.clear();
+		}
 	}
 
 	/**
 	 * Clears the transaction.
+	 * <p>
+	 * The optimistic locks not yet performed are discarded with the transaction.
 	 * 
 	 * @since 2.0.0
 	 */
 	public void clearTransaction() {
 		this.transaction = null;
+
+		this.session.clearOptimisticLocks();
 	}
 
 	/**
@@ -252,6 +276,8 @@ public class EntityManagerImpl implements EntityManager {
 	public void close() {
 		this.assertOpen();
 
+		final long start = System.nanoTime();
+
 		if ((this.transaction != null) && this.transaction.isActive()) {
 			this.transaction.rollback();
 
@@ -261,6 +287,10 @@ public class EntityManagerImpl implements EntityManager {
 		this.closeConnection();
 
 		this.open = false;
+
+		if (this.workloadRecorder != null) {
+			this.workloadRecorder.session(this.workloadSession, WorkloadOperation.CLOSE, start, System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -297,7 +327,7 @@ public class EntityManagerImpl implements EntityManager {
 
 		final ManagedInstance<Object> instance = this.session.get(entity);
 
-		return (instance != null) && (instance.getInstance() == entity);
+		return (instance != null) && (instance.getStatus() != Status.DETACHED) && (instance.getInstance() == entity);
 	}
 
 	/**
@@ -465,7 +495,17 @@ public class EntityManagerImpl implements EntityManager {
 		// try to locate in the session
 		final EntityTypeImpl<T> type = this.metamodel.entity(entityClass);
 
-		return this.findImpl(primaryKey, lockMode, properties, type);
+		if (this.workloadRecorder == null) {
+			return this.findImpl(primaryKey, lockMode, properties, type);
+		}
+
+		final long start = System.nanoTime();
+		try {
+			return this.findImpl(primaryKey, lockMode, properties, type);
+		}
+		finally {
+			this.workloadRecorder.find(this.workloadSession, type, primaryKey, start, System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -481,7 +521,7 @@ public class EntityManagerImpl implements EntityManager {
 		this.session.setLoadTracker();
 
 		try {
-			final ManagedInstance<? extends T> instance = this.session.get(new ManagedId<T>(primaryKey, type));
+			final ManagedInstance<? extends T> instance = this.session.get(type, primaryKey);
 			if (instance != null) {
 				if (instance.getInstance() instanceof EnhancedInstance) {
 					final EnhancedInstance enhanced = (EnhancedInstance) instance.getInstance();
@@ -521,6 +561,18 @@ public class EntityManagerImpl implements EntityManager {
 	 */
 	@Override
 	public void flush() {
+		this.flush(false);
+	}
+
+	/**
+	 * Flushes the entity manager.
+	 * 
+	 * @param commit
+	 *            if the flush is for the commit of the transaction, in which case the optimistic locks are also performed
+	 * 
+	 * @since 2.0.1
+	 */
+	public void flush(boolean commit) {
 		if (this.inFlush) {
 			return;
 		}
@@ -536,7 +588,7 @@ public class EntityManagerImpl implements EntityManager {
 			this.session.cascadeRemovals(instances);
 			this.session.handleOrphans(instances);
 
-			this.session.flush(this.getConnection());
+			this.session.flush(this.getConnection(), commit);
 		}
 		catch (final SQLException e) {
 			EntityManagerImpl.LOG.error(e, "Flush failed");
@@ -672,16 +724,15 @@ public class EntityManagerImpl implements EntityManager {
 
 		// try to locate in the session
 		final EntityTypeImpl<T> type = this.metamodel.entity(entityClass);
-		final ManagedId<T> managedId = new ManagedId<T>(primaryKey, type);
 
 		// try to locate in the session
-		ManagedInstance<? extends T> instance = this.session.get(managedId);
+		ManagedInstance<? extends T> instance = this.session.get(type, primaryKey);
 		if (instance != null) {
 			return instance.getInstance();
 		}
 
 		// create a lazy instance
-		instance = type.getManagedInstanceById(this.session, managedId, true);
+		instance = type.getManagedInstanceById(this.session, new ManagedId<T>(primaryKey, type), true);
 		this.session.put(instance);
 
 		// and return it
@@ -716,6 +767,28 @@ public class EntityManagerImpl implements EntityManager {
 		return this.transaction = new EntityTransactionImpl(this, this.getConnection());
 	}
 
+	/**
+	 * Returns the recorder capturing the workload.
+	 * 
+	 * @return the workload recorder or <code>null</code> if the workload is not captured
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecorder getWorkloadRecorder() {
+		return this.workloadRecorder;
+	}
+
+	/**
+	 * Returns the session that identifies the operations of the entity manager in the captured workload.
+	 * 
+	 * @return the workload session
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getWorkloadSession() {
+		return this.workloadSession;
+	}
+
 	/**
 	 * Returns if the entity manager has an active transaction.
 	 * 
@@ -742,6 +815,44 @@ public class EntityManagerImpl implements EntityManager {
 		return false;
 	}
 
+	/**
+	 * Initializes the lazy reference to the entity.
+	 * <p>
+	 * Called by the enhanced instances on their first access.
+	 * 
+	 * @param entityClass
+	 *            the class of the entity
+	 * @param primaryKey
+	 *            the primary key of the entity
+	 * @param <T>
+	 *            the type of the entity
+	 * @return the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public <T> T initializeReference(Class<T> entityClass, Object primaryKey) {
+		if (this.nPlusOneDetector != null) {
+			final String entityName = this.metamodel.entity(entityClass).getName();
+
+			this.nPlusOneDetector.lazyLoaded(entityName, entityName);
+		}
+
+		final EntityTypeImpl<T> type = this.metamodel.entity(entityClass);
+
+		final EventRecorder recorder = this.emf.getStatistics().getEventRecorder();
+		if (recorder == null) {
+			return this.findImpl(primaryKey, null, null, type);
+		}
+
+		final long start = System.nanoTime();
+		try {
+			return this.findImpl(primaryKey, null, null, type);
+		}
+		finally {
+			recorder.referenceInitialized(this.metamodel.entity(entityClass).getName(), System.nanoTime() - start);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -782,6 +893,22 @@ public class EntityManagerImpl implements EntityManager {
 	public void joinTransaction() {
 	}
 
+	/**
+	 * Records a lazy load of the association to detect the N+1 selects.
+	 * 
+	 * @param association
+	 *            the qualified name of the association
+	 * @param ownerType
+	 *            the name of the type of the owner of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public void lazyLoaded(String association, String ownerType) {
+		if (this.nPlusOneDetector != null) {
+			this.nPlusOneDetector.lazyLoaded(association, ownerType);
+		}
+	}
+
 	/**
 	 * Locks the entity.
 	 * 
@@ -803,19 +930,12 @@ public class EntityManagerImpl implements EntityManager {
 					+ instance.getType().getName());
 			}
 
-			try {
-				if (lockMode == LockModeType.OPTIMISTIC_FORCE_INCREMENT) {
-					this.assertTransaction();
-
-					instance.incrementVersion(this.getConnection(), true);
-				}
-				else {
-					instance.incrementVersion(this.getConnection(), false);
-				}
-			}
-			catch (final SQLException e) {
-				throw new PersistenceException("Unabled to update the version", e);
+			if (lockMode == LockModeType.OPTIMISTIC_FORCE_INCREMENT) {
+				this.assertTransaction();
 			}
+
+			// the version is checked or incremented with the commit, batched together with the other instances of the type
+			this.session.lockOptimistic(instance, lockMode);
 		}
 	}
 
@@ -843,11 +963,38 @@ public class EntityManagerImpl implements EntityManager {
 	 */
 	@Override
 	public <T> T merge(T entity) {
+		if (this.workloadRecorder == null) {
+			return this.mergeEntity(entity);
+		}
+
+		final long start = System.nanoTime();
+		try {
+			return this.mergeEntity(entity);
+		}
+		finally {
+			this.workloadRecorder.write(this.workloadSession, WorkloadOperation.MERGE, entity, start, System.nanoTime() - start);
+		}
+	}
+
+	private <T> T mergeEntity(T entity) {
 		final MutableBoolean requiresFlush = new MutableBoolean(false);
 
 		final LinkedList<ManagedInstance<?>> persistedInstances = Lists.newLinkedList();
 
-		final T mergedEntity = this.mergeImpl(entity, requiresFlush, Maps.<Object, Object> newIdentityHashMap(), persistedInstances, true);
+		// prefetch the instances of the detached graph
+		final MergePlanner planner = new MergePlanner(this);
+		planner.collect(entity);
+		planner.prefetch();
+
+		this.mergePlanner = planner;
+
+		final T mergedEntity;
+		try {
+			mergedEntity = this.mergeImpl(entity, requiresFlush, Maps.<Object, Object> newIdentityHashMap(), persistedInstances, true);
+		}
+		finally {
+			this.mergePlanner = null;
+		}
 
 		if (requiresFlush.booleanValue()) {
 			this.flush();
@@ -935,10 +1082,14 @@ public class EntityManagerImpl implements EntityManager {
 		// if it has an id try to locate instance in the database
 		if (id != null) {
 			T existingEntity = null;
-			try {
-				existingEntity = this.find((Class<T>) clazz, id);
+
+			// no need to look up the instances the merge planner could not find
+			if ((this.mergePlanner == null) || !this.mergePlanner.isAbsent(type, id)) {
+				try {
+					existingEntity = this.findImpl(id, null, null, type);
+				}
+				catch (final NoResultException e) {}
 			}
-			catch (final NoResultException e) {}
 
 			// if it is found in the database then merge and return
 			if (existingEntity != null) {
@@ -979,6 +1130,22 @@ public class EntityManagerImpl implements EntityManager {
 	 */
 	@Override
 	public void persist(Object entity) {
+		if (this.workloadRecorder == null) {
+			this.persistEntity(entity);
+
+			return;
+		}
+
+		final long start = System.nanoTime();
+		try {
+			this.persistEntity(entity);
+		}
+		finally {
+			this.workloadRecorder.write(this.workloadSession, WorkloadOperation.PERSIST, entity, start, System.nanoTime() - start);
+		}
+	}
+
+	private void persistEntity(Object entity) {
 		this.assertTransaction();
 
 		final LinkedList<ManagedInstance<?>> persistedInstances = Lists.newLinkedList();
@@ -1064,6 +1231,21 @@ public class EntityManagerImpl implements EntityManager {
 		return requiresFlush;
 	}
 
+	private int readNPlusOneThreshold() {
+		final Object threshold = this.properties != null ? this.properties.get(BJPASettings.N_PLUS_ONE_THRESHOLD) : null;
+
+		if (threshold == null) {
+			return this.emf.getNPlusOneThreshold();
+		}
+
+		try {
+			return Integer.valueOf(threshold.toString());
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + threshold + " for " + BJPASettings.N_PLUS_ONE_THRESHOLD);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -1148,6 +1330,22 @@ public class EntityManagerImpl implements EntityManager {
 	 */
 	@Override
 	public void remove(Object entity) {
+		if (this.workloadRecorder == null) {
+			this.removeEntity(entity);
+
+			return;
+		}
+
+		final long start = System.nanoTime();
+		try {
+			this.removeEntity(entity);
+		}
+		finally {
+			this.workloadRecorder.write(this.workloadSession, WorkloadOperation.REMOVE, entity, start, System.nanoTime() - start);
+		}
+	}
+
+	private void removeEntity(Object entity) {
 		this.assertOpen();
 
 		final LinkedList<ManagedInstance<?>> removedInstances = Lists.newLinkedList();
@@ -1254,6 +1452,10 @@ public class EntityManagerImpl implements EntityManager {
 			return (T) this.connection;
 		}
 
+		if (clazz == Statistics.class) {
+			return (T) this.emf.getStatistics();
+		}
+
 		return null;
 	}
 }
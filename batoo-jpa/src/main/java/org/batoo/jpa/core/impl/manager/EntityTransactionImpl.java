@@ -26,6 +26,9 @@ import javax.persistence.EntityTransaction;
 import javax.persistence.PersistenceException;
 import javax.persistence.TransactionRequiredException;
 
+import org.batoo.jpa.core.workload.WorkloadOperation;
+import org.batoo.jpa.core.workload.WorkloadRecorder;
+
 /**
  * Implementation of {@link EntityTransaction}.
  * 
@@ -73,6 +76,17 @@ public class EntityTransactionImpl implements EntityTransaction {
 	 */
 	@Override
 	public void begin() {
+		final long start = System.nanoTime();
+
+		try {
+			this.beginImpl();
+		}
+		finally {
+			this.workloadCaptured(WorkloadOperation.BEGIN, start);
+		}
+	}
+
+	private void beginImpl() {
 		this.assertValid();
 
 		try {
@@ -93,6 +107,17 @@ public class EntityTransactionImpl implements EntityTransaction {
 	 */
 	@Override
 	public void commit() {
+		final long start = System.nanoTime();
+
+		try {
+			this.commitImpl();
+		}
+		finally {
+			this.workloadCaptured(WorkloadOperation.COMMIT, start);
+		}
+	}
+
+	private void commitImpl() {
 		if (!this.active) {
 			throw new TransactionRequiredException("Transaction has not been started");
 		}
@@ -104,7 +129,7 @@ public class EntityTransactionImpl implements EntityTransaction {
 		}
 
 		try {
-			this.em.flush();
+			this.em.flush(true);
 
 			this.connection.commit();
 			this.connection.setAutoCommit(true);
@@ -142,6 +167,17 @@ public class EntityTransactionImpl implements EntityTransaction {
 	 */
 	@Override
 	public void rollback() {
+		final long start = System.nanoTime();
+
+		try {
+			this.rollbackImpl();
+		}
+		finally {
+			this.workloadCaptured(WorkloadOperation.ROLLBACK, start);
+		}
+	}
+
+	private void rollbackImpl() {
 		this.assertValid();
 
 		try {
@@ -162,4 +198,11 @@ public class EntityTransactionImpl implements EntityTransaction {
 	public void setRollbackOnly() {
 		this.rollbackOnly = true;
 	}
+
+	private void workloadCaptured(WorkloadOperation operation, long start) {
+		final WorkloadRecorder recorder = this.em.getWorkloadRecorder();
+		if (recorder != null) {
+			recorder.session(this.em.getWorkloadSession(), operation, start, System.nanoTime() - start);
+		}
+	}
 }
@@ -173,7 +173,7 @@ public class JtaEntityManagerImpl extends EntityManagerImpl {
 
 					@Override
 					public void beforeCompletion() {
-						JtaEntityManagerImpl.this.flush();
+						JtaEntityManagerImpl.this.flush(true);
 					}
 				});
 			}
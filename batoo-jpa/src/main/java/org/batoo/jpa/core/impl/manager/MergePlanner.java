@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.impl.manager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.persistence.metamodel.PluralAttribute.CollectionType;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.collections.ManagedCollection;
+import org.batoo.jpa.core.impl.instance.EnhancedInstance;
+import org.batoo.jpa.core.impl.instance.ManagedId;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.impl.model.mapping.AssociationMappingImpl;
+import org.batoo.jpa.core.impl.model.mapping.PluralAssociationMappingImpl;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Planner that prefetches the instances of a detached graph before it is merged.
+ * <p>
+ * The planner walks the detached graph and collects the ids of the entities that are not in the session per root type. The missing
+ * instances are then loaded with selects batched by their ids, so that the merge finds them in the session rather than selecting them
+ * one by one. Types that have a single entity missing, or a composite or embedded id, are left to the merge to find.
+ * <p>
+ * The elements of the collections of the persistent entities are not prefetched, as the merge loads the collections of the managed
+ * entities with a single select per collection, which brings the elements into the session.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MergePlanner {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(MergePlanner.class);
+
+	private final EntityManagerImpl entityManager;
+	private final SessionImpl session;
+	private final MetamodelImpl metamodel;
+	private final int batchSize;
+
+	private final IdentityHashMap<Object, Object> visited = Maps.newIdentityHashMap();
+	private final HashMap<EntityTypeImpl<?>, Set<Object>> ids = Maps.newLinkedHashMap();
+	private final HashSet<ManagedId<?>> absent = Sets.newHashSet();
+
+	/**
+	 * @param entityManager
+	 *            the entity manager
+	 * 
+	 * @since 2.0.1
+	 */
+	public MergePlanner(EntityManagerImpl entityManager) {
+		super();
+
+		this.entityManager = entityManager;
+		this.session = entityManager.getSession();
+		this.metamodel = entityManager.getMetamodel();
+		this.batchSize = entityManager.getJdbcAdaptor().getRemoveBatchSize();
+	}
+
+	/**
+	 * Walks the detached graph of the entity and collects the ids of the entities that are not in the session.
+	 * 
+	 * @param entity
+	 *            the entity to walk the graph of
+	 * 
+	 * @since 2.0.1
+	 */
+	public void collect(Object entity) {
+		this.collect(entity, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void collect(Object entity, boolean loadedByOwner) {
+		if ((entity == null) || (this.visited.put(entity, entity) != null)) {
+			return;
+		}
+
+		Class<?> clazz = entity.getClass();
+		if (entity instanceof EnhancedInstance) {
+			clazz = clazz.getSuperclass();
+		}
+
+		final EntityTypeImpl<Object> type = (EntityTypeImpl<Object>) this.metamodel.entity(clazz);
+		if (type == null) {
+			return;
+		}
+
+		final Object id = type.getInstanceId(entity);
+
+		if (!loadedByOwner && (id != null) && (this.session.get(entity) == null) && type.canBatchSelects()) {
+			final EntityTypeImpl<?> rootType = type.getRootType();
+
+			Set<Object> typeIds = this.ids.get(rootType);
+			if (typeIds == null) {
+				typeIds = Sets.newLinkedHashSet();
+				this.ids.put(rootType, typeIds);
+			}
+
+			typeIds.add(id);
+		}
+
+		// the graph of a lazy instance that has not been loaded is not walked
+		if ((entity instanceof EnhancedInstance) && !((EnhancedInstance) entity).__enhanced__$$__isInitialized()) {
+			return;
+		}
+
+		for (final AssociationMappingImpl<?, ?, ?> association : type.getAssociations()) {
+			if (association instanceof PluralAssociationMappingImpl) {
+				final PluralAssociationMappingImpl<?, ?, ?> mapping = (PluralAssociationMappingImpl<?, ?, ?>) association;
+
+				final Object value = mapping.get(entity);
+
+				// the collections that have not been loaded are not merged
+				if ((value == null) || ((value instanceof ManagedCollection) && !((ManagedCollection<?>) value).isInitialized())) {
+					continue;
+				}
+
+				final Collection<?> children = mapping.getAttribute().getCollectionType() == CollectionType.MAP ? //
+					((Map<?, ?>) value).values() : (Collection<?>) value;
+
+				// the elements of the collections of a persistent entity are loaded with the collections
+				for (final Object child : children) {
+					this.collect(child, id != null);
+				}
+			}
+			else {
+				this.collect(association.get(entity), false);
+			}
+		}
+	}
+
+	/**
+	 * Returns if the instance has been looked up by the planner and does not exist in the database.
+	 * 
+	 * @param type
+	 *            the type of the instance
+	 * @param id
+	 *            the id of the instance
+	 * @return true if the instance is known to not exist, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isAbsent(EntityTypeImpl<?> type, Object id) {
+		return this.absent.contains(this.toManagedId(type, id));
+	}
+
+	/**
+	 * Loads the instances collected that are not in the session with selects batched by their ids.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void prefetch() {
+		final Object[] batch = new Object[this.batchSize];
+
+		for (final Entry<EntityTypeImpl<?>, Set<Object>> entry : this.ids.entrySet()) {
+			final EntityTypeImpl<?> type = entry.getKey();
+			final Object[] typeIds = entry.getValue().toArray();
+
+			// a single instance costs the same to find while merging
+			if (typeIds.length < 2) {
+				continue;
+			}
+
+			MergePlanner.LOG.debug("Prefetching {0} instances of {1} for merge", typeIds.length, type.getName());
+
+			for (int i = 0; i < typeIds.length; i += this.batchSize) {
+				final int size = Math.min(this.batchSize, typeIds.length - i);
+
+				System.arraycopy(typeIds, i, batch, 0, size);
+
+				type.performSelect(this.entityManager, batch, size);
+			}
+
+			for (final Object id : typeIds) {
+				if (this.session.get(type, id) == null) {
+					this.absent.add(this.toManagedId(type, id));
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ManagedId<?> toManagedId(EntityTypeImpl<?> type, Object id) {
+		return new ManagedId(id, type);
+	}
+}
@@ -19,20 +19,30 @@
 
 package org.batoo.jpa.core.impl.manager;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceException;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 
+import org.batoo.common.collections.LongHashMap;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.BJPASettings;
 import org.batoo.jpa.core.impl.instance.EnhancedInstance;
 import org.batoo.jpa.core.impl.instance.ManagedId;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
@@ -40,6 +50,8 @@ import org.batoo.jpa.core.impl.instance.Prioritizer;
 import org.batoo.jpa.core.impl.instance.Status;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata.EntityListenerType;
 
 import com.google.common.collect.Lists;
@@ -53,6 +65,23 @@ import com.google.common.collect.Sets;
  */
 public class SessionImpl {
 
+	/**
+	 * Weak reference to an instance evicted from the session.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class EvictedReference extends WeakReference<ManagedInstance<?>> {
+
+		private final ManagedId<?> key;
+
+		private EvictedReference(ManagedId<?> key, ManagedInstance<?> instance, ReferenceQueue<ManagedInstance<?>> queue) {
+			super(instance, queue);
+
+			this.key = key;
+		}
+	}
+
 	private static final BLogger LOG = BLoggerFactory.getLogger(SessionImpl.class);
 
 	private static volatile long nextSessionId = 1;
@@ -62,10 +91,12 @@ public class SessionImpl {
 	private Object sessionId;
 
 	private final HashMap<ManagedId<?>, ManagedInstance<?>> repository = Maps.newHashMap();
+	private final LongHashMap<ManagedInstance<?>>[] primitiveRepositories;
 
 	private final ArrayList<ManagedInstance<?>> newEntities = Lists.newArrayList();
 	private final ArrayList<ManagedInstance<?>> externalEntities = Lists.newArrayList();
 	private final HashSet<ManagedInstance<?>> changedEntities = Sets.newHashSet();
+	private final LinkedHashMap<ManagedInstance<?>, LockModeType> optimisticLocks = Maps.newLinkedHashMap();
 
 	private List<ManagedInstance<?>> entitiesLoading = Lists.newArrayList();
 
@@ -74,6 +105,17 @@ public class SessionImpl {
 	private final int insertBatchSize;
 	private final int removeBatchSize;
 
+	// the evictable instances in the repositories in least recently used order, only maintained if the session has a capacity
+	private final int capacity;
+	private final LinkedHashMap<ManagedInstance<?>, ManagedInstance<?>> lru;
+
+	// the instances found not evictable, kept out of the lru until the next flush
+	private final ArrayList<ManagedInstance<?>> pinned;
+
+	// the evicted instances, tracked as long as the application references them
+	private final HashMap<ManagedId<?>, EvictedReference> evicted;
+	private final ReferenceQueue<ManagedInstance<?>> evictedQueue;
+
 	/**
 	 * @param entityManager
 	 *            the owner entity manager
@@ -82,14 +124,22 @@ public class SessionImpl {
 	 * 
 	 * @since 2.0.0
 	 */
+	@SuppressWarnings("unchecked")
 	public SessionImpl(EntityManagerImpl entityManager, MetamodelImpl metamodel) {
 		super();
 
 		this.em = entityManager;
 		this.metamodel = metamodel;
+		this.primitiveRepositories = (LongHashMap<ManagedInstance<?>>[]) new LongHashMap<?>[metamodel.getEntityCount()];
 		this.insertBatchSize = this.em.getJdbcAdaptor().getInsertBatchSize();
 		this.removeBatchSize = this.em.getJdbcAdaptor().getRemoveBatchSize();
 
+		this.capacity = this.readCapacity();
+		this.lru = this.capacity > 0 ? new LinkedHashMap<ManagedInstance<?>, ManagedInstance<?>>(16, 0.75f, true) : null;
+		this.pinned = this.capacity > 0 ? Lists.<ManagedInstance<?>> newArrayList() : null;
+		this.evicted = this.capacity > 0 ? Maps.<ManagedId<?>, EvictedReference> newHashMap() : null;
+		this.evictedQueue = this.capacity > 0 ? new ReferenceQueue<ManagedInstance<?>>() : null;
+
 		if (SessionImpl.LOG.isDebugEnabled()) {
 			this.sessionId = "Session" + SessionImpl.nextSessionId++;
 		}
@@ -151,9 +201,128 @@ public class SessionImpl {
 			instance.setStatus(Status.DETACHED);
 		}
 
+		for (final LongHashMap<ManagedInstance<?>> primitiveRepository : this.primitiveRepositories) {
+			if (primitiveRepository != null) {
+				for (final ManagedInstance<?> instance : primitiveRepository.values()) {
+					instance.setStatus(Status.DETACHED);
+				}
+
+				primitiveRepository.clear();
+			}
+		}
+
 		this.repository.clear();
 		this.externalEntities.clear();
 		this.changedEntities.clear();
+		this.optimisticLocks.clear();
+
+		if (this.lru != null) {
+			this.lru.clear();
+			this.pinned.clear();
+
+			this.expungeEvicted();
+
+			for (final EvictedReference reference : this.evicted.values()) {
+				final ManagedInstance<?> instance = reference.get();
+				if (instance != null) {
+					instance.setStatus(Status.DETACHED);
+				}
+			}
+
+			this.evicted.clear();
+		}
+	}
+
+	/**
+	 * Discards the optimistic locks not yet performed.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void clearOptimisticLocks() {
+		this.optimisticLocks.clear();
+	}
+
+	/**
+	 * Performs the version checks and the version increments of the instances locked optimistically.
+	 * <p>
+	 * The versions of the instances that are updated or removed are checked and incremented by the updates and removals themselves. The
+	 * remaining instances are grouped by their types and checked with a single select per batch, or incremented with a single JDBC batch.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param updates
+	 *            the list of updates
+	 * @param removals
+	 *            the list of removals
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	private void doOptimisticLocks(Connection connection, List<ManagedInstance<?>> updates, List<ManagedInstance<?>> removals) throws SQLException {
+		if (this.optimisticLocks.isEmpty()) {
+			return;
+		}
+
+		final HashSet<ManagedInstance<?>> flushed = Sets.newHashSet(updates);
+		flushed.addAll(removals);
+
+		final LinkedHashMap<EntityTypeImpl<?>, List<ManagedInstance<?>>> checks = Maps.newLinkedHashMap();
+		final LinkedHashMap<EntityTypeImpl<?>, List<ManagedInstance<?>>> increments = Maps.newLinkedHashMap();
+
+		for (final Entry<ManagedInstance<?>, LockModeType> entry : this.optimisticLocks.entrySet()) {
+			final ManagedInstance<?> instance = entry.getKey();
+			if ((instance.getStatus() != Status.MANAGED) || flushed.contains(instance)) {
+				continue;
+			}
+
+			final Map<EntityTypeImpl<?>, List<ManagedInstance<?>>> locks = entry.getValue() == LockModeType.OPTIMISTIC_FORCE_INCREMENT ? increments : checks;
+
+			List<ManagedInstance<?>> instances = locks.get(instance.getType().getRootType());
+			if (instances == null) {
+				instances = Lists.newArrayList();
+				locks.put(instance.getType().getRootType(), instances);
+			}
+
+			instances.add(instance);
+		}
+
+		this.optimisticLocks.clear();
+
+		SessionImpl.LOG.debug("Performing optimistic locks on session {0}: checks {1}, increments {2}", this, checks.size(), increments.size());
+
+		final ManagedInstance<?>[] batch = new ManagedInstance<?>[Math.max(this.insertBatchSize, this.removeBatchSize)];
+
+		for (final Entry<EntityTypeImpl<?>, List<ManagedInstance<?>>> entry : checks.entrySet()) {
+			final List<ManagedInstance<?>> instances = entry.getValue();
+
+			for (int i = 0; i < instances.size(); i += this.removeBatchSize) {
+				final int batchSize = Math.min(this.removeBatchSize, instances.size() - i);
+				for (int j = 0; j < batchSize; j++) {
+					batch[j] = instances.get(i + j);
+				}
+
+				entry.getKey().performVersionCheck(connection, batch, batchSize);
+			}
+		}
+
+		for (final Entry<EntityTypeImpl<?>, List<ManagedInstance<?>>> entry : increments.entrySet()) {
+			final List<ManagedInstance<?>> instances = entry.getValue();
+
+			for (int i = 0; i < instances.size(); i += this.insertBatchSize) {
+				final int batchSize = Math.min(this.insertBatchSize, instances.size() - i);
+				for (int j = 0; j < batchSize; j++) {
+					batch[j] = instances.get(i + j);
+					batch[j].upgradeVersion();
+				}
+
+				entry.getKey().performVersionUpdate(connection, batch, batchSize);
+
+				for (int j = 0; j < batchSize; j++) {
+					batch[j].versionUpdated();
+				}
+			}
+		}
 	}
 
 	/**
@@ -169,7 +338,7 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	private void doRemoves(Connection connection, final ManagedInstance<?>[] removes) throws SQLException {
-		final ManagedInstance<?>[] batch = new ManagedInstance[this.removeBatchSize];
+		final ManagedInstance<?>[] batch = new ManagedInstance<?>[this.removeBatchSize];
 
 		int i = 0;
 
@@ -198,6 +367,8 @@ public class SessionImpl {
 
 			lastEntity.performRemove(connection, batch, batchSize);
 
+			this.em.getEntityManagerFactory().getStatistics().entitiesDeleted(lastEntity.getName(), batchSize);
+
 			batchSize = 0;
 			lastEntity = null;
 		}
@@ -216,7 +387,8 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	private void doUpdates(Connection connection, final ManagedInstance<?>[] updates) throws SQLException {
-		final ManagedInstance<?>[] managedInstances = new ManagedInstance[this.insertBatchSize];
+		final ManagedInstance<?>[] managedInstances = new ManagedInstance<?>[this.insertBatchSize];
+		final Statistics statistics = this.em.getEntityManagerFactory().getStatistics();
 
 		int i = 0;
 
@@ -249,15 +421,21 @@ public class SessionImpl {
 				SessionImpl.LOG.debug("Batch insert is being performed for {0} with the size {1}", lastEntity.getName(), batchSize);
 
 				lastEntity.performInsert(connection, managedInstances, batchSize);
+
+				statistics.entitiesInserted(lastEntity.getName(), batchSize);
 			}
 			else {
 				final ManagedInstance<?> instance = updates[i];
 				if (instance.getStatus() == Status.NEW) {
 					managedInstances[0] = instance;
 					instance.getType().performInsert(connection, managedInstances, 1);
+
+					statistics.entitiesInserted(instance.getType().getName(), 1);
 				}
 				else {
 					instance.getType().performUpdate(connection, instance);
+
+					statistics.entityUpdated(instance.getType().getName());
 				}
 
 				i++;
@@ -268,20 +446,72 @@ public class SessionImpl {
 	/**
 	 * Increments the versions.
 	 * 
-	 * @param connection
-	 *            the connection
 	 * @param updates
 	 *            the updates
-	 * @throws SQLException
-	 *             thrown in case of an SQL error
 	 * 
 	 * @since 2.0.0
 	 */
-	private void doVersionUpgrades(Connection connection, ManagedInstance<?>[] updates) throws SQLException {
+	private void doVersionUpgrades(ManagedInstance<?>[] updates) {
 		SessionImpl.LOG.debug("Performing version upgrades on session {0}", this);
 
 		for (final ManagedInstance<?> instance : updates) {
-			instance.incrementVersion(connection, false);
+			instance.incrementVersion();
+		}
+	}
+
+	/**
+	 * Evicts the least recently used unmodified instances loaded from the database until the session is back within its capacity.
+	 * <p>
+	 * The evicted instances remain managed while the application references them, they are put back into the session once they are
+	 * looked up or changed. The instances that are new, changed, removed, loading or lazy references not yet initialized are never
+	 * evicted, they are kept out of the scan until the next flush.
+	 * 
+	 * @since 2.0.1
+	 */
+	private void evict() {
+		if ((this.lru == null) || (this.lru.size() <= this.capacity) || (this.loadTracker > 0)) {
+			return;
+		}
+
+		this.expungeEvicted();
+
+		int count = 0;
+
+		final Iterator<ManagedInstance<?>> i = this.lru.keySet().iterator();
+		while ((this.lru.size() > this.capacity) && i.hasNext()) {
+			final ManagedInstance<?> instance = i.next();
+			i.remove();
+
+			if (!this.isEvictable(instance)) {
+				this.pinned.add(instance);
+
+				continue;
+			}
+
+			final EntityTypeImpl<?> rootType = instance.getType().getRootType();
+			final Object id = instance.getId().getId();
+
+			this.removeImpl(rootType, id);
+
+			final ManagedId<?> key = this.getEvictedKey(rootType, id);
+			this.evicted.put(key, new EvictedReference(key, instance, this.evictedQueue));
+
+			count++;
+		}
+
+		if (count > 0) {
+			SessionImpl.LOG.debug("Evicted {0} instances from session {1}", count, this);
+		}
+	}
+
+	private void expungeEvicted() {
+		Reference<? extends ManagedInstance<?>> reference;
+		while ((reference = this.evictedQueue.poll()) != null) {
+			final ManagedId<?> key = ((EvictedReference) reference).key;
+
+			if (this.evicted.get(key) == reference) {
+				this.evicted.remove(key);
+			}
 		}
 	}
 
@@ -349,8 +579,32 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	public void flush(Connection connection) throws SQLException {
+		this.flush(connection, false);
+	}
+
+	/**
+	 * Flushes the session persisting changes to the database.
+	 * <p>
+	 * The optimistic locks are performed only with the flush of the commit, so that the versions are checked as late as possible.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param commit
+	 *            if the flush is for the commit of the transaction
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void flush(Connection connection, boolean commit) throws SQLException {
 		SessionImpl.LOG.debug("Flushing session {0}", this);
 
+		final Statistics statistics = this.em.getEntityManagerFactory().getStatistics();
+		final EventRecorder recorder = statistics.getEventRecorder();
+		final boolean collect = statistics.isEnabled() || (recorder != null);
+		final long start = collect ? System.nanoTime() : 0;
+
+		final int inserts = this.newEntities.size();
 		final ArrayList<ManagedInstance<?>> updates = Lists.newArrayList(this.newEntities);
 		final ArrayList<ManagedInstance<?>> removals = Lists.newArrayListWithCapacity(this.changedEntities.size());
 
@@ -367,17 +621,30 @@ public class SessionImpl {
 			}
 		}
 
+		if (commit) {
+			this.doOptimisticLocks(connection, updates, removals);
+		}
+		else if (!this.optimisticLocks.isEmpty()) {
+			// the updates and removals check and increment the versions themselves
+			this.optimisticLocks.keySet().removeAll(updates);
+			this.optimisticLocks.keySet().removeAll(removals);
+		}
+
 		if ((updates.size() == 0) && (removals.size() == 0)) {
 			return;
 		}
 
-		final ManagedInstance<?>[] sortedUpdates = new ManagedInstance[updates.size()];
-		final ManagedInstance<?>[] sortedRemovals = new ManagedInstance[removals.size()];
+		final ManagedInstance<?>[] sortedUpdates = new ManagedInstance<?>[updates.size()];
+		final ManagedInstance<?>[] sortedRemovals = new ManagedInstance<?>[removals.size()];
 
 		final CallbackAvailability callbackAvailability = new CallbackAvailability();
 
+		final long sortStart = recorder != null ? System.nanoTime() : 0;
+
 		Prioritizer.sort(updates, removals, sortedUpdates, sortedRemovals, callbackAvailability);
 
+		final long sortTime = recorder != null ? System.nanoTime() - sortStart : 0;
+
 		SessionImpl.LOG.debug("Flushing session {0}: updates {1}, removals {2}", this, sortedUpdates.length, sortedRemovals.length);
 
 		// validations
@@ -401,7 +668,7 @@ public class SessionImpl {
 		// fire callbacks
 		this.firePreCallbacks(sortedUpdates, sortedRemovals, callbackAvailability);
 
-		this.doVersionUpgrades(connection, sortedUpdates);
+		this.doVersionUpgrades(sortedUpdates);
 
 		for (final ManagedInstance<?> instance : sortedRemovals) {
 			instance.flushAssociations(connection, true, false);
@@ -436,12 +703,25 @@ public class SessionImpl {
 			final ManagedInstance<?> instance = this.newEntities.get(i);
 
 			if (!instance.hasInitialId()) {
-				this.repository.put(instance.getId(), instance);
+				this.putImpl(instance);
 			}
 		}
 
 		this.changedEntities.clear();
 		this.newEntities.clear();
+
+		this.unpin();
+		this.evict();
+
+		if (collect) {
+			final long time = System.nanoTime() - start;
+
+			statistics.flushed(time);
+
+			if (recorder != null) {
+				recorder.flushed(inserts, sortedUpdates.length - inserts, sortedRemovals.length, sortTime, time);
+			}
+		}
 	}
 
 	/**
@@ -459,7 +739,39 @@ public class SessionImpl {
 	 */
 	@SuppressWarnings("unchecked")
 	public <Y, X> ManagedInstance<Y> get(ManagedId<X> id) {
-		return (ManagedInstance<Y>) this.repository.get(id);
+		final EntityTypeImpl<?> rootType = id.getType();
+
+		final ManagedInstance<?> instance = rootType.hasPrimitiveId() && SessionImpl.isIntegral(id.getId()) //
+			? this.getPrimitive(rootType, (Number) id.getId()) : this.touch(this.repository.get(id));
+
+		return (ManagedInstance<Y>) (instance != null ? instance : this.reattach(rootType, id.getId()));
+	}
+
+	/**
+	 * Returns the managed instance instance in the session.
+	 * <p>
+	 * For the entities with primitive ids the lookup is performed without creating a {@link ManagedId}.
+	 * 
+	 * @param type
+	 *            the type of the entity
+	 * @param id
+	 *            the raw id
+	 * @param <X>
+	 *            the type of the entity
+	 * @param <Y>
+	 *            the actual type of the instance
+	 * @return the managed instance or null
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public <Y, X> ManagedInstance<Y> get(EntityTypeImpl<X> type, Object id) {
+		final EntityTypeImpl<?> rootType = type.getRootType();
+
+		final ManagedInstance<?> instance = rootType.hasPrimitiveId() && SessionImpl.isIntegral(id) //
+			? this.getPrimitive(rootType, (Number) id) : this.touch(this.repository.get(new ManagedId<X>(id, type)));
+
+		return (ManagedInstance<Y>) (instance != null ? instance : this.reattach(rootType, id));
 	}
 
 	/**
@@ -480,7 +792,9 @@ public class SessionImpl {
 		if (entity instanceof EnhancedInstance) {
 			final ManagedInstance<?> instance = ((EnhancedInstance) entity).__enhanced__$$__getManagedInstance();
 			if ((instance != null) && (instance.getSession() == this)) {
-				return (ManagedInstance<X>) instance;
+				this.reattach(instance);
+
+				return (ManagedInstance<X>) this.touch(instance);
 			}
 
 			clazz = entity.getClass().getSuperclass();
@@ -495,9 +809,12 @@ public class SessionImpl {
 			throw new PersistenceException(entity.getClass().getName() + " is not a persistence class");
 		}
 
-		final ManagedId<X> id = type.getId(entity);
+		final Object id = type.getIdValue(entity);
+		if (id == null) {
+			return null;
+		}
 
-		return (ManagedInstance<X>) this.repository.get(id);
+		return this.get(type, id);
 	}
 
 	/**
@@ -511,6 +828,23 @@ public class SessionImpl {
 		return this.em;
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ManagedId<?> getEvictedKey(EntityTypeImpl<?> rootType, Object id) {
+		// the primitive ids may be looked up by any integral type
+		if (rootType.hasPrimitiveId() && SessionImpl.isIntegral(id)) {
+			return new ManagedId(Long.valueOf(((Number) id).longValue()), rootType);
+		}
+
+		return new ManagedId(id, rootType);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <Y> ManagedInstance<Y> getPrimitive(EntityTypeImpl<?> rootType, Number id) {
+		final LongHashMap<ManagedInstance<?>> primitiveRepository = this.primitiveRepositories[rootType.getOrdinal()];
+
+		return primitiveRepository != null ? (ManagedInstance<Y>) this.touch(primitiveRepository.get(id.longValue())) : null;
+	}
+
 	/**
 	 * Handles the additions to the collections.
 	 * 
@@ -521,7 +855,7 @@ public class SessionImpl {
 	public ManagedInstance<?>[] handleAdditions() {
 		SessionImpl.LOG.debug("Processing additions to the session {0}", this);
 
-		final ManagedInstance<?>[] instances = this.changedEntities.toArray(new ManagedInstance[this.changedEntities.size()]);
+		final ManagedInstance<?>[] instances = this.changedEntities.toArray(new ManagedInstance<?>[this.changedEntities.size()]);
 		for (final ManagedInstance<?> instance : instances) {
 			instance.handleAdditions(this.em);
 		}
@@ -560,6 +894,20 @@ public class SessionImpl {
 		}
 	}
 
+	private static boolean isIntegral(Object id) {
+		return (id instanceof Long) || (id instanceof Integer) || (id instanceof Short) || (id instanceof Byte);
+	}
+
+	private boolean isEvictable(ManagedInstance<?> instance) {
+		if ((instance.getStatus() != Status.MANAGED) || instance.isLoading() || this.changedEntities.contains(instance)
+			|| this.optimisticLocks.containsKey(instance)) {
+			return false;
+		}
+
+		// uninitialized lazy references must stay in the session to be initialized in place
+		return ((EnhancedInstance) instance.getInstance()).__enhanced__$$__isInitialized();
+	}
+
 	/**
 	 * Notifies the session that the lazy instance is loading
 	 * 
@@ -574,6 +922,25 @@ public class SessionImpl {
 		this.entitiesLoading.add(instance);
 	}
 
+	/**
+	 * Registers the optimistic lock of the instance, to be performed with the commit of the transaction.
+	 * <p>
+	 * {@link LockModeType#OPTIMISTIC} locks check the version of the instance, {@link LockModeType#OPTIMISTIC_FORCE_INCREMENT} locks
+	 * increment the version of the instance.
+	 * 
+	 * @param instance
+	 *            the instance to lock
+	 * @param lockMode
+	 *            the optimistic lock mode
+	 * 
+	 * @since 2.0.1
+	 */
+	public void lockOptimistic(ManagedInstance<?> instance, LockModeType lockMode) {
+		if (this.optimisticLocks.get(instance) != LockModeType.OPTIMISTIC_FORCE_INCREMENT) {
+			this.optimisticLocks.put(instance, lockMode);
+		}
+	}
+
 	/**
 	 * Puts the instance into the session.
 	 * 
@@ -585,7 +952,7 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	public <X> void put(ManagedInstance<X> instance) {
-		this.repository.put(instance.getId(), instance);
+		this.putImpl(instance);
 
 		if ((this.loadTracker > 0) && instance.isLoading()) {
 			this.entitiesLoading.add(instance);
@@ -606,12 +973,84 @@ public class SessionImpl {
 	 */
 	public <X> void putExternal(ManagedInstance<X> instance) {
 		if (instance.hasInitialId()) {
-			this.repository.put(instance.getId(), instance);
+			this.putImpl(instance);
 		}
 
 		this.newEntities.add(instance);
 	}
 
+	private void putImpl(ManagedInstance<?> instance) {
+		final ManagedId<?> id = instance.getId();
+		final EntityTypeImpl<?> rootType = id.getType();
+
+		if (rootType.hasPrimitiveId() && SessionImpl.isIntegral(id.getId())) {
+			LongHashMap<ManagedInstance<?>> primitiveRepository = this.primitiveRepositories[rootType.getOrdinal()];
+			if (primitiveRepository == null) {
+				primitiveRepository = this.primitiveRepositories[rootType.getOrdinal()] = new LongHashMap<ManagedInstance<?>>();
+			}
+
+			primitiveRepository.put(((Number) id.getId()).longValue(), instance);
+		}
+		else {
+			this.repository.put(id, instance);
+		}
+
+		// only the instances loaded from the database are evicted, as the changes to the external instances are not traced
+		if ((this.lru != null) && (instance.getInstance() instanceof EnhancedInstance)) {
+			this.lru.put(instance, instance);
+
+			this.evict();
+		}
+	}
+
+	private int readCapacity() {
+		final Map<String, Object> properties = this.em.getProperties();
+		final Object capacity = properties != null ? properties.get(BJPASettings.SESSION_CAPACITY) : null;
+
+		if (capacity == null) {
+			return this.em.getEntityManagerFactory().getSessionCapacity();
+		}
+
+		try {
+			return Integer.valueOf(capacity.toString());
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + capacity + " for " + BJPASettings.SESSION_CAPACITY);
+		}
+	}
+
+	private ManagedInstance<?> reattach(EntityTypeImpl<?> rootType, Object id) {
+		if ((this.evicted == null) || this.evicted.isEmpty()) {
+			return null;
+		}
+
+		this.expungeEvicted();
+
+		final EvictedReference reference = this.evicted.remove(this.getEvictedKey(rootType, id));
+		final ManagedInstance<?> instance = reference != null ? reference.get() : null;
+		if ((instance == null) || (instance.getStatus() != Status.MANAGED)) {
+			return null;
+		}
+
+		this.putImpl(instance);
+
+		return instance;
+	}
+
+	private void reattach(ManagedInstance<?> instance) {
+		if ((this.evicted != null) && !this.evicted.isEmpty() && (instance.getStatus() == Status.MANAGED)) {
+			final EntityTypeImpl<?> rootType = instance.getType().getRootType();
+			final ManagedId<?> key = this.getEvictedKey(rootType, instance.getId().getId());
+
+			final EvictedReference reference = this.evicted.get(key);
+			if ((reference != null) && (reference.get() == instance)) {
+				this.evicted.remove(key);
+
+				this.putImpl(instance);
+			}
+		}
+	}
+
 	/**
 	 * Releases the load tracker, so that the entities loaded are processed for associations and <code>PostLoad</code> listeners are
 	 * invoked.
@@ -625,7 +1064,7 @@ public class SessionImpl {
 			SessionImpl.LOG.debug("Load tracker is released on session {0}", this);
 
 			// swap the set
-			final ManagedInstance<?>[] entitiesLoaded = this.entitiesLoading.toArray(new ManagedInstance[this.entitiesLoading.size()]);
+			final ManagedInstance<?>[] entitiesLoaded = this.entitiesLoading.toArray(new ManagedInstance<?>[this.entitiesLoading.size()]);
 			this.entitiesLoading = Lists.newArrayList();
 
 			for (final ManagedInstance<?> instance : entitiesLoaded) {
@@ -648,6 +1087,24 @@ public class SessionImpl {
 			for (final ManagedInstance<?> instance : entitiesLoaded) {
 				instance.fireCallbacks(EntityListenerType.POST_LOAD);
 			}
+
+			final Statistics statistics = this.em.getEntityManagerFactory().getStatistics();
+			if (statistics.isEnabled()) {
+				for (final ManagedInstance<?> instance : entitiesLoaded) {
+					statistics.entityLoaded(instance.getType().getName());
+				}
+			}
+
+			// the lazy references loaded become evictable
+			if (this.lru != null) {
+				for (final ManagedInstance<?> instance : entitiesLoaded) {
+					if (instance.getInstance() instanceof EnhancedInstance) {
+						this.lru.put(instance, instance);
+					}
+				}
+			}
+
+			this.evict();
 		}
 	}
 
@@ -664,19 +1121,36 @@ public class SessionImpl {
 		Class<? extends Object> clazz = (entity instanceof EnhancedInstance) ? clazz = entity.getClass().getSuperclass() : entity.getClass();
 
 		final EntityTypeImpl<?> type = this.metamodel.entity(clazz);
-		final ManagedId<?> instanceId = type.getId(entity);
-
-		final ManagedInstance<?> instance = this.repository.get(instanceId);
+		final ManagedInstance<?> instance = this.removeImpl(type, type.getIdValue(entity));
 		if (instance != null) {
-			this.repository.remove(instanceId);
 			this.changedEntities.remove(instance);
 			this.externalEntities.remove(instance);
 			this.newEntities.remove(instance);
+
+			if (this.lru != null) {
+				this.lru.remove(instance);
+			}
 		}
 
 		return instance;
 	}
 
+	@SuppressWarnings("unchecked")
+	private ManagedInstance<?> removeImpl(EntityTypeImpl<?> type, Object id) {
+		if (id == null) {
+			return null;
+		}
+
+		final EntityTypeImpl<?> rootType = type.getRootType();
+		if (rootType.hasPrimitiveId() && SessionImpl.isIntegral(id)) {
+			final LongHashMap<ManagedInstance<?>> primitiveRepository = this.primitiveRepositories[rootType.getOrdinal()];
+
+			return primitiveRepository != null ? primitiveRepository.remove(((Number) id).longValue()) : null;
+		}
+
+		return this.repository.remove(new ManagedId<Object>(id, (EntityTypeImpl<Object>) type));
+	}
+
 	/**
 	 * Marks the instance as changed.
 	 * 
@@ -686,6 +1160,14 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	public void setChanged(ManagedInstance<?> instance) {
+		// changes to the detached instances are not tracked
+		if (instance.getStatus() == Status.DETACHED) {
+			return;
+		}
+
+		// changes to the evicted instances put them back into the session
+		this.reattach(instance);
+
 		this.changedEntities.add(instance);
 
 		if (instance.getStatus() == Status.REMOVED) {
@@ -714,4 +1196,28 @@ public class SessionImpl {
 	public String toString() {
 		return this.sessionId.toString();
 	}
+
+	private ManagedInstance<?> touch(ManagedInstance<?> instance) {
+		if ((instance != null) && (this.lru != null)) {
+			this.lru.get(instance);
+		}
+
+		return instance;
+	}
+
+	private void unpin() {
+		if (this.pinned == null) {
+			return;
+		}
+
+		for (int i = 0; i < this.pinned.size(); i++) {
+			final ManagedInstance<?> instance = this.pinned.get(i);
+
+			if (instance.getStatus() == Status.MANAGED) {
+				this.lru.put(instance, instance);
+			}
+		}
+
+		this.pinned.clear();
+	}
 }
@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.naming.directory.BasicAttribute;
 import javax.persistence.InheritanceType;
@@ -132,6 +133,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	private CriteriaQueryImpl<X> selectCriteria;
 	private CriteriaQueryImpl<X> refreshCriteria;
+	private final ConcurrentMap<Integer, CriteriaQueryImpl<X>> batchSelectCriteriaMap = Maps.newConcurrentMap();
 	private int dependencyCount;
 	private boolean canBatchRemoves;
 
@@ -142,6 +144,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	private FinalWrapper<PluralMappingEx<?, ?, ?>[]> mappingsPluralSorted;
 	private FinalWrapper<PluralMappingEx<?, ?, ?>[]> mappingsPlural;
 	private FinalWrapper<JoinedMapping<?, ?, ?>[]> mappingsJoined;
+	private FinalWrapper<HashMap<String, Integer>> joinedMappingOrdinals;
 	private FinalWrapper<AssociationMappingImpl<?, ?, ?>[]> associations;
 	private FinalWrapper<AssociationMappingImpl<?, ?, ?>[]> associationsDetachable;
 	private FinalWrapper<AssociationMappingImpl<?, ?, ?>[]> associationsJoined;
@@ -167,6 +170,8 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	private final List<IndexMetadata> indexes;
 	private final int maxFetchJoinDepth;
+	private final int ordinal;
+	private boolean primitiveId;
 
 	/**
 	 * @param metamodel
@@ -189,6 +194,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		this.inheritanceType = metadata.getInheritanceType();
 		this.discriminatorValue = StringUtils.isNotBlank(metadata.getDiscriminatorValue()) ? metadata.getDiscriminatorValue() : this.name;
 		this.maxFetchJoinDepth = metamodel.getEntityManagerFactory().getMaxFetchJoinDepth();
+		this.ordinal = metamodel.nextEntityOrdinal();
 
 		this.addAttributes(metadata);
 		this.initTables(metadata);
@@ -224,6 +230,21 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		}
 	}
 
+	/**
+	 * Returns if the instances can be selected in batches by their ids.
+	 * <p>
+	 * The instances can be selected in batches provided the root entity has single basic id type.
+	 * 
+	 * @return <code>true</code> if the instances can be selected in batches, <code>false</code> otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean canBatchSelects() {
+		final EntityTypeImpl<? super X> rootType = this.getRootType();
+
+		return rootType.hasSingleIdAttribute() && (rootType.getIdMapping() instanceof BasicMappingImpl);
+	}
+
 	/**
 	 * Returns if remove operation can be combined into a batch.
 	 * <p>
@@ -765,7 +786,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return this.children.get(discriminatorValue);
 	}
 
-	private CriteriaQueryImpl<X> getCriteriaRefresh() {
+	private CriteriaQueryImpl<X> getCriteriaRefresh(CriteriaBuilderImpl cb) {
 		if (this.refreshCriteria != null) {
 			return this.refreshCriteria;
 		}
@@ -776,7 +797,6 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 				return this.refreshCriteria;
 			}
 
-			final CriteriaBuilderImpl cb = this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder();
 			CriteriaQueryImpl<X> q = cb.createQuery(this.getJavaType());
 			q.internal();
 			final RootImpl<X> r = q.from(this);
@@ -809,7 +829,37 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		}
 	}
 
-	private CriteriaQueryImpl<X> getCriteriaSelect() {
+	@SuppressWarnings("rawtypes")
+	private CriteriaQueryImpl<X> getCriteriaSelect(CriteriaBuilderImpl cb, int size) {
+		CriteriaQueryImpl<X> batchSelectCriteria = this.batchSelectCriteriaMap.get(size);
+		if (batchSelectCriteria != null) {
+			return batchSelectCriteria;
+		}
+
+		CriteriaQueryImpl<X> q = cb.createQuery(this.getJavaType());
+		q.internal();
+		final RootImpl<X> r = q.from(this);
+		q = q.select(r);
+		r.alias(BatooUtils.acronym(this.name).toLowerCase());
+
+		this.prepareEagerJoins(r, 0, null);
+
+		final SingularMappingEx<? super X, ?> _idMapping = this.getRootType().getIdMapping();
+		final ParameterExpressionImpl<?>[] parameters = new ParameterExpressionImpl[size];
+		for (int i = 0; i < size; i++) {
+			parameters[i] = cb.parameter(_idMapping.getAttribute().getJavaType());
+		}
+
+		final Path<?> path = r.get(_idMapping.getAttribute().getName());
+
+		batchSelectCriteria = q.where(path.in(parameters));
+
+		final CriteriaQueryImpl<X> existing = this.batchSelectCriteriaMap.putIfAbsent(size, batchSelectCriteria);
+
+		return existing != null ? existing : batchSelectCriteria;
+	}
+
+	private CriteriaQueryImpl<X> getCriteriaSelect(CriteriaBuilderImpl cb) {
 		if (this.selectCriteria != null) {
 			return this.selectCriteria;
 		}
@@ -820,7 +870,6 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 				return this.selectCriteria;
 			}
 
-			final CriteriaBuilderImpl cb = this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder();
 			CriteriaQueryImpl<X> q = cb.createQuery(this.getJavaType());
 			q.internal();
 			final RootImpl<X> r = q.from(this);
@@ -926,6 +975,21 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	 * @since 2.0.0
 	 */
 	public ManagedId<X> getId(Object instance) {
+		final Object id = this.getIdValue(instance);
+
+		return id != null ? new ManagedId<X>(id, this) : null;
+	}
+
+	/**
+	 * Returns the raw id of the entity from the instance.
+	 * 
+	 * @param instance
+	 *            the instance
+	 * @return the id or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object getIdValue(Object instance) {
 		Object id;
 		final MutableBoolean allNull = new MutableBoolean(true);
 
@@ -948,11 +1012,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 			}
 		}
 
-		if (allNull.booleanValue()) {
-			return null;
-		}
-
-		return new ManagedId<X>(id, this);
+		return allNull.booleanValue() ? null : id;
 	}
 
 	/**
@@ -988,6 +1048,27 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	 * @since 2.0.0
 	 */
 	public ManagedId<X> getId(SessionImpl session, ResultSet row, HashMap<AbstractColumn, String> idFields) throws SQLException {
+		final Object id = this.getIdValue(session, row, idFields);
+
+		return id != null ? new ManagedId<X>(id, this) : null;
+	}
+
+	/**
+	 * Returns the raw id of the entity from the resultset row.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param row
+	 *            the row
+	 * @param idFields
+	 *            the id fields
+	 * @return the id or null
+	 * @throws SQLException
+	 *             if an SQL error occurrs
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object getIdValue(SessionImpl session, ResultSet row, HashMap<AbstractColumn, String> idFields) throws SQLException {
 		Object id;
 		final MutableBoolean allNull = new MutableBoolean(true);
 
@@ -1010,11 +1091,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 			}
 		}
 
-		if (allNull.booleanValue()) {
-			return null;
-		}
-
-		return new ManagedId<X>(id, this);
+		return allNull.booleanValue() ? null : id;
 	}
 
 	private Object getIdImpl(Object instance, SingularMapping<?, ?> idMapping, MutableBoolean allNull) {
@@ -1225,6 +1302,50 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return this.getIdMapping().get(instance);
 	}
 
+	/**
+	 * Returns the ordinal of the joined mapping, that is the index of the mapping among the associations and the plural mappings of the
+	 * type.
+	 * <p>
+	 * The mapping is resolved by its path so that the mappings of the super types resolve to the corresponding mapping of this type.
+	 * 
+	 * @param mapping
+	 *            the joined mapping
+	 * @return the ordinal of the mapping or <code>-1</code> if the mapping does not belong to the type
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getJoinedMappingOrdinal(JoinedMapping<?, ?, ?> mapping) {
+		FinalWrapper<HashMap<String, Integer>> wrapper = this.joinedMappingOrdinals;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.joinedMappingOrdinals == null) {
+					final HashMap<String, Integer> _joinedMappingOrdinals = Maps.newHashMap();
+
+					for (final AssociationMappingImpl<?, ?, ?> association : this.getAssociations()) {
+						if (!_joinedMappingOrdinals.containsKey(association.getPath())) {
+							_joinedMappingOrdinals.put(association.getPath(), _joinedMappingOrdinals.size());
+						}
+					}
+
+					for (final PluralMappingEx<?, ?, ?> mapping2 : this.getMappingsPlural()) {
+						if (!_joinedMappingOrdinals.containsKey(mapping2.getPath())) {
+							_joinedMappingOrdinals.put(mapping2.getPath(), _joinedMappingOrdinals.size());
+						}
+					}
+
+					this.joinedMappingOrdinals = new FinalWrapper<HashMap<String, Integer>>(_joinedMappingOrdinals);
+				}
+
+				wrapper = this.joinedMappingOrdinals;
+			}
+		}
+
+		final Integer ordinal = wrapper.value.get(mapping.getPath());
+
+		return ordinal != null ? ordinal : -1;
+	}
+
 	/**
 	 * Returns the managed instance for the instance.
 	 * 
@@ -1439,6 +1560,17 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return this.name;
 	}
 
+	/**
+	 * Returns the ordinal of the entity in the metamodel.
+	 * 
+	 * @return the ordinal of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getOrdinal() {
+		return this.ordinal;
+	}
+
 	/**
 	 * Returns the parent of the entity.
 	 * 
@@ -1565,6 +1697,20 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return wrapper.value;
 	}
 
+	/**
+	 * Returns if the entity has a single basic id of an integral type, that is <code>long</code>, <code>int</code>, <code>short</code> or
+	 * <code>byte</code> or their wrappers.
+	 * <p>
+	 * Sessions key the instances of such entities by the primitive value of the id.
+	 * 
+	 * @return true if the entity has a primitive id, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean hasPrimitiveId() {
+		return this.primitiveId;
+	}
+
 	/**
 	 * Initializes the custom indexes
 	 * 
@@ -1762,6 +1908,15 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		}
 
 		this.canBatchRemoves = (this.getVersionAttribute() == null) && this.hasSingleIdAttribute() && (this.getIdMapping() instanceof BasicAttribute);
+
+		if (this.hasSingleIdAttribute() && (this.getIdMapping() instanceof BasicMappingImpl)) {
+			final Class<?> idType = this.getIdMapping().getJavaType();
+
+			this.primitiveId = (idType == Long.class) || (idType == Long.TYPE) //
+				|| (idType == Integer.class) || (idType == Integer.TYPE) //
+				|| (idType == Short.class) || (idType == Short.TYPE) //
+				|| (idType == Byte.class) || (idType == Byte.TYPE);
+		}
 	}
 
 	/**
@@ -1810,7 +1965,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	public void performRefresh(Connection connection, ManagedInstance<X> instance, LockModeType lockMode, Set<Object> processed) {
 		final SessionImpl session = instance.getSession();
 
-		final QueryImpl<X> q = session.getEntityManager().createQuery(this.getCriteriaRefresh());
+		final QueryImpl<X> q = session.getEntityManager().createQuery(this.getCriteriaRefresh(this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder()));
 
 		if (processed.size() == 0) {
 			q.setLockMode(lockMode);
@@ -1868,6 +2023,31 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		this.primaryTable.performRemove(connection, instances, size);
 	}
 
+	/**
+	 * Performs select to find the instances of the batch of ids.
+	 * <p>
+	 * The instances found are loaded into the session of the entity manager, the ids that do not exist are simply not returned.
+	 * 
+	 * @param entityManager
+	 *            the entity manager to use
+	 * @param ids
+	 *            the ids of the instances to select
+	 * @param size
+	 *            the size of the batch
+	 * @return the list of instances found
+	 * 
+	 * @since 2.0.1
+	 */
+	public List<X> performSelect(EntityManagerImpl entityManager, Object[] ids, int size) {
+		final QueryImpl<X> q = entityManager.createQuery(this.getCriteriaSelect(this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder(), size));
+
+		for (int i = 0; i < size; i++) {
+			q.setParameter(i + 1, ids[i]);
+		}
+
+		return q.getResultList();
+	}
+
 	/**
 	 * Performs select to find the instance.
 	 * 
@@ -1882,7 +2062,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	 * @since 2.0.0
 	 */
 	public X performSelect(EntityManagerImpl entityManager, Object id, LockModeType lockMode) {
-		final QueryImpl<X> q = entityManager.createQuery(this.getCriteriaSelect());
+		final QueryImpl<X> q = entityManager.createQuery(this.getCriteriaSelect(this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder()));
 
 		q.setLockMode(lockMode);
 
@@ -1942,23 +2122,68 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	}
 
 	/**
-	 * Performs the version update for the instance.
+	 * Performs the version check for the instances in a single statement.
 	 * 
 	 * @param connection
 	 *            the connection to use
-	 * @param instance
-	 *            the managed instance to perform update for
-	 * @param oldVersion
-	 *            the old version value
-	 * @param newVersion
-	 *            the new version value
+	 * @param managedInstances
+	 *            the managed instances to perform version check for
+	 * @param size
+	 *            the size of the batch
+	 * @throws SQLException
+	 *             thrown in case of an SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void performVersionCheck(Connection connection, ManagedInstance<?>[] managedInstances, int size) throws SQLException {
+		final Object[] instances = new Object[size];
+		for (int i = 0; i < size; i++) {
+			instances[i] = managedInstances[i].getInstance();
+		}
+
+		this.getTables()[0].performVersionCheck(connection, instances, size);
+	}
+
+	/**
+	 * Performs the version update for the instances in a single batch.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param managedInstances
+	 *            the managed instances to perform update for
+	 * @param size
+	 *            the size of the batch
 	 * @throws SQLException
 	 *             thrown in case of an SQL Error
 	 * 
 	 * @since 2.0.0
 	 */
-	public void performVersionUpdate(Connection connection, ManagedInstance<? extends X> instance, Object oldVersion, Object newVersion) throws SQLException {
-		this.getTables()[0].performVersionUpdate(connection, instance.getInstance(), oldVersion, newVersion);
+	public void performVersionUpdate(Connection connection, ManagedInstance<?>[] managedInstances, int size) throws SQLException {
+		final Object[] instances = new Object[size];
+		final Object[] oldVersions = new Object[size];
+		for (int i = 0; i < size; i++) {
+			instances[i] = managedInstances[i].getInstance();
+			oldVersions[i] = managedInstances[i].getOldVersion();
+		}
+
+		this.getTables()[0].performVersionUpdate(connection, instances, oldVersions, size);
+	}
+
+	/**
+	 * Generates the SQL for the entity, that is the select and refresh queries and the DML statements of the tables.
+	 * 
+	 * @param cb
+	 *            the criteria builder
+	 * 
+	 * @since 2.0.1
+	 */
+	public void precompile(CriteriaBuilderImpl cb) {
+		this.getCriteriaSelect(cb).getSql();
+		this.getCriteriaRefresh(cb).getSql();
+
+		for (final EntityTable table : this.getTables()) {
+			table.precompile(this);
+		}
 	}
 
 	/**
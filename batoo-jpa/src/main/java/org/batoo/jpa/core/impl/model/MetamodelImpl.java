@@ -29,6 +29,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -51,11 +52,14 @@ import javax.sql.DataSource;
 import org.batoo.common.BatooException;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
 import org.batoo.jpa.core.impl.manager.CallbackAvailability;
 import org.batoo.jpa.core.impl.manager.CallbackManager;
 import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
 import org.batoo.jpa.core.impl.model.mapping.AssociationMappingImpl;
 import org.batoo.jpa.core.impl.model.mapping.PluralMappingEx;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.jdbc.AbstractTable;
 import org.batoo.jpa.jdbc.CollectionTable;
 import org.batoo.jpa.jdbc.DDLMode;
@@ -124,6 +128,7 @@ public class MetamodelImpl implements Metamodel {
 	private final Map<Class<?>, EmbeddableTypeImpl<?>> embeddables = Maps.newHashMap();
 	private final Map<Class<?>, EntityTypeImpl<?>> entities = Maps.newHashMap();
 	private final Map<String, EntityTypeImpl<?>> entitiesByName = Maps.newHashMap();
+	private int entityCount;
 	private final Map<String, NamedQueryMetadata> namedQueries = Maps.newHashMap();
 	private final Map<String, NamedNativeQueryMetadata> namedNativeQueries = Maps.newHashMap();
 	private final Map<String, SqlResultSetMappingMetadata> sqlResultSetMappings = Maps.newHashMap();
@@ -574,6 +579,17 @@ public class MetamodelImpl implements Metamodel {
 		return entity;
 	}
 
+	/**
+	 * Returns the number of entities in the metamodel.
+	 * 
+	 * @return the number of entities in the metamodel
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getEntityCount() {
+		return this.entityCount;
+	}
+
 	/**
 	 * Returns the entity manager factory.
 	 * 
@@ -585,6 +601,27 @@ public class MetamodelImpl implements Metamodel {
 		return this.emf;
 	}
 
+	/**
+	 * Returns the number of ids available in the queues of the id generators.
+	 * 
+	 * @return the map of generator names to the number of ids available
+	 * 
+	 * @since 2.0.1
+	 */
+	public Map<String, Integer> getIdQueueSizes() {
+		final Map<String, Integer> sizes = Maps.newTreeMap();
+
+		for (final Entry<String, SequenceQueue> entry : this.sequenceQueues.entrySet()) {
+			sizes.put(entry.getKey(), entry.getValue().size());
+		}
+
+		for (final Entry<String, TableIdQueue> entry : this.tableIdQueues.entrySet()) {
+			sizes.put(entry.getKey(), entry.getValue().size());
+		}
+
+		return sizes;
+	}
+
 	/**
 	 * Returns the identifiable types.
 	 * 
@@ -660,7 +697,19 @@ public class MetamodelImpl implements Metamodel {
 	 */
 	public Long getNextSequence(String generator) {
 		try {
-			return this.sequenceQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			final Statistics statistics = this.emf.getStatistics();
+			final EventRecorder recorder = statistics.getEventRecorder();
+			if (!statistics.isEnabled() && (recorder == null)) {
+				return this.sequenceQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			}
+
+			final long start = System.nanoTime();
+			try {
+				return this.sequenceQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			}
+			finally {
+				this.idGeneratorWaited(statistics, recorder, generator, System.nanoTime() - start);
+			}
 		}
 		catch (final InterruptedException e) {
 			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
@@ -678,7 +727,19 @@ public class MetamodelImpl implements Metamodel {
 	 */
 	public Long getNextTableValue(String generator) {
 		try {
-			return this.tableIdQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			final Statistics statistics = this.emf.getStatistics();
+			final EventRecorder recorder = statistics.getEventRecorder();
+			if (!statistics.isEnabled() && (recorder == null)) {
+				return this.tableIdQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			}
+
+			final long start = System.nanoTime();
+			try {
+				return this.tableIdQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
+			}
+			finally {
+				this.idGeneratorWaited(statistics, recorder, generator, System.nanoTime() - start);
+			}
 		}
 		catch (final InterruptedException e) {
 			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
@@ -759,6 +820,14 @@ public class MetamodelImpl implements Metamodel {
 
 	}
 
+	private void idGeneratorWaited(Statistics statistics, EventRecorder recorder, String generator, long time) {
+		statistics.idGeneratorWaited(time);
+
+		if (recorder != null) {
+			recorder.idGeneratorWaited(generator, time);
+		}
+	}
+
 	/**
 	 * initialize static metamodel classes
 	 * 
@@ -822,6 +891,17 @@ public class MetamodelImpl implements Metamodel {
 		return (ManagedTypeImpl<X>) this.entities.get(clazz);
 	}
 
+	/**
+	 * Returns the next ordinal for an entity type being created.
+	 * 
+	 * @return the next ordinal
+	 * 
+	 * @since 2.0.1
+	 */
+	int nextEntityOrdinal() {
+		return this.entityCount++;
+	}
+
 	/**
 	 * Performs the foreign key DDL operations.
 	 * 
@@ -977,6 +1057,25 @@ public class MetamodelImpl implements Metamodel {
 		}
 	}
 
+	/**
+	 * Generates the SQL for all the entities.
+	 * 
+	 * @param cb
+	 *            the criteria builder
+	 * 
+	 * @since 2.0.1
+	 */
+	public void precompile(CriteriaBuilderImpl cb) {
+		for (final EntityTypeImpl<?> entity : this.entities.values()) {
+			try {
+				entity.precompile(cb);
+			}
+			catch (final RuntimeException e) {
+				MetamodelImpl.LOG.debug(e, "Cannot precompile the SQL for entity {0}, will be compiled on first use", entity.getName());
+			}
+		}
+	}
+
 	/**
 	 * Prefills the id generators.
 	 * 
@@ -1003,6 +1102,18 @@ public class MetamodelImpl implements Metamodel {
 		}
 	}
 
+	/**
+	 * Reads the metadata of all the tables in bulk for the DDL operations.
+	 * 
+	 * @param datasource
+	 *            the datasource
+	 * 
+	 * @since 2.0.1
+	 */
+	public void readTablesMetadata(DataSource datasource) {
+		this.jdbcAdaptor.readTablesMetadata(datasource, this.getAllTables());
+	}
+
 	/**
 	 * Stops the id generators.
 	 * 
@@ -116,6 +116,17 @@ public abstract class AttributeImpl<X, Y> implements Attribute<X, Y> {
 		return (Y) this.accessor.get(instance);
 	}
 
+	/**
+	 * Returns the accessor of the attribute.
+	 * 
+	 * @return the accessor of the attribute
+	 * 
+	 * @since 2.0.1
+	 */
+	public AbstractAccessor getAccessor() {
+		return this.accessor;
+	}
+
 	/**
 	 * Returns the ordinal id of the attribute.
 	 * 
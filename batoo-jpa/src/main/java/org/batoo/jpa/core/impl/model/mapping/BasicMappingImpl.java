@@ -23,6 +23,7 @@ import javax.persistence.EnumType;
 import javax.persistence.TemporalType;
 
 import org.apache.commons.lang.StringUtils;
+import org.batoo.common.reflect.AbstractAccessor;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.MappedSuperclassTypeImpl;
@@ -34,6 +35,7 @@ import org.batoo.jpa.jdbc.IdType;
 import org.batoo.jpa.jdbc.TypeFactory;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.batoo.jpa.jdbc.mapping.BasicMapping;
+import org.batoo.jpa.jdbc.mapping.RootMapping;
 import org.batoo.jpa.parser.MappingException;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
 import org.batoo.jpa.parser.metadata.ColumnTransformerMetadata;
@@ -105,6 +107,19 @@ public class BasicMappingImpl<Z, X> extends AbstractMapping<Z, X, X> implements
 		return this.attribute.fillValue(type, managedInstance, instance);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public AbstractAccessor getAccessor() {
+		if (this.getParent() instanceof RootMapping) {
+			return this.attribute.getAccessor();
+		}
+
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.persistence.EnumType;
@@ -53,6 +54,8 @@ import org.batoo.jpa.core.impl.model.MetamodelImpl;
 import org.batoo.jpa.core.impl.model.TypeImpl;
 import org.batoo.jpa.core.impl.model.attribute.MapAttributeImpl;
 import org.batoo.jpa.core.impl.model.attribute.PluralAttributeImpl;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.jdbc.CollectionTable;
 import org.batoo.jpa.jdbc.Joinable;
 import org.batoo.jpa.jdbc.JoinableTable;
@@ -167,6 +170,16 @@ public class ElementCollectionMappingImpl<Z, C, E> extends AbstractMapping<Z, C,
 		return false;
 	}
 
+	private void collectionInitialized(Statistics statistics, EventRecorder recorder, ManagedInstance<?> instance, int size, long start) {
+		if (statistics.isEnabled()) {
+			statistics.collectionInitialized(this.getPath(), size);
+		}
+
+		if (recorder != null) {
+			recorder.collectionInitialized(this.getPath(), instance.getType().getName(), size, System.nanoTime() - start);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -528,11 +541,21 @@ public class ElementCollectionMappingImpl<Z, C, E> extends AbstractMapping<Z, C,
 	@Override
 	public Collection<? extends E> loadCollection(ManagedInstance<?> instance) {
 		final EntityManagerImpl em = instance.getSession().getEntityManager();
+		em.lazyLoaded(this.getPath(), instance.getType().getName());
+
+		final Statistics statistics = em.getEntityManagerFactory().getStatistics();
+		final EventRecorder recorder = statistics.getEventRecorder();
+		final long start = recorder != null ? System.nanoTime() : 0;
+
 		final QueryImpl<E> q = em.createQuery(this.getSelectCriteria());
 
 		q.setParameter(1, instance.getInstance());
 
-		return q.getResultList();
+		final List<E> elements = q.getResultList();
+
+		this.collectionInitialized(statistics, recorder, instance, elements.size(), start);
+
+		return elements;
 	}
 
 	/**
@@ -543,6 +566,12 @@ public class ElementCollectionMappingImpl<Z, C, E> extends AbstractMapping<Z, C,
 	@SuppressWarnings("unchecked")
 	public <K> Map<? extends K, ? extends E> loadMap(ManagedInstance<?> instance) {
 		final EntityManagerImpl em = instance.getSession().getEntityManager();
+		em.lazyLoaded(this.getPath(), instance.getType().getName());
+
+		final Statistics statistics = em.getEntityManagerFactory().getStatistics();
+		final EventRecorder recorder = statistics.getEventRecorder();
+		final long start = recorder != null ? System.nanoTime() : 0;
+
 		final QueryImpl<Object[]> q = em.createQuery(this.getSelectMapCriteria());
 
 		q.setParameter(1, instance.getInstance());
@@ -553,6 +582,8 @@ public class ElementCollectionMappingImpl<Z, C, E> extends AbstractMapping<Z, C,
 			resultMap.put((K) pair[0], (E) pair[1]);
 		}
 
+		this.collectionInitialized(statistics, recorder, instance, resultMap.size(), start);
+
 		return resultMap;
 	}
 
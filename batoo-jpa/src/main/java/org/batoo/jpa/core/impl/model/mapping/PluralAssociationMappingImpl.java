@@ -48,6 +48,8 @@ import org.batoo.jpa.core.impl.manager.SessionImpl;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.attribute.MapAttributeImpl;
 import org.batoo.jpa.core.impl.model.attribute.PluralAttributeImpl;
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.common.util.Pair;
 import org.batoo.jpa.jdbc.ForeignKey;
 import org.batoo.jpa.jdbc.JoinTable;
@@ -527,6 +529,12 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 	public Collection<? extends E> loadCollection(ManagedInstance<?> managedInstance) {
 		final EntityManagerImpl em = managedInstance.getSession().getEntityManager();
 
+		em.lazyLoaded(this.getPath(), managedInstance.getType().getName());
+
+		final Statistics statistics = em.getEntityManagerFactory().getStatistics();
+		final EventRecorder recorder = statistics.getEventRecorder();
+		final long start = recorder != null ? System.nanoTime() : 0;
+
 		List<E> children = null;
 
 		final Object instance = managedInstance.getInstance();
@@ -554,6 +562,14 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 			}
 		}
 
+		if (statistics.isEnabled()) {
+			statistics.collectionInitialized(this.getPath(), children.size());
+		}
+
+		if (recorder != null) {
+			recorder.collectionInitialized(this.getPath(), managedInstance.getType().getName(), children.size(), System.nanoTime() - start);
+		}
+
 		return children;
 	}
 
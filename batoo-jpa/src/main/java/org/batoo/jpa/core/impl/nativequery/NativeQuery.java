@@ -591,13 +591,13 @@ public class NativeQuery implements Query, ResultSetHandler<List<Object>> {
 		final SessionImpl session = this.em.getSession();
 
 		// get the id of for the instance
-		final ManagedId<?> managedId = entityType.getId(session, row, this.getIdFieldTransformed(entityType.getPrimaryTable().getIdFields(), fieldMap));
-		if (managedId == null) {
+		final Object id = entityType.getIdValue(session, row, this.getIdFieldTransformed(entityType.getPrimaryTable().getIdFields(), fieldMap));
+		if (id == null) {
 			return null;
 		}
 
 		// look for it in the session
-		ManagedInstance<?> instance = session.get(managedId);
+		ManagedInstance<?> instance = session.get(entityType, id);
 		// if found then return it
 		if (instance != null) {
 			// if it is a new instance simply return it
@@ -617,6 +617,8 @@ public class NativeQuery implements Query, ResultSetHandler<List<Object>> {
 			return instance;
 		}
 
+		final ManagedId<?> managedId = new ManagedId(id, entityType);
+
 		// if no inheritance then initialize and return
 		if (entityType.getInheritanceType() == null) {
 			instance = entityType.getManagedInstanceById(session, (ManagedId) managedId, false);
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.jmx;
+
+import org.batoo.jpa.jdbc.BoneCPDataSource;
+
+/**
+ * The management bean of the connection pool of a persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class DataSourcePool implements DataSourcePoolMXBean {
+
+	private final BoneCPDataSource dataSource;
+
+	/**
+	 * @param dataSource
+	 *            the pooled datasource
+	 * 
+	 * @since 2.0.1
+	 */
+	public DataSourcePool(BoneCPDataSource dataSource) {
+		super();
+
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getMaxConnections() {
+		return this.dataSource.getMaxConnectionsPerPartition() * this.dataSource.getPartitionCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getTotalCreatedConnections() {
+		return this.dataSource.getTotalCreatedConnections();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getTotalFree() {
+		return this.dataSource.getTotalFree();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getTotalLeased() {
+		return this.dataSource.getTotalLeased();
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.jmx;
+
+/**
+ * The management interface of the connection pool of a persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface DataSourcePoolMXBean {
+
+	/**
+	 * Returns the max number of connections the pool can create.
+	 * 
+	 * @return the max number of connections the pool can create
+	 * 
+	 * @since 2.0.1
+	 */
+	int getMaxConnections();
+
+	/**
+	 * Returns the number of connections created by the pool.
+	 * 
+	 * @return the number of connections created by the pool
+	 * 
+	 * @since 2.0.1
+	 */
+	int getTotalCreatedConnections();
+
+	/**
+	 * Returns the number of connections available in the pool.
+	 * 
+	 * @return the number of connections available in the pool
+	 * 
+	 * @since 2.0.1
+	 */
+	int getTotalFree();
+
+	/**
+	 * Returns the number of connections in use.
+	 * 
+	 * @return the number of connections in use
+	 * 
+	 * @since 2.0.1
+	 */
+	int getTotalLeased();
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.jdbc.BoneCPDataSource;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Registers the management beans of a persistence unit to the platform MBean server.
+ * <p>
+ * The beans are registered under the {@value #DOMAIN} domain with the <code>type</code> of the bean and the <code>name</code> of the
+ * persistence unit as the keys.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MBeanRegistrar {
+
+	/**
+	 * The domain of the management beans.
+	 */
+	public static final String DOMAIN = "org.batoo.jpa";
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(MBeanRegistrar.class);
+
+	/**
+	 * Returns the object name of the management bean.
+	 * 
+	 * @param type
+	 *            the type of the bean
+	 * @param name
+	 *            the name of the persistence unit
+	 * @return the object name
+	 * 
+	 * @since 2.0.1
+	 */
+	public static ObjectName getObjectName(String type, String name) {
+		try {
+			return new ObjectName(MBeanRegistrar.DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal persistence unit name for the management beans: " + name, e);
+		}
+	}
+
+	private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	private final List<ObjectName> names = Lists.newArrayList();
+
+	/**
+	 * @param name
+	 *            the name of the persistence unit
+	 * @param emf
+	 *            the entity manager factory
+	 * 
+	 * @since 2.0.1
+	 */
+	public MBeanRegistrar(String name, EntityManagerFactoryImpl emf) {
+		super();
+
+		this.register(new PersistenceUnit(name, emf), MBeanRegistrar.getObjectName("PersistenceUnit", name));
+
+		final BoneCPDataSource dataSource = emf.unwrap(BoneCPDataSource.class);
+		if (dataSource != null) {
+			this.register(new DataSourcePool(dataSource), MBeanRegistrar.getObjectName("DataSourcePool", name));
+		}
+	}
+
+	private void register(Object bean, ObjectName name) {
+		try {
+			this.server.registerMBean(bean, name);
+			this.names.add(name);
+
+			MBeanRegistrar.LOG.debug("Registered management bean {0}", name);
+		}
+		catch (final Exception e) {
+			MBeanRegistrar.LOG.warn(e, "Cannot register management bean {0}", name);
+		}
+	}
+
+	/**
+	 * Unregisters the management beans.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void unregister() {
+		for (final ObjectName name : this.names) {
+			try {
+				this.server.unregisterMBean(name);
+			}
+			catch (final Exception e) {
+				MBeanRegistrar.LOG.warn(e, "Cannot unregister management bean {0}", name);
+			}
+		}
+
+		this.names.clear();
+	}
+}
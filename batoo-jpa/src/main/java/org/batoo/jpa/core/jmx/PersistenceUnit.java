@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.jmx;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.core.stats.CollectionStatistics;
+import org.batoo.jpa.core.stats.EntityStatistics;
+import org.batoo.jpa.core.stats.LatencyHistogram;
+import org.batoo.jpa.core.stats.QueryStatistics;
+import org.batoo.jpa.core.stats.SqlStatistics;
+import org.batoo.jpa.core.stats.Statistics;
+
+/**
+ * The management bean of a persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class PersistenceUnit implements PersistenceUnitMXBean {
+
+	private static String toMillis(long nanos) {
+		return String.format("%.3f", (double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private final String name;
+	private final EntityManagerFactoryImpl emf;
+	private final Statistics statistics;
+
+	/**
+	 * @param name
+	 *            the name of the persistence unit
+	 * @param emf
+	 *            the entity manager factory
+	 * 
+	 * @since 2.0.1
+	 */
+	public PersistenceUnit(String name, EntityManagerFactoryImpl emf) {
+		super();
+
+		this.name = name;
+		this.emf = emf;
+		this.statistics = emf.getStatistics();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void clearJpqlCache() {
+		this.emf.clearJpqlCache();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getCollectionInitializationCount() {
+		long count = 0;
+		for (final CollectionStatistics statistics : this.statistics.getCollectionStatistics()) {
+			count += statistics.getInitializationCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getEntityDeleteCount() {
+		long count = 0;
+		for (final EntityStatistics statistics : this.statistics.getEntityStatistics()) {
+			count += statistics.getDeleteCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getEntityInsertCount() {
+		long count = 0;
+		for (final EntityStatistics statistics : this.statistics.getEntityStatistics()) {
+			count += statistics.getInsertCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getEntityLoadCount() {
+		long count = 0;
+		for (final EntityStatistics statistics : this.statistics.getEntityStatistics()) {
+			count += statistics.getLoadCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getEntityUpdateCount() {
+		long count = 0;
+		for (final EntityStatistics statistics : this.statistics.getEntityStatistics()) {
+			count += statistics.getUpdateCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getFlushCount() {
+		return this.statistics.getFlushes().getCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public Map<String, Integer> getIdQueueSizes() {
+		return this.emf.getMetamodel().getIdQueueSizes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getJpqlCacheHitCount() {
+		return this.statistics.getJpqlCacheHitCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public double getJpqlCacheHitRatio() {
+		final long hits = this.statistics.getJpqlCacheHitCount();
+		final long lookups = hits + this.statistics.getJpqlCacheMissCount();
+
+		return lookups > 0 ? (double) hits / lookups : 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getJpqlCacheMissCount() {
+		return this.statistics.getJpqlCacheMissCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getJpqlCacheSize() {
+		return this.emf.getJpqlCacheSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getQueryExecutionCount() {
+		long count = 0;
+		for (final QueryStatistics statistics : this.statistics.getQueryStatistics()) {
+			count += statistics.getExecutionCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean isStatisticsEnabled() {
+		return this.statistics.isEnabled();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String[] listSlowestSqls(int count) {
+		final SqlStatistics[] sqls = this.statistics.getSqlStatistics().toArray(new SqlStatistics[0]);
+
+		final long[] p99s = new long[sqls.length];
+		for (int i = 0; i < sqls.length; i++) {
+			p99s[i] = sqls[i].getExecuteLatency().getPercentile(99);
+		}
+
+		final Integer[] order = new Integer[sqls.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return p99s[o1] > p99s[o2] ? -1 : (p99s[o1] < p99s[o2] ? 1 : 0);
+			}
+		});
+
+		final String[] slowest = new String[Math.max(0, Math.min(count, sqls.length))];
+		for (int i = 0; i < slowest.length; i++) {
+			final SqlStatistics sql = sqls[order[i]];
+			final LatencyHistogram execute = sql.getExecuteLatency();
+			final LatencyHistogram fetch = sql.getFetchLatency();
+
+			slowest[i] = "executions=" + execute.getCount() //
+				+ ", p50=" + PersistenceUnit.toMillis(execute.getPercentile(50)) //
+				+ ", p99=" + PersistenceUnit.toMillis(execute.getPercentile(99)) //
+				+ ", p999=" + PersistenceUnit.toMillis(execute.getPercentile(99.9)) //
+				+ ", fetch p99=" + PersistenceUnit.toMillis(fetch.getPercentile(99)) + " msecs" //
+				+ ", sql=" + sql.getSql();
+		}
+
+		return slowest;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void resetStatistics() {
+		this.statistics.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void setStatisticsEnabled(boolean enabled) {
+		this.statistics.setEnabled(enabled);
+	}
+}
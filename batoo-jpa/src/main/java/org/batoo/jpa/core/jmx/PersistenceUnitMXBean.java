@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.jmx;
+
+import java.util.Map;
+
+/**
+ * The management interface of a persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface PersistenceUnitMXBean {
+
+	/**
+	 * Clears the JPQL query cache.
+	 * 
+	 * @since 2.0.1
+	 */
+	void clearJpqlCache();
+
+	/**
+	 * Returns the number of collections initialized.
+	 * 
+	 * @return the number of collections initialized
+	 * 
+	 * @since 2.0.1
+	 */
+	long getCollectionInitializationCount();
+
+	/**
+	 * Returns the number of entities deleted.
+	 * 
+	 * @return the number of entities deleted
+	 * 
+	 * @since 2.0.1
+	 */
+	long getEntityDeleteCount();
+
+	/**
+	 * Returns the number of entities inserted.
+	 * 
+	 * @return the number of entities inserted
+	 * 
+	 * @since 2.0.1
+	 */
+	long getEntityInsertCount();
+
+	/**
+	 * Returns the number of entities loaded.
+	 * 
+	 * @return the number of entities loaded
+	 * 
+	 * @since 2.0.1
+	 */
+	long getEntityLoadCount();
+
+	/**
+	 * Returns the number of entities updated.
+	 * 
+	 * @return the number of entities updated
+	 * 
+	 * @since 2.0.1
+	 */
+	long getEntityUpdateCount();
+
+	/**
+	 * Returns the number of flushes.
+	 * 
+	 * @return the number of flushes
+	 * 
+	 * @since 2.0.1
+	 */
+	long getFlushCount();
+
+	/**
+	 * Returns the number of ids available in the queues of the id generators.
+	 * 
+	 * @return the map of generator names to the number of ids available
+	 * 
+	 * @since 2.0.1
+	 */
+	Map<String, Integer> getIdQueueSizes();
+
+	/**
+	 * Returns the number of JPQL queries found in the cache.
+	 * 
+	 * @return the number of JPQL queries found in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	long getJpqlCacheHitCount();
+
+	/**
+	 * Returns the ratio of the JPQL queries found in the cache.
+	 * 
+	 * @return the ratio of the JPQL queries found in the cache between 0 and 1
+	 * 
+	 * @since 2.0.1
+	 */
+	double getJpqlCacheHitRatio();
+
+	/**
+	 * Returns the number of JPQL queries not found in the cache.
+	 * 
+	 * @return the number of JPQL queries not found in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	long getJpqlCacheMissCount();
+
+	/**
+	 * Returns the number of JPQL queries in the cache.
+	 * 
+	 * @return the number of JPQL queries in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	int getJpqlCacheSize();
+
+	/**
+	 * Returns the name of the persistence unit.
+	 * 
+	 * @return the name of the persistence unit
+	 * 
+	 * @since 2.0.1
+	 */
+	String getName();
+
+	/**
+	 * Returns the number of queries executed.
+	 * 
+	 * @return the number of queries executed
+	 * 
+	 * @since 2.0.1
+	 */
+	long getQueryExecutionCount();
+
+	/**
+	 * Returns if the statistics are collected.
+	 * 
+	 * @return true if the statistics are collected, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	boolean isStatisticsEnabled();
+
+	/**
+	 * Returns the SQL statements with the highest 99th percentile execution times.
+	 * 
+	 * @param count
+	 *            the max number of statements to return
+	 * @return the summary of the statements, slowest first
+	 * 
+	 * @since 2.0.1
+	 */
+	String[] listSlowestSqls(int count);
+
+	/**
+	 * Resets the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	void resetStatistics();
+
+	/**
+	 * Sets if the statistics are collected.
+	 * 
+	 * @param enabled
+	 *            true to collect the statistics, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	void setStatisticsEnabled(boolean enabled);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+/**
+ * The statistics of a collection association.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CollectionStatistics {
+
+	private final String association;
+
+	final Counter initializations = new Counter();
+	final Counter elements = new Counter();
+
+	/**
+	 * @param association
+	 *            the qualified name of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	CollectionStatistics(String association) {
+		super();
+
+		this.association = association;
+	}
+
+	/**
+	 * Returns the qualified name of the association.
+	 * 
+	 * @return the qualified name of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getAssociation() {
+		return this.association;
+	}
+
+	/**
+	 * Returns the number of elements loaded by the initializations.
+	 * 
+	 * @return the number of elements loaded by the initializations
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getElementCount() {
+		return this.elements.get();
+	}
+
+	/**
+	 * Returns the number of times the collections are initialized.
+	 * 
+	 * @return the number of times the collections are initialized
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getInitializationCount() {
+		return this.initializations.get();
+	}
+
+	void reset() {
+		this.initializations.reset();
+		this.elements.reset();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "CollectionStatistics [association=" + this.association + ", initializations=" + this.initializations + ", elements="
+			+ this.elements + "]";
+	}
+}
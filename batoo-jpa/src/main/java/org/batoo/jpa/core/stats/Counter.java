@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that is updated concurrently with low contention.
+ * <p>
+ * The count is spread over a number of cells selected by the updating thread, each padded to its own cache line. Updates touch a single
+ * cell and reads sum up all the cells.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class Counter {
+
+	private static final int STRIPES;
+	private static final int PADDING = 8;
+
+	static {
+		int stripes = 1;
+		while ((stripes < 64) && (stripes < (2 * Runtime.getRuntime().availableProcessors()))) {
+			stripes <<= 1;
+		}
+
+		STRIPES = stripes;
+	}
+
+	private final AtomicLongArray cells = new AtomicLongArray(Counter.STRIPES * Counter.PADDING);
+
+	/**
+	 * Adds the value to the counter.
+	 * 
+	 * @param value
+	 *            the value to add
+	 * 
+	 * @since 2.0.1
+	 */
+	public void add(long value) {
+		this.cells.addAndGet(((int) Thread.currentThread().getId() & (Counter.STRIPES - 1)) * Counter.PADDING, value);
+	}
+
+	/**
+	 * Returns the value of the counter.
+	 * 
+	 * @return the value of the counter
+	 * 
+	 * @since 2.0.1
+	 */
+	public long get() {
+		long sum = 0;
+
+		for (int i = 0; i < this.cells.length(); i += Counter.PADDING) {
+			sum += this.cells.get(i);
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Increments the counter by one.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void increment() {
+		this.add(1);
+	}
+
+	/**
+	 * Resets the counter to zero.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void reset() {
+		for (int i = 0; i < this.cells.length(); i += Counter.PADDING) {
+			this.cells.set(i, 0);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(this.get());
+	}
+}
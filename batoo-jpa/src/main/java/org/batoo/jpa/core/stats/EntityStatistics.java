@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+/**
+ * The statistics of an entity.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class EntityStatistics {
+
+	private final String name;
+
+	final Counter loads = new Counter();
+	final Counter inserts = new Counter();
+	final Counter updates = new Counter();
+	final Counter deletes = new Counter();
+
+	/**
+	 * @param name
+	 *            the name of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	EntityStatistics(String name) {
+		super();
+
+		this.name = name;
+	}
+
+	/**
+	 * Returns the number of entities deleted.
+	 * 
+	 * @return the number of entities deleted
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getDeleteCount() {
+		return this.deletes.get();
+	}
+
+	/**
+	 * Returns the number of entities inserted.
+	 * 
+	 * @return the number of entities inserted
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getInsertCount() {
+		return this.inserts.get();
+	}
+
+	/**
+	 * Returns the number of entities loaded.
+	 * 
+	 * @return the number of entities loaded
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getLoadCount() {
+		return this.loads.get();
+	}
+
+	/**
+	 * Returns the name of the entity.
+	 * 
+	 * @return the name of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the number of entities updated.
+	 * 
+	 * @return the number of entities updated
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getUpdateCount() {
+		return this.updates.get();
+	}
+
+	void reset() {
+		this.loads.reset();
+		this.inserts.reset();
+		this.updates.reset();
+		this.deletes.reset();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "EntityStatistics [name=" + this.name + ", loads=" + this.loads + ", inserts=" + this.inserts + ", updates=" + this.updates
+			+ ", deletes=" + this.deletes + "]";
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+/**
+ * The recorder of the persistence events, to correlate the activity of the entity manager factory with the profiles of the
+ * application.
+ * <p>
+ * No recorder is installed by default, in which case the cost to the instrumented code is a single volatile read. The recorder is
+ * installed through {@link Statistics#setEventRecorder(EventRecorder)} for the duration of a recording and is called synchronously
+ * by the thread performing the operation, so the implementations must be thread safe and return quickly.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface EventRecorder {
+
+	/**
+	 * Records the lazy initialization of a collection.
+	 * 
+	 * @param association
+	 *            the qualified name of the association
+	 * @param ownerType
+	 *            the name of the type of the owner of the collection
+	 * @param size
+	 *            the number of elements loaded
+	 * @param nanos
+	 *            the time the initialization took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void collectionInitialized(String association, String ownerType, int size, long nanos);
+
+	/**
+	 * Records a flush of a session.
+	 * 
+	 * @param inserts
+	 *            the number of entities inserted
+	 * @param updates
+	 *            the number of entities updated
+	 * @param removes
+	 *            the number of entities removed
+	 * @param sortNanos
+	 *            the time sorting the entities took in nanoseconds
+	 * @param nanos
+	 *            the time the flush took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void flushed(int inserts, int updates, int removes, long sortNanos, long nanos);
+
+	/**
+	 * Records a wait for an id generator.
+	 * 
+	 * @param generator
+	 *            the name of the generator
+	 * @param nanos
+	 *            the time waited in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void idGeneratorWaited(String generator, long nanos);
+
+	/**
+	 * Records the execution of a query.
+	 * 
+	 * @param sql
+	 *            the SQL of the query
+	 * @param rows
+	 *            the number of rows returned or updated
+	 * @param jdbcNanos
+	 *            the time the execution of the statement took in nanoseconds
+	 * @param hydrationNanos
+	 *            the time reading the result set and building the results took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void queryExecuted(String sql, int rows, long jdbcNanos, long hydrationNanos);
+
+	/**
+	 * Records the lazy initialization of an entity reference.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * @param nanos
+	 *            the time the initialization took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void referenceInitialized(String entity, long nanos);
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds.
+ * <p>
+ * The values are recorded into buckets with logarithmic ranges, each split into 16 linear sub buckets, so that the percentiles are
+ * reported within 1/16 of the actual value regardless of the magnitude.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << LatencyHistogram.SUB_BUCKET_BITS;
+
+	// about 18 minutes, longer latencies are recorded into the last bucket
+	private static final int MAX_BITS = 40;
+	private static final long MAX_VALUE = (1L << LatencyHistogram.MAX_BITS) - 1;
+
+	private static final int BUCKETS = ((LatencyHistogram.MAX_BITS - LatencyHistogram.SUB_BUCKET_BITS) + 1) * LatencyHistogram.SUB_BUCKETS;
+
+	private static int indexOf(long value) {
+		if (value < LatencyHistogram.SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int shift = exponent - LatencyHistogram.SUB_BUCKET_BITS;
+
+		return ((shift + 1) * LatencyHistogram.SUB_BUCKETS) + (int) ((value >>> shift) & (LatencyHistogram.SUB_BUCKETS - 1));
+	}
+
+	private static long upperBoundOf(int index) {
+		if (index < LatencyHistogram.SUB_BUCKETS) {
+			return index;
+		}
+
+		final int shift = (index / LatencyHistogram.SUB_BUCKETS) - 1;
+		final long subBucket = index % LatencyHistogram.SUB_BUCKETS;
+
+		return (((LatencyHistogram.SUB_BUCKETS + subBucket) + 1) << shift) - 1;
+	}
+
+	private final AtomicLongArray buckets = new AtomicLongArray(LatencyHistogram.BUCKETS);
+	private final Counter count = new Counter();
+	private final Counter total = new Counter();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Returns the number of values recorded.
+	 * 
+	 * @return the number of values recorded
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * Returns the max value recorded.
+	 * 
+	 * @return the max value recorded in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Returns the mean of the values recorded.
+	 * 
+	 * @return the mean of the values recorded in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMean() {
+		final long count = this.count.get();
+
+		return count > 0 ? this.total.get() / count : 0;
+	}
+
+	/**
+	 * Returns the value at the percentile.
+	 * 
+	 * @param percentile
+	 *            the percentile between 0 and 100
+	 * @return the value at the percentile in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getPercentile(double percentile) {
+		long count = 0;
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+			count += this.buckets.get(i);
+		}
+
+		if (count == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil((count * Math.min(100, Math.max(0, percentile))) / 100));
+
+		long seen = 0;
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+			seen += this.buckets.get(i);
+
+			if (seen >= rank) {
+				return Math.min(LatencyHistogram.upperBoundOf(i), this.max.get());
+			}
+		}
+
+		return this.max.get();
+	}
+
+	/**
+	 * Returns the total of the values recorded.
+	 * 
+	 * @return the total of the values recorded in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getTotal() {
+		return this.total.get();
+	}
+
+	/**
+	 * Records the value.
+	 * 
+	 * @param nanos
+	 *            the value in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void record(long nanos) {
+		final long value = Math.min(Math.max(0, nanos), LatencyHistogram.MAX_VALUE);
+
+		this.buckets.incrementAndGet(LatencyHistogram.indexOf(value));
+		this.count.increment();
+		this.total.add(value);
+
+		long max = this.max.get();
+		while ((value > max) && !this.max.compareAndSet(max, value)) {
+			max = this.max.get();
+		}
+	}
+
+	/**
+	 * Resets the histogram.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void reset() {
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+			this.buckets.set(i, 0);
+		}
+
+		this.count.reset();
+		this.total.reset();
+		this.max.set(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "LatencyHistogram [count=" + this.getCount() + ", mean=" + this.getMean() + ", p50=" + this.getPercentile(50) + ", p99="
+			+ this.getPercentile(99) + ", p999=" + this.getPercentile(99.9) + ", max=" + this.getMax() + "]";
+	}
+}
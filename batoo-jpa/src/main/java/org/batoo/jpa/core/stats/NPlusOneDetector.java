@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+import java.util.HashMap;
+
+import org.apache.commons.lang.mutable.MutableInt;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Detects the N+1 selects within an entity manager.
+ * <p>
+ * The lazy loads are counted per association, as each load of an association executes the same SQL. Once the count of an association
+ * reaches the threshold, the association, the owner type and the call site are logged as a warning and recorded into the
+ * {@link Statistics}.
+ * <p>
+ * The detector belongs to a single entity manager and is not thread safe.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class NPlusOneDetector {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(NPlusOneDetector.class);
+
+	private final Statistics statistics;
+	private final int threshold;
+
+	private final HashMap<String, MutableInt> loads = Maps.newHashMap();
+
+	/**
+	 * @param statistics
+	 *            the statistics to record the detections into
+	 * @param threshold
+	 *            the number of the lazy loads of an association to deem as N+1 selects
+	 * 
+	 * @since 2.0.1
+	 */
+	public NPlusOneDetector(Statistics statistics, int threshold) {
+		super();
+
+		this.statistics = statistics;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Clears the counts.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void clear() {
+		this.loads.clear();
+	}
+
+	/**
+	 * Records a lazy load.
+	 * 
+	 * @param association
+	 *            the qualified name of the association, or the name of the entity for the lazy references
+	 * @param ownerType
+	 *            the name of the type of the owner of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public void lazyLoaded(String association, String ownerType) {
+		MutableInt count = this.loads.get(association);
+		if (count == null) {
+			count = new MutableInt();
+			this.loads.put(association, count);
+		}
+
+		count.increment();
+
+		if (count.intValue() == this.threshold) {
+			final NPlusOneWarning warning = new NPlusOneWarning("Association " + association + " of " + ownerType + " is lazy loaded "
+				+ this.threshold + " times");
+
+			NPlusOneDetector.LOG.warn(warning, "Possible N+1 selects: {0} of {1} lazy loaded {2} times", association, ownerType, this.threshold);
+
+			this.statistics.nPlusOneDetected(association, ownerType, this.threshold, warning.getStackTrace());
+		}
+		else if (count.intValue() > this.threshold) {
+			this.statistics.nPlusOneLoaded(association, count.intValue());
+		}
+	}
+}
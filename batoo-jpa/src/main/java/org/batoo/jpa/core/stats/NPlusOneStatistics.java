@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The statistics of an association detected to be lazy loaded repeatedly within a single entity manager, i.e. an N+1 select.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class NPlusOneStatistics {
+
+	private final String association;
+	private final String ownerType;
+
+	final Counter detections = new Counter();
+	final AtomicLong maxLoads = new AtomicLong();
+	volatile StackTraceElement[] callSite;
+
+	/**
+	 * @param association
+	 *            the qualified name of the association
+	 * @param ownerType
+	 *            the name of the type of the owner of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	NPlusOneStatistics(String association, String ownerType) {
+		super();
+
+		this.association = association;
+		this.ownerType = ownerType;
+	}
+
+	/**
+	 * Returns the qualified name of the association, or the name of the entity for the lazy references.
+	 * 
+	 * @return the qualified name of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getAssociation() {
+		return this.association;
+	}
+
+	/**
+	 * Returns the stack trace of the latest call site that exceeded the threshold.
+	 * 
+	 * @return the stack trace of the latest call site that exceeded the threshold
+	 * 
+	 * @since 2.0.1
+	 */
+	public StackTraceElement[] getCallSite() {
+		return this.callSite;
+	}
+
+	/**
+	 * Returns the number of entity managers that exceeded the threshold.
+	 * 
+	 * @return the number of entity managers that exceeded the threshold
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getDetectionCount() {
+		return this.detections.get();
+	}
+
+	/**
+	 * Returns the max number of the lazy loads observed within a single entity manager.
+	 * 
+	 * @return the max number of the lazy loads observed within a single entity manager
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMaxLoadCount() {
+		return this.maxLoads.get();
+	}
+
+	/**
+	 * Returns the name of the type of the owner of the association.
+	 * 
+	 * @return the name of the type of the owner of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getOwnerType() {
+		return this.ownerType;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "NPlusOneStatistics [association=" + this.association + ", ownerType=" + this.ownerType + ", detections=" + this.detections
+			+ ", maxLoads=" + this.maxLoads + "]";
+	}
+}
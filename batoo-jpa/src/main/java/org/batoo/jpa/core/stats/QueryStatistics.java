@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+/**
+ * The statistics of a query.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class QueryStatistics {
+
+	private final String query;
+
+	final Counter rows = new Counter();
+	final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * @param query
+	 *            the query
+	 * 
+	 * @since 2.0.1
+	 */
+	QueryStatistics(String query) {
+		super();
+
+		this.query = query;
+	}
+
+	/**
+	 * Returns the number of times the query is executed.
+	 * 
+	 * @return the number of times the query is executed
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getExecutionCount() {
+		return this.latency.getCount();
+	}
+
+	/**
+	 * Returns the histogram of the execution times of the query.
+	 * 
+	 * @return the histogram of the execution times of the query
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getLatency() {
+		return this.latency;
+	}
+
+	/**
+	 * Returns the query.
+	 * 
+	 * @return the query
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * Returns the number of rows returned or updated by the query.
+	 * 
+	 * @return the number of rows returned or updated by the query
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getRowCount() {
+		return this.rows.get();
+	}
+
+	void reset() {
+		this.rows.reset();
+		this.latency.reset();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "QueryStatistics [query=" + this.query + ", rows=" + this.rows + ", latency=" + this.latency + "]";
+	}
+}
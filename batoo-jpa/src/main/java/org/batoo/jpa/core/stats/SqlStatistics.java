@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+/**
+ * The statistics of an SQL statement.
+ * <p>
+ * The time to execute the statement and the time the result set of the statement is consumed are recorded separately.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SqlStatistics {
+
+	private final String sql;
+
+	final LatencyHistogram execute = new LatencyHistogram();
+	final LatencyHistogram fetch = new LatencyHistogram();
+
+	/**
+	 * @param sql
+	 *            the SQL
+	 * 
+	 * @since 2.0.1
+	 */
+	SqlStatistics(String sql) {
+		super();
+
+		this.sql = sql;
+	}
+
+	/**
+	 * Returns the histogram of the execution times of the statement.
+	 * 
+	 * @return the histogram of the execution times of the statement
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getExecuteLatency() {
+		return this.execute;
+	}
+
+	/**
+	 * Returns the number of times the statement is executed.
+	 * 
+	 * @return the number of times the statement is executed
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getExecutionCount() {
+		return this.execute.getCount();
+	}
+
+	/**
+	 * Returns the histogram of the times the result sets of the statement are consumed.
+	 * <p>
+	 * The time is measured from the execution of the query until the statement is closed or executed again.
+	 * 
+	 * @return the histogram of the times the result sets of the statement are consumed
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getFetchLatency() {
+		return this.fetch;
+	}
+
+	/**
+	 * Returns the SQL.
+	 * 
+	 * @return the SQL
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getSql() {
+		return this.sql;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "SqlStatistics [sql=" + this.sql + ", execute=" + this.execute + ", fetch=" + this.fetch + "]";
+	}
+}
@@ -0,0 +1,634 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.stats;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The statistics of an entity manager factory.
+ * <p>
+ * The statistics are collected only while enabled, and can be enabled and disabled at runtime. When disabled, the cost to the
+ * instrumented code is a single volatile read.
+ * <p>
+ * The N+1 selects detected are the exception and are always collected as the detection is enabled separately.
+ * <p>
+ * The statistics also hold the optional {@link EventRecorder} that receives the individual persistence events.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class Statistics {
+
+	/**
+	 * The disabled statistics shared by the components created without statistics, must not be enabled.
+	 */
+	public static final Statistics DISABLED = new Statistics(false);
+
+	/**
+	 * The max number of distinct queries tracked, statistics for further queries are not collected.
+	 */
+	public static final int MAX_QUERIES = 1000;
+
+	/**
+	 * The max number of distinct SQL statements tracked, statistics for further statements are not collected.
+	 */
+	public static final int MAX_SQLS = 500;
+
+	private volatile boolean enabled;
+	private volatile long startTime = System.currentTimeMillis();
+	private volatile EventRecorder eventRecorder;
+
+	private final ConcurrentMap<String, EntityStatistics> entities = Maps.newConcurrentMap();
+	private final ConcurrentMap<String, QueryStatistics> queries = Maps.newConcurrentMap();
+	private final ConcurrentMap<String, CollectionStatistics> collections = Maps.newConcurrentMap();
+	private final ConcurrentMap<String, SqlStatistics> sqls = Maps.newConcurrentMap();
+	private final ConcurrentMap<String, NPlusOneStatistics> nPlusOnes = Maps.newConcurrentMap();
+
+	private final LatencyHistogram flushes = new LatencyHistogram();
+	private final LatencyHistogram idGeneratorWaits = new LatencyHistogram();
+	private final Counter jpqlCacheHits = new Counter();
+	private final Counter jpqlCacheMisses = new Counter();
+
+	/**
+	 * @param enabled
+	 *            if the statistics are collected initially
+	 * 
+	 * @since 2.0.1
+	 */
+	public Statistics(boolean enabled) {
+		super();
+
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Resets all the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void clear() {
+		for (final EntityStatistics statistics : this.entities.values()) {
+			statistics.reset();
+		}
+
+		for (final CollectionStatistics statistics : this.collections.values()) {
+			statistics.reset();
+		}
+
+		this.queries.clear();
+		this.sqls.clear();
+		this.nPlusOnes.clear();
+
+		this.flushes.reset();
+		this.idGeneratorWaits.reset();
+		this.jpqlCacheHits.reset();
+		this.jpqlCacheMisses.reset();
+
+		this.startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Records the initialization of a collection.
+	 * 
+	 * @param association
+	 *            the qualified name of the association
+	 * @param size
+	 *            the number of elements loaded
+	 * 
+	 * @since 2.0.1
+	 */
+	public void collectionInitialized(String association, int size) {
+		if (!this.enabled) {
+			return;
+		}
+
+		final CollectionStatistics statistics = this.getCollectionStatistics0(association);
+
+		statistics.initializations.increment();
+		statistics.elements.add(size);
+	}
+
+	/**
+	 * Records the deletion of entities.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * @param count
+	 *            the number of entities deleted
+	 * 
+	 * @since 2.0.1
+	 */
+	public void entitiesDeleted(String entity, int count) {
+		if (this.enabled) {
+			this.getEntityStatistics0(entity).deletes.add(count);
+		}
+	}
+
+	/**
+	 * Records the insertion of entities.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * @param count
+	 *            the number of entities inserted
+	 * 
+	 * @since 2.0.1
+	 */
+	public void entitiesInserted(String entity, int count) {
+		if (this.enabled) {
+			this.getEntityStatistics0(entity).inserts.add(count);
+		}
+	}
+
+	/**
+	 * Records the load of an entity.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public void entityLoaded(String entity) {
+		if (this.enabled) {
+			this.getEntityStatistics0(entity).loads.increment();
+		}
+	}
+
+	/**
+	 * Records the update of an entity.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public void entityUpdated(String entity) {
+		if (this.enabled) {
+			this.getEntityStatistics0(entity).updates.increment();
+		}
+	}
+
+	/**
+	 * Records a flush.
+	 * 
+	 * @param nanos
+	 *            the time the flush took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void flushed(long nanos) {
+		if (this.enabled) {
+			this.flushes.record(nanos);
+		}
+	}
+
+	/**
+	 * Returns the statistics of the collection associations.
+	 * 
+	 * @return the statistics of the collection associations
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<CollectionStatistics> getCollectionStatistics() {
+		return Collections.unmodifiableCollection(this.collections.values());
+	}
+
+	/**
+	 * Returns the statistics of the collection association.
+	 * 
+	 * @param association
+	 *            the qualified name of the association
+	 * @return the statistics of the collection association or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public CollectionStatistics getCollectionStatistics(String association) {
+		return this.collections.get(association);
+	}
+
+	private CollectionStatistics getCollectionStatistics0(String association) {
+		CollectionStatistics statistics = this.collections.get(association);
+		if (statistics == null) {
+			final CollectionStatistics newStatistics = new CollectionStatistics(association);
+
+			statistics = this.collections.putIfAbsent(association, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the event recorder.
+	 * 
+	 * @return the event recorder or null if no recorder is installed
+	 * 
+	 * @since 2.0.1
+	 */
+	public EventRecorder getEventRecorder() {
+		return this.eventRecorder;
+	}
+
+	/**
+	 * Returns the statistics of the entities.
+	 * 
+	 * @return the statistics of the entities
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<EntityStatistics> getEntityStatistics() {
+		return Collections.unmodifiableCollection(this.entities.values());
+	}
+
+	/**
+	 * Returns the statistics of the entity.
+	 * 
+	 * @param entity
+	 *            the name of the entity
+	 * @return the statistics of the entity or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public EntityStatistics getEntityStatistics(String entity) {
+		return this.entities.get(entity);
+	}
+
+	private EntityStatistics getEntityStatistics0(String entity) {
+		EntityStatistics statistics = this.entities.get(entity);
+		if (statistics == null) {
+			final EntityStatistics newStatistics = new EntityStatistics(entity);
+
+			statistics = this.entities.putIfAbsent(entity, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the histogram of the flush times.
+	 * 
+	 * @return the histogram of the flush times
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getFlushes() {
+		return this.flushes;
+	}
+
+	/**
+	 * Returns the histogram of the times spent waiting for the id generators.
+	 * 
+	 * @return the histogram of the times spent waiting for the id generators
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getIdGeneratorWaits() {
+		return this.idGeneratorWaits;
+	}
+
+	/**
+	 * Returns the number of JPQL queries found in the cache.
+	 * 
+	 * @return the number of JPQL queries found in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getJpqlCacheHitCount() {
+		return this.jpqlCacheHits.get();
+	}
+
+	/**
+	 * Returns the number of JPQL queries not found in the cache.
+	 * 
+	 * @return the number of JPQL queries not found in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getJpqlCacheMissCount() {
+		return this.jpqlCacheMisses.get();
+	}
+
+	/**
+	 * Returns the statistics of the N+1 selects detected.
+	 * 
+	 * @return the statistics of the N+1 selects detected
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<NPlusOneStatistics> getNPlusOneStatistics() {
+		return Collections.unmodifiableCollection(this.nPlusOnes.values());
+	}
+
+	/**
+	 * Returns the statistics of the N+1 selects detected for the association.
+	 * 
+	 * @param association
+	 *            the qualified name of the association, or the name of the entity for the lazy references
+	 * @return the statistics of the N+1 selects detected for the association or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public NPlusOneStatistics getNPlusOneStatistics(String association) {
+		return this.nPlusOnes.get(association);
+	}
+
+	/**
+	 * Returns the statistics of the queries.
+	 * 
+	 * @return the statistics of the queries
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<QueryStatistics> getQueryStatistics() {
+		return Collections.unmodifiableCollection(this.queries.values());
+	}
+
+	/**
+	 * Returns the statistics of the query.
+	 * 
+	 * @param query
+	 *            the JPQL or the SQL of the query
+	 * @return the statistics of the query or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public QueryStatistics getQueryStatistics(String query) {
+		return this.queries.get(query);
+	}
+
+	private QueryStatistics getQueryStatistics0(String query) {
+		QueryStatistics statistics = this.queries.get(query);
+		if ((statistics == null) && (this.queries.size() < Statistics.MAX_QUERIES)) {
+			final QueryStatistics newStatistics = new QueryStatistics(query);
+
+			statistics = this.queries.putIfAbsent(query, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the statistics of the SQL statements.
+	 * 
+	 * @return the statistics of the SQL statements
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<SqlStatistics> getSqlStatistics() {
+		return Collections.unmodifiableCollection(this.sqls.values());
+	}
+
+	/**
+	 * Returns the statistics of the SQL statement.
+	 * 
+	 * @param sql
+	 *            the SQL
+	 * @return the statistics of the SQL statement or null
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlStatistics getSqlStatistics(String sql) {
+		return this.sqls.get(sql);
+	}
+
+	private SqlStatistics getSqlStatistics0(String sql) {
+		SqlStatistics statistics = this.sqls.get(sql);
+		if ((statistics == null) && (this.sqls.size() < Statistics.MAX_SQLS)) {
+			final SqlStatistics newStatistics = new SqlStatistics(sql);
+
+			statistics = this.sqls.putIfAbsent(sql, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the time the statistics are collected since.
+	 * 
+	 * @return the time in milliseconds the statistics are collected since
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Records a wait for an id generator.
+	 * 
+	 * @param nanos
+	 *            the time waited in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void idGeneratorWaited(long nanos) {
+		if (this.enabled) {
+			this.idGeneratorWaits.record(nanos);
+		}
+	}
+
+	/**
+	 * Returns if the statistics are collected.
+	 * 
+	 * @return true if the statistics are collected, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Records a lookup of the JPQL query cache.
+	 * 
+	 * @param hit
+	 *            if the query is found in the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public void jpqlCacheLookup(boolean hit) {
+		if (this.enabled) {
+			if (hit) {
+				this.jpqlCacheHits.increment();
+			}
+			else {
+				this.jpqlCacheMisses.increment();
+			}
+		}
+	}
+
+	/**
+	 * Records the detection of N+1 selects.
+	 * 
+	 * @param association
+	 *            the qualified name of the association, or the name of the entity for the lazy references
+	 * @param ownerType
+	 *            the name of the type of the owner of the association
+	 * @param loads
+	 *            the number of the lazy loads within the entity manager
+	 * @param callSite
+	 *            the stack trace of the call site
+	 * 
+	 * @since 2.0.1
+	 */
+	public void nPlusOneDetected(String association, String ownerType, int loads, StackTraceElement[] callSite) {
+		NPlusOneStatistics statistics = this.nPlusOnes.get(association);
+		if (statistics == null) {
+			final NPlusOneStatistics newStatistics = new NPlusOneStatistics(association, ownerType);
+
+			statistics = this.nPlusOnes.putIfAbsent(association, newStatistics);
+			if (statistics == null) {
+				statistics = newStatistics;
+			}
+		}
+
+		statistics.detections.increment();
+		statistics.callSite = callSite;
+
+		this.nPlusOneLoaded(association, loads);
+	}
+
+	/**
+	 * Records a further lazy load of an association detected as N+1 selects.
+	 * 
+	 * @param association
+	 *            the qualified name of the association, or the name of the entity for the lazy references
+	 * @param loads
+	 *            the number of the lazy loads within the entity manager
+	 * 
+	 * @since 2.0.1
+	 */
+	public void nPlusOneLoaded(String association, int loads) {
+		final NPlusOneStatistics statistics = this.nPlusOnes.get(association);
+		if (statistics == null) {
+			return;
+		}
+
+		long max = statistics.maxLoads.get();
+		while ((loads > max) && !statistics.maxLoads.compareAndSet(max, loads)) {
+			max = statistics.maxLoads.get();
+		}
+	}
+
+	/**
+	 * Records the execution of a query.
+	 * 
+	 * @param query
+	 *            the JPQL or the SQL of the query
+	 * @param rows
+	 *            the number of rows returned or updated
+	 * @param nanos
+	 *            the time the execution took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void queryExecuted(String query, int rows, long nanos) {
+		if (!this.enabled) {
+			return;
+		}
+
+		final QueryStatistics statistics = this.getQueryStatistics0(query);
+		if (statistics != null) {
+			statistics.rows.add(rows);
+			statistics.latency.record(nanos);
+		}
+	}
+
+	/**
+	 * Sets if the statistics are collected.
+	 * 
+	 * @param enabled
+	 *            true to collect the statistics, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Sets the event recorder.
+	 * 
+	 * @param eventRecorder
+	 *            the event recorder or null to stop recording the events
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setEventRecorder(EventRecorder eventRecorder) {
+		this.eventRecorder = eventRecorder;
+	}
+
+	/**
+	 * Records the execution of an SQL statement.
+	 * 
+	 * @param sql
+	 *            the SQL
+	 * @param nanos
+	 *            the time the execution took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void sqlExecuted(String sql, long nanos) {
+		if (!this.enabled) {
+			return;
+		}
+
+		final SqlStatistics statistics = this.getSqlStatistics0(sql);
+		if (statistics != null) {
+			statistics.execute.record(nanos);
+		}
+	}
+
+	/**
+	 * Records the consumption of the result set of an SQL statement.
+	 * 
+	 * @param sql
+	 *            the SQL
+	 * @param nanos
+	 *            the time the consumption took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void sqlFetched(String sql, long nanos) {
+		if (!this.enabled) {
+			return;
+		}
+
+		final SqlStatistics statistics = this.getSqlStatistics0(sql);
+		if (statistics != null) {
+			statistics.fetch.record(nanos);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+import java.util.EnumMap;
+
+import org.batoo.jpa.core.stats.Counter;
+import org.batoo.jpa.core.stats.LatencyHistogram;
+
+/**
+ * The result of a replay, the captured and the replayed latency and the number of failures of each operation.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ReplayResult {
+
+	private final EnumMap<WorkloadOperation, LatencyHistogram> captured = new EnumMap<WorkloadOperation, LatencyHistogram>(WorkloadOperation.class);
+	private final EnumMap<WorkloadOperation, LatencyHistogram> replayed = new EnumMap<WorkloadOperation, LatencyHistogram>(WorkloadOperation.class);
+	private final EnumMap<WorkloadOperation, Counter> failures = new EnumMap<WorkloadOperation, Counter>(WorkloadOperation.class);
+
+	/**
+	 * @since 2.0.1
+	 */
+	ReplayResult() {
+		super();
+
+		for (final WorkloadOperation operation : WorkloadOperation.values()) {
+			this.captured.put(operation, new LatencyHistogram());
+			this.replayed.put(operation, new LatencyHistogram());
+			this.failures.put(operation, new Counter());
+		}
+	}
+
+	/**
+	 * Records the failed replay of the operation.
+	 * 
+	 * @param record
+	 *            the record replayed
+	 * 
+	 * @since 2.0.1
+	 */
+	void failed(WorkloadRecord record) {
+		this.captured.get(record.getOperation()).record(record.getNanos());
+		this.failures.get(record.getOperation()).add(1);
+	}
+
+	/**
+	 * Returns the latency of the operation at the time of the capture.
+	 * 
+	 * @param operation
+	 *            the operation
+	 * @return the captured latency of the operation
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getCapturedLatency(WorkloadOperation operation) {
+		return this.captured.get(operation);
+	}
+
+	/**
+	 * Returns the number of times the replay of the operation failed.
+	 * 
+	 * @param operation
+	 *            the operation
+	 * @return the number of failures of the operation
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getFailureCount(WorkloadOperation operation) {
+		return this.failures.get(operation).get();
+	}
+
+	/**
+	 * Returns the latency of the successful replays of the operation.
+	 * 
+	 * @param operation
+	 *            the operation
+	 * @return the replayed latency of the operation
+	 * 
+	 * @since 2.0.1
+	 */
+	public LatencyHistogram getReplayedLatency(WorkloadOperation operation) {
+		return this.replayed.get(operation);
+	}
+
+	/**
+	 * Records the replay of the operation.
+	 * 
+	 * @param record
+	 *            the record replayed
+	 * @param nanos
+	 *            the time the replay took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	void replayed(WorkloadRecord record, long nanos) {
+		this.captured.get(record.getOperation()).record(record.getNanos());
+		this.replayed.get(record.getOperation()).record(nanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder s = new StringBuilder("ReplayResult [");
+
+		for (final WorkloadOperation operation : WorkloadOperation.values()) {
+			if (this.captured.get(operation).getCount() == 0) {
+				continue;
+			}
+
+			s.append("\n\t").append(operation) //
+				.append(": captured=").append(this.captured.get(operation)) //
+				.append(", replayed=").append(this.replayed.get(operation)) //
+				.append(", failures=").append(this.getFailureCount(operation));
+		}
+
+		return s.append("\n]").toString();
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+/**
+ * The constants of the binary workload log.
+ * <p>
+ * The log starts with the {@link #MAGIC} number, the {@link #VERSION} and the wall clock time of the capture start. Each record then
+ * consists of the ordinal of the operation, the session, the start relative to the start of the previous record in nanoseconds, the
+ * time the operation took in nanoseconds and the payload of the operation. Numbers are written as variable length integers.
+ * <p>
+ * The names, that is the JPQL, entity, attribute, parameter and enum names, are written through a dictionary of at most
+ * {@link #MAX_DICTIONARY} entries, each name is written once and referred by its index plus one afterwards. A zero is followed by a name
+ * written inline, as the names that do not fit into the dictionary are. The string values are always written inline, as they are
+ * typically distinct.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+final class WorkloadFormat {
+
+	static final int MAGIC = 0x42574C47;
+	static final int VERSION = 2;
+
+	static final int MAX_DICTIONARY = 10000;
+
+	static final byte NULL = 0;
+	static final byte STRING = 1;
+	static final byte INTEGER = 2;
+	static final byte LONG = 3;
+	static final byte DOUBLE = 4;
+	static final byte FLOAT = 5;
+	static final byte SHORT = 6;
+	static final byte BYTE = 7;
+	static final byte BOOLEAN = 8;
+	static final byte CHARACTER = 9;
+	static final byte BIG_DECIMAL = 10;
+	static final byte BIG_INTEGER = 11;
+	static final byte DATE = 12;
+	static final byte SQL_DATE = 13;
+	static final byte SQL_TIME = 14;
+	static final byte SQL_TIMESTAMP = 15;
+	static final byte CALENDAR = 16;
+	static final byte ENUM = 17;
+	static final byte BYTES = 18;
+	static final byte ENTITY = 19;
+	static final byte COLLECTION = 20;
+	static final byte UNKNOWN = 21;
+
+	private WorkloadFormat() {
+		super();
+	}
+}
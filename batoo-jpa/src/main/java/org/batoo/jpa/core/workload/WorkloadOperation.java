@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+/**
+ * The operations of a workload.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public enum WorkloadOperation {
+
+	/**
+	 * A transaction began.
+	 */
+	BEGIN,
+
+	/**
+	 * A transaction committed.
+	 */
+	COMMIT,
+
+	/**
+	 * A transaction rolled back.
+	 */
+	ROLLBACK,
+
+	/**
+	 * An entity is found by its id.
+	 */
+	FIND,
+
+	/**
+	 * A select query is executed.
+	 */
+	QUERY,
+
+	/**
+	 * An update or delete query is executed.
+	 */
+	UPDATE,
+
+	/**
+	 * An entity is persisted.
+	 */
+	PERSIST,
+
+	/**
+	 * An entity is merged.
+	 */
+	MERGE,
+
+	/**
+	 * An entity is removed.
+	 */
+	REMOVE,
+
+	/**
+	 * The entity manager is closed.
+	 */
+	CLOSE
+}
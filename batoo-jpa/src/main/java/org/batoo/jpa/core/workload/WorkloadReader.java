@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Reads the workload log written by the {@link WorkloadRecorder}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class WorkloadReader {
+
+	private final DataInputStream in;
+	private final ArrayList<String> dictionary = Lists.newArrayList();
+	private final long captureStart;
+
+	private long last;
+
+	/**
+	 * @param in
+	 *            the stream to read the log from
+	 * @throws IOException
+	 *             thrown in case the stream is not a workload log or cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadReader(InputStream in) throws IOException {
+		super();
+
+		this.in = new DataInputStream(new BufferedInputStream(in));
+
+		if (this.in.readInt() != WorkloadFormat.MAGIC) {
+			throw new IOException("Not a workload log");
+		}
+
+		final int version = this.in.readByte();
+		if (version != WorkloadFormat.VERSION) {
+			throw new IOException("Unsupported workload log version " + version);
+		}
+
+		this.captureStart = this.in.readLong();
+	}
+
+	/**
+	 * Closes the reader.
+	 * 
+	 * @throws IOException
+	 *             thrown in case of an underlying IO error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+	/**
+	 * Returns the wall clock time the capture started in milliseconds.
+	 * 
+	 * @return the wall clock time the capture started in milliseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getCaptureStart() {
+		return this.captureStart;
+	}
+
+	/**
+	 * Reads the next record.
+	 * 
+	 * @return the next record or <code>null</code> if the end of the log is reached
+	 * @throws IOException
+	 *             thrown in case of an underlying IO error
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecord read() throws IOException {
+		final int ordinal = this.in.read();
+		if (ordinal < 0) {
+			return null;
+		}
+
+		final WorkloadOperation operation = WorkloadOperation.values()[ordinal];
+		final int session = (int) this.readVarLong();
+
+		final long delta = this.readVarLong();
+		this.last += (delta >>> 1) ^ -(delta & 1);
+
+		final long nanos = this.readVarLong();
+
+		switch (operation) {
+			case FIND:
+			case REMOVE:
+				return new WorkloadRecord(operation, session, this.last, nanos, this.readName(), this.readValue(), null, 0, 0, null);
+			case PERSIST:
+			case MERGE:
+				return new WorkloadRecord(operation, session, this.last, nanos, this.readName(), null, null, 0, 0, this.readValues());
+			case QUERY:
+			case UPDATE:
+				final String jpql = this.readName();
+				final int firstResult = (int) this.readVarLong();
+				final int maxResults = (int) this.readVarLong();
+
+				return new WorkloadRecord(operation, session, this.last, nanos, null, null, jpql, firstResult, maxResults, this.readValues());
+			default:
+				return new WorkloadRecord(operation, session, this.last, nanos, null, null, null, 0, 0, null);
+		}
+	}
+
+	private byte[] readBytes(int length) throws IOException {
+		final byte[] bytes = new byte[length];
+		this.in.readFully(bytes);
+
+		return bytes;
+	}
+
+	private String readName() throws IOException {
+		final int index = (int) this.readVarLong();
+
+		// the names that do not fit into the dictionary are written inline
+		if (index == 0) {
+			return this.readString();
+		}
+
+		if (index <= this.dictionary.size()) {
+			return this.dictionary.get(index - 1);
+		}
+
+		final String name = this.readString();
+		this.dictionary.add(name);
+
+		return name;
+	}
+
+	private String readString() throws IOException {
+		return new String(this.readBytes((int) this.readVarLong()), Charsets.UTF_8);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readValue() throws IOException {
+		final byte tag = this.in.readByte();
+
+		switch (tag) {
+			case WorkloadFormat.NULL:
+				return null;
+			case WorkloadFormat.STRING:
+				return this.readString();
+			case WorkloadFormat.INTEGER:
+				return this.in.readInt();
+			case WorkloadFormat.LONG:
+				return this.in.readLong();
+			case WorkloadFormat.DOUBLE:
+				return this.in.readDouble();
+			case WorkloadFormat.FLOAT:
+				return this.in.readFloat();
+			case WorkloadFormat.SHORT:
+				return this.in.readShort();
+			case WorkloadFormat.BYTE:
+				return this.in.readByte();
+			case WorkloadFormat.BOOLEAN:
+				return this.in.readBoolean();
+			case WorkloadFormat.CHARACTER:
+				return this.in.readChar();
+			case WorkloadFormat.BIG_DECIMAL:
+				return new BigDecimal(this.readString());
+			case WorkloadFormat.BIG_INTEGER:
+				return new BigInteger(this.readString());
+			case WorkloadFormat.DATE:
+				return new Date(this.in.readLong());
+			case WorkloadFormat.SQL_DATE:
+				return new java.sql.Date(this.in.readLong());
+			case WorkloadFormat.SQL_TIME:
+				return new java.sql.Time(this.in.readLong());
+			case WorkloadFormat.SQL_TIMESTAMP:
+				final java.sql.Timestamp timestamp = new java.sql.Timestamp(this.in.readLong());
+				timestamp.setNanos(this.in.readInt());
+
+				return timestamp;
+			case WorkloadFormat.CALENDAR:
+				final Calendar calendar = Calendar.getInstance();
+				calendar.setTimeInMillis(this.in.readLong());
+
+				return calendar;
+			case WorkloadFormat.ENUM:
+				final String enumClass = this.readName();
+				final String name = this.readName();
+				try {
+					return Enum.valueOf((Class<Enum>) Class.forName(enumClass, true, Thread.currentThread().getContextClassLoader()), name);
+				}
+				catch (final ClassNotFoundException e) {
+					return null;
+				}
+			case WorkloadFormat.BYTES:
+				return this.readBytes((int) this.readVarLong());
+			case WorkloadFormat.ENTITY:
+				return new WorkloadRecord.Reference(this.readName(), this.readValue());
+			case WorkloadFormat.COLLECTION:
+				final int size = (int) this.readVarLong();
+				final List<Object> elements = Lists.newArrayListWithCapacity(size);
+				for (int i = 0; i < size; i++) {
+					elements.add(this.readValue());
+				}
+
+				return elements;
+			case WorkloadFormat.UNKNOWN:
+				this.readName();
+
+				return null;
+			default:
+				throw new IOException("Corrupt workload log, unknown value tag " + tag);
+		}
+	}
+
+	private Map<String, Object> readValues() throws IOException {
+		final int size = (int) this.readVarLong();
+
+		final Map<String, Object> values = Maps.newHashMap();
+		for (int i = 0; i < size; i++) {
+			values.put(this.readName(), this.readValue());
+		}
+
+		return values;
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			final int b = this.in.read();
+			if (b < 0) {
+				throw new EOFException("Truncated workload log");
+			}
+
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Corrupt workload log, malformed number");
+	}
+}
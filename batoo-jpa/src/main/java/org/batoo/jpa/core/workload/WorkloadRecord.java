@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A record of the workload log.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class WorkloadRecord {
+
+	/**
+	 * A reference to an entity recorded as a parameter value.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	public static class Reference {
+
+		private final String entityName;
+		private final Object id;
+
+		/**
+		 * @param entityName
+		 *            the name of the entity
+		 * @param id
+		 *            the id of the entity
+		 * 
+		 * @since 2.0.1
+		 */
+		public Reference(String entityName, Object id) {
+			super();
+
+			this.entityName = entityName;
+			this.id = id;
+		}
+
+		/**
+		 * Returns the name of the entity.
+		 * 
+		 * @return the name of the entity
+		 * 
+		 * @since 2.0.1
+		 */
+		public String getEntityName() {
+			return this.entityName;
+		}
+
+		/**
+		 * Returns the id of the entity.
+		 * 
+		 * @return the id of the entity
+		 * 
+		 * @since 2.0.1
+		 */
+		public Object getId() {
+			return this.id;
+		}
+	}
+
+	private final WorkloadOperation operation;
+	private final int session;
+	private final long start;
+	private final long nanos;
+	private final String entityName;
+	private final Object id;
+	private final String jpql;
+	private final int firstResult;
+	private final int maxResults;
+	private final Map<String, Object> values;
+
+	/**
+	 * @param operation
+	 *            the operation
+	 * @param session
+	 *            the session of the entity manager
+	 * @param start
+	 *            the start of the operation relative to the start of the capture in nanoseconds
+	 * @param nanos
+	 *            the time the operation took in nanoseconds
+	 * @param entityName
+	 *            the name of the entity or <code>null</code>
+	 * @param id
+	 *            the id of the entity or <code>null</code>
+	 * @param jpql
+	 *            the JPQL of the query or <code>null</code>
+	 * @param firstResult
+	 *            the first result of the query
+	 * @param maxResults
+	 *            the max results of the query
+	 * @param values
+	 *            the parameter values of the query or the attribute values of the entity or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecord(WorkloadOperation operation, int session, long start, long nanos, String entityName, Object id, String jpql,
+		int firstResult, int maxResults, Map<String, Object> values) {
+		super();
+
+		this.operation = operation;
+		this.session = session;
+		this.start = start;
+		this.nanos = nanos;
+		this.entityName = entityName;
+		this.id = id;
+		this.jpql = jpql;
+		this.firstResult = firstResult;
+		this.maxResults = maxResults;
+		this.values = values != null ? values : Collections.<String, Object> emptyMap();
+	}
+
+	/**
+	 * Returns the name of the entity of the find, persist, merge or remove.
+	 * 
+	 * @return the name of the entity or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getEntityName() {
+		return this.entityName;
+	}
+
+	/**
+	 * Returns the first result of the query.
+	 * 
+	 * @return the first result of the query
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getFirstResult() {
+		return this.firstResult;
+	}
+
+	/**
+	 * Returns the id of the entity of the find or remove.
+	 * 
+	 * @return the id of the entity or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the JPQL of the query.
+	 * 
+	 * @return the JPQL of the query or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getJpql() {
+		return this.jpql;
+	}
+
+	/**
+	 * Returns the max results of the query.
+	 * 
+	 * @return the max results of the query
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getMaxResults() {
+		return this.maxResults;
+	}
+
+	/**
+	 * Returns the time the operation took in nanoseconds.
+	 * 
+	 * @return the time the operation took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getNanos() {
+		return this.nanos;
+	}
+
+	/**
+	 * Returns the operation.
+	 * 
+	 * @return the operation
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadOperation getOperation() {
+		return this.operation;
+	}
+
+	/**
+	 * Returns the session of the entity manager.
+	 * 
+	 * @return the session of the entity manager
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getSession() {
+		return this.session;
+	}
+
+	/**
+	 * Returns the start of the operation relative to the start of the capture in nanoseconds.
+	 * 
+	 * @return the start of the operation in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Returns the parameter values of the query keyed by the name or the position of the parameters, or the basic attribute values of
+	 * the entity of the persist or merge keyed by the name of the attributes.
+	 * <p>
+	 * Entities are represented by {@link Reference}s and values of which only the type is recorded by <code>null</code>.
+	 * 
+	 * @return the values
+	 * 
+	 * @since 2.0.1
+	 */
+	public Map<String, Object> getValues() {
+		return this.values;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "WorkloadRecord [operation=" + this.operation + ", session=" + this.session + ", nanos=" + this.nanos + ", entityName="
+			+ this.entityName + ", id=" + this.id + ", jpql=" + this.jpql + ", values=" + this.values + "]";
+	}
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.metamodel.Attribute;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.impl.model.attribute.BasicAttribute;
+import org.batoo.jpa.jdbc.IdType;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Captures the workload of the entity managers of an entity manager factory into a compact binary log that can be replayed by the
+ * {@link WorkloadReplayer}.
+ * <p>
+ * The operations performed through the entity manager API are recorded, that is finds, JPQL and Criteria queries with their
+ * parameters, persists, merges and removes with the basic attribute values of the entities and the transaction boundaries, each with
+ * the time it took. Operations performed by the entity manager on behalf of another operation, such as the implicit finds of a merge,
+ * are not recorded. Native queries are not recorded.
+ * <p>
+ * The recorder is thread safe, the records are written under the lock of the recorder. A failure to write disables the recorder
+ * rather than failing the operation recorded.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class WorkloadRecorder {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(WorkloadRecorder.class);
+
+	private final MetamodelImpl metamodel;
+	private final DataOutputStream out;
+	private final HashMap<String, Integer> dictionary = Maps.newHashMap();
+	private final AtomicInteger sessions = new AtomicInteger();
+
+	private long last;
+	private boolean closed;
+
+	/**
+	 * @param metamodel
+	 *            the metamodel
+	 * @param file
+	 *            the file to write the log to
+	 * @throws IOException
+	 *             thrown in case the log cannot be written
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecorder(MetamodelImpl metamodel, File file) throws IOException {
+		this(metamodel, new FileOutputStream(file));
+	}
+
+	/**
+	 * @param metamodel
+	 *            the metamodel
+	 * @param out
+	 *            the stream to write the log to
+	 * @throws IOException
+	 *             thrown in case the log cannot be written
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadRecorder(MetamodelImpl metamodel, OutputStream out) throws IOException {
+		super();
+
+		this.metamodel = metamodel;
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.last = System.nanoTime();
+
+		this.out.writeInt(WorkloadFormat.MAGIC);
+		this.out.writeByte(WorkloadFormat.VERSION);
+		this.out.writeLong(System.currentTimeMillis());
+	}
+
+	/**
+	 * Closes the log.
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void close() {
+		if (this.closed) {
+			return;
+		}
+
+		this.closed = true;
+
+		try {
+			this.out.close();
+		}
+		catch (final IOException e) {
+			WorkloadRecorder.LOG.error(e, "Unable to close the workload log");
+		}
+	}
+
+	private void failed(IOException e) {
+		WorkloadRecorder.LOG.error(e, "Unable to write the workload log, workload capture is stopped");
+
+		this.close();
+	}
+
+	/**
+	 * Records a find.
+	 * 
+	 * @param session
+	 *            the session of the entity manager
+	 * @param type
+	 *            the type of the entity
+	 * @param id
+	 *            the id of the entity
+	 * @param start
+	 *            the start of the operation in nanoseconds
+	 * @param nanos
+	 *            the time the operation took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void find(int session, EntityTypeImpl<?> type, Object id, long start, long nanos) {
+		if (this.closed) {
+			return;
+		}
+
+		try {
+			this.writeHeader(WorkloadOperation.FIND, session, start, nanos);
+			this.writeName(type.getName());
+			this.writeValue(id);
+		}
+		catch (final IOException e) {
+			this.failed(e);
+		}
+	}
+
+	/**
+	 * Returns a new session to identify the operations of an entity manager.
+	 * 
+	 * @return the session
+	 * 
+	 * @since 2.0.1
+	 */
+	public int nextSession() {
+		return this.sessions.incrementAndGet();
+	}
+
+	/**
+	 * Records the execution of a query.
+	 * 
+	 * @param session
+	 *            the session of the entity manager
+	 * @param operation
+	 *            the {@link WorkloadOperation#QUERY} or {@link WorkloadOperation#UPDATE}
+	 * @param jpql
+	 *            the JPQL of the query
+	 * @param parameters
+	 *            the parameter values keyed by the name or the position of the parameters
+	 * @param firstResult
+	 *            the first result
+	 * @param maxResults
+	 *            the max results
+	 * @param start
+	 *            the start of the operation in nanoseconds
+	 * @param nanos
+	 *            the time the operation took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void query(int session, WorkloadOperation operation, String jpql, Map<String, Object> parameters, int firstResult,
+		int maxResults, long start, long nanos) {
+		if (this.closed) {
+			return;
+		}
+
+		try {
+			this.writeHeader(operation, session, start, nanos);
+			this.writeName(jpql);
+			this.writeVarLong(firstResult);
+			this.writeVarLong(maxResults);
+			this.writeValues(parameters);
+		}
+		catch (final IOException e) {
+			this.failed(e);
+		}
+	}
+
+	/**
+	 * Records a transaction boundary or the close of the entity manager.
+	 * 
+	 * @param session
+	 *            the session of the entity manager
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            the start of the operation in nanoseconds
+	 * @param nanos
+	 *            the time the operation took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void session(int session, WorkloadOperation operation, long start, long nanos) {
+		if (this.closed) {
+			return;
+		}
+
+		try {
+			this.writeHeader(operation, session, start, nanos);
+		}
+		catch (final IOException e) {
+			this.failed(e);
+		}
+	}
+
+	/**
+	 * Records a persist, merge or remove.
+	 * <p>
+	 * For persists and merges the values of the basic attributes of the entity are recorded, except for the generated ids of persists.
+	 * For removes only the id is recorded.
+	 * 
+	 * @param session
+	 *            the session of the entity manager
+	 * @param operation
+	 *            the {@link WorkloadOperation#PERSIST}, {@link WorkloadOperation#MERGE} or {@link WorkloadOperation#REMOVE}
+	 * @param entity
+	 *            the entity
+	 * @param start
+	 *            the start of the operation in nanoseconds
+	 * @param nanos
+	 *            the time the operation took in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public synchronized void write(int session, WorkloadOperation operation, Object entity, long start, long nanos) {
+		if (this.closed || (entity == null)) {
+			return;
+		}
+
+		final EntityTypeImpl type = this.metamodel.getEntity(entity.getClass());
+		if (type == null) {
+			return;
+		}
+
+		try {
+			this.writeHeader(operation, session, start, nanos);
+			this.writeName(type.getName());
+
+			if (operation == WorkloadOperation.REMOVE) {
+				this.writeValue(type.getInstanceId(entity));
+
+				return;
+			}
+
+			final Map<String, Object> values = Maps.newHashMap();
+			for (final Attribute<?, ?> attribute : (Iterable<Attribute<?, ?>>) type.getAttributes()) {
+				if (attribute instanceof BasicAttribute) {
+					final BasicAttribute<?, ?> basicAttribute = (BasicAttribute<?, ?>) attribute;
+					if (basicAttribute.isId() && (operation == WorkloadOperation.PERSIST) && (basicAttribute.getIdType() != IdType.MANUAL)) {
+						continue;
+					}
+
+					values.put(basicAttribute.getName(), basicAttribute.get(entity));
+				}
+			}
+
+			this.writeValues(values);
+		}
+		catch (final IOException e) {
+			this.failed(e);
+		}
+	}
+
+	private void writeHeader(WorkloadOperation operation, int session, long start, long nanos) throws IOException {
+		this.out.writeByte(operation.ordinal());
+		this.writeVarLong(session);
+
+		// operations complete out of order, so the delta may be negative
+		final long delta = start - this.last;
+		this.writeVarLong((delta << 1) ^ (delta >> 63));
+		this.last = start;
+
+		this.writeVarLong(nanos);
+	}
+
+	private void writeName(String name) throws IOException {
+		final Integer index = this.dictionary.get(name);
+		if (index != null) {
+			this.writeVarLong(index + 1);
+
+			return;
+		}
+
+		// once the dictionary is full the new names are written inline
+		if (this.dictionary.size() < WorkloadFormat.MAX_DICTIONARY) {
+			this.writeVarLong(this.dictionary.size() + 1);
+			this.dictionary.put(name, this.dictionary.size());
+		}
+		else {
+			this.writeVarLong(0);
+		}
+
+		this.writeString(name);
+	}
+
+	private void writeString(String value) throws IOException {
+		final byte[] bytes = value.getBytes(Charsets.UTF_8);
+
+		this.writeVarLong(bytes.length);
+		this.out.write(bytes);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void writeValue(Object value) throws IOException {
+		if (value == null) {
+			this.out.writeByte(WorkloadFormat.NULL);
+		}
+		else if (value instanceof String) {
+			this.out.writeByte(WorkloadFormat.STRING);
+			this.writeString((String) value);
+		}
+		else if (value instanceof Integer) {
+			this.out.writeByte(WorkloadFormat.INTEGER);
+			this.out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			this.out.writeByte(WorkloadFormat.LONG);
+			this.out.writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			this.out.writeByte(WorkloadFormat.DOUBLE);
+			this.out.writeDouble((Double) value);
+		}
+		else if (value instanceof Float) {
+			this.out.writeByte(WorkloadFormat.FLOAT);
+			this.out.writeFloat((Float) value);
+		}
+		else if (value instanceof Short) {
+			this.out.writeByte(WorkloadFormat.SHORT);
+			this.out.writeShort((Short) value);
+		}
+		else if (value instanceof Byte) {
+			this.out.writeByte(WorkloadFormat.BYTE);
+			this.out.writeByte((Byte) value);
+		}
+		else if (value instanceof Boolean) {
+			this.out.writeByte(WorkloadFormat.BOOLEAN);
+			this.out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Character) {
+			this.out.writeByte(WorkloadFormat.CHARACTER);
+			this.out.writeChar((Character) value);
+		}
+		else if (value instanceof BigDecimal) {
+			this.out.writeByte(WorkloadFormat.BIG_DECIMAL);
+			this.writeString(value.toString());
+		}
+		else if (value instanceof BigInteger) {
+			this.out.writeByte(WorkloadFormat.BIG_INTEGER);
+			this.writeString(value.toString());
+		}
+		else if (value instanceof java.sql.Timestamp) {
+			this.out.writeByte(WorkloadFormat.SQL_TIMESTAMP);
+			this.out.writeLong(((Date) value).getTime());
+			this.out.writeInt(((java.sql.Timestamp) value).getNanos());
+		}
+		else if (value instanceof java.sql.Time) {
+			this.out.writeByte(WorkloadFormat.SQL_TIME);
+			this.out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof java.sql.Date) {
+			this.out.writeByte(WorkloadFormat.SQL_DATE);
+			this.out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof Date) {
+			this.out.writeByte(WorkloadFormat.DATE);
+			this.out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof Calendar) {
+			this.out.writeByte(WorkloadFormat.CALENDAR);
+			this.out.writeLong(((Calendar) value).getTimeInMillis());
+		}
+		else if (value instanceof Enum) {
+			this.out.writeByte(WorkloadFormat.ENUM);
+			this.writeName(((Enum<?>) value).getDeclaringClass().getName());
+			this.writeName(((Enum<?>) value).name());
+		}
+		else if (value instanceof byte[]) {
+			this.out.writeByte(WorkloadFormat.BYTES);
+			this.writeVarLong(((byte[]) value).length);
+			this.out.write((byte[]) value);
+		}
+		else if (value instanceof Collection) {
+			final List<Object> elements = Lists.newArrayList((Collection<?>) value);
+
+			this.out.writeByte(WorkloadFormat.COLLECTION);
+			this.writeVarLong(elements.size());
+			for (final Object element : elements) {
+				this.writeValue(element);
+			}
+		}
+		else {
+			final EntityTypeImpl type = this.metamodel.getEntity(value.getClass());
+			if (type != null) {
+				this.out.writeByte(WorkloadFormat.ENTITY);
+				this.writeName(type.getName());
+				this.writeValue(type.getInstanceId(value));
+			}
+			else {
+				// only the shape of the value is recorded
+				this.out.writeByte(WorkloadFormat.UNKNOWN);
+				this.writeName(value.getClass().getName());
+			}
+		}
+	}
+
+	private void writeValues(Map<String, Object> values) throws IOException {
+		this.writeVarLong(values.size());
+
+		for (final Entry<String, Object> entry : values.entrySet()) {
+			this.writeName(entry.getKey());
+			this.writeValue(entry.getValue());
+		}
+	}
+
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			this.out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		this.out.writeByte((int) value);
+	}
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.workload;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+import org.apache.commons.lang.StringUtils;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.common.util.IncrementalNamingThreadFactory;
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.attribute.AttributeImpl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Replays a workload captured by the {@link WorkloadRecorder} against an entity manager factory, typically deployed on a local copy
+ * of the schema.
+ * <p>
+ * The operations of each session captured are replayed in order with an entity manager of their own, the sessions are replayed
+ * concurrently by the given number of threads as fast as possible. Persists and merges are replayed with new instances carrying the
+ * captured basic attribute values, associations are not replayed. The latency of each operation is reported against the captured
+ * latency, and the failed operations are counted rather than aborting the replay.
+ * <p>
+ * The replayer can be run from the command line with the name of the persistence unit, the workload log and the concurrency as the
+ * arguments. The <code>javax.persistence.*</code> and <code>org.batoo.*</code> system properties are passed to the persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class WorkloadReplayer {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(WorkloadReplayer.class);
+
+	/**
+	 * The main entry point.
+	 * 
+	 * @param args
+	 *            the name of the persistence unit, the workload log and optionally the concurrency
+	 * @throws IOException
+	 *             thrown in case the workload log cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: WorkloadReplayer <persistence unit> <workload log> [concurrency]");
+
+			return;
+		}
+
+		final Map<String, Object> properties = Maps.newHashMap();
+		for (final String key : System.getProperties().stringPropertyNames()) {
+			if (key.startsWith("javax.persistence.") || key.startsWith("org.batoo.")) {
+				properties.put(key, System.getProperty(key));
+			}
+		}
+
+		final EntityManagerFactoryImpl emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory(args[0], properties);
+		try {
+			final int concurrency = args.length > 2 ? Integer.valueOf(args[2]) : 1;
+
+			System.out.println(new WorkloadReplayer(emf, concurrency).replay(new File(args[1])));
+		}
+		finally {
+			emf.close();
+		}
+	}
+
+	private final EntityManagerFactoryImpl emf;
+	private final int concurrency;
+
+	/**
+	 * @param emf
+	 *            the entity manager factory to replay against
+	 * @param concurrency
+	 *            the number of sessions to replay concurrently
+	 * 
+	 * @since 2.0.1
+	 */
+	public WorkloadReplayer(EntityManagerFactoryImpl emf, int concurrency) {
+		super();
+
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Illegal concurrency " + concurrency);
+		}
+
+		this.emf = emf;
+		this.concurrency = concurrency;
+	}
+
+	private EntityTypeImpl<?> getEntity(String name) {
+		final EntityTypeImpl<?> type = this.emf.getMetamodel().entity(name);
+		if (type == null) {
+			throw new IllegalArgumentException("Unknown entity " + name);
+		}
+
+		return type;
+	}
+
+	private Object newInstance(EntityManagerImpl em, WorkloadRecord record) throws Exception {
+		final EntityTypeImpl<?> type = this.getEntity(record.getEntityName());
+
+		final Constructor<?> constructor = type.getJavaType().getDeclaredConstructor();
+		constructor.setAccessible(true);
+
+		final Object instance = constructor.newInstance();
+		for (final Entry<String, Object> entry : record.getValues().entrySet()) {
+			final AttributeImpl<?, ?> attribute = type.getAttribute(entry.getKey());
+			if ((attribute == null) || ((entry.getValue() == null) && attribute.getJavaType().isPrimitive())) {
+				continue;
+			}
+
+			attribute.set(instance, this.resolve(em, entry.getValue()));
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Replays the workload log.
+	 * 
+	 * @param file
+	 *            the workload log
+	 * @return the result of the replay
+	 * @throws IOException
+	 *             thrown in case the workload log cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public ReplayResult replay(File file) throws IOException {
+		final FileInputStream in = new FileInputStream(file);
+		try {
+			return this.replay(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private void replay(EntityManagerImpl em, WorkloadRecord record) throws Exception {
+		switch (record.getOperation()) {
+			case BEGIN:
+				em.getTransaction().begin();
+				break;
+			case COMMIT:
+				em.getTransaction().commit();
+				break;
+			case ROLLBACK:
+				em.getTransaction().rollback();
+				break;
+			case FIND:
+				em.find(this.getEntity(record.getEntityName()).getJavaType(), record.getId());
+				break;
+			case QUERY:
+			case UPDATE:
+				final Query q = em.createQuery(record.getJpql());
+				q.setFirstResult(record.getFirstResult());
+				q.setMaxResults(record.getMaxResults());
+
+				for (final Entry<String, Object> parameter : record.getValues().entrySet()) {
+					final Object value = this.resolve(em, parameter.getValue());
+
+					if (StringUtils.isNumeric(parameter.getKey())) {
+						q.setParameter(Integer.parseInt(parameter.getKey()), value);
+					}
+					else {
+						q.setParameter(parameter.getKey(), value);
+					}
+				}
+
+				if (record.getOperation() == WorkloadOperation.QUERY) {
+					q.getResultList();
+				}
+				else {
+					q.executeUpdate();
+				}
+				break;
+			case PERSIST:
+				em.persist(this.newInstance(em, record));
+				break;
+			case MERGE:
+				em.merge(this.newInstance(em, record));
+				break;
+			case REMOVE:
+				final Object entity = em.find(this.getEntity(record.getEntityName()).getJavaType(), record.getId());
+				if (entity != null) {
+					em.remove(entity);
+				}
+				break;
+			case CLOSE:
+				em.close();
+				break;
+		}
+	}
+
+	/**
+	 * Replays the workload log.
+	 * 
+	 * @param in
+	 *            the stream to read the workload log from
+	 * @return the result of the replay
+	 * @throws IOException
+	 *             thrown in case the workload log cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public ReplayResult replay(InputStream in) throws IOException {
+		final LinkedHashMap<Integer, List<WorkloadRecord>> sessions = Maps.newLinkedHashMap();
+
+		final WorkloadReader reader = new WorkloadReader(in);
+		try {
+			WorkloadRecord record;
+			while ((record = reader.read()) != null) {
+				List<WorkloadRecord> records = sessions.get(record.getSession());
+				if (records == null) {
+					records = Lists.newArrayList();
+					sessions.put(record.getSession(), records);
+				}
+
+				records.add(record);
+			}
+		}
+		catch (final EOFException e) {
+			WorkloadReplayer.LOG.warn("Workload log is truncated, replaying the records read");
+		}
+
+		final ReplayResult result = new ReplayResult();
+
+		final ExecutorService executor = new ThreadPoolExecutor(this.concurrency, this.concurrency, 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<Runnable>(), new IncrementalNamingThreadFactory("Workload Replayer"));
+		try {
+			for (final List<WorkloadRecord> records : sessions.values()) {
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						WorkloadReplayer.this.replaySession(records, result);
+					}
+				});
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (final InterruptedException e) {
+			executor.shutdownNow();
+
+			Thread.currentThread().interrupt();
+		}
+
+		return result;
+	}
+
+	private void replaySession(List<WorkloadRecord> records, ReplayResult result) {
+		final EntityManagerImpl em = this.emf.createEntityManager();
+
+		try {
+			for (final WorkloadRecord record : records) {
+				final long start = System.nanoTime();
+				try {
+					this.replay(em, record);
+
+					result.replayed(record, System.nanoTime() - start);
+				}
+				catch (final Exception e) {
+					WorkloadReplayer.LOG.debug(e, "Replay failed: {0}", record);
+
+					result.failed(record);
+				}
+			}
+		}
+		finally {
+			if (em.isOpen()) {
+				em.close();
+			}
+		}
+	}
+
+	private Object resolve(EntityManagerImpl em, Object value) {
+		if (value instanceof WorkloadRecord.Reference) {
+			final WorkloadRecord.Reference reference = (WorkloadRecord.Reference) value;
+
+			return em.getReference(this.getEntity(reference.getEntityName()).getJavaType(), reference.getId());
+		}
+
+		if (value instanceof Collection) {
+			final List<Object> elements = Lists.newArrayList();
+			for (final Object element : (Collection<?>) value) {
+				elements.add(this.resolve(em, element));
+			}
+
+			return elements;
+		}
+
+		return value;
+	}
+}
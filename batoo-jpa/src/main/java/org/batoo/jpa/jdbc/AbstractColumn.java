@@ -20,6 +20,8 @@ package org.batoo.jpa.jdbc;
 
 import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 import javax.persistence.EnumType;
 import javax.persistence.TemporalType;
@@ -118,6 +120,49 @@ public abstract class AbstractColumn implements Column {
 		}
 	}
 
+	/**
+	 * Binds the value to the statement as the parameter of the column.
+	 * 
+	 * @param statement
+	 *            the statement
+	 * @param index
+	 *            the index of the parameter
+	 * @param value
+	 *            the value to bind
+	 * @throws SQLException
+	 *             thrown in case of underlying SQLException
+	 * 
+	 * @since 2.0.1
+	 */
+	public void bindObject(PreparedStatement statement, int index, Object value) throws SQLException {
+		if (value == null) {
+			statement.setNull(index, this.getSqlType());
+		}
+		else {
+			statement.setObject(index, value);
+		}
+	}
+
+	/**
+	 * Binds the value of the column for the instance to the statement.
+	 * 
+	 * @param statement
+	 *            the statement
+	 * @param index
+	 *            the index of the parameter
+	 * @param connection
+	 *            the connection
+	 * @param instance
+	 *            the instance
+	 * @throws SQLException
+	 *             thrown in case of underlying SQLException
+	 * 
+	 * @since 2.0.1
+	 */
+	public void bindValue(PreparedStatement statement, int index, Connection connection, Object instance) throws SQLException {
+		this.bindObject(statement, index, this.getValue(connection, instance));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -20,10 +20,10 @@ package org.batoo.jpa.jdbc;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.batoo.common.util.FinalWrapper;
@@ -50,6 +50,33 @@ import com.google.common.collect.Maps;
  */
 public abstract class AbstractTable {
 
+	/**
+	 * The immutable SQL of a statement together with the columns bound to its parameters.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class Statement {
+
+		private final String sql;
+		private final AbstractColumn[] columns;
+
+		/**
+		 * @param sql
+		 *            the SQL of the statement
+		 * @param columns
+		 *            the columns bound to the parameters of the statement
+		 * 
+		 * @since 2.0.1
+		 */
+		public Statement(String sql, List<AbstractColumn> columns) {
+			super();
+
+			this.sql = sql;
+			this.columns = columns.toArray(new AbstractColumn[columns.size()]);
+		}
+	}
+
 	private final AbstractLocator locator;
 
 	private final String catalog;
@@ -60,17 +87,15 @@ public abstract class AbstractTable {
 	private final List<ForeignKey> foreignKeys = Lists.newArrayList();
 	private BasicColumn versionColumn;
 
-	private final HashMap<String, String> insertSqlMap = Maps.newHashMap();
-	private final HashMap<EntityTypeDescriptor, String> updateSqlMap = Maps.newHashMap();
-	private String updateSql;
+	private final ConcurrentMap<Integer, Statement> insertStatements = Maps.newConcurrentMap();
+	private final ConcurrentMap<EntityTypeDescriptor, ConcurrentMap<Integer, Statement>> typeInsertStatements = Maps.newConcurrentMap();
+	private final ConcurrentMap<EntityTypeDescriptor, Statement> updateStatements = Maps.newConcurrentMap();
+	private volatile Statement updateStatement;
 	private FinalWrapper<String> versionUpdateSql;
 	private FinalWrapper<String> versionSelectSql;
 	private FinalWrapper<AbstractColumn[]> columns;
 
-	private AbstractColumn[] updateColumns;
 	private AbstractColumn[] selectVersionColumns;
-	private final Map<String, AbstractColumn[]> insertColumnsMap = Maps.newHashMap();
-	private final Map<EntityTypeDescriptor, AbstractColumn[]> updateColumnsMap = Maps.newHashMap();
 
 	private FinalWrapper<String> restrictionSql;
 	private AbstractColumn[] restrictionColumns;
@@ -172,19 +197,14 @@ public abstract class AbstractTable {
 	 * 
 	 * @param type
 	 *            the type to generate the insert statement for
-	 * @param pkColumns
-	 *            the primary key columns
+	 * @param size
+	 *            the batch size
+	 * @return the insert statement
 	 * 
 	 * @since 2.0.0
 	 */
-	private synchronized void generateInsertSql(final EntityTypeDescriptor type, int size) {
-		final String sqlKey = type != null ? type.getName() + size : "" + size;
-
-		String sql = this.insertSqlMap.get(sqlKey);
-		if (sql != null) { // other thread finished the job for us
-			return;
-		}
-
+	private Statement generateInsertStatement(final EntityTypeDescriptor type, int size) {
+		final String sql;
 		final List<AbstractColumn> insertColumns = Lists.newArrayList();
 
 		// Filter out the identity physicalColumns
@@ -245,8 +265,7 @@ public abstract class AbstractTable {
 				+ "\nVALUES\n" + parametersStr;
 		}
 
-		this.insertSqlMap.put(sqlKey, sql);
-		this.insertColumnsMap.put(sqlKey, insertColumns.toArray(new AbstractColumn[insertColumns.size()]));
+		return new Statement(sql, insertColumns);
 	}
 
 	/**
@@ -254,16 +273,13 @@ public abstract class AbstractTable {
 	 * 
 	 * @param type
 	 *            the type to generate the update statement for
+	 * @param pkColumns
+	 *            the primary key columns
+	 * @return the update statement
 	 * 
 	 * @since 2.0.0
-	 * @param pkColumns
 	 */
-	private synchronized void generateUpdateSql(final EntityTypeDescriptor type, Map<String, AbstractColumn> pkColumns) {
-		String sql = this.updateSqlMap.get(type);
-		if (sql != null) { // other thread finished the job for us
-			return;
-		}
-
+	private Statement generateUpdateStatement(final EntityTypeDescriptor type, Map<String, AbstractColumn> pkColumns) {
 		final List<AbstractColumn> updateColumns = Lists.newArrayList();
 		// Filter out the identity physicalColumns
 		final Collection<AbstractColumn> filteredColumns = type == null ? this.columnMap.values() : Collections2.filter(this.columnMap.values(),
@@ -295,18 +311,11 @@ public abstract class AbstractTable {
 		// UPDATE SCHEMA.TABLE SET
 		// (COL [, COL]*)
 		// WHERE ID = ? [, ID = ?]*)
-		sql = "UPDATE " + this.getQName() + " SET"//
+		final String sql = "UPDATE " + this.getQName() + " SET"//
 			+ "\n" + columnNamesStr //
 			+ "\nWHERE " + this.getRestrictionSql(pkColumns);
 
-		if (type != null) {
-			this.updateSqlMap.put(type, sql);
-			this.updateColumnsMap.put(type, updateColumns.toArray(new AbstractColumn[updateColumns.size()]));
-		}
-		else {
-			this.updateSql = sql;
-			this.updateColumns = updateColumns.toArray(new AbstractColumn[updateColumns.size()]);
-		}
+		return new Statement(sql, updateColumns);
 	}
 
 	/**
@@ -394,7 +403,7 @@ public abstract class AbstractTable {
 	 * @since 2.0.0
 	 */
 	protected AbstractColumn[] getInsertColumns(final EntityTypeDescriptor entity, int size) {
-		return this.insertColumnsMap.get(entity != null ? entity.getName() + size : "" + size);
+		return this.getInsertStatement(entity, size).columns;
 	}
 
 	/**
@@ -409,16 +418,33 @@ public abstract class AbstractTable {
 	 * @since 2.0.0
 	 */
 	protected String getInsertSql(EntityTypeDescriptor entity, int size) {
-		final String sqlKey = entity != null ? entity.getName() + size : "" + size;
+		return this.getInsertStatement(entity, size).sql;
+	}
 
-		final String sql = this.insertSqlMap.get(sqlKey);
-		if (sql != null) { // other thread finished the job for us
-			return sql;
+	private Statement getInsertStatement(EntityTypeDescriptor entity, int size) {
+		ConcurrentMap<Integer, Statement> statements = this.insertStatements;
+
+		if (entity != null) {
+			statements = this.typeInsertStatements.get(entity);
+			if (statements == null) {
+				statements = Maps.newConcurrentMap();
+
+				final ConcurrentMap<Integer, Statement> existing = this.typeInsertStatements.putIfAbsent(entity, statements);
+				if (existing != null) { // other thread finished the job for us
+					statements = existing;
+				}
+			}
 		}
 
-		this.generateInsertSql(entity, size);
+		final Statement statement = statements.get(size);
+		if (statement != null) {
+			return statement;
+		}
+
+		final Statement generated = this.generateInsertStatement(entity, size);
+		final Statement existing = statements.putIfAbsent(size, generated);
 
-		return this.insertSqlMap.get(sqlKey);
+		return existing != null ? existing : generated;
 	}
 
 	/**
@@ -619,10 +645,10 @@ public abstract class AbstractTable {
 	 */
 	protected AbstractColumn[] getUpdateColumns(final EntityTypeDescriptor entity) {
 		if (entity == null) {
-			return this.updateColumns;
+			return this.updateStatement.columns;
 		}
 
-		return this.updateColumnsMap.get(entity);
+		return this.updateStatements.get(entity).columns;
 	}
 
 	/**
@@ -638,21 +664,24 @@ public abstract class AbstractTable {
 	 */
 	protected String getUpdateSql(EntityTypeDescriptor entity, Map<String, AbstractColumn> pkColumns) {
 		if (entity == null) {
-			if (this.updateSql == null) {
-				this.generateUpdateSql(null, pkColumns);
+			Statement statement = this.updateStatement;
+			if (statement == null) {
+				// generation is idempotent, other threads may only publish an equal statement
+				statement = this.updateStatement = this.generateUpdateStatement(null, pkColumns);
 			}
 
-			return this.updateSql;
+			return statement.sql;
 		}
 
-		String sql = this.updateSqlMap.get(entity);
-		if (sql == null) {
-			this.generateUpdateSql(entity, pkColumns);
-
-			sql = this.updateSqlMap.get(entity);
+		final Statement statement = this.updateStatements.get(entity);
+		if (statement != null) {
+			return statement.sql;
 		}
 
-		return sql;
+		final Statement generated = this.generateUpdateStatement(entity, pkColumns);
+		final Statement existing = this.updateStatements.putIfAbsent(entity, generated);
+
+		return existing != null ? existing.sql : generated.sql;
 	}
 
 	/**
@@ -19,8 +19,11 @@
 package org.batoo.jpa.jdbc;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 import org.apache.commons.lang.StringUtils;
+import org.batoo.common.reflect.AbstractAccessor;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.batoo.jpa.jdbc.mapping.BasicMapping;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
@@ -49,6 +52,9 @@ public class BasicColumn extends AbstractColumn {
 	private final JdbcAdaptor jdbcAdaptor;
 	private final boolean version;
 
+	private final Class<?> primitiveType;
+	private final AbstractAccessor accessor;
+
 	/**
 	 * @param jdbcAdaptor
 	 *            the jdbc adaptor
@@ -81,6 +87,52 @@ public class BasicColumn extends AbstractColumn {
 		this.updatable = metadata != null ? metadata.isUpdatable() : true;
 		this.version = this.mapping.isVersion();
 
+		// primitive values without conversion are bound directly off the instance
+		final Class<?> javaType = this.mapping.getJavaType();
+		if (javaType.isPrimitive() && (javaType != Character.TYPE) //
+			&& (this.mapping.getTemporalType() == null) && (this.mapping.getEnumType() == null) && !this.mapping.isLob()) {
+
+			this.accessor = this.mapping.getAccessor();
+			this.primitiveType = this.accessor != null ? javaType : null;
+		}
+		else {
+			this.accessor = null;
+			this.primitiveType = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void bindValue(PreparedStatement statement, int index, Connection connection, Object instance) throws SQLException {
+		final Class<?> primitiveType = this.primitiveType;
+
+		if (primitiveType == null) {
+			super.bindValue(statement, index, connection, instance);
+		}
+		else if (primitiveType == Long.TYPE) {
+			statement.setLong(index, this.accessor.getLong(instance));
+		}
+		else if (primitiveType == Integer.TYPE) {
+			statement.setInt(index, this.accessor.getInt(instance));
+		}
+		else if (primitiveType == Boolean.TYPE) {
+			statement.setBoolean(index, this.accessor.getBoolean(instance));
+		}
+		else if (primitiveType == Double.TYPE) {
+			statement.setDouble(index, this.accessor.getDouble(instance));
+		}
+		else if (primitiveType == Float.TYPE) {
+			statement.setFloat(index, this.accessor.getFloat(instance));
+		}
+		else if (primitiveType == Short.TYPE) {
+			statement.setShort(index, this.accessor.getShort(instance));
+		}
+		else {
+			statement.setByte(index, this.accessor.getByte(instance));
+		}
 	}
 
 	/**
@@ -229,13 +229,37 @@ public class BoneCPDataSource extends BoneCPConfig implements DataSource, Object
 		return null;
 	}
 
+	/**
+	 * Returns the total connections created.
+	 * 
+	 * @return total connections created, or 0 if the pool is not initialized yet
+	 */
+	public int getTotalCreatedConnections() {
+		final FinalWrapper<BoneCP> wrapper = this.pool;
+
+		return wrapper != null ? wrapper.value.getTotalCreatedConnections() : 0;
+	}
+
+	/**
+	 * Returns the total free connections.
+	 * 
+	 * @return total free connections, or 0 if the pool is not initialized yet
+	 */
+	public int getTotalFree() {
+		final FinalWrapper<BoneCP> wrapper = this.pool;
+
+		return wrapper != null ? wrapper.value.getTotalFree() : 0;
+	}
+
 	/**
 	 * Returns the total leased connections.
 	 * 
-	 * @return total leased connections
+	 * @return total leased connections, or 0 if the pool is not initialized yet
 	 */
 	public int getTotalLeased() {
-		return this.pool.value.getTotalLeased();
+		final FinalWrapper<BoneCP> wrapper = this.pool;
+
+		return wrapper != null ? wrapper.value.getTotalLeased() : 0;
 	}
 
 	/**
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.jdbc.PreparedStatementProxy.SqlLoggingType;
 
 /**
@@ -54,6 +55,7 @@ public class ConnectionProxy implements Connection {
 	private final long slowSqlThreshold;
 	private final SqlLoggingType sqlLogging;
 	private final int jdbcFetchSize;
+	private final Statistics statistics;
 
 	/**
 	 * 
@@ -71,6 +73,28 @@ public class ConnectionProxy implements Connection {
 	 * @since 2.0.0
 	 */
 	public ConnectionProxy(AbstractDataSource dataSourcePool, Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize) {
+		this(dataSourcePool, connection, slowSqlThreshold, sqlLogging, jdbcFetchSize, Statistics.DISABLED);
+	}
+
+	/**
+	 * 
+	 * @param dataSourcePool
+	 *            the datasource pool
+	 * @param connection
+	 *            the connection
+	 * @param slowSqlThreshold
+	 *            the time to decide if SQL is deemed as slow
+	 * @param sqlLogging
+	 *            the sql logging type
+	 * @param jdbcFetchSize
+	 *            the size of the jdbc fetch
+	 * @param statistics
+	 *            the statistics to record the SQL latencies into
+	 * 
+	 * @since 2.0.1
+	 */
+	public ConnectionProxy(AbstractDataSource dataSourcePool, Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize,
+		Statistics statistics) {
 		super();
 
 		this.dataSourcePool = dataSourcePool;
@@ -78,6 +102,7 @@ public class ConnectionProxy implements Connection {
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.sqlLogging = sqlLogging;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statistics = statistics;
 	}
 
 	/**
@@ -93,6 +118,24 @@ public class ConnectionProxy implements Connection {
 	 * @since 2.0.0
 	 */
 	public ConnectionProxy(Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize) {
+		this(connection, slowSqlThreshold, sqlLogging, jdbcFetchSize, Statistics.DISABLED);
+	}
+
+	/**
+	 * @param connection
+	 *            the connection
+	 * @param slowSqlThreshold
+	 *            the time to decide if SQL is deemed as slow
+	 * @param sqlLogging
+	 *            the sql logging type
+	 * @param jdbcFetchSize
+	 *            the size of the jdbc fetch
+	 * @param statistics
+	 *            the statistics to record the SQL latencies into
+	 * 
+	 * @since 2.0.1
+	 */
+	public ConnectionProxy(Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize, Statistics statistics) {
 		super();
 
 		this.dataSourcePool = null;
@@ -100,6 +143,7 @@ public class ConnectionProxy implements Connection {
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.sqlLogging = sqlLogging;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statistics = statistics;
 	}
 
 	/**
@@ -405,7 +449,8 @@ public class ConnectionProxy implements Connection {
 	 */
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
-		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql), this.slowSqlThreshold, this.sqlLogging);
+		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql), this.slowSqlThreshold,
+			this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -419,7 +464,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, autoGeneratedKeys),
-			this.slowSqlThreshold, this.sqlLogging);
+			this.slowSqlThreshold, this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -433,7 +478,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency),
-			this.slowSqlThreshold, this.sqlLogging);
+			this.slowSqlThreshold, this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -447,7 +492,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency,
-			resultSetHoldability), this.slowSqlThreshold, this.sqlLogging);
+			resultSetHoldability), this.slowSqlThreshold, this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -461,7 +506,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnIndexes), this.slowSqlThreshold,
-			this.sqlLogging);
+			this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -475,7 +520,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnNames), this.slowSqlThreshold,
-			this.sqlLogging);
+			this.sqlLogging, this.statistics);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
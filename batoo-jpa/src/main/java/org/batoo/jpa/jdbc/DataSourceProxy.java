@@ -29,6 +29,7 @@ import javax.sql.DataSource;
 
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.jdbc.PreparedStatementProxy.SqlLoggingType;
 
 /**
@@ -47,6 +48,7 @@ public class DataSourceProxy implements DataSource {
 	private final long slowSqlThreshold;
 	private final int jdbcFetchSize;
 	private final boolean externalPoolDS;
+	private final Statistics statistics;
 
 	/**
 	 * @param datasource
@@ -63,6 +65,27 @@ public class DataSourceProxy implements DataSource {
 	 * @since 2.0.0
 	 */
 	public DataSourceProxy(AbstractDataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
+		this(datasource, external, sqlLogging, slowSqlThreshold, jdbcFetchSize, Statistics.DISABLED);
+	}
+
+	/**
+	 * @param datasource
+	 *            the custom datasource
+	 * @param external
+	 *            if the original datasource is external
+	 * @param slowSqlThreshold
+	 *            the time to decide if SQL is deemed as slow
+	 * @param sqlLogging
+	 *            the sql logging type
+	 * @param jdbcFetchSize
+	 *            the size of the jdbc fetch
+	 * @param statistics
+	 *            the statistics to record the SQL latencies into
+	 * 
+	 * @since 2.0.1
+	 */
+	public DataSourceProxy(AbstractDataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize,
+		Statistics statistics) {
 		super();
 
 		this.datasource = datasource;
@@ -70,6 +93,7 @@ public class DataSourceProxy implements DataSource {
 		this.sqlLogging = sqlLogging;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statistics = statistics;
 		this.externalPoolDS = true;
 	}
 
@@ -88,6 +112,27 @@ public class DataSourceProxy implements DataSource {
 	 * @since 2.0.0
 	 */
 	public DataSourceProxy(DataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
+		this(datasource, external, sqlLogging, slowSqlThreshold, jdbcFetchSize, Statistics.DISABLED);
+	}
+
+	/**
+	 * @param datasource
+	 *            the original datasource
+	 * @param external
+	 *            if the original datasource is external
+	 * @param slowSqlThreshold
+	 *            the time to decide if SQL is deemed as slow
+	 * @param sqlLogging
+	 *            the sql logging type
+	 * @param jdbcFetchSize
+	 *            the size of the jdbc fetch
+	 * @param statistics
+	 *            the statistics to record the SQL latencies into
+	 * 
+	 * @since 2.0.1
+	 */
+	public DataSourceProxy(DataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize,
+		Statistics statistics) {
 		super();
 
 		this.datasource = datasource;
@@ -95,6 +140,7 @@ public class DataSourceProxy implements DataSource {
 		this.sqlLogging = sqlLogging;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statistics = statistics;
 		this.externalPoolDS = false;
 	}
 
@@ -126,7 +172,7 @@ public class DataSourceProxy implements DataSource {
 	 */
 	@Override
 	public Connection getConnection() throws SQLException {
-		return new ConnectionProxy(this.datasource.getConnection(), this.slowSqlThreshold, this.sqlLogging, this.jdbcFetchSize);
+		return new ConnectionProxy(this.datasource.getConnection(), this.slowSqlThreshold, this.sqlLogging, this.jdbcFetchSize, this.statistics);
 	}
 
 	/**
@@ -18,16 +18,26 @@
  */
 package org.batoo.jpa.jdbc;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.dbutils.ResultSetHandler;
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
 import org.batoo.common.util.FinalWrapper;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
+import org.batoo.jpa.jdbc.dbutils.ParameterBinder;
 import org.batoo.jpa.jdbc.dbutils.QueryRunner;
 import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
 import org.batoo.jpa.jdbc.model.EntityTypeDescriptor;
@@ -36,6 +46,7 @@ import org.batoo.jpa.parser.metadata.TableMetadata;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -46,6 +57,136 @@ import com.google.common.collect.Maps;
  */
 public class EntityTable extends AbstractTable {
 
+	/**
+	 * Binds the column values of the instances directly to the statement.
+	 * <p>
+	 * For each instance the values of the columns are followed by the values of the restriction columns.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class InstanceBinder implements ParameterBinder {
+
+		private final Connection connection;
+		private final EntityTypeDescriptor entityType;
+		private final Object[] instances;
+		private final int size;
+		private final AbstractColumn[] columns;
+		private final AbstractColumn[] restrictionColumns;
+		private final boolean versioned;
+		private final Object oldVersion;
+
+		/**
+		 * @param connection
+		 *            the connection
+		 * @param entityType
+		 *            the entity type of the instances
+		 * @param instances
+		 *            the instances
+		 * @param size
+		 *            the number of the instances
+		 * @param columns
+		 *            the columns
+		 * @param restrictionColumns
+		 *            the restriction columns
+		 * @param versioned
+		 *            if the old version to be bound for the version column in the restriction
+		 * @param oldVersion
+		 *            the old version value
+		 * 
+		 * @since 2.0.1
+		 */
+		public InstanceBinder(Connection connection, EntityTypeDescriptor entityType, Object[] instances, int size, AbstractColumn[] columns,
+			AbstractColumn[] restrictionColumns, boolean versioned, Object oldVersion) {
+			super();
+
+			this.connection = connection;
+			this.entityType = entityType;
+			this.instances = instances;
+			this.size = size;
+			this.columns = columns;
+			this.restrictionColumns = restrictionColumns;
+			this.versioned = versioned;
+			this.oldVersion = oldVersion;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void bind(PreparedStatement statement) throws SQLException {
+			int index = 1;
+
+			for (int i = 0; i < this.size; i++) {
+				final Object instance = this.instances[i];
+
+				for (final AbstractColumn column : this.columns) {
+					if (column instanceof DiscriminatorColumn) {
+						column.bindObject(statement, index++, this.entityType.getDiscriminatorValue());
+					}
+					else {
+						column.bindValue(statement, index++, this.connection, instance);
+					}
+				}
+
+				for (final AbstractColumn column : this.restrictionColumns) {
+					if (this.versioned && column.isVersion()) {
+						column.bindObject(statement, index++, this.oldVersion);
+					}
+					else {
+						column.bindValue(statement, index++, this.connection, instance);
+					}
+				}
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public int getParameterCount() {
+			return this.size * (this.columns.length + this.restrictionColumns.length);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public Object[] getParameters() {
+			final Object[] params = new Object[this.getParameterCount()];
+			int index = 0;
+
+			for (int i = 0; i < this.size; i++) {
+				final Object instance = this.instances[i];
+
+				for (final AbstractColumn column : this.columns) {
+					if (column instanceof DiscriminatorColumn) {
+						params[index++] = this.entityType.getDiscriminatorValue();
+					}
+					else {
+						params[index++] = column.getValue(this.connection, instance);
+					}
+				}
+
+				for (final AbstractColumn column : this.restrictionColumns) {
+					if (this.versioned && column.isVersion()) {
+						params[index++] = this.oldVersion;
+					}
+					else {
+						params[index++] = column.getValue(this.connection, instance);
+					}
+				}
+			}
+
+			return params;
+		}
+	}
+
+	private static final AbstractColumn[] NO_COLUMNS = new AbstractColumn[0];
+
 	private final EntityTypeDescriptor entity;
 	private final Map<String, AbstractColumn> pkColumns = Maps.newHashMap();
 
@@ -53,7 +194,8 @@ public class EntityTable extends AbstractTable {
 	private BasicColumn identityColumn;
 	private final Map<String, BasicColumn[]> indexes = Maps.newHashMap();
 
-	private final HashMap<Integer, String> removeSqlMap = Maps.newHashMap();
+	private final ConcurrentMap<Integer, String> removeSqlMap = Maps.newConcurrentMap();
+	private final ConcurrentMap<Integer, String> versionSelectSqlMap = Maps.newConcurrentMap();
 	private FinalWrapper<HashMap<AbstractColumn, String>> idColumns;
 
 	/**
@@ -199,30 +341,75 @@ public class EntityTable extends AbstractTable {
 	}
 
 	private String getRemoveSql(int size) {
-		String sql = this.removeSqlMap.get(size);
+		final String sql = this.removeSqlMap.get(size);
 		if (sql != null) {
 			return sql;
 		}
 
-		synchronized (this) {
-			sql = this.removeSqlMap.get(size);
-			if (sql != null) {
-				return sql;
-			}
+		String restriction;
+		if (size == 1) {
+			restriction = this.getRestrictionSql(this.pkColumns);
+		}
+		else {
+			restriction = this.pkColumns.values().iterator().next().getName() + " IN (" + StringUtils.repeat("?", ", ", size) + ")";
+		}
 
-			String restriction;
-			if (size == 1) {
-				restriction = this.getRestrictionSql(this.pkColumns);
-			}
-			else {
-				restriction = this.pkColumns.values().iterator().next().getName() + " IN (" + StringUtils.repeat("?", ", ", size) + ")";
-			}
+		final String generated = "DELETE FROM " + this.getQName() + " WHERE " + restriction;
+		final String existing = this.removeSqlMap.putIfAbsent(size, generated);
 
-			sql = "DELETE FROM " + this.getQName() + " WHERE " + restriction;
-			this.removeSqlMap.put(size, sql);
+		return existing != null ? existing : generated;
+	}
 
+	private String getVersionSelectSql(int size) {
+		final String sql = this.versionSelectSqlMap.get(size);
+		if (sql != null) {
 			return sql;
 		}
+
+		// Do not remove, generation of the restriction SQL will initialize the restriction columns!
+		this.getRestrictionSql(this.pkColumns);
+		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
+
+		final List<String> columnNames = Lists.newArrayList();
+		final List<String> pkRestrictions = Lists.newArrayList();
+		for (final AbstractColumn column : restrictionColumns) {
+			columnNames.add(column.getName());
+		}
+
+		for (int i = 0; i < (restrictionColumns.length - 1); i++) {
+			pkRestrictions.add(restrictionColumns[i].getName() + " = ?");
+		}
+
+		String idRestriction;
+		if (size == 1) {
+			idRestriction = Joiner.on(" AND ").join(pkRestrictions);
+		}
+		else if (pkRestrictions.size() == 1) {
+			idRestriction = columnNames.get(0) + " IN (" + StringUtils.repeat("?", ", ", size) + ")";
+		}
+		else {
+			idRestriction = StringUtils.repeat("(" + Joiner.on(" AND ").join(pkRestrictions) + ")", " OR ", size);
+		}
+
+		final String generated = "SELECT " + Joiner.on(", ").join(columnNames) + " FROM " + this.getQName() + " WHERE " + idRestriction;
+		final String existing = this.versionSelectSqlMap.putIfAbsent(size, generated);
+
+		return existing != null ? existing : generated;
+	}
+
+	private static Object normalize(Object value) {
+		// drivers may return the numbers with a different type or scale than the attributes
+		if (value instanceof Number) {
+			final BigDecimal decimal = new BigDecimal(value.toString());
+
+			return decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString();
+		}
+
+		if (value instanceof Date) {
+			return ((Date) value).getTime();
+		}
+
+		return value;
 	}
 
 	/**
@@ -246,28 +433,15 @@ public class EntityTable extends AbstractTable {
 		final String insertSql = this.getInsertSql(entityType, size);
 		final AbstractColumn[] insertColumns = this.getInsertColumns(entityType, size);
 
-		// prepare the parameters
-		final Object[] params = new Object[insertColumns.length * size];
-
 		boolean hasLob = false;
-		for (int i = 0; i < size; i++) {
-			final Object instance = instances[i];
-
-			for (int j = 0; j < insertColumns.length; j++) {
-				final AbstractColumn column = insertColumns[j];
-
-				if (column instanceof DiscriminatorColumn) {
-					params[(i * insertColumns.length) + j] = entityType.getDiscriminatorValue();
-				}
-				else {
-					params[(i * insertColumns.length) + j] = column.getValue(connection, instance);
-				}
-
-				hasLob |= column.isLob();
-			}
+		for (final AbstractColumn column : insertColumns) {
+			hasLob |= column.isLob();
 		}
 
-		new QueryRunner(this.jdbcAdaptor, hasLob).update(connection, insertSql, params);
+		// bind the parameters
+		final InstanceBinder binder = new InstanceBinder(connection, entityType, instances, size, insertColumns, EntityTable.NO_COLUMNS, false, null);
+
+		new QueryRunner(this.jdbcAdaptor, hasLob).update(connection, insertSql, binder);
 
 		// if there is an identity column, extract the identity and set it back to the instance
 		if (this.identityColumn != null) {
@@ -295,20 +469,11 @@ public class EntityTable extends AbstractTable {
 	public void performRemove(Connection connection, Object[] instances, int size) throws SQLException {
 		final String removeSql = this.getRemoveSql(size);
 
-		// prepare the parameters
-		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
-		final Object[] params = new Object[size * restrictionColumns.length];
-		for (int i = 0; i < size; i++) {
-			final Object instance = instances[i];
-
-			for (int j = 0; j < restrictionColumns.length; j++) {
-				final AbstractColumn column = restrictionColumns[j];
-				params[(i * restrictionColumns.length) + j] = column.getValue(connection, instance);
-			}
-		}
+		// bind the parameters
+		final InstanceBinder binder = new InstanceBinder(connection, null, instances, size, EntityTable.NO_COLUMNS, this.getRestrictionColumns(), false, null);
 
 		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, false);
-		if (size != runner.update(connection, removeSql, params)) {
+		if (size != runner.update(connection, removeSql, binder)) {
 			throw new OptimisticLockFailedException();
 		}
 	}
@@ -336,28 +501,16 @@ public class EntityTable extends AbstractTable {
 		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
 
 		boolean hasLob = false;
-		int nextParamNo = 0;
-
-		// prepare the parameters
-		final Object[] params = new Object[updateColumns.length + restrictionColumns.length];
 		for (final AbstractColumn column : updateColumns) {
-			params[nextParamNo++] = column.getValue(connection, instance);
-
 			hasLob |= column.isLob();
 		}
 
-		for (final AbstractColumn column : restrictionColumns) {
-			if (column.isVersion()) {
-				params[nextParamNo++] = oldVersion;
-			}
-			else {
-				params[nextParamNo++] = column.getValue(connection, instance);
-			}
-		}
+		// bind the parameters
+		final InstanceBinder binder = new InstanceBinder(connection, type, new Object[] { instance }, 1, updateColumns, restrictionColumns, true, oldVersion);
 
-		// execute the insert
+		// execute the update
 		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, hasLob);
-		if (1 != runner.update(connection, updateSql, params)) {
+		if (1 != runner.update(connection, updateSql, binder)) {
 			throw new OptimisticLockFailedException();
 		}
 	}
@@ -389,29 +542,17 @@ public class EntityTable extends AbstractTable {
 			return false;
 		}
 
-		int nextParam = 0;
 		boolean hasLob = false;
-
-		// prepare the parameters
-		final Object[] params = new Object[updateColumns.length + restrictionColumns.length];
 		for (final AbstractColumn column : updateColumns) {
-			params[nextParam++] = column.getValue(connection, instance);
-
 			hasLob |= column.isLob();
 		}
 
-		for (final AbstractColumn column : restrictionColumns) {
-			if (column.isVersion()) {
-				params[nextParam++] = oldVersion;
-			}
-			else {
-				params[nextParam++] = column.getValue(connection, instance);
-			}
-		}
+		// bind the parameters
+		final InstanceBinder binder = new InstanceBinder(connection, type, new Object[] { instance }, 1, updateColumns, restrictionColumns, true, oldVersion);
 
-		// execute the insert
+		// execute the update
 		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, hasLob);
-		if (1 != runner.update(connection, updateSql, params)) {
+		if (1 != runner.update(connection, updateSql, binder)) {
 			throw new OptimisticLockFailedException();
 		}
 
@@ -419,39 +560,129 @@ public class EntityTable extends AbstractTable {
 	}
 
 	/**
-	 * Performs version update to the table.
+	 * Performs the version check of the instances, selecting the ids and the versions of the rows in a single statement.
 	 * 
 	 * @param connection
 	 *            the connection to use
-	 * @param instance
-	 *            the instance to perform version update for
-	 * @param oldVersion
-	 *            the old version value
-	 * @param newVersion
-	 *            the new version value
+	 * @param instances
+	 *            the instances to check the versions of
+	 * @param size
+	 *            the size of the batch
+	 * @throws SQLException
+	 *             thrown in case of underlying SQLException
+	 * 
+	 * @since 2.0.1
+	 */
+	public void performVersionCheck(Connection connection, Object[] instances, int size) throws SQLException {
+		// Do not inline, generation of the select SQL will initialize the restriction columns!
+		final String selectSql = this.getVersionSelectSql(size);
+		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
+		final int pkCount = restrictionColumns.length - 1;
+
+		// prepare the parameters and the expected versions
+		final Object[] params = new Object[size * pkCount];
+		final HashMap<List<Object>, Object> versions = Maps.newHashMap();
+
+		for (int i = 0; i < size; i++) {
+			final List<Object> id = Lists.newArrayListWithCapacity(pkCount);
+			for (int j = 0; j < pkCount; j++) {
+				final Object value = restrictionColumns[j].getValue(connection, instances[i]);
+
+				params[(i * pkCount) + j] = value;
+				id.add(EntityTable.normalize(value));
+			}
+
+			versions.put(id, EntityTable.normalize(restrictionColumns[pkCount].getValue(connection, instances[i])));
+		}
+
+		// execute the select and match the versions
+		final int matched = new QueryRunner(this.jdbcAdaptor, false).query(connection, selectSql, new ResultSetHandler<Integer>() {
+
+			@Override
+			public Integer handle(ResultSet rs) throws SQLException {
+				int matched = 0;
+
+				while (rs.next()) {
+					final List<Object> id = Lists.newArrayListWithCapacity(pkCount);
+					for (int j = 0; j < pkCount; j++) {
+						id.add(EntityTable.normalize(rs.getObject(j + 1)));
+					}
+
+					if (versions.containsKey(id) && ObjectUtils.equals(versions.get(id), EntityTable.normalize(rs.getObject(pkCount + 1)))) {
+						matched++;
+					}
+				}
+
+				return matched;
+			}
+		}, params);
+
+		if (matched != size) {
+			throw new OptimisticLockFailedException();
+		}
+	}
+
+	/**
+	 * Performs version update to the table for the instances in a single JDBC batch.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param instances
+	 *            the instances to perform version update for
+	 * @param oldVersions
+	 *            the old version values of the instances
+	 * @param size
+	 *            the size of the batch
 	 * @throws SQLException
 	 *             thrown in case of underlying SQLException
 	 * 
 	 * @since 2.0.0
 	 */
-	public void performVersionUpdate(Connection connection, Object instance, Object oldVersion, Object newVersion) throws SQLException {
-		// Do not inline, generation of the update SQL will initialize the insertColumns!
+	public void performVersionUpdate(Connection connection, Object[] instances, Object[] oldVersions, int size) throws SQLException {
+		// Do not inline, generation of the update SQL will initialize the restriction columns!
 		final String updateSql = this.getVersionUpdateSql(this.pkColumns);
 		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
+		final AbstractColumn versionColumn = restrictionColumns[restrictionColumns.length - 1];
 
-		// prepare the parameters
-		final Object[] params = new Object[restrictionColumns.length];
+		// prepare the parameters, the new version, the ids and the old version
+		final Object[][] params = new Object[size][];
+		for (int i = 0; i < size; i++) {
+			final Object[] row = params[i] = new Object[restrictionColumns.length + 1];
 
-		params[0] = newVersion;
-		for (int i = 1; i < (restrictionColumns.length - 1); i++) {
-			final AbstractColumn column = restrictionColumns[i];
-			params[i] = column.getValue(connection, instance);
+			row[0] = versionColumn.getValue(connection, instances[i]);
+			for (int j = 0; j < (restrictionColumns.length - 1); j++) {
+				row[j + 1] = restrictionColumns[j].getValue(connection, instances[i]);
+			}
+			row[row.length - 1] = oldVersions[i];
 		}
-		params[params.length - 1] = oldVersion;
 
 		// execute the update
-		if (1 != new QueryRunner(this.jdbcAdaptor, false).update(connection, updateSql, params)) {
-			throw new OptimisticLockFailedException();
+		for (final int updated : new QueryRunner(this.jdbcAdaptor, false).batch(connection, updateSql, params)) {
+			if ((updated != 1) && (updated != Statement.SUCCESS_NO_INFO)) {
+				throw new OptimisticLockFailedException();
+			}
+		}
+	}
+
+	/**
+	 * Generates the insert, update and remove statements of the table for the type, for single instances and full batches.
+	 * 
+	 * @param type
+	 *            the entity type
+	 * 
+	 * @since 2.0.1
+	 */
+	public void precompile(EntityTypeDescriptor type) {
+		this.getInsertSql(type, 1);
+		if (this.jdbcAdaptor.getInsertBatchSize() > 1) {
+			this.getInsertSql(type, this.jdbcAdaptor.getInsertBatchSize());
+		}
+
+		this.getUpdateSql(type, this.pkColumns);
+
+		this.getRemoveSql(1);
+		if ((this.jdbcAdaptor.getRemoveBatchSize() > 1) && (this.pkColumns.size() == 1)) {
+			this.getRemoveSql(this.jdbcAdaptor.getRemoveBatchSize());
 		}
 	}
 
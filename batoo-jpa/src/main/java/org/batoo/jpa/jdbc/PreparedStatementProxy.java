@@ -42,13 +42,19 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.stats.Statistics;
 
 /**
+ * Proxy class to proxy prepared statements. Main purpose is to log the SQLs and to record the latencies of the SQLs.
+ * <p>
+ * The time to execute the statement is recorded separately from the time the result set is consumed, which is measured until the
+ * statement is closed or executed again.
  * 
  * @author hceylan
  * @since 2.0.0
@@ -87,6 +93,7 @@ public class PreparedStatementProxy implements PreparedStatement {
 	private final String sql;
 	private final long slowSqlThreshold;
 	private final PreparedStatement statement;
+	private final Statistics statistics;
 
 	private Object[] parameters;
 	private ParameterMetaData parameterMetaData;
@@ -94,6 +101,9 @@ public class PreparedStatementProxy implements PreparedStatement {
 	private boolean debug;
 	private final PrintStream sqlStream;
 
+	private boolean fetching;
+	private long fetchStart;
+
 	/**
 	 * @param sql
 	 *            the SQL
@@ -107,10 +117,29 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 * @since 2.0.0
 	 */
 	public PreparedStatementProxy(String sql, PreparedStatement statement, long slowSqlThreshold, SqlLoggingType sqlLoggingType) {
+		this(sql, statement, slowSqlThreshold, sqlLoggingType, Statistics.DISABLED);
+	}
+
+	/**
+	 * @param sql
+	 *            the SQL
+	 * @param statement
+	 *            the delegate statement
+	 * @param slowSqlThreshold
+	 *            the time to decide if SQL is deemed as slow
+	 * @param sqlLoggingType
+	 *            the type of the sql logging
+	 * @param statistics
+	 *            the statistics to record the latencies into
+	 * 
+	 * @since 2.0.1
+	 */
+	public PreparedStatementProxy(String sql, PreparedStatement statement, long slowSqlThreshold, SqlLoggingType sqlLoggingType, Statistics statistics) {
 		super();
 
 		this.sql = sql;
 		this.statement = statement;
+		this.statistics = statistics;
 		this.slowSqlThreshold = slowSqlThreshold;
 
 		switch (sqlLoggingType) {
@@ -187,6 +216,8 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void close() throws SQLException {
+		this.fetched();
+
 		this.statement.close();
 	}
 
@@ -205,7 +236,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public boolean execute() throws SQLException {
-		return this.statement.execute();
+		final long start = System.nanoTime();
+		try {
+			return this.statement.execute();
+		}
+		finally {
+			this.executed(start);
+		}
 	}
 
 	/**
@@ -250,7 +287,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public int[] executeBatch() throws SQLException {
-		return this.statement.executeBatch();
+		final long start = System.nanoTime();
+		try {
+			return this.statement.executeBatch();
+		}
+		finally {
+			this.executed(start);
+		}
 	}
 
 	/**
@@ -259,8 +302,16 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public ResultSet executeQuery() throws SQLException {
+		this.fetched();
+
 		if ((this.sqlStream == null) && !this.debug) {
-			return this.statement.executeQuery();
+			final long start = System.nanoTime();
+			try {
+				return this.fetching(this.statement.executeQuery());
+			}
+			finally {
+				this.executed(start);
+			}
 		}
 
 		if (this.statementNo == -1) {
@@ -277,12 +328,12 @@ public class PreparedStatementProxy implements PreparedStatement {
 				PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters)));
 		}
 
-		final long start = System.currentTimeMillis();
+		final long start = System.nanoTime();
 		try {
-			return this.statement.executeQuery();
+			return this.fetching(this.statement.executeQuery());
 		}
 		finally {
-			final long time = System.currentTimeMillis() - start;
+			final long time = this.executed(start);
 
 			if (time > this.slowSqlThreshold) {
 				PreparedStatementProxy.LOG.warn(new OperationTookLongTimeWarning(), "{0}:{1} {2} msecs, executeQuery()", this.statementNo, this.executionNo,
@@ -321,7 +372,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	@Override
 	public int executeUpdate() throws SQLException {
 		if ((this.sqlStream == null) && !this.debug) {
-			return this.statement.executeUpdate();
+			final long start = System.nanoTime();
+			try {
+				return this.statement.executeUpdate();
+			}
+			finally {
+				this.executed(start);
+			}
 		}
 
 		if (this.statementNo == -1) {
@@ -338,12 +395,12 @@ public class PreparedStatementProxy implements PreparedStatement {
 				PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters)));
 		}
 
-		final long start = System.currentTimeMillis();
+		final long start = System.nanoTime();
 		try {
 			return this.statement.executeUpdate();
 		}
 		finally {
-			final long time = System.currentTimeMillis() - start;
+			final long time = this.executed(start);
 			if (time > this.slowSqlThreshold) {
 				if (this.sqlStream != null) {
 					this.sqlStream.println(MessageFormat.format("{0}:{1} {2} msecs, executeUpdate()", this.statementNo, this.executionNo, time));
@@ -404,6 +461,29 @@ public class PreparedStatementProxy implements PreparedStatement {
 		return 0;
 	}
 
+	private long executed(long start) {
+		final long time = System.nanoTime() - start;
+
+		this.statistics.sqlExecuted(this.sql, time);
+
+		return TimeUnit.NANOSECONDS.toMillis(time);
+	}
+
+	private void fetched() {
+		if (this.fetching) {
+			this.fetching = false;
+
+			this.statistics.sqlFetched(this.sql, System.nanoTime() - this.fetchStart);
+		}
+	}
+
+	private ResultSet fetching(ResultSet resultSet) {
+		this.fetching = true;
+		this.fetchStart = System.nanoTime();
+
+		return resultSet;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -749,7 +829,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setBoolean(parameterIndex, x);
 	}
 
 	/**
@@ -758,7 +842,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setByte(int parameterIndex, byte x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setByte(parameterIndex, x);
 	}
 
 	/**
@@ -847,7 +935,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setDate(int parameterIndex, Date x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setDate(parameterIndex, x);
 	}
 
 	/**
@@ -865,7 +957,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setDouble(int parameterIndex, double x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setDouble(parameterIndex, x);
 	}
 
 	/**
@@ -901,7 +997,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setFloat(int parameterIndex, float x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setFloat(parameterIndex, x);
 	}
 
 	/**
@@ -910,7 +1010,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setInt(int parameterIndex, int x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setInt(parameterIndex, x);
 	}
 
 	/**
@@ -919,7 +1023,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setLong(int parameterIndex, long x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setLong(parameterIndex, x);
 	}
 
 	/**
@@ -1057,7 +1165,10 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	public void setParamCount(int count) throws SQLException {
 		if (count >= 0) {
-			this.parameters = new Object[count];
+			// parameters are only recorded for logging
+			if (this.debug || (this.sqlStream != null)) {
+				this.parameters = new Object[count];
+			}
 		}
 		else if (PreparedStatementProxy.LOG.isDebugEnabled()) {
 			this.getParameterMetaData();
@@ -1106,7 +1217,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setShort(int parameterIndex, short x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setShort(parameterIndex, x);
 	}
 
 	/**
@@ -1124,7 +1239,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setString(int parameterIndex, String x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setString(parameterIndex, x);
 	}
 
 	/**
@@ -1133,7 +1252,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setTime(int parameterIndex, Time x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setTime(parameterIndex, x);
 	}
 
 	/**
@@ -1151,7 +1274,11 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
-		this.throwNotImplemented();
+		if ((this.debug || (this.sqlStream != null)) && (this.parameters != null)) {
+			this.parameters[parameterIndex - 1] = x;
+		}
+
+		this.statement.setTimestamp(parameterIndex, x);
 	}
 
 	/**
@@ -150,6 +150,15 @@ public class DerbyAdaptor extends JdbcAdaptor {
 		runner.update("DROP SEQUENCE " + sequence.getQName() + " RESTRICT");
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "VALUES CURRENT SCHEMA";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -228,6 +228,15 @@ public class H2Adaptor extends JdbcAdaptor {
 		throw new IllegalArgumentException("Unhandled sql type: " + sqlType);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT SCHEMA()";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -234,6 +234,15 @@ public class HsqlAdaptor extends JdbcAdaptor {
 		throw new IllegalArgumentException("Unhandled sql type: " + sqlType);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT VALUE FROM INFORMATION_SCHEMA.SYSTEM_SESSIONINFO WHERE KEY = 'SCHEMA'";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
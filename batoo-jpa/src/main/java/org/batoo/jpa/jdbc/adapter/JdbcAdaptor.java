@@ -18,27 +18,24 @@
  */
 package org.batoo.jpa.jdbc.adapter;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ParameterMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Types;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -64,13 +61,13 @@ import org.batoo.jpa.jdbc.JoinTable;
 import org.batoo.jpa.jdbc.NumericFunctionType;
 import org.batoo.jpa.jdbc.SecondaryTable;
 import org.batoo.jpa.jdbc.dbutils.QueryRunner;
+import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
 import org.batoo.jpa.jdbc.generator.SequenceGenerator;
 import org.batoo.jpa.jdbc.generator.TableGenerator;
 import org.batoo.jpa.parser.MappingException;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
-import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -131,9 +128,12 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 
 	private List<String> words;
 
-	private final Map<AbstractTable, JdbcTable> tables = Maps.newHashMap();
+	private final ConcurrentMap<AbstractTable, JdbcTable> tables = Maps.newConcurrentMap();
+	private volatile JdbcMetadataSnapshot snapshot;
 
 	private int insertBatchSize;
+	private int importSqlBatchSize;
+	private int importSqlCommitSize;
 	private int removeBatchSize;
 
 	/**
@@ -442,6 +442,9 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		catch (final SQLException e) {
 			this.logRelaxed(e, "Cannot create table " + table.getQName());
 		}
+		finally {
+			this.invalidateTableMetadata(table);
+		}
 
 		this.createIndexes(datasource, table);
 	}
@@ -598,7 +601,7 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		for (final AbstractTable table : tables) {
 			try {
 				final JdbcTable tableMetadata = this.getTableMetadata(datasource, table);
-				this.tables.remove(table);
+				this.invalidateTableMetadata(table);
 
 				if (tableMetadata != null) {
 					this.dropTable(runner, table);
@@ -755,6 +758,54 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		return "CURRENT_DATE";
 	}
 
+	/**
+	 * Returns the current schema of the connection.
+	 * <p>
+	 * The schema is obtained from the driver and, if the driver predates JDBC 4.1, by running {@link #getCurrentSchemaSql()}.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the current schema or <code>null</code> if it cannot be determined
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getCurrentSchema(Connection connection) {
+		String schema = null;
+
+		try {
+			schema = connection.getSchema();
+		}
+		catch (final LinkageError e) {
+			// the driver or the runtime predates JDBC 4.1
+		}
+		catch (final SQLException e) {
+			JdbcAdaptor.LOG.debug(e, "Driver cannot tell the current schema");
+		}
+
+		final String sql = this.getCurrentSchemaSql();
+		if (StringUtils.isBlank(schema) && (sql != null)) {
+			try {
+				schema = new QueryRunner(this.isPmdBroken(), false).query(connection, sql, new SingleValueHandler<String>());
+			}
+			catch (final SQLException e) {
+				JdbcAdaptor.LOG.debug(e, "Cannot query the current schema");
+			}
+		}
+
+		return StringUtils.isBlank(schema) ? null : schema;
+	}
+
+	/**
+	 * Returns the SQL to query the current schema of the connection.
+	 * 
+	 * @return the SQL to query the current schema or <code>null</code> if the database has no such query
+	 * 
+	 * @since 2.0.1
+	 */
+	protected String getCurrentSchemaSql() {
+		return null;
+	}
+
 	/**
 	 * Returns the current time literal
 	 * 
@@ -960,15 +1011,25 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 	 */
 	public abstract String getSelectLastIdentitySql(BasicColumn identityColumn);
 
-	private synchronized JdbcTable getTableMetadata(DataSource datasource, AbstractTable table) throws SQLException {
+	private JdbcTable getTableMetadata(DataSource datasource, AbstractTable table) throws SQLException {
 		JdbcTable tableMetadata = this.tables.get(table);
 		if (tableMetadata != null) {
 			return tableMetadata;
 		}
 
-		tableMetadata = this.getTableMetadata(datasource, table.getCatalog(), table.getSchema(), table.getName());
+		final JdbcMetadataSnapshot snapshot = this.snapshot;
+		if ((snapshot != null) && snapshot.covers(table)) {
+			tableMetadata = snapshot.getTable(datasource, table);
+		}
+		else {
+			tableMetadata = this.getTableMetadata(datasource, table.getCatalog(), table.getSchema(), table.getName());
+		}
+
 		if (tableMetadata != null) {
-			this.tables.put(table, tableMetadata);
+			final JdbcTable existing = this.tables.putIfAbsent(table, tableMetadata);
+			if (existing != null) {
+				return existing;
+			}
 		}
 
 		return tableMetadata;
@@ -1068,45 +1129,9 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 			final Connection connection = dataSource.getConnection();
 
 			try {
-				connection.setAutoCommit(false);
+				final int executed = new SqlImporter(connection, this.importSqlBatchSize, this.importSqlCommitSize).perform(sql);
 
-				final Statement statement = connection.createStatement();
-				try {
-					final BufferedReader reader = new BufferedReader(new StringReader(sql));
-
-					String line = null;
-					while ((line = reader.readLine()) != null) {
-						final String sqlLine = line.trim();
-
-						if (sqlLine.startsWith("--")) {
-							continue;
-						}
-						else if (sqlLine.startsWith("//")) {
-							continue;
-						}
-						else if (sqlLine.startsWith("/*")) {
-							continue;
-						}
-
-						final Iterator<String> statements = Splitter.on(";").omitEmptyStrings().split(sqlLine).iterator();
-
-						while (statements.hasNext()) {
-							try {
-								statement.execute(statements.next());
-							}
-							catch (final SQLException e) {
-								JdbcAdaptor.LOG.error("Error executing sql import fragment: {0}", sqlLine);
-
-								throw e;
-							}
-						}
-					}
-
-					connection.setAutoCommit(true);
-				}
-				finally {
-					DbUtils.closeQuietly(statement);
-				}
+				JdbcAdaptor.LOG.info("Import successful, {0} statements executed.", executed);
 			}
 			finally {
 				DbUtils.closeQuietly(connection);
@@ -1115,8 +1140,6 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		catch (final Exception e) {
 			JdbcAdaptor.LOG.error(e, "Error executing import sql: {0}", importSqlFileName);
 		}
-
-		JdbcAdaptor.LOG.info("Import successful.");
 	}
 
 	/**
@@ -1127,6 +1150,15 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 	 */
 	protected abstract boolean isForeignKeyHasDefaultIndex();
 
+	private void invalidateTableMetadata(AbstractTable table) {
+		this.tables.remove(table);
+
+		final JdbcMetadataSnapshot snapshot = this.snapshot;
+		if (snapshot != null) {
+			snapshot.invalidate(table);
+		}
+	}
+
 	/**
 	 * Returns if the PMD is Broken for the adaptor.
 	 * 
@@ -1262,6 +1294,65 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		return schema + "." + jdbcClassName;
 	}
 
+	/**
+	 * Reads the metadata for the tables in bulk, so that the DDL operations can be performed without looking up the tables one by
+	 * one.
+	 * <p>
+	 * Should the bulk read fail, the metadata is looked up for each table as required.
+	 * 
+	 * @param datasource
+	 *            the datasource
+	 * @param tables
+	 *            the tables to read the metadata for
+	 * 
+	 * @since 2.0.1
+	 */
+	public void readTablesMetadata(DataSource datasource, Collection<AbstractTable> tables) {
+		try {
+			final long start = System.currentTimeMillis();
+
+			this.snapshot = JdbcMetadataSnapshot.read(this, datasource, tables);
+
+			JdbcAdaptor.LOG.debug("Read the metadata for {0} tables in {1} msecs", tables.size(), System.currentTimeMillis() - start);
+		}
+		catch (final SQLException e) {
+			JdbcAdaptor.LOG.warn(e, "Cannot read the metadata of the tables in bulk, tables will be looked up individually");
+		}
+	}
+
+	/**
+	 * Releases the metadata read by {@link #readTablesMetadata(DataSource, Collection)}.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void releaseTablesMetadata() {
+		this.snapshot = null;
+	}
+
+	/**
+	 * Sets the importSqlBatchSize of the JdbcAdaptor.
+	 * 
+	 * @param importSqlBatchSize
+	 *            the importSqlBatchSize to set for JdbcAdaptor
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setImportSqlBatchSize(int importSqlBatchSize) {
+		this.importSqlBatchSize = importSqlBatchSize;
+	}
+
+	/**
+	 * Sets the importSqlCommitSize of the JdbcAdaptor.
+	 * 
+	 * @param importSqlCommitSize
+	 *            the importSqlCommitSize to set for JdbcAdaptor
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setImportSqlCommitSize(int importSqlCommitSize) {
+		this.importSqlCommitSize = importSqlCommitSize;
+	}
+
 	/**
 	 * Sets the insertBatchSize of the JdbcAdaptor.
 	 * 
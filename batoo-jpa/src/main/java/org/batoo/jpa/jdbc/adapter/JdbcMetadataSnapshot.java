@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.jdbc.adapter;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.commons.lang.StringUtils;
+import org.batoo.common.util.BatooUtils;
+import org.batoo.jpa.jdbc.AbstractTable;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * The snapshot of the metadata for the tables of the persistence unit.
+ * <p>
+ * The tables and their columns are read with a single call per schema rather than per table, so that the existence of the tables is
+ * known without a round trip to the database and the table metadata can be built concurrently.
+ * <p>
+ * The tables without a schema are read from the current schema of the connection. If the current schema cannot be determined, the
+ * snapshot does not cover those tables and they are looked up individually, rather than reading the tables of every schema in the
+ * database.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class JdbcMetadataSnapshot {
+
+	/**
+	 * The table and the column metadata read in bulk for an existing table.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class TableRow {
+
+		private final String catalog;
+		private final String schema;
+		private final String name;
+		private final List<JdbcColumn> columns = Lists.newArrayList();
+
+		/**
+		 * @param metadata
+		 *            the table metadata obtained from the JDBC database metadata
+		 * @throws SQLException
+		 *             thrown in case of an SQL error.
+		 * 
+		 * @since 2.0.1
+		 */
+		public TableRow(ResultSet metadata) throws SQLException {
+			super();
+
+			this.catalog = metadata.getString(JdbcMetadataSnapshot.TABLE_CAT);
+			this.schema = metadata.getString(JdbcMetadataSnapshot.TABLE_SCHEM);
+			this.name = metadata.getString(JdbcMetadataSnapshot.TABLE_NAME);
+		}
+
+		private List<String> getKey() {
+			return Arrays.asList(this.catalog, this.schema, this.name);
+		}
+	}
+
+	private static final String[] TABLE_OR_VIEW = new String[] { "TABLE", "VIEW" };
+
+	private static final String TABLE_NAME = "TABLE_NAME";
+	private static final String TABLE_SCHEM = "TABLE_SCHEM";
+	private static final String TABLE_CAT = "TABLE_CAT";
+
+	/**
+	 * Reads the metadata for the tables.
+	 * 
+	 * @param jdbcAdaptor
+	 *            the JDBC adaptor
+	 * @param datasource
+	 *            the datasource
+	 * @param tables
+	 *            the tables to read the metadata for
+	 * @return the snapshot of the metadata
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public static JdbcMetadataSnapshot read(JdbcAdaptor jdbcAdaptor, DataSource datasource, Collection<AbstractTable> tables) throws SQLException {
+		final JdbcMetadataSnapshot snapshot = new JdbcMetadataSnapshot();
+
+		final Connection connection = datasource.getConnection();
+		try {
+			final DatabaseMetaData dbMetadata = connection.getMetaData();
+			final String currentSchema = jdbcAdaptor.getCurrentSchema(connection);
+
+			// group the tables by their catalog and schema
+			final Map<List<String>, List<AbstractTable>> schemas = Maps.newHashMap();
+			for (final AbstractTable table : tables) {
+				String catalog = JdbcMetadataSnapshot.normalize(dbMetadata, table.getCatalog());
+				String schema = JdbcMetadataSnapshot.normalize(dbMetadata, table.getSchema());
+
+				if (schema == null) {
+					if (dbMetadata.supportsSchemasInTableDefinitions()) {
+						schema = currentSchema;
+					}
+					else if (catalog == null) {
+						// databases without schemas scope the tables by the catalog
+						catalog = connection.getCatalog();
+					}
+
+					// leave the table to the individual lookup
+					if ((schema == null) && (catalog == null)) {
+						continue;
+					}
+				}
+
+				final List<String> key = Arrays.asList(catalog, schema);
+
+				List<AbstractTable> schemaTables = schemas.get(key);
+				if (schemaTables == null) {
+					schemaTables = Lists.newArrayList();
+					schemas.put(key, schemaTables);
+				}
+
+				schemaTables.add(table);
+			}
+
+			for (final Entry<List<String>, List<AbstractTable>> entry : schemas.entrySet()) {
+				snapshot.readSchema(dbMetadata, entry.getKey().get(0), entry.getKey().get(1), entry.getValue());
+			}
+		}
+		finally {
+			DbUtils.closeQuietly(connection);
+		}
+
+		return snapshot;
+	}
+
+	private static String normalize(DatabaseMetaData dbMetadata, String name) throws SQLException {
+		if (StringUtils.isBlank(name)) {
+			return null;
+		}
+
+		if (dbMetadata.storesUpperCaseIdentifiers()) {
+			return BatooUtils.upper(name);
+		}
+
+		if (dbMetadata.storesLowerCaseIdentifiers()) {
+			return BatooUtils.lower(name);
+		}
+
+		return name;
+	}
+
+	private final Set<AbstractTable> tables = Sets.newSetFromMap(Maps.<AbstractTable, Boolean> newConcurrentMap());
+	private final Map<AbstractTable, TableRow> rows = Maps.newHashMap();
+
+	private JdbcMetadataSnapshot() {
+		super();
+	}
+
+	/**
+	 * Returns if the snapshot has the metadata for the table.
+	 * 
+	 * @param table
+	 *            the table
+	 * @return true if the snapshot has the metadata for the table, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean covers(AbstractTable table) {
+		return this.tables.contains(table);
+	}
+
+	/**
+	 * Returns the metadata for the table.
+	 * <p>
+	 * The columns are served from the snapshot while the primary key, indexes and foreign keys are read from the database.
+	 * 
+	 * @param datasource
+	 *            the datasource
+	 * @param table
+	 *            the table
+	 * @return the metadata for the table or null if the table does not exist
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public JdbcTable getTable(DataSource datasource, AbstractTable table) throws SQLException {
+		final TableRow row = this.rows.get(table);
+		if (row == null) {
+			return null;
+		}
+
+		final Connection connection = datasource.getConnection();
+		try {
+			return new JdbcTable(connection.getMetaData(), row.catalog, row.schema, row.name, row.columns);
+		}
+		finally {
+			DbUtils.closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * Invalidates the metadata for the table, typically as the table is created or dropped.
+	 * 
+	 * @param table
+	 *            the table
+	 * 
+	 * @since 2.0.1
+	 */
+	public void invalidate(AbstractTable table) {
+		this.tables.remove(table);
+	}
+
+	private void readSchema(DatabaseMetaData dbMetadata, String catalog, String schema, List<AbstractTable> schemaTables) throws SQLException {
+		final Map<String, TableRow> existing = Maps.newHashMap();
+		final Map<List<String>, TableRow> existingByKey = Maps.newHashMap();
+
+		ResultSet rs = null;
+		try {
+			rs = dbMetadata.getTables(catalog, schema, "%", JdbcMetadataSnapshot.TABLE_OR_VIEW);
+			while (rs.next()) {
+				final String name = rs.getString(JdbcMetadataSnapshot.TABLE_NAME).toUpperCase();
+
+				// the first match wins just like the lookup for a single table
+				if (!existing.containsKey(name)) {
+					final TableRow row = new TableRow(rs);
+
+					existing.put(name, row);
+					existingByKey.put(row.getKey(), row);
+				}
+			}
+		}
+		finally {
+			DbUtils.closeQuietly(rs);
+		}
+
+		if (!existing.isEmpty()) {
+			try {
+				rs = dbMetadata.getColumns(catalog, schema, "%", "%");
+				while (rs.next()) {
+					final TableRow row = existingByKey.get(Arrays.asList(//
+						rs.getString(JdbcMetadataSnapshot.TABLE_CAT), //
+						rs.getString(JdbcMetadataSnapshot.TABLE_SCHEM), //
+						rs.getString(JdbcMetadataSnapshot.TABLE_NAME)));
+
+					if (row != null) {
+						row.columns.add(new JdbcColumn(rs));
+					}
+				}
+			}
+			finally {
+				DbUtils.closeQuietly(rs);
+			}
+		}
+
+		for (final AbstractTable table : schemaTables) {
+			final TableRow row = existing.get(table.getName().toUpperCase());
+			if (row != null) {
+				this.rows.put(table, row);
+			}
+
+			this.tables.add(table);
+		}
+	}
+}
@@ -86,7 +86,39 @@ public class JdbcTable {
 
 		this.readColumns(dbMetadata);
 		this.readIndexes(dbMetadata);
-		this.readForeignKeys(dbMetadata, metadata);
+		this.readForeignKeys(dbMetadata);
+	}
+
+	/**
+	 * @param dbMetadata
+	 *            the JDBC database metadata
+	 * @param catalog
+	 *            the catalog of the table
+	 * @param schema
+	 *            the schema of the table
+	 * @param name
+	 *            the name of the table
+	 * @param columns
+	 *            the columns of the table read in advance
+	 * @throws SQLException
+	 *             thrown in case of an SQL error.
+	 * 
+	 * @since 2.0.1
+	 */
+	public JdbcTable(DatabaseMetaData dbMetadata, String catalog, String schema, String name, Collection<JdbcColumn> columns) throws SQLException {
+		super();
+
+		this.catalog = catalog;
+		this.schema = schema;
+		this.name = name;
+		this.pkName = this.readPrimaryKeyColumn(dbMetadata);
+
+		for (final JdbcColumn column : columns) {
+			this.columns.put(column.getName().toUpperCase(), column);
+		}
+
+		this.readIndexes(dbMetadata);
+		this.readForeignKeys(dbMetadata);
 	}
 
 	/**
@@ -213,7 +245,7 @@ public class JdbcTable {
 		}
 	}
 
-	private void readForeignKeys(DatabaseMetaData dbMetadata, ResultSet metadata) throws SQLException {
+	private void readForeignKeys(DatabaseMetaData dbMetadata) throws SQLException {
 		ResultSet rs = null;
 		try {
 			rs = dbMetadata.getImportedKeys(this.catalog, this.schema, this.name);
@@ -253,6 +253,15 @@ public class MsSqlAdaptor extends JdbcAdaptor {
 		return "GETDATE()";
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT SCHEMA_NAME()";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
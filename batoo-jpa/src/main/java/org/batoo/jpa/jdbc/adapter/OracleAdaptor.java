@@ -223,6 +223,15 @@ public class OracleAdaptor extends JdbcAdaptor {
 		return "CURRENT_TIMESTAMP";
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') FROM DUAL";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
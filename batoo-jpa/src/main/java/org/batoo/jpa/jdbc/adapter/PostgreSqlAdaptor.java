@@ -200,6 +200,15 @@ public class PostgreSqlAdaptor extends JdbcAdaptor {
 		throw new IllegalArgumentException("Unhandled sql type: " + sqlType);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT CURRENT_SCHEMA()";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
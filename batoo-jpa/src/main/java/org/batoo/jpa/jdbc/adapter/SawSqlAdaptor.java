@@ -260,6 +260,15 @@ public class SawSqlAdaptor extends JdbcAdaptor {
 		return "GETDATE()";
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected String getCurrentSchemaSql() {
+		return "SELECT SCHEMA_NAME()";
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
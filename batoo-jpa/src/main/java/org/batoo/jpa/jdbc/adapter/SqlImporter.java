@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.jdbc.adapter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * Executes the statements of an import sql.
+ * <p>
+ * Consecutive insert statements are sent to the database in JDBC batches, and the work is committed every <code>commitSize</code>
+ * statements, reporting the progress.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SqlImporter {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(SqlImporter.class);
+
+	private final Connection connection;
+	private final int batchSize;
+	private final int commitSize;
+
+	private final List<String> batch = Lists.newArrayList();
+	private Statement statement;
+
+	private int executed;
+	private int uncommitted;
+
+	/**
+	 * @param connection
+	 *            the connection to execute the statements on
+	 * @param batchSize
+	 *            the number of insert statements to send in a single batch, 1 or less disables batching
+	 * @param commitSize
+	 *            the number of statements to commit at once, 0 or less commits only at the end
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlImporter(Connection connection, int batchSize, int commitSize) throws SQLException {
+		super();
+
+		this.connection = connection;
+		this.batchSize = connection.getMetaData().supportsBatchUpdates() ? batchSize : 1;
+		this.commitSize = commitSize;
+	}
+
+	private void commitIfNecessary() throws SQLException {
+		if ((this.commitSize > 0) && (this.uncommitted >= this.commitSize)) {
+			this.flush();
+
+			this.connection.commit();
+			this.uncommitted = 0;
+
+			SqlImporter.LOG.info("Imported {0} statements", this.executed);
+		}
+	}
+
+	private void execute(String sql) throws SQLException {
+		// consecutive inserts are batched, anything else flushes the batch and executes on its own
+		if ((this.batchSize > 1) && sql.trim().toLowerCase(Locale.ENGLISH).startsWith("insert")) {
+			this.batch.add(sql);
+			this.statement.addBatch(sql);
+
+			if (this.batch.size() >= this.batchSize) {
+				this.flush();
+			}
+		}
+		else {
+			this.flush();
+
+			try {
+				this.statement.execute(sql);
+			}
+			catch (final SQLException e) {
+				SqlImporter.LOG.error("Error executing sql import fragment: {0}", sql);
+
+				throw e;
+			}
+
+			this.executed++;
+		}
+
+		this.uncommitted++;
+
+		this.commitIfNecessary();
+	}
+
+	private static int getFailed(BatchUpdateException e, int size) {
+		final int[] counts = e.getUpdateCounts();
+		if (counts == null) {
+			return 0;
+		}
+
+		// drivers that continue after a failure mark the failed statements
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == Statement.EXECUTE_FAILED) {
+				return i;
+			}
+		}
+
+		// drivers that stop at the first failure report the counts of the statements succeeded
+		return counts.length < size ? counts.length : 0;
+	}
+
+	private void flush() throws SQLException {
+		if (this.batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			this.statement.executeBatch();
+		}
+		catch (final BatchUpdateException e) {
+			SqlImporter.LOG.error("Error executing sql import fragment: {0}", this.batch.get(SqlImporter.getFailed(e, this.batch.size())));
+
+			throw e;
+		}
+		finally {
+			this.statement.clearBatch();
+		}
+
+		this.executed += this.batch.size();
+		this.batch.clear();
+	}
+
+	/**
+	 * Executes the import sql.
+	 * <p>
+	 * Lines starting with a comment are skipped, and the rest are split into statements by semicolons.
+	 * 
+	 * @param sql
+	 *            the contents of the import sql
+	 * @return the number of statements executed
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * @throws IOException
+	 *             thrown in case of an I/O error
+	 * 
+	 * @since 2.0.1
+	 */
+	public int perform(String sql) throws SQLException, IOException {
+		this.connection.setAutoCommit(false);
+
+		this.statement = this.connection.createStatement();
+		try {
+			final BufferedReader reader = new BufferedReader(new StringReader(sql));
+
+			String line = null;
+			while ((line = reader.readLine()) != null) {
+				final String sqlLine = line.trim();
+
+				if (sqlLine.startsWith("--")) {
+					continue;
+				}
+				else if (sqlLine.startsWith("//")) {
+					continue;
+				}
+				else if (sqlLine.startsWith("/*")) {
+					continue;
+				}
+
+				final Iterator<String> statements = Splitter.on(";").omitEmptyStrings().split(sqlLine).iterator();
+
+				while (statements.hasNext()) {
+					this.execute(statements.next());
+				}
+			}
+
+			this.flush();
+
+			this.connection.setAutoCommit(true);
+		}
+		finally {
+			DbUtils.closeQuietly(this.statement);
+		}
+
+		return this.executed;
+	}
+}
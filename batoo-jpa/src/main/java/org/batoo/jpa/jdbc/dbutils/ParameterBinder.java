@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.jdbc.dbutils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds the parameters directly to the statement without an intermediate parameter array.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface ParameterBinder {
+
+	/**
+	 * Binds the parameters to the statement.
+	 * 
+	 * @param statement
+	 *            the statement to bind the parameters to
+	 * @throws SQLException
+	 *             thrown in case of underlying SQLException
+	 * 
+	 * @since 2.0.1
+	 */
+	void bind(PreparedStatement statement) throws SQLException;
+
+	/**
+	 * Returns the number of the parameters bound.
+	 * 
+	 * @return the number of the parameters bound
+	 * 
+	 * @since 2.0.1
+	 */
+	int getParameterCount();
+
+	/**
+	 * Returns the parameters as an array. Used to report errors and when the parameters cannot be bound directly.
+	 * 
+	 * @return the parameters
+	 * 
+	 * @since 2.0.1
+	 */
+	Object[] getParameters();
+}
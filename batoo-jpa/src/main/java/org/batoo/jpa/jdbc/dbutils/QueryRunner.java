@@ -128,6 +128,53 @@ public class QueryRunner {
 		this.datasource = null;
 	}
 
+	/**
+	 * Execute a batch of SQL INSERT, UPDATE, or DELETE queries. The caller is responsible for closing the connection.
+	 * 
+	 * @param connection
+	 *            The connection to use to run the query.
+	 * @param sql
+	 *            The SQL to execute.
+	 * @param params
+	 *            An array of query replacement parameters. Each row in this array is one set of batch replacement values.
+	 * @return The number of rows updated per statement.
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 * 
+	 * @since 2.0.1
+	 */
+	public int[] batch(Connection connection, String sql, Object[][] params) throws SQLException {
+		if (connection == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		if (params == null) {
+			throw new SQLException("Null parameters. If parameters aren't need, pass an empty array.");
+		}
+
+		PreparedStatement statement = null;
+		try {
+			statement = connection.prepareStatement(sql);
+
+			for (final Object[] row : params) {
+				this.fillStatement(statement, row);
+				statement.addBatch();
+			}
+
+			return statement.executeBatch();
+		}
+		catch (final SQLException e) {
+			throw this.convertSqlException(e, sql, (Object[]) params);
+		}
+		finally {
+			DbUtils.close(statement);
+		}
+	}
+
 	/**
 	 * Throws a new exception with a more informative error message.
 	 * 
@@ -416,6 +463,55 @@ public class QueryRunner {
 		}
 	}
 
+	/**
+	 * Execute an SQL INSERT, UPDATE, or DELETE query binding the parameters with the binder.
+	 * <p>
+	 * The parameter metadata is not consulted, the binder is responsible to bind the values including the <code>null</code>s with their
+	 * types. If the query has lobs, the parameter metadata is known to be broken or the jdbc adaptor modifies the parameters, the
+	 * parameters are filled from the parameter array of the binder.
+	 * 
+	 * @param connection
+	 *            The connection to use to run the query.
+	 * @param sql
+	 *            The SQL to execute.
+	 * @param binder
+	 *            The binder to bind the query replacement parameters.
+	 * @return The number of rows updated.
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 * 
+	 * @since 2.0.1
+	 */
+	public int update(Connection connection, String sql, ParameterBinder binder) throws SQLException {
+		if (connection == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		if (this.hasLob || this.pmdKnownBroken || ((this.jdbcAdaptor != null) && this.jdbcAdaptor.modifiesParameters())) {
+			return this.update(connection, false, sql, binder.getParameters());
+		}
+
+		PreparedStatement statement = null;
+		try {
+			statement = connection.prepareStatement(sql);
+
+			((PreparedStatementProxy) statement).setParamCount(binder.getParameterCount());
+			binder.bind(statement);
+
+			return statement.executeUpdate();
+		}
+		catch (final SQLException e) {
+			throw this.convertSqlException(e, sql, binder.getParameters());
+		}
+		finally {
+			DbUtils.close(statement);
+		}
+	}
+
 	/**
 	 * Execute an SQL INSERT, UPDATE, or DELETE query without replacement parameters.
 	 * 
@@ -21,6 +21,7 @@ package org.batoo.jpa.jdbc.mapping;
 import javax.persistence.EnumType;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.reflect.AbstractAccessor;
 import org.batoo.jpa.jdbc.BasicColumn;
 import org.batoo.jpa.parser.metadata.ColumnTransformerMetadata;
 
@@ -37,6 +38,15 @@ import org.batoo.jpa.parser.metadata.ColumnTransformerMetadata;
  */
 public interface BasicMapping<Z, X> extends SingularMapping<Z, X> {
 
+	/**
+	 * Returns the accessor to read the value directly off the owning instance.
+	 * 
+	 * @return the accessor or <code>null</code> if the mapping is not directly on the owning instance
+	 * 
+	 * @since 2.0.1
+	 */
+	AbstractAccessor getAccessor();
+
 	/**
 	 * Returns the column of the mapping.
 	 * 
@@ -19,9 +19,16 @@
 package org.batoo.jpa.parser.impl.acl;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.persistence.Embeddable;
 import javax.persistence.Entity;
@@ -29,10 +36,20 @@ import javax.persistence.MappedSuperclass;
 import javax.persistence.PersistenceException;
 import javax.persistence.spi.PersistenceUnitInfo;
 
+import org.apache.commons.io.IOUtils;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.common.util.IncrementalNamingThreadFactory;
 import org.batoo.jpa.spi.AnnotatedClassLocator;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -43,9 +60,242 @@ import com.google.common.collect.Sets;
  */
 public abstract class BaseAnnotatedClassLocator implements AnnotatedClassLocator {
 
+	/**
+	 * Visitor to check if the class is annotated as a persistent class.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class PersistentClassVisitor implements ClassVisitor {
+
+		private static final Set<String> PERSISTENT_ANNOTATIONS = Sets.newHashSet(//
+			Type.getDescriptor(Embeddable.class), //
+			Type.getDescriptor(MappedSuperclass.class), //
+			Type.getDescriptor(Entity.class));
+
+		private boolean persistent;
+
+		/**
+		 * Returns if the visited class is annotated as a persistent class.
+		 * 
+		 * @return true if the visited class is annotated as a persistent class, false otherwise
+		 * 
+		 * @since 2.0.1
+		 */
+		public boolean isPersistent() {
+			return this.persistent;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			if (PersistentClassVisitor.PERSISTENT_ANNOTATIONS.contains(desc)) {
+				this.persistent = true;
+			}
+
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitAttribute(Attribute attr) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitEnd() {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitInnerClass(String name, String outerName, String innerName, int access) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitOuterClass(String owner, String name, String desc) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitSource(String source, String debug) {
+			// noop
+		}
+	}
+
 	private static final BLogger LOG = BLoggerFactory.getLogger(BaseAnnotatedClassLocator.class);
 
+	private static final int MIN_CLASSES_PER_THREAD = 64;
+
+	/**
+	 * Returns the class file with the constants the bytecode reader does not understand replaced by the ones of the same size it does.
+	 * <p>
+	 * The method handle, method type, dynamic, invoke dynamic, module and package constants of Java 7 and later are only referred by the
+	 * code and the attributes that are not read to locate the annotations.
+	 * 
+	 * @param bytes
+	 *            the bytes of the class file
+	 * @return the bytes of the class file to read or <code>null</code> if the constant pool cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	private static byte[] getReadableClassFile(byte[] bytes) {
+		if (bytes.length < 10) {
+			return null;
+		}
+
+		byte[] readable = bytes;
+
+		final int count = BaseAnnotatedClassLocator.readUnsignedShort(bytes, 8);
+
+		int index = 10;
+		for (int i = 1; i < count; i++) {
+			if (index >= bytes.length) {
+				return null;
+			}
+
+			switch (bytes[index]) {
+				case 1: // utf8
+					if ((index + 3) > bytes.length) {
+						return null;
+					}
+
+					index += 3 + BaseAnnotatedClassLocator.readUnsignedShort(bytes, index + 1);
+					break;
+				case 3: // integer
+				case 4: // float
+				case 9: // field ref
+				case 10: // method ref
+				case 11: // interface method ref
+				case 12: // name and type
+					index += 5;
+					break;
+				case 5: // long
+				case 6: // double
+					index += 9;
+					i++; // takes two entries
+					break;
+				case 7: // class
+				case 8: // string
+					index += 3;
+					break;
+				case 15: // method handle, read as a single character utf8
+					if ((index + 4) > bytes.length) {
+						return null;
+					}
+
+					readable = readable == bytes ? bytes.clone() : readable;
+					readable[index] = 1;
+					readable[index + 1] = 0;
+					readable[index + 2] = 1;
+					readable[index + 3] = 'x';
+
+					index += 4;
+					break;
+				case 16: // method type
+				case 19: // module
+				case 20: // package, read as a class
+					readable = readable == bytes ? bytes.clone() : readable;
+					readable[index] = 7;
+
+					index += 3;
+					break;
+				case 17: // dynamic
+				case 18: // invoke dynamic, read as name and type
+					readable = readable == bytes ? bytes.clone() : readable;
+					readable[index] = 12;
+
+					index += 5;
+					break;
+				default:
+					return null;
+			}
+		}
+
+		return index <= bytes.length ? readable : null;
+	}
+
+	private static boolean loadIndexedClasses(PersistenceUnitInfo puInfo, final Set<Class<?>> classes, final URL jarUrl) {
+		final Set<String> classNames = DeploymentIndex.load(puInfo, jarUrl);
+		if (classNames == null) {
+			return false;
+		}
+
+		final Set<Class<?>> indexedClasses = Sets.newHashSet();
+		for (final String className : classNames) {
+			try {
+				indexedClasses.add(puInfo.getClassLoader().loadClass(className));
+			}
+			catch (final ClassNotFoundException e) {
+				BaseAnnotatedClassLocator.LOG.warn("Deployment index is stale for {0}, class {1} not found", jarUrl, className);
+
+				return false;
+			}
+		}
+
+		classes.addAll(indexedClasses);
+
+		return true;
+	}
+
+	private static int readUnsignedShort(byte[] bytes, int index) {
+		return ((bytes[index] & 0xFF) << 8) | (bytes[index + 1] & 0xFF);
+	}
+
 	private static void locateClasses(PersistenceUnitInfo puInfo, final Set<Class<?>> classes, final URL jarUrl) {
+		if (BaseAnnotatedClassLocator.loadIndexedClasses(puInfo, classes, jarUrl)) {
+			return;
+		}
+
 		AnnotatedClassLocator locator = null;
 
 		if (jarUrl.getProtocol().equals("file")) {
@@ -66,7 +316,10 @@ public abstract class BaseAnnotatedClassLocator implements AnnotatedClassLocator
 			throw new IllegalArgumentException("Unknown jar url protocol: " + jarUrl);
 		}
 
-		classes.addAll(locator.locateClasses(puInfo, jarUrl));
+		final Set<Class<?>> locatedClasses = locator.locateClasses(puInfo, jarUrl);
+		classes.addAll(locatedClasses);
+
+		DeploymentIndex.store(puInfo, jarUrl, locatedClasses);
 	}
 
 	/**
@@ -141,10 +394,136 @@ public abstract class BaseAnnotatedClassLocator implements AnnotatedClassLocator
 		catch (final Throwable e) {
 			// nasty eclipse JUnit fragment spits bogus class loading errors
 			if (!className.startsWith("org.eclipse.jdt")) {
-				BaseAnnotatedClassLocator.LOG.debug(e, "Unable to read class: {0}" + className);
+				BaseAnnotatedClassLocator.LOG.debug(e, "Unable to read class: {0}", className);
 			}
 		}
 
 		return null;
 	}
+
+	/**
+	 * Reads the class file to check if the class is a candidate persistent class without loading the class.
+	 * <p>
+	 * The class level annotations are read from the bytecode. If the constant pool of the class file cannot be read, the class is
+	 * returned as a candidate to be checked once loaded.
+	 * 
+	 * @param is
+	 *            the input stream of the class file
+	 * @param className
+	 *            the name of the class
+	 * @return the <code>className</code> if the class is a candidate persistent class, <code>null</code> otherwise
+	 * @throws IOException
+	 *             thrown if the class file cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	protected String readPersistentClassName(InputStream is, String className) throws IOException {
+		final byte[] bytes;
+		try {
+			bytes = IOUtils.toByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+
+		final byte[] readable = BaseAnnotatedClassLocator.getReadableClassFile(bytes);
+		if (readable == null) {
+			return className;
+		}
+
+		try {
+			final PersistentClassVisitor visitor = new PersistentClassVisitor();
+			new ClassReader(readable).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+			return visitor.isPersistent() ? className : null;
+		}
+		catch (final RuntimeException e) {
+			BaseAnnotatedClassLocator.LOG.debug(e, "Unable to read class file: {0}", className);
+
+			return className;
+		}
+	}
+
+	/**
+	 * Scans the class files and loads the annotated persistent classes.
+	 * <p>
+	 * The class files are read in parallel, only the candidate classes are loaded, by the calling thread.
+	 * 
+	 * @param classloader
+	 *            the class loader
+	 * @param readers
+	 *            the readers each returning the name of the class if it is a candidate persistent class or <code>null</code>
+	 * @return the set of persistent classes
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Set<Class<?>> scanClasses(ClassLoader classloader, List<Callable<String>> readers) {
+		final Set<Class<?>> classes = Sets.newHashSet();
+
+		for (final String className : this.readClassNames(readers)) {
+			final Class<?> clazz = this.isPersistentClass(classloader, className);
+			if (clazz != null) {
+				BaseAnnotatedClassLocator.LOG.debug("Found persistent class {0}", className);
+
+				classes.add(clazz);
+			}
+		}
+
+		return classes;
+	}
+
+	private List<String> readClassNames(List<Callable<String>> readers) {
+		final List<String> classNames = Lists.newArrayList();
+
+		final int nThreads = Math.min(Runtime.getRuntime().availableProcessors(), readers.size() / BaseAnnotatedClassLocator.MIN_CLASSES_PER_THREAD);
+
+		// not worth the threads
+		if (nThreads < 2) {
+			for (final Callable<String> reader : readers) {
+				final String className = this.readClassName(reader);
+				if (className != null) {
+					classNames.add(className);
+				}
+			}
+
+			return classNames;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads, new IncrementalNamingThreadFactory("Class Scanner"));
+		try {
+			final List<Future<String>> futures = Lists.newArrayList();
+			for (final Callable<String> reader : readers) {
+				futures.add(executor.submit(reader));
+			}
+
+			for (final Future<String> future : futures) {
+				final String className = future.get();
+				if (className != null) {
+					classNames.add(className);
+				}
+			}
+
+			return classNames;
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new PersistenceException("Interrupted while scanning classes", e);
+		}
+		catch (final ExecutionException e) {
+			throw new PersistenceException("Unable to scan classes", e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String readClassName(Callable<String> reader) {
+		try {
+			return reader.call();
+		}
+		catch (final Exception e) {
+			throw new PersistenceException("Unable to scan classes", e);
+		}
+	}
 }
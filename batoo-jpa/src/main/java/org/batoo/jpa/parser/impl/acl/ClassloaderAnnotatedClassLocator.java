@@ -19,9 +19,11 @@
 package org.batoo.jpa.parser.impl.acl;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.net.URL;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.persistence.spi.PersistenceUnitInfo;
 
@@ -31,7 +33,7 @@ import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.jpa.spi.AnnotatedClassLocator;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.Lists;
 
 /**
  * {@link AnnotatedClassLocator} implementation for context classloader.
@@ -64,14 +66,14 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 		super();
 	}
 
-	private Set<Class<?>> findClasses(ClassLoader cl, Set<Class<?>> classes, String root, String path) {
+	private void findClasses(List<Callable<String>> readers, String root, String path) {
 		final File file = new File(path);
 
 		if (file.isDirectory()) {
 			ClassloaderAnnotatedClassLocator.LOG.debug("Processing directory {0}", path);
 
 			for (final String child : file.list()) {
-				this.findClasses(cl, classes, root, path + "/" + child);
+				this.findClasses(readers, root, path + "/" + child);
 			}
 		}
 		else {
@@ -79,18 +81,22 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 				final String normalizedPath = FilenameUtils.separatorsToUnix(FilenameUtils.normalize(path));
 
 				final int rootLength = FilenameUtils.normalizeNoEndSeparator(root).length();
-				String className = normalizedPath.substring(rootLength + 1).replaceAll("/", ".");
-				className = StringUtils.left(className, className.length() - 6);
-
-				final Class<?> clazz = this.isPersistentClass(cl, className);
-				if (clazz != null) {
-					ClassloaderAnnotatedClassLocator.LOG.debug("Found persistent class {0}", className);
-					classes.add(clazz);
-				}
+				final String className = normalizedPath.substring(rootLength + 1).replaceAll("/", ".");
+				final String candidateName = StringUtils.left(className, className.length() - 6);
+
+				readers.add(new Callable<String>() {
+
+					/**
+					 * {@inheritDoc}
+					 * 
+					 */
+					@Override
+					public String call() throws Exception {
+						return ClassloaderAnnotatedClassLocator.this.readPersistentClassName(new FileInputStream(file), candidateName);
+					}
+				});
 			}
 		}
-
-		return classes;
 	}
 
 	/**
@@ -103,12 +109,13 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 
 		ClassloaderAnnotatedClassLocator.LOG.info("Checking persistence root {0} for persistence classes...", root);
 
-		final HashSet<Class<?>> classes = Sets.newHashSet();
-		try {
-			return this.findClasses(persistenceUnitInfo.getClassLoader(), classes, root, root);
-		}
-		finally {
-			ClassloaderAnnotatedClassLocator.LOG.info("Found persistent classes {0}", classes.toString());
-		}
+		final List<Callable<String>> readers = Lists.newArrayList();
+		this.findClasses(readers, root, root);
+
+		final Set<Class<?>> classes = this.scanClasses(persistenceUnitInfo.getClassLoader(), readers);
+
+		ClassloaderAnnotatedClassLocator.LOG.info("Found persistent classes {0}", classes.toString());
+
+		return classes;
 	}
 }
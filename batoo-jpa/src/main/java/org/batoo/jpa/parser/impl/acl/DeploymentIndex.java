@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.parser.impl.acl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javax.persistence.spi.PersistenceUnitInfo;
+
+import org.apache.commons.lang.StringUtils;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.BJPASettings;
+
+import com.google.common.collect.Sets;
+
+/**
+ * The index of the persistent classes in a persistence root, a class directory or a jar file.
+ * <p>
+ * The index is keyed by the fingerprint of the root that is computed from the names, the sizes and the time stamps of the class files,
+ * so neither the class files are read nor the classes are loaded to validate the index. The time stamps are taken at the two seconds
+ * precision of the jar entries, so the index built for a class directory remains valid once the directory is packaged into a jar that
+ * keeps the time stamps. The index is either built into the root by the enhancer plugin as {@link #INDEX_FILE} or cached on the first
+ * run into the directory given by {@link BJPASettings#DEPLOYMENT_INDEX}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class DeploymentIndex {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(DeploymentIndex.class);
+
+	/**
+	 * The location of the index built into the root.
+	 */
+	public static final String INDEX_FILE = "META-INF/batoo-jpa.idx";
+
+	private static final String CHARSET = "UTF-8";
+	private static final String CLASS_EXTENSION = ".class";
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 is not supported", e);
+		}
+	}
+
+	private static void fingerprint(Map<String, String> classFiles, String path, File file) {
+		final File[] children = file.listFiles();
+		if (children == null) {
+			return;
+		}
+
+		for (final File child : children) {
+			final String childPath = path + child.getName();
+
+			if (child.isDirectory()) {
+				DeploymentIndex.fingerprint(classFiles, childPath + "/", child);
+			}
+			else if (childPath.endsWith(DeploymentIndex.CLASS_EXTENSION)) {
+				classFiles.put(childPath, DeploymentIndex.stamp(child.length(), child.lastModified()));
+			}
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of the class directory or the jar file.
+	 * 
+	 * @param root
+	 *            the class directory or the jar file
+	 * @return the fingerprint
+	 * @throws IOException
+	 *             thrown if the root cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public static String fingerprint(File root) throws IOException {
+		final Map<String, String> classFiles = new TreeMap<String, String>();
+
+		if (root.isDirectory()) {
+			DeploymentIndex.fingerprint(classFiles, "", root);
+		}
+		else {
+			final JarFile jarFile = new JarFile(root);
+			try {
+				final Enumeration<JarEntry> entries = jarFile.entries();
+				while (entries.hasMoreElements()) {
+					final JarEntry entry = entries.nextElement();
+
+					if (!entry.isDirectory() && entry.getName().endsWith(DeploymentIndex.CLASS_EXTENSION)) {
+						classFiles.put(entry.getName(), DeploymentIndex.stamp(entry.getSize(), entry.getTime()));
+					}
+				}
+			}
+			finally {
+				jarFile.close();
+			}
+		}
+
+		final MessageDigest digest = DeploymentIndex.digest();
+		for (final Map.Entry<String, String> classFile : classFiles.entrySet()) {
+			digest.update(classFile.getKey().getBytes(DeploymentIndex.CHARSET));
+			digest.update((":" + classFile.getValue() + "\n").getBytes(DeploymentIndex.CHARSET));
+		}
+
+		return DeploymentIndex.toHex(digest.digest());
+	}
+
+	private static File getCacheFile(PersistenceUnitInfo puInfo, File root) throws UnsupportedEncodingException {
+		final Object cacheDir = puInfo.getProperties() != null ? puInfo.getProperties().get(BJPASettings.DEPLOYMENT_INDEX) : null;
+		if ((cacheDir == null) || StringUtils.isBlank(cacheDir.toString())) {
+			return null;
+		}
+
+		final String name = DeploymentIndex.toHex(DeploymentIndex.digest().digest(root.getAbsolutePath().getBytes(DeploymentIndex.CHARSET)));
+
+		return new File(cacheDir.toString(), name + ".idx");
+	}
+
+	private static File getRoot(URL url) {
+		if (!"file".equals(url.getProtocol())) {
+			return null;
+		}
+
+		try {
+			return new File(url.toURI());
+		}
+		catch (final URISyntaxException e) {
+			return new File(url.getPath());
+		}
+		catch (final IllegalArgumentException e) {
+			return new File(url.getPath());
+		}
+	}
+
+	private static boolean hasBuiltIn(File root) throws IOException {
+		if (root.isDirectory()) {
+			return new File(root, DeploymentIndex.INDEX_FILE).isFile();
+		}
+
+		final JarFile jarFile = new JarFile(root);
+		try {
+			return jarFile.getJarEntry(DeploymentIndex.INDEX_FILE) != null;
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
+	/**
+	 * Returns the names of the persistent classes of the root from its index.
+	 * 
+	 * @param puInfo
+	 *            the persistence unit info
+	 * @param url
+	 *            the url of the root
+	 * @return the names of the persistent classes or <code>null</code> if the root has no valid index
+	 * 
+	 * @since 2.0.1
+	 */
+	public static Set<String> load(PersistenceUnitInfo puInfo, URL url) {
+		final File root = DeploymentIndex.getRoot(url);
+		if ((root == null) || !root.exists()) {
+			return null;
+		}
+
+		try {
+			final File cacheFile = DeploymentIndex.getCacheFile(puInfo, root);
+			final boolean cached = (cacheFile != null) && cacheFile.isFile();
+
+			// do not bother with the fingerprint if there is no index at all
+			if (!cached && !DeploymentIndex.hasBuiltIn(root)) {
+				return null;
+			}
+
+			final String fingerprint = DeploymentIndex.fingerprint(root);
+
+			// first the index built into the root, then the cache
+			Set<String> classNames = DeploymentIndex.readBuiltIn(root, fingerprint);
+			if ((classNames == null) && cached) {
+				classNames = DeploymentIndex.read(new FileInputStream(cacheFile), fingerprint);
+			}
+
+			if (classNames != null) {
+				DeploymentIndex.LOG.info("Using the deployment index for {0}", root);
+			}
+
+			return classNames;
+		}
+		catch (final IOException e) {
+			DeploymentIndex.LOG.warn(e, "Unable to read the deployment index for {0}", root);
+
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the index.
+	 * 
+	 * @param is
+	 *            the input stream of the index
+	 * @param fingerprint
+	 *            the current fingerprint of the root
+	 * @return the names of the persistent classes or <code>null</code> if the fingerprint of the index does not match
+	 * @throws IOException
+	 *             thrown if the index cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public static Set<String> read(InputStream is, String fingerprint) throws IOException {
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(is, DeploymentIndex.CHARSET));
+		try {
+			if (!fingerprint.equals(reader.readLine())) {
+				return null;
+			}
+
+			final Set<String> classNames = Sets.newHashSet();
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (StringUtils.isNotBlank(line)) {
+					classNames.add(line.trim());
+				}
+			}
+
+			return classNames;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private static Set<String> readBuiltIn(File root, String fingerprint) throws IOException {
+		if (root.isDirectory()) {
+			final File indexFile = new File(root, DeploymentIndex.INDEX_FILE);
+
+			return indexFile.isFile() ? DeploymentIndex.read(new FileInputStream(indexFile), fingerprint) : null;
+		}
+
+		final JarFile jarFile = new JarFile(root);
+		try {
+			final JarEntry entry = jarFile.getJarEntry(DeploymentIndex.INDEX_FILE);
+
+			return entry != null ? DeploymentIndex.read(jarFile.getInputStream(entry), fingerprint) : null;
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
+	private static String stamp(long size, long time) {
+		// jar entries keep the time stamps at two seconds precision
+		return size + "@" + (time / 2000);
+	}
+
+	/**
+	 * Caches the index of the root if {@link BJPASettings#DEPLOYMENT_INDEX} is set.
+	 * 
+	 * @param puInfo
+	 *            the persistence unit info
+	 * @param url
+	 *            the url of the root
+	 * @param classes
+	 *            the persistent classes located in the root
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void store(PersistenceUnitInfo puInfo, URL url, Set<Class<?>> classes) {
+		final File root = DeploymentIndex.getRoot(url);
+		if ((root == null) || !root.exists()) {
+			return;
+		}
+
+		try {
+			final File cacheFile = DeploymentIndex.getCacheFile(puInfo, root);
+			if (cacheFile == null) {
+				return;
+			}
+
+			final Set<String> classNames = Sets.newTreeSet();
+			for (final Class<?> clazz : classes) {
+				classNames.add(clazz.getName());
+			}
+
+			cacheFile.getParentFile().mkdirs();
+
+			// write to a temporary file first so that the concurrent readers never see a partial index
+			final File tempFile = new File(cacheFile.getPath() + ".tmp");
+			DeploymentIndex.write(new FileOutputStream(tempFile), DeploymentIndex.fingerprint(root), classNames);
+
+			if (!tempFile.renameTo(cacheFile)) {
+				cacheFile.delete();
+				tempFile.renameTo(cacheFile);
+			}
+
+			DeploymentIndex.LOG.info("Cached the deployment index for {0} to {1}", root, cacheFile);
+		}
+		catch (final IOException e) {
+			DeploymentIndex.LOG.warn(e, "Unable to cache the deployment index for {0}", root);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+		for (final byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+			hex.append(Character.forDigit(b & 0xF, 16));
+		}
+
+		return hex.toString();
+	}
+
+	/**
+	 * Writes the index.
+	 * 
+	 * @param os
+	 *            the output stream to write the index to
+	 * @param fingerprint
+	 *            the fingerprint of the root
+	 * @param classNames
+	 *            the names of the persistent classes
+	 * @throws IOException
+	 *             thrown if the index cannot be written
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void write(OutputStream os, String fingerprint, Collection<String> classNames) throws IOException {
+		final PrintWriter writer = new PrintWriter(new OutputStreamWriter(os, DeploymentIndex.CHARSET));
+		try {
+			writer.println(fingerprint);
+
+			for (final String className : classNames) {
+				writer.println(className);
+			}
+
+			if (writer.checkError()) {
+				throw new IOException("Unable to write the deployment index");
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private DeploymentIndex() {
+		super();
+	}
+}
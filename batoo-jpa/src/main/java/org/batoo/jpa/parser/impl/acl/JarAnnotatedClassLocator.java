@@ -22,7 +22,9 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -33,6 +35,7 @@ import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.jpa.spi.AnnotatedClassLocator;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -66,34 +69,44 @@ public class JarAnnotatedClassLocator extends BaseAnnotatedClassLocator {
 		super();
 	}
 
-	private Set<Class<?>> findClasses(PersistenceUnitInfo persistenceUnitInfo, URL url, final Set<Class<?>> classes) throws IOException, URISyntaxException {
+	private Set<Class<?>> findClasses(PersistenceUnitInfo persistenceUnitInfo, URL url) throws IOException, URISyntaxException {
 		final JarFile jarFile = new JarFile(url.toURI().getPath());
 
-		final Enumeration<JarEntry> entries = jarFile.entries();
-		while (entries.hasMoreElements()) {
-			final JarEntry entry = entries.nextElement();
+		try {
+			final List<Callable<String>> readers = Lists.newArrayList();
 
-			if (entry.isDirectory()) {
-				continue;
-			}
+			final Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				final JarEntry entry = entries.nextElement();
+
+				if (entry.isDirectory()) {
+					continue;
+				}
+
+				final String className = entry.getName().replace('/', '.').replace('\\', '.');
 
-			final String className = entry.getName().replace('/', '.').replace('\\', '.');
+				if (className.endsWith(".class")) {
+					final String candidateName = className.substring(0, className.length() - 6);
 
-			if (className.endsWith(".class")) {
-				final Class<?> clazz = this.isPersistentClass(persistenceUnitInfo.getClassLoader(), className.substring(0, className.length() - 6));
-				if (clazz != null) {
-					JarAnnotatedClassLocator.LOG.info("Found annotated class {0}", className);
+					readers.add(new Callable<String>() {
 
-					classes.add(clazz);
+						/**
+						 * {@inheritDoc}
+						 * 
+						 */
+						@Override
+						public String call() throws Exception {
+							return JarAnnotatedClassLocator.this.readPersistentClassName(jarFile.getInputStream(entry), candidateName);
+						}
+					});
 				}
 			}
-		}
-		
-		jarFile.close();
 
-		jarFile.close();
-
-		return classes;
+			return this.scanClasses(persistenceUnitInfo.getClassLoader(), readers);
+		}
+		finally {
+			jarFile.close();
+		}
 	}
 
 	/**
@@ -107,7 +120,9 @@ public class JarAnnotatedClassLocator extends BaseAnnotatedClassLocator {
 		try {
 			JarAnnotatedClassLocator.LOG.info("Checking persistence root {0} for persistence classes...", url.getFile());
 
-			return this.findClasses(persistenceUnitInfo, url, classes);
+			classes.addAll(this.findClasses(persistenceUnitInfo, url));
+
+			return classes;
 		}
 		catch (final URISyntaxException e) {
 			throw new PersistenceException("Unable to read JAR url: " + url, e);
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.accessor;
+
+import junit.framework.Assert;
+
+import org.batoo.common.reflect.AbstractAccessor;
+import org.batoo.common.reflect.PropertyAccessor;
+import org.batoo.common.reflect.ReflectHelper;
+import org.batoo.common.reflect.UnsafeFieldAccessor;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the generated accessors.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class AccessorTest extends BaseCoreTest {
+
+	private static void assertGenerated(AbstractAccessor accessor) {
+		Assert.assertFalse(accessor instanceof UnsafeFieldAccessor);
+		Assert.assertFalse(accessor instanceof PropertyAccessor);
+	}
+
+	/**
+	 * Tests the typed methods of the generated field accessors.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFieldAccessor() throws Exception {
+		final Foo foo = new Foo(1L);
+
+		final AbstractAccessor longAccessor = ReflectHelper.getAccessor(Foo.class.getDeclaredField("longValue"));
+		AccessorTest.assertGenerated(longAccessor);
+
+		longAccessor.setLong(foo, Long.MAX_VALUE);
+		Assert.assertEquals(Long.MAX_VALUE, foo.getLongValue());
+		Assert.assertEquals(Long.MAX_VALUE, longAccessor.getLong(foo));
+		Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), longAccessor.get(foo));
+
+		// generic set converts the numbers
+		longAccessor.set(foo, Integer.valueOf(5));
+		Assert.assertEquals(5L, foo.getLongValue());
+
+		final AbstractAccessor booleanAccessor = ReflectHelper.getAccessor(Foo.class.getDeclaredField("booleanValue"));
+		booleanAccessor.set(foo, Integer.valueOf(1));
+		Assert.assertTrue(foo.isBooleanValue());
+		booleanAccessor.setBoolean(foo, false);
+		Assert.assertEquals(Boolean.FALSE, booleanAccessor.get(foo));
+
+		final AbstractAccessor charAccessor = ReflectHelper.getAccessor(Foo.class.getDeclaredField("charValue"));
+		charAccessor.set(foo, null);
+		Assert.assertEquals('\u0000', foo.getCharValue());
+		charAccessor.setChar(foo, 'x');
+		Assert.assertEquals('x', charAccessor.getChar(foo));
+
+		final AbstractAccessor doubleAccessor = ReflectHelper.getAccessor(Foo.class.getDeclaredField("doubleValue"));
+		doubleAccessor.setDouble(foo, 1.5d);
+		Assert.assertEquals(1.5d, doubleAccessor.getDouble(foo));
+		Assert.assertEquals(1.5d, doubleAccessor.get(foo));
+
+		// typed methods of other types fall back to conversion
+		Assert.assertEquals(1, doubleAccessor.getInt(foo));
+	}
+
+	/**
+	 * Tests that the entities with package private primitive fields are persisted and loaded.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFields() {
+		final Foo foo = new Foo(1L);
+		foo.setBooleanValue(true);
+		foo.setByteValue((byte) 2);
+		foo.setCharValue('c');
+		foo.setDoubleValue(3.5d);
+		foo.setFloatValue(4.5f);
+		foo.setIntValue(5);
+		foo.setLongValue(6L);
+		foo.setShortValue((short) 7);
+
+		this.persist(foo);
+		this.commit();
+		this.close();
+
+		final Foo foo2 = this.find(Foo.class, 1L);
+		Assert.assertNotSame(foo, foo2);
+		Assert.assertEquals(true, foo2.isBooleanValue());
+		Assert.assertEquals((byte) 2, foo2.getByteValue());
+		Assert.assertEquals('c', foo2.getCharValue());
+		Assert.assertEquals(3.5d, foo2.getDoubleValue());
+		Assert.assertEquals(4.5f, foo2.getFloatValue());
+		Assert.assertEquals(5, foo2.getIntValue());
+		Assert.assertEquals(6L, foo2.getLongValue());
+		Assert.assertEquals((short) 7, foo2.getShortValue());
+	}
+
+	/**
+	 * Tests that the entities with property access are persisted, loaded and updated.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testProperties() throws Exception {
+		final AbstractAccessor quantityAccessor = ReflectHelper.getAccessor(Bar.class.getMethod("getQuantity"));
+		AccessorTest.assertGenerated(quantityAccessor);
+
+		final Bar bar = new Bar();
+		bar.setId(1L);
+		bar.setName("Bar1");
+		bar.setQuantity(3);
+		bar.setActive(true);
+
+		Assert.assertEquals(3, quantityAccessor.getInt(bar));
+
+		this.persist(bar);
+		this.commit();
+		this.close();
+
+		final Bar bar2 = this.find(Bar.class, 1L);
+		Assert.assertEquals("Bar1", bar2.getName());
+		Assert.assertEquals(3, bar2.getQuantity());
+		Assert.assertTrue(bar2.isActive());
+
+		this.begin();
+		bar2.setQuantity(4);
+		this.commit();
+		this.close();
+
+		Assert.assertEquals(4, this.find(Bar.class, 1L).getQuantity());
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.accessor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Entity with property access.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Bar {
+
+	private long id;
+	private boolean active;
+	private String name;
+	private int quantity;
+
+	/**
+	 * Returns the active of the Bar.
+	 * 
+	 * @return the active of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/**
+	 * Returns the id of the Bar.
+	 * 
+	 * @return the id of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	@Id
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Bar.
+	 * 
+	 * @return the name of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the quantity of the Bar.
+	 * 
+	 * @return the quantity of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getQuantity() {
+		return this.quantity;
+	}
+
+	/**
+	 * Sets the active of the Bar.
+	 * 
+	 * @param active
+	 *            the active to set for Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Sets the id of the Bar.
+	 * 
+	 * @param id
+	 *            the id to set for Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Sets the name of the Bar.
+	 * 
+	 * @param name
+	 *            the name to set for Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Sets the quantity of the Bar.
+	 * 
+	 * @param quantity
+	 *            the quantity to set for Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.accessor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Entity with package private primitive fields.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	long id;
+
+	boolean booleanValue;
+	byte byteValue;
+	char charValue;
+	double doubleValue;
+	float floatValue;
+	int intValue;
+	long longValue;
+	short shortValue;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param id
+	 *            the id
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(long id) {
+		super();
+
+		this.id = id;
+	}
+
+	/**
+	 * Returns the booleanValue of the Foo.
+	 * 
+	 * @return the booleanValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isBooleanValue() {
+		return this.booleanValue;
+	}
+
+	/**
+	 * Returns the byteValue of the Foo.
+	 * 
+	 * @return the byteValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public byte getByteValue() {
+		return this.byteValue;
+	}
+
+	/**
+	 * Returns the charValue of the Foo.
+	 * 
+	 * @return the charValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public char getCharValue() {
+		return this.charValue;
+	}
+
+	/**
+	 * Returns the doubleValue of the Foo.
+	 * 
+	 * @return the doubleValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public double getDoubleValue() {
+		return this.doubleValue;
+	}
+
+	/**
+	 * Returns the floatValue of the Foo.
+	 * 
+	 * @return the floatValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public float getFloatValue() {
+		return this.floatValue;
+	}
+
+	/**
+	 * Returns the id of the Foo.
+	 * 
+	 * @return the id of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the intValue of the Foo.
+	 * 
+	 * @return the intValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getIntValue() {
+		return this.intValue;
+	}
+
+	/**
+	 * Returns the longValue of the Foo.
+	 * 
+	 * @return the longValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getLongValue() {
+		return this.longValue;
+	}
+
+	/**
+	 * Returns the shortValue of the Foo.
+	 * 
+	 * @return the shortValue of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public short getShortValue() {
+		return this.shortValue;
+	}
+
+	/**
+	 * Sets the booleanValue of the Foo.
+	 * 
+	 * @param booleanValue
+	 *            the booleanValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setBooleanValue(boolean booleanValue) {
+		this.booleanValue = booleanValue;
+	}
+
+	/**
+	 * Sets the byteValue of the Foo.
+	 * 
+	 * @param byteValue
+	 *            the byteValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setByteValue(byte byteValue) {
+		this.byteValue = byteValue;
+	}
+
+	/**
+	 * Sets the charValue of the Foo.
+	 * 
+	 * @param charValue
+	 *            the charValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setCharValue(char charValue) {
+		this.charValue = charValue;
+	}
+
+	/**
+	 * Sets the doubleValue of the Foo.
+	 * 
+	 * @param doubleValue
+	 *            the doubleValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setDoubleValue(double doubleValue) {
+		this.doubleValue = doubleValue;
+	}
+
+	/**
+	 * Sets the floatValue of the Foo.
+	 * 
+	 * @param floatValue
+	 *            the floatValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setFloatValue(float floatValue) {
+		this.floatValue = floatValue;
+	}
+
+	/**
+	 * Sets the intValue of the Foo.
+	 * 
+	 * @param intValue
+	 *            the intValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setIntValue(int intValue) {
+		this.intValue = intValue;
+	}
+
+	/**
+	 * Sets the longValue of the Foo.
+	 * 
+	 * @param longValue
+	 *            the longValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setLongValue(long longValue) {
+		this.longValue = longValue;
+	}
+
+	/**
+	 * Sets the shortValue of the Foo.
+	 * 
+	 * @param shortValue
+	 *            the shortValue to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setShortValue(short shortValue) {
+		this.shortValue = shortValue;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.binding;
+
+import java.util.Date;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.core.test.binding.Foo.FooType;
+import org.junit.Test;
+
+/**
+ * Tests for binding the parameters directly to the statements.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class BindingTest extends BaseCoreTest {
+
+	private Foo newFoo(long id) {
+		final Foo foo = new Foo(id);
+
+		foo.setActive(true);
+		foo.setAmount(1.5d);
+		foo.setQuantity(3);
+		foo.setCount(4);
+		foo.setName("Foo" + id);
+		foo.setCreated(new Date(1000000L));
+		foo.setType(FooType.LARGE);
+
+		return foo;
+	}
+
+	/**
+	 * Tests that the primitive and converted values are inserted.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testInsert() {
+		this.persist(this.newFoo(1L));
+		this.persist(new Foo(2L));
+		this.commit();
+		this.close();
+
+		final Foo foo = this.find(Foo.class, 1L);
+		Assert.assertTrue(foo.isActive());
+		Assert.assertEquals(1.5d, foo.getAmount());
+		Assert.assertEquals(3, foo.getQuantity());
+		Assert.assertEquals(Integer.valueOf(4), foo.getCount());
+		Assert.assertEquals("Foo1", foo.getName());
+		Assert.assertEquals(1000000L, foo.getCreated().getTime());
+		Assert.assertEquals(FooType.LARGE, foo.getType());
+
+		final Foo foo2 = this.find(Foo.class, 2L);
+		Assert.assertFalse(foo2.isActive());
+		Assert.assertEquals(0, foo2.getQuantity());
+		Assert.assertNull(foo2.getCount());
+		Assert.assertNull(foo2.getName());
+		Assert.assertNull(foo2.getCreated());
+		Assert.assertNull(foo2.getType());
+	}
+
+	/**
+	 * Tests that the instances are removed.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testRemove() {
+		for (long i = 1; i <= 3; i++) {
+			this.persist(this.newFoo(i));
+		}
+		this.commit();
+		this.close();
+
+		this.begin();
+		this.remove(this.find(Foo.class, 1L));
+		this.remove(this.find(Foo.class, 2L));
+		this.commit();
+		this.close();
+
+		Assert.assertNull(this.find(Foo.class, 1L));
+		Assert.assertNull(this.find(Foo.class, 2L));
+		Assert.assertNotNull(this.find(Foo.class, 3L));
+	}
+
+	/**
+	 * Tests that the values are updated including the <code>null</code>s and the version restriction.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testUpdate() {
+		this.persist(this.newFoo(1L));
+		this.commit();
+		this.close();
+
+		this.begin();
+		final Foo foo = this.find(Foo.class, 1L);
+		final int version = foo.getVersion();
+
+		foo.setActive(false);
+		foo.setQuantity(5);
+		foo.setCount(null);
+		foo.setName(null);
+		foo.setCreated(null);
+		foo.setType(FooType.SMALL);
+		this.commit();
+		this.close();
+
+		final Foo foo2 = this.find(Foo.class, 1L);
+		Assert.assertEquals(version + 1, foo2.getVersion());
+		Assert.assertFalse(foo2.isActive());
+		Assert.assertEquals(5, foo2.getQuantity());
+		Assert.assertNull(foo2.getCount());
+		Assert.assertNull(foo2.getName());
+		Assert.assertNull(foo2.getCreated());
+		Assert.assertEquals(FooType.SMALL, foo2.getType());
+	}
+}
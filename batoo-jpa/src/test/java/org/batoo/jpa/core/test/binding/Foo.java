@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.binding;
+
+import java.util.Date;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.Version;
+
+/**
+ * Entity with primitive, wrapper and converted attributes.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	/**
+	 * The type of the foo.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	public enum FooType {
+		/**
+		 * Small foo.
+		 */
+		SMALL,
+
+		/**
+		 * Large foo.
+		 */
+		LARGE
+	}
+
+	@Id
+	private long id;
+
+	@Version
+	private int version;
+
+	private boolean active;
+	private double amount;
+	private int quantity;
+
+	private Integer count;
+	private String name;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date created;
+
+	@Enumerated(EnumType.STRING)
+	private FooType type;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param id
+	 *            the id
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(long id) {
+		super();
+
+		this.id = id;
+	}
+
+	/**
+	 * Returns the amount of the Foo.
+	 * 
+	 * @return the amount of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public double getAmount() {
+		return this.amount;
+	}
+
+	/**
+	 * Returns the count of the Foo.
+	 * 
+	 * @return the count of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the created of the Foo.
+	 * 
+	 * @return the created of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Date getCreated() {
+		return this.created;
+	}
+
+	/**
+	 * Returns the id of the Foo.
+	 * 
+	 * @return the id of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Foo.
+	 * 
+	 * @return the name of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the quantity of the Foo.
+	 * 
+	 * @return the quantity of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getQuantity() {
+		return this.quantity;
+	}
+
+	/**
+	 * Returns the type of the Foo.
+	 * 
+	 * @return the type of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public FooType getType() {
+		return this.type;
+	}
+
+	/**
+	 * Returns the version of the Foo.
+	 * 
+	 * @return the version of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Returns the active of the Foo.
+	 * 
+	 * @return the active of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/**
+	 * Sets the active of the Foo.
+	 * 
+	 * @param active
+	 *            the active to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	/**
+	 * Sets the amount of the Foo.
+	 * 
+	 * @param amount
+	 *            the amount to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setAmount(double amount) {
+		this.amount = amount;
+	}
+
+	/**
+	 * Sets the count of the Foo.
+	 * 
+	 * @param count
+	 *            the count to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setCount(Integer count) {
+		this.count = count;
+	}
+
+	/**
+	 * Sets the created of the Foo.
+	 * 
+	 * @param created
+	 *            the created to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setCreated(Date created) {
+		this.created = created;
+	}
+
+	/**
+	 * Sets the name of the Foo.
+	 * 
+	 * @param name
+	 *            the name to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Sets the quantity of the Foo.
+	 * 
+	 * @param quantity
+	 *            the quantity to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Sets the type of the Foo.
+	 * 
+	 * @param type
+	 *            the type to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setType(FooType type) {
+		this.type = type;
+	}
+}
@@ -19,6 +19,15 @@
 
 package org.batoo.jpa.core.test.ddl;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
 import org.batoo.jpa.core.test.BaseCoreTest;
 import org.junit.Test;
 
@@ -80,4 +89,44 @@ public class DdlTest extends BaseCoreTest {
 		this.setupEmf("update2").close();
 	}
 
+	/**
+	 * Tests the ddl update mode against the existing tables, verifying the columns are added based on the metadata read in bulk.
+	 * 
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDdlTEST4_UpdateExisting() throws SQLException {
+		// keep the database alive in between the entity manager factories
+		final Connection connection = DriverManager.getConnection(System.getProperty("javax.persistence.jdbc.url"), //
+			System.getProperty("javax.persistence.jdbc.user"), System.getProperty("javax.persistence.jdbc.password"));
+
+		try {
+			this.setupEmf("update1").close();
+
+			final EntityManagerFactoryImpl emf = this.setupEmf("update2");
+			try {
+				// the tables without a schema are read in bulk from the current schema
+				Assert.assertNotNull(emf.getMetamodel().getJdbcAdaptor().getCurrentSchema(connection));
+
+				final DatabaseMetaData dbMetadata = connection.getMetaData();
+
+				final ResultSet rs = dbMetadata.getColumns(null, null, "CUSTOMER", "TITLE");
+				try {
+					Assert.assertTrue(rs.next());
+				}
+				finally {
+					rs.close();
+				}
+			}
+			finally {
+				emf.close();
+			}
+		}
+		finally {
+			connection.close();
+		}
+	}
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.deploymentindex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.persistence.spi.PersistenceUnitInfo;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.batoo.jpa.BJPASettings;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.parser.impl.acl.BaseAnnotatedClassLocator;
+import org.batoo.jpa.parser.impl.acl.DeploymentIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests for the deployment index of the persistent classes.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class DeploymentIndexTest extends BaseCoreTest {
+
+	private static PersistenceUnitInfo puInfo(final URL root, final File cacheDir) {
+		final Properties properties = new Properties();
+		if (cacheDir != null) {
+			properties.put(BJPASettings.DEPLOYMENT_INDEX, cacheDir.getAbsolutePath());
+		}
+
+		return (PersistenceUnitInfo) Proxy.newProxyInstance(DeploymentIndexTest.class.getClassLoader(),
+			new Class<?>[] { PersistenceUnitInfo.class }, new InvocationHandler() {
+
+				/**
+				 * {@inheritDoc}
+				 * 
+				 */
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					final String name = method.getName();
+
+					if ("getClassLoader".equals(name)) {
+						return Foo.class.getClassLoader();
+					}
+
+					if ("getJarFileUrls".equals(name)) {
+						return Collections.singletonList(root);
+					}
+
+					if ("getManagedClassNames".equals(name)) {
+						return Collections.emptyList();
+					}
+
+					if ("excludeUnlistedClasses".equals(name)) {
+						return true;
+					}
+
+					if ("getProperties".equals(name)) {
+						return properties;
+					}
+
+					throw new UnsupportedOperationException(name);
+				}
+			});
+	}
+
+	private File dir;
+
+	private void copyClass(Class<?> clazz) throws Exception {
+		final String name = clazz.getName().replace('.', '/') + ".class";
+
+		final InputStream is = clazz.getClassLoader().getResourceAsStream(name);
+		try {
+			FileUtils.copyInputStreamToFile(is, new File(this.dir, "classes/" + name));
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Creates the class directory.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Before
+	public void createClasses() throws Exception {
+		this.dir = File.createTempFile("index", "");
+		this.dir.delete();
+
+		this.copyClass(Foo.class);
+		this.copyClass(Bar.class);
+	}
+
+	/**
+	 * Deletes the class directory.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@After
+	public void deleteClasses() throws Exception {
+		FileUtils.deleteDirectory(this.dir);
+	}
+
+	private File getClasses() {
+		return new File(this.dir, "classes");
+	}
+
+	/**
+	 * Tests that the index built into the root is used.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testBuiltIn() throws Exception {
+		final File indexFile = new File(this.getClasses(), DeploymentIndex.INDEX_FILE);
+		indexFile.getParentFile().mkdirs();
+
+		// deliberately leave out bar to tell the index from scanning
+		DeploymentIndex.write(new FileOutputStream(indexFile), DeploymentIndex.fingerprint(this.getClasses()),
+			Collections.singletonList(Foo.class.getName()));
+
+		final URL root = this.getClasses().toURI().toURL();
+		Assert.assertEquals(Sets.<Class<?>> newHashSet(Foo.class), BaseAnnotatedClassLocator.locatePersistentClasses(DeploymentIndexTest.puInfo(root, null)));
+
+		// once the classes change the index is ignored
+		this.copyClass(DeploymentIndexTest.class);
+
+		Assert.assertEquals(Sets.<Class<?>> newHashSet(Foo.class, Bar.class),
+			BaseAnnotatedClassLocator.locatePersistentClasses(DeploymentIndexTest.puInfo(root, null)));
+	}
+
+	/**
+	 * Tests that the index is cached on the first run and used afterwards.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCache() throws Exception {
+		final File cacheDir = new File(this.dir, "cache");
+		final URL root = this.getClasses().toURI().toURL();
+		final PersistenceUnitInfo puInfo = DeploymentIndexTest.puInfo(root, cacheDir);
+
+		Assert.assertNull(DeploymentIndex.load(puInfo, root));
+
+		final Set<Class<?>> classes = BaseAnnotatedClassLocator.locatePersistentClasses(puInfo);
+		Assert.assertEquals(Sets.<Class<?>> newHashSet(Foo.class, Bar.class), classes);
+
+		Assert.assertEquals(1, cacheDir.list().length);
+		Assert.assertEquals(Sets.newHashSet(Foo.class.getName(), Bar.class.getName()), DeploymentIndex.load(puInfo, root));
+		Assert.assertEquals(classes, BaseAnnotatedClassLocator.locatePersistentClasses(puInfo));
+
+		// once the classes change the cache is stale
+		this.copyClass(DeploymentIndexTest.class);
+		Assert.assertNull(DeploymentIndex.load(puInfo, root));
+	}
+
+	/**
+	 * Tests the fingerprint of the roots.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFingerprint() throws Exception {
+		final String fingerprint = DeploymentIndex.fingerprint(this.getClasses());
+		Assert.assertEquals(fingerprint, DeploymentIndex.fingerprint(this.getClasses()));
+
+		// non class files do not count
+		FileUtils.writeStringToFile(new File(this.getClasses(), "readme.txt"), "readme");
+		Assert.assertEquals(fingerprint, DeploymentIndex.fingerprint(this.getClasses()));
+
+		// the same class packaged into a jar
+		final File jar = new File(this.dir, "classes.jar");
+		final JarOutputStream os = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			for (final Class<?> clazz : new Class<?>[] { Foo.class, Bar.class }) {
+				final String name = clazz.getName().replace('.', '/') + ".class";
+
+				final File file = new File(this.getClasses(), name);
+
+				final JarEntry entry = new JarEntry(name);
+				entry.setTime(file.lastModified());
+
+				os.putNextEntry(entry);
+				os.write(FileUtils.readFileToByteArray(file));
+				os.closeEntry();
+			}
+		}
+		finally {
+			os.close();
+		}
+
+		Assert.assertEquals(fingerprint, DeploymentIndex.fingerprint(jar));
+
+		// a class rebuilt with the same size
+		final File foo = new File(this.getClasses(), Foo.class.getName().replace('.', '/') + ".class");
+		final long lastModified = foo.lastModified();
+		foo.setLastModified(lastModified + 10000);
+
+		Assert.assertFalse(fingerprint.equals(DeploymentIndex.fingerprint(this.getClasses())));
+
+		foo.setLastModified(lastModified);
+		Assert.assertEquals(fingerprint, DeploymentIndex.fingerprint(this.getClasses()));
+
+		this.copyClass(DeploymentIndexTest.class);
+		Assert.assertFalse(fingerprint.equals(DeploymentIndex.fingerprint(this.getClasses())));
+	}
+}
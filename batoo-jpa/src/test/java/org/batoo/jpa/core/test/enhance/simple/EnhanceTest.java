@@ -20,14 +20,23 @@
 package org.batoo.jpa.core.test.enhance.simple;
 
 import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.persistence.metamodel.EntityType;
 
+import junit.framework.Assert;
+
 import org.batoo.jpa.core.impl.instance.Enhancer;
 import org.batoo.jpa.core.impl.manager.SessionImpl;
 import org.batoo.jpa.core.test.BaseCoreTest;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * 
  * @author hceylan
@@ -51,4 +60,39 @@ public class EnhanceTest extends BaseCoreTest {
 		final Constructor<? extends Person> constructor = enhanced.getConstructor(Class.class, SessionImpl.class, Object.class, boolean.class);
 		constructor.newInstance(null, null, null, true);
 	}
+
+	/**
+	 * Tests the concurrent enhancement of the same type yields a single class.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testEnhanceConcurrently() throws Exception {
+		final EntityType<Person> type = this.em().getMetamodel().entity(Person.class);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Class<? extends Person>>> futures = Lists.newArrayList();
+			for (int i = 0; i < 32; i++) {
+				futures.add(executor.submit(new Callable<Class<? extends Person>>() {
+
+					@Override
+					public Class<? extends Person> call() throws Exception {
+						return Enhancer.enhance(type);
+					}
+				}));
+			}
+
+			final Class<? extends Person> enhanced = Enhancer.enhance(type);
+			for (final Future<Class<? extends Person>> future : futures) {
+				Assert.assertSame(enhanced, future.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.identitymap;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.manager.SessionImpl;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the primitive keyed identity map of the session.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class IdentityMapTest extends BaseCoreTest {
+
+	private static final int COUNT = 100;
+
+	private static long key(int i) {
+		// spread the keys to cover negative and large values
+		return ((i % 2) == 0 ? 1 : -1) * (i * 0x100000001L);
+	}
+
+	private void persistFoos() {
+		for (int i = 0; i < IdentityMapTest.COUNT; i++) {
+			this.persist(new Foo(IdentityMapTest.key(i), "Foo" + i));
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	/**
+	 * Tests that the instances are located in the session regardless of the wrapper type of the primary key.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFind() {
+		this.persistFoos();
+
+		for (int i = 0; i < IdentityMapTest.COUNT; i++) {
+			final Foo foo = this.find(Foo.class, IdentityMapTest.key(i));
+
+			Assert.assertEquals("Foo" + i, foo.getValue());
+			Assert.assertSame(foo, this.find(Foo.class, IdentityMapTest.key(i)));
+			Assert.assertSame(foo, this.reference(Foo.class, IdentityMapTest.key(i)));
+		}
+
+		Assert.assertSame(this.find(Foo.class, 0L), this.find(Foo.class, 0));
+	}
+
+	/**
+	 * Tests that the ids of non integral types are not narrowed to the primitive keys.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testNonIntegralId() {
+		this.persistFoos();
+
+		final Foo foo = this.find(Foo.class, 0L);
+		Assert.assertNotNull(foo);
+
+		final SessionImpl session = this.em().getSession();
+		final EntityTypeImpl<Foo> type = this.em().getMetamodel().entity(Foo.class);
+
+		Assert.assertSame(foo, session.get(type, 0L).getInstance());
+		Assert.assertNull(session.get(type, 0.5d));
+	}
+
+	/**
+	 * Tests that the instances loaded by queries are the same as the ones located by find.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testQuery() {
+		this.persistFoos();
+
+		final Foo foo = this.find(Foo.class, IdentityMapTest.key(1));
+
+		final List<Foo> foos = this.cq("select f from Foo f", Foo.class).getResultList();
+		Assert.assertEquals(IdentityMapTest.COUNT, foos.size());
+		Assert.assertTrue(foos.contains(foo));
+
+		for (final Foo foo2 : foos) {
+			Assert.assertSame(foo2, this.find(Foo.class, foo2.getKey()));
+		}
+	}
+
+	/**
+	 * Tests the removals and clears in the session.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testRemoveAndClear() {
+		this.persistFoos();
+
+		for (int i = 0; i < IdentityMapTest.COUNT; i += 2) {
+			this.remove(this.find(Foo.class, IdentityMapTest.key(i)));
+		}
+
+		this.commit();
+		this.close();
+
+		for (int i = 0; i < IdentityMapTest.COUNT; i++) {
+			final Foo foo = this.find(Foo.class, IdentityMapTest.key(i));
+			if ((i % 2) == 0) {
+				Assert.assertNull(foo);
+			}
+			else {
+				Assert.assertEquals("Foo" + i, foo.getValue());
+			}
+		}
+
+		final Foo foo = this.find(Foo.class, IdentityMapTest.key(1));
+
+		this.em().clear();
+
+		Assert.assertNotSame(foo, this.find(Foo.class, IdentityMapTest.key(1)));
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.jmx;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE)
+	private Integer id;
+
+	private String name;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(String name) {
+		super();
+
+		this.name = name;
+	}
+
+	/**
+	 * Returns the id of the Foo.
+	 * 
+	 * @return the id of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Foo.
+	 * 
+	 * @return the name of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+}
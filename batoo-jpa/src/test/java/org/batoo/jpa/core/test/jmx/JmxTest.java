@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.jmx;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.jmx.MBeanRegistrar;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the management beans.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class JmxTest extends BaseCoreTest {
+
+	private static final String QUERY = "select f from Foo f where f.name = :name";
+
+	private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+	/**
+	 * Tests the connection pool bean.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDataSourcePool() throws Exception {
+		this.persist(new Foo("foo"));
+		this.commit();
+
+		final ObjectName name = MBeanRegistrar.getObjectName("DataSourcePool", "default");
+		Assert.assertTrue(this.server.isRegistered(name));
+
+		Assert.assertTrue((Integer) this.server.getAttribute(name, "MaxConnections") > 0);
+		Assert.assertTrue((Integer) this.server.getAttribute(name, "TotalCreatedConnections") > 0);
+		Assert.assertTrue((Integer) this.server.getAttribute(name, "TotalLeased") >= 0);
+		Assert.assertTrue((Integer) this.server.getAttribute(name, "TotalFree") >= 0);
+	}
+
+	/**
+	 * Tests the persistence unit bean.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testPersistenceUnit() throws Exception {
+		this.persist(new Foo("foo"));
+		this.commit();
+		this.close();
+
+		final ObjectName name = MBeanRegistrar.getObjectName("PersistenceUnit", "default");
+		Assert.assertTrue(this.server.isRegistered(name));
+		Assert.assertEquals("default", this.server.getAttribute(name, "Name"));
+
+		for (int i = 0; i < 3; i++) {
+			this.cq(JmxTest.QUERY, Foo.class).setParameter("name", "foo").getResultList();
+		}
+
+		Assert.assertEquals(1L, this.server.getAttribute(name, "EntityInsertCount"));
+		Assert.assertEquals(1L, this.server.getAttribute(name, "FlushCount"));
+		Assert.assertEquals(3L, this.server.getAttribute(name, "QueryExecutionCount"));
+		Assert.assertTrue((Integer) this.server.getAttribute(name, "JpqlCacheSize") > 0);
+		Assert.assertTrue((Double) this.server.getAttribute(name, "JpqlCacheHitRatio") > 0);
+		Assert.assertFalse(((TabularData) this.server.getAttribute(name, "IdQueueSizes")).isEmpty());
+
+		final String[] slowest = (String[]) this.server.invoke(name, "listSlowestSqls", new Object[] { 2 }, new String[] { int.class.getName() });
+		Assert.assertEquals(2, slowest.length);
+
+		this.server.invoke(name, "clearJpqlCache", null, null);
+		Assert.assertEquals(0, this.server.getAttribute(name, "JpqlCacheSize"));
+
+		this.server.invoke(name, "resetStatistics", null, null);
+		Assert.assertEquals(0L, this.server.getAttribute(name, "QueryExecutionCount"));
+		Assert.assertEquals(0L, this.server.getAttribute(name, "JpqlCacheHitCount"));
+	}
+
+	/**
+	 * Tests the beans are unregistered when the entity manager factory is closed.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testUnregister() {
+		final ObjectName name = MBeanRegistrar.getObjectName("PersistenceUnit", "default");
+		Assert.assertTrue(this.server.isRegistered(name));
+
+		this.emf().close();
+
+		Assert.assertFalse(this.server.isRegistered(name));
+		Assert.assertFalse(this.server.isRegistered(MBeanRegistrar.getObjectName("DataSourcePool", "default")));
+	}
+}
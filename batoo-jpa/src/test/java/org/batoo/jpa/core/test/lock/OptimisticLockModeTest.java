@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.lock;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the OPTIMISTIC and OPTIMISTIC_FORCE_INCREMENT lock modes.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class OptimisticLockModeTest extends BaseCoreTest {
+
+	private static final String QUERY = "select f from Foo f order by f.id";
+
+	private static final int COUNT = 25;
+
+	private void assertVersions(int version) {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			for (final Foo foo : em.createQuery(OptimisticLockModeTest.QUERY, Foo.class).getResultList()) {
+				Assert.assertEquals(Integer.valueOf(version), foo.getVersion());
+			}
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	private void createFoos() {
+		for (int i = 0; i < OptimisticLockModeTest.COUNT; i++) {
+			final Foo foo = new Foo();
+			foo.setValue("test" + i);
+
+			this.persist(foo);
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	private void updateFirst() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			final EntityTransaction tx = em.getTransaction();
+			tx.begin();
+
+			em.createQuery(OptimisticLockModeTest.QUERY, Foo.class).setMaxResults(1).getSingleResult().setValue("updated");
+
+			tx.commit();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Tests the versions of the query results are incremented with the commit.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testForceIncrement() {
+		this.createFoos();
+
+		this.begin();
+		final List<Foo> foos = this.cq(OptimisticLockModeTest.QUERY, Foo.class).setLockMode(LockModeType.OPTIMISTIC_FORCE_INCREMENT).getResultList();
+		Assert.assertEquals(OptimisticLockModeTest.COUNT, foos.size());
+
+		this.assertVersions(1);
+
+		this.commit();
+
+		for (final Foo foo : foos) {
+			Assert.assertEquals(Integer.valueOf(2), foo.getVersion());
+		}
+
+		this.assertVersions(2);
+	}
+
+	/**
+	 * Tests the version increment fails when a result is updated by a different transaction.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test(expected = PersistenceException.class)
+	public void testForceIncrementConflict() {
+		this.createFoos();
+
+		this.begin();
+		this.cq(OptimisticLockModeTest.QUERY, Foo.class).setLockMode(LockModeType.OPTIMISTIC_FORCE_INCREMENT).getResultList();
+
+		this.updateFirst();
+
+		this.commit();
+	}
+
+	/**
+	 * Tests the version of an instance updated in the transaction is incremented once more with the commit.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testForceIncrementUpdated() {
+		this.createFoos();
+
+		this.begin();
+		final Foo foo = this.cq(OptimisticLockModeTest.QUERY, Foo.class).setMaxResults(1).getSingleResult();
+		foo.setValue("updated");
+		this.flush();
+
+		this.em().lock(foo, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+		this.commit();
+
+		Assert.assertEquals(Integer.valueOf(3), foo.getVersion());
+	}
+
+	/**
+	 * Tests the versions of the query results are checked with the commit and left as is.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testOptimistic() {
+		this.createFoos();
+
+		this.begin();
+		final List<Foo> foos = this.cq(OptimisticLockModeTest.QUERY, Foo.class).setLockMode(LockModeType.OPTIMISTIC).getResultList();
+		Assert.assertEquals(OptimisticLockModeTest.COUNT, foos.size());
+
+		foos.get(1).setValue("updated");
+
+		this.commit();
+
+		Assert.assertEquals(Integer.valueOf(1), foos.get(0).getVersion());
+		Assert.assertEquals(Integer.valueOf(2), foos.get(1).getVersion());
+	}
+
+	/**
+	 * Tests the version check fails when a result is updated by a different transaction.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test(expected = PersistenceException.class)
+	public void testOptimisticConflict() {
+		this.createFoos();
+
+		this.begin();
+		this.cq(OptimisticLockModeTest.QUERY, Foo.class).setLockMode(LockModeType.OPTIMISTIC).getResultList();
+
+		this.updateFirst();
+
+		this.commit();
+	}
+
+	/**
+	 * Tests the version check is not lost to the flush of a query before the commit.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test(expected = PersistenceException.class)
+	public void testOptimisticConflictAfterFlush() {
+		this.createFoos();
+
+		this.begin();
+		this.cq(OptimisticLockModeTest.QUERY, Foo.class).setLockMode(LockModeType.OPTIMISTIC).getResultList();
+
+		// the query flushes the session
+		this.cq(OptimisticLockModeTest.QUERY, Foo.class).getResultList();
+
+		this.updateFirst();
+
+		this.commit();
+	}
+}
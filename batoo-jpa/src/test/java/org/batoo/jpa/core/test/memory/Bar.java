@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.memory;
+
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Bar {
+
+	@Id
+	private long id;
+
+	private String name;
+
+	@OneToMany(mappedBy = "bar")
+	private final List<Foo> foos = Lists.newArrayList();
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Bar() {
+		super();
+	}
+
+	/**
+	 * @param id
+	 *            the id
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Bar(long id, String name) {
+		super();
+
+		this.id = id;
+		this.name = name;
+	}
+
+	/**
+	 * Returns the foos.
+	 * 
+	 * @return the foos
+	 * @since 2.0.1
+	 */
+	public List<Foo> getFoos() {
+		return this.foos;
+	}
+
+	/**
+	 * Returns the id.
+	 * 
+	 * @return the id
+	 * @since 2.0.1
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+}
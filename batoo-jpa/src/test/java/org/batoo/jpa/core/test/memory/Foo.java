@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.memory;
+
+import java.util.Date;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	private long id;
+
+	private String name;
+
+	private int quantity;
+
+	private double price;
+
+	private boolean active;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date created;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Bar bar;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param id
+	 *            the id
+	 * @param bar
+	 *            the bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(long id, Bar bar) {
+		super();
+
+		this.id = id;
+		this.bar = bar;
+		this.name = "Foo" + id;
+		this.quantity = (int) id;
+		this.price = id / 100d;
+		this.active = (id % 2) == 0;
+		this.created = new Date(id);
+	}
+
+	/**
+	 * Returns the bar.
+	 * 
+	 * @return the bar
+	 * @since 2.0.1
+	 */
+	public Bar getBar() {
+		return this.bar;
+	}
+
+	/**
+	 * Returns the id.
+	 * 
+	 * @return the id
+	 * @since 2.0.1
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the name.
+	 * 
+	 * @param name
+	 *            the name to set
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.memory;
+
+import java.util.List;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Measures the heap retained per managed entity by the persistence context.
+ * <p>
+ * Not part of the regular test run, run explicitly with the log level set to INFO or above. The overhead is
+ * reported as the retained size of the managed entities minus the retained size of the same number of plain entity instances.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MemoryBenchmark extends BaseCoreTest {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(MemoryBenchmark.class);
+
+	private static final int COUNT = 20000;
+	private static final int BARS = 100;
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+
+			try {
+				Thread.sleep(50);
+			}
+			catch (final InterruptedException e) {}
+
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+
+		return used;
+	}
+
+	private void persistFoos() {
+		final List<Bar> bars = Lists.newArrayList();
+		for (int i = 0; i < MemoryBenchmark.BARS; i++) {
+			final Bar bar = new Bar(i, "Bar" + i);
+
+			this.persist(bar);
+			bars.add(bar);
+		}
+
+		for (int i = 0; i < MemoryBenchmark.COUNT; i++) {
+			this.persist(new Foo(i, bars.get(i % MemoryBenchmark.BARS)));
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	private void report(String scenario, long managed, long plain) {
+		MemoryBenchmark.LOG.info("{0}: {1} bytes per managed entity, {2} bytes per plain entity, {3} bytes persistence context overhead", //
+			scenario, managed / MemoryBenchmark.COUNT, plain / MemoryBenchmark.COUNT, (managed - plain) / MemoryBenchmark.COUNT);
+	}
+
+	private long retainPlain() {
+		final Bar bar = new Bar(0, "Bar");
+
+		final long start = MemoryBenchmark.usedHeap();
+
+		final List<Foo> foos = Lists.newArrayListWithCapacity(MemoryBenchmark.COUNT);
+		for (int i = 0; i < MemoryBenchmark.COUNT; i++) {
+			foos.add(new Foo(i, bar));
+		}
+
+		final long retained = MemoryBenchmark.usedHeap() - start;
+
+		return foos.size() > 0 ? retained : 0;
+	}
+
+	/**
+	 * Measures the entities loaded by a query.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLoaded() {
+		this.persistFoos();
+
+		final long plain = this.retainPlain();
+
+		this.em();
+
+		final long start = MemoryBenchmark.usedHeap();
+
+		final List<Foo> foos = this.cq("select f from Foo f", Foo.class).getResultList();
+
+		final long managed = MemoryBenchmark.usedHeap() - start;
+
+		this.report("Loaded", foos.size() > 0 ? managed : 0, plain);
+	}
+
+	/**
+	 * Measures the entities that are persisted and flushed.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testPersisted() {
+		final long plain = this.retainPlain();
+
+		final Bar bar = new Bar(0, "Bar");
+		this.persist(bar);
+		this.flush();
+
+		final long start = MemoryBenchmark.usedHeap();
+
+		final List<Foo> foos = Lists.newArrayListWithCapacity(MemoryBenchmark.COUNT);
+		for (int i = 0; i < MemoryBenchmark.COUNT; i++) {
+			final Foo foo = new Foo(i, bar);
+
+			this.persist(foo);
+			foos.add(foo);
+		}
+
+		this.flush();
+
+		final long managed = MemoryBenchmark.usedHeap() - start;
+
+		this.report("Persisted", managed, plain);
+
+		this.rollback();
+	}
+
+	/**
+	 * Measures the entities that are loaded and then updated.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testUpdated() {
+		this.persistFoos();
+
+		final long plain = this.retainPlain();
+
+		this.em();
+
+		final long start = MemoryBenchmark.usedHeap();
+
+		final List<Foo> foos = this.cq("select f from Foo f", Foo.class).getResultList();
+		for (final Foo foo : foos) {
+			foo.setName(foo.getName() + "*");
+		}
+
+		final long managed = MemoryBenchmark.usedHeap() - start;
+
+		this.report("Updated", managed, plain);
+	}
+}
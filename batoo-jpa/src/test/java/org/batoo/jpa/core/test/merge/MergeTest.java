@@ -26,6 +26,8 @@ import javax.sql.DataSource;
 
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.stats.SqlStatistics;
+import org.batoo.jpa.core.stats.Statistics;
 import org.batoo.jpa.core.test.BaseCoreTest;
 import org.batoo.jpa.jdbc.dbutils.QueryRunner;
 import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
@@ -136,6 +138,18 @@ public class MergeTest extends BaseCoreTest {
 		return counts;
 	}
 
+	private long getSelectCount(Statistics statistics) {
+		long count = 0;
+
+		for (final SqlStatistics sql : statistics.getSqlStatistics()) {
+			if (sql.getSql().trim().toUpperCase().startsWith("SELECT")) {
+				count += sql.getExecutionCount();
+			}
+		}
+
+		return count;
+	}
+
 	/**
 	 * Tests the simple merge
 	 * 
@@ -150,6 +164,92 @@ public class MergeTest extends BaseCoreTest {
 		Assert.assertTrue(Arrays.equals(new int[] { 2, 2, 2, 2 }, this.getCounts2()));
 	}
 
+	/**
+	 * Tests the merge of existing children moved to a new parent, prefetching the children in batches.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testMergeDetachedChildren() {
+		final Parent parent = new Parent(-1, MergeTest.VALUE);
+		for (int i = 0; i < 25; i++) {
+			new Child1(-1, parent, MergeTest.VALUE);
+		}
+
+		this.persist(parent);
+		this.commit();
+		this.close();
+
+		final Parent newParent = new Parent(-1, MergeTest.VALUE);
+		for (final Child1 child : parent.getChildren1()) {
+			child.setParent(newParent);
+			newParent.getChildren1().add(child);
+		}
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+		statistics.setEnabled(true);
+
+		final Parent merged = this.merge(newParent);
+		Assert.assertEquals(25, merged.getChildren1().size());
+
+		// the children are prefetched by the remove batch size of 10
+		Assert.assertEquals(3, this.getSelectCount(statistics));
+
+		this.commit();
+		this.close();
+
+		Assert.assertEquals(25, this.find(Parent.class, merged.getId()).getChildren1().size());
+	}
+
+	/**
+	 * Tests the merge of a detached graph with the children prefetched by the merge planner
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testMergeDetachedGraph() {
+		final Parent parent = new Parent(-1, MergeTest.VALUE);
+		for (int i = 0; i < 25; i++) {
+			new Child1(-1, parent, MergeTest.VALUE);
+		}
+
+		this.persist(parent);
+		this.commit();
+		this.close();
+
+		for (final Child1 child : parent.getChildren1()) {
+			child.setValue(MergeTest.VALUE + child.getId());
+		}
+
+		new Child1(-1, parent, MergeTest.VALUE);
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+		statistics.setEnabled(true);
+
+		final Parent merged = this.merge(parent);
+		Assert.assertEquals(26, merged.getChildren1().size());
+
+		// the parent, and its children loaded with the collections rather than one by one
+		Assert.assertEquals(3, this.getSelectCount(statistics));
+
+		this.commit();
+		this.close();
+
+		final Parent found = this.find(Parent.class, parent.getId());
+		Assert.assertEquals(26, found.getChildren1().size());
+
+		int updated = 0;
+		for (final Child1 child : found.getChildren1()) {
+			if ((MergeTest.VALUE + child.getId()).equals(child.getValue())) {
+				updated++;
+			}
+		}
+
+		Assert.assertEquals(25, updated);
+	}
+
 	/**
 	 * Tests the simple merge
 	 * 
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.scan;
+
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+
+/**
+ * Entity located by scanning.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo extends Base {
+
+	@Embedded
+	private Bar bar;
+
+	/**
+	 * Returns the bar of the Foo.
+	 * 
+	 * @return the bar of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Bar getBar() {
+		return this.bar;
+	}
+
+	/**
+	 * Sets the bar of the Foo.
+	 * 
+	 * @param bar
+	 *            the bar to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setBar(Bar bar) {
+		this.bar = bar;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.scan;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.persistence.spi.PersistenceUnitInfo;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.parser.impl.acl.ClassloaderAnnotatedClassLocator;
+import org.batoo.jpa.parser.impl.acl.JarAnnotatedClassLocator;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests for locating the persistent classes by scanning the class files.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ScanTest extends BaseCoreTest {
+
+	/**
+	 * Class loader that records the classes requested.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class RecordingClassLoader extends ClassLoader {
+
+		private final Set<String> loaded = Collections.synchronizedSet(Sets.<String> newHashSet());
+
+		/**
+		 * @param parent
+		 *            the parent class loader
+		 * 
+		 * @since 2.0.1
+		 */
+		public RecordingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			this.loaded.add(name);
+
+			return super.loadClass(name, resolve);
+		}
+	}
+
+	private static PersistenceUnitInfo puInfo(final ClassLoader classLoader) {
+		return (PersistenceUnitInfo) Proxy.newProxyInstance(ScanTest.class.getClassLoader(), new Class<?>[] { PersistenceUnitInfo.class },
+			new InvocationHandler() {
+
+				/**
+				 * {@inheritDoc}
+				 * 
+				 */
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					if ("getClassLoader".equals(method.getName())) {
+						return classLoader;
+					}
+
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+	}
+
+	private static byte[] addModernConstants(byte[] bytes) {
+		final int count = ((bytes[8] & 0xFF) << 8) | (bytes[9] & 0xFF);
+
+		// locate the end of the constant pool
+		int index = 10;
+		for (int i = 1; i < count; i++) {
+			switch (bytes[index]) {
+				case 1:
+					index += 3 + (((bytes[index + 1] & 0xFF) << 8) | (bytes[index + 2] & 0xFF));
+					break;
+				case 5:
+				case 6:
+					index += 9;
+					i++;
+					break;
+				case 7:
+				case 8:
+				case 16:
+				case 19:
+				case 20:
+					index += 3;
+					break;
+				case 15:
+					index += 4;
+					break;
+				default:
+					index += 5;
+			}
+		}
+
+		// method handle, method type and invoke dynamic constants
+		final byte[] constants = new byte[] { 15, 6, 0, 1, 16, 0, 1, 18, 0, 0, 0, 1 };
+
+		final byte[] modern = new byte[bytes.length + constants.length];
+		System.arraycopy(bytes, 0, modern, 0, index);
+		System.arraycopy(constants, 0, modern, index, constants.length);
+		System.arraycopy(bytes, index, modern, index + constants.length, bytes.length - index);
+
+		modern[8] = (byte) ((count + 3) >> 8);
+		modern[9] = (byte) (count + 3);
+
+		return modern;
+	}
+
+	private void addClass(JarOutputStream os, Class<?> clazz) throws Exception {
+		this.addClass(os, clazz, false);
+	}
+
+	private void addClass(JarOutputStream os, Class<?> clazz, boolean modern) throws Exception {
+		final String name = clazz.getName().replace('.', '/') + ".class";
+
+		os.putNextEntry(new JarEntry(name));
+
+		final InputStream is = clazz.getClassLoader().getResourceAsStream(name);
+		try {
+			final byte[] bytes = IOUtils.toByteArray(is);
+
+			os.write(modern ? ScanTest.addModernConstants(bytes) : bytes);
+		}
+		finally {
+			is.close();
+		}
+
+		os.closeEntry();
+	}
+
+	private void assertScanned(Set<Class<?>> classes, RecordingClassLoader classLoader) {
+		Assert.assertTrue(classes.contains(Foo.class));
+		Assert.assertTrue(classes.contains(Bar.class));
+		Assert.assertTrue(classes.contains(Base.class));
+		Assert.assertFalse(classes.contains(Plain.class));
+
+		// classes without the annotations are not loaded
+		Assert.assertFalse(classLoader.loaded.contains(Plain.class.getName()));
+		Assert.assertFalse(classLoader.loaded.contains(ScanTest.class.getName()));
+	}
+
+	/**
+	 * Tests scanning a class directory.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDirectory() {
+		final URL root = Foo.class.getProtectionDomain().getCodeSource().getLocation();
+		final RecordingClassLoader classLoader = new RecordingClassLoader(Foo.class.getClassLoader());
+
+		final Set<Class<?>> classes = ClassloaderAnnotatedClassLocator.getInstance().locateClasses(ScanTest.puInfo(classLoader), root);
+
+		this.assertScanned(classes, classLoader);
+	}
+
+	/**
+	 * Tests scanning a jar.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testJar() throws Exception {
+		final File jar = File.createTempFile("scan", ".jar");
+		jar.deleteOnExit();
+
+		final JarOutputStream os = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			this.addClass(os, Base.class);
+			this.addClass(os, Bar.class);
+			this.addClass(os, Foo.class);
+			this.addClass(os, Plain.class);
+			this.addClass(os, ScanTest.class);
+		}
+		finally {
+			os.close();
+		}
+
+		final RecordingClassLoader classLoader = new RecordingClassLoader(Foo.class.getClassLoader());
+
+		final Set<Class<?>> classes = JarAnnotatedClassLocator.getInstance().locateClasses(ScanTest.puInfo(classLoader), jar.toURI().toURL());
+
+		Assert.assertEquals(3, classes.size());
+		this.assertScanned(classes, classLoader);
+	}
+
+	/**
+	 * Tests scanning a jar of class files with the constants of Java 7 and later.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testJarModernConstants() throws Exception {
+		final File jar = File.createTempFile("scan", ".jar");
+		jar.deleteOnExit();
+
+		final JarOutputStream os = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			this.addClass(os, Base.class, true);
+			this.addClass(os, Bar.class, true);
+			this.addClass(os, Foo.class, true);
+			this.addClass(os, Plain.class, true);
+			this.addClass(os, ScanTest.class, true);
+		}
+		finally {
+			os.close();
+		}
+
+		final RecordingClassLoader classLoader = new RecordingClassLoader(Foo.class.getClassLoader());
+
+		final Set<Class<?>> classes = JarAnnotatedClassLocator.getInstance().locateClasses(ScanTest.puInfo(classLoader), jar.toURI().toURL());
+
+		Assert.assertEquals(3, classes.size());
+		this.assertScanned(classes, classLoader);
+	}
+}
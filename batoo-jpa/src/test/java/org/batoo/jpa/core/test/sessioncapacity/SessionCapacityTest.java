@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.sessioncapacity;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.BJPASettings;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for the bounded sessions.
+ *
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SessionCapacityTest extends BaseCoreTest {
+
+	private static final int COUNT = 20;
+	private static final int CAPACITY = 5;
+
+	private int countContained(EntityManager em, List<Foo> foos) {
+		int contained = 0;
+		for (final Foo foo : foos) {
+			if (em.contains(foo)) {
+				contained++;
+			}
+		}
+
+		return contained;
+	}
+
+	private List<Foo> persistFoos() {
+		final List<Foo> foos = Lists.newArrayList();
+
+		for (int i = 0; i < SessionCapacityTest.COUNT; i++) {
+			final Foo foo = new Foo(i, "Foo" + i);
+			foos.add(foo);
+
+			this.persist(foo);
+		}
+
+		this.commit();
+
+		return foos;
+	}
+
+	private List<Foo> queryFoos(EntityManager em) {
+		return em.createQuery("select f from Foo f order by f.key", Foo.class).getResultList();
+	}
+
+	/**
+	 * Tests that the changed instances are not evicted and flushed.
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testChangedNotEvicted() {
+		this.persistFoos();
+		this.close();
+
+		this.begin();
+
+		for (int i = 0; i < 3; i++) {
+			this.find(Foo.class, (long) i).setValue("Changed" + i);
+		}
+
+		Assert.assertEquals(SessionCapacityTest.COUNT, this.queryFoos(this.em()).size());
+
+		this.commit();
+		this.close();
+
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals("Changed" + i, this.find(Foo.class, (long) i).getValue());
+		}
+	}
+
+	/**
+	 * Tests that the evicted instances still referenced by the application remain managed.
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLoaded() {
+		this.persistFoos();
+		this.close();
+
+		final List<Foo> foos = this.queryFoos(this.em());
+
+		Assert.assertEquals(SessionCapacityTest.COUNT, foos.size());
+
+		// evicted instances are put back into the session
+		Assert.assertSame(foos.get(0), this.find(Foo.class, 0L));
+		Assert.assertEquals(SessionCapacityTest.COUNT, this.countContained(this.em(), foos));
+
+		// changes to the evicted instances are flushed
+		this.begin();
+		foos.get(1).setValue("Changed");
+		this.commit();
+		this.close();
+
+		Assert.assertEquals("Changed", this.find(Foo.class, 1L).getValue());
+	}
+
+	/**
+	 * Tests that the session does not keep the evicted instances once the application no longer references them.
+	 *
+	 * @throws InterruptedException
+	 *             thrown if interrupted
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testReleased() throws InterruptedException {
+		this.persistFoos();
+		this.close();
+
+		final List<WeakReference<Foo>> references = Lists.newArrayList();
+		for (final Foo foo : this.queryFoos(this.em())) {
+			references.add(new WeakReference<Foo>(foo));
+		}
+
+		int released = 0;
+		for (int i = 0; (i < 10) && (released < (SessionCapacityTest.COUNT - SessionCapacityTest.CAPACITY)); i++) {
+			System.gc();
+			Thread.sleep(10);
+
+			released = 0;
+			for (final WeakReference<Foo> reference : references) {
+				if (reference.get() == null) {
+					released++;
+				}
+			}
+		}
+
+		Assert.assertEquals(SessionCapacityTest.COUNT - SessionCapacityTest.CAPACITY, released);
+
+		// released instances are fetched again
+		Assert.assertEquals("Foo0", this.find(Foo.class, 0L).getValue());
+	}
+
+	/**
+	 * Tests that the session capacity can be overridden by the entity manager properties.
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testOverride() {
+		this.persistFoos();
+		this.close();
+
+		final EntityManager em = this.emf().createEntityManager(
+			Collections.<String, Object> singletonMap(BJPASettings.SESSION_CAPACITY, "0"));
+		try {
+			final List<Foo> foos = this.queryFoos(em);
+
+			Assert.assertEquals(SessionCapacityTest.COUNT, this.countContained(em, foos));
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Tests that the persisted instances are not evicted, as their changes are not traced by enhancement.
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testPersisted() {
+		final List<Foo> foos = this.persistFoos();
+
+		Assert.assertEquals(SessionCapacityTest.COUNT, this.countContained(this.em(), foos));
+		Assert.assertSame(foos.get(0), this.find(Foo.class, 0L));
+
+		this.begin();
+		foos.get(0).setValue("Changed");
+		this.commit();
+		this.close();
+
+		Assert.assertEquals("Changed", this.find(Foo.class, 0L).getValue());
+	}
+
+	/**
+	 * Tests that the most recently used instances are kept.
+	 *
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testRecentlyUsed() {
+		this.persistFoos();
+		this.close();
+
+		final Foo first = this.find(Foo.class, 0L);
+
+		for (int i = 1; i < SessionCapacityTest.COUNT; i++) {
+			this.find(Foo.class, (long) i);
+
+			// keep the first instance in use
+			Assert.assertSame(first, this.find(Foo.class, 0L));
+		}
+
+		Assert.assertTrue(this.contains(first));
+	}
+}
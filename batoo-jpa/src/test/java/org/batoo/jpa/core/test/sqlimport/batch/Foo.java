@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.sqlimport.batch;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE)
+	private Integer id;
+
+	private String name;
+
+	private String description;
+
+	/**
+	 * Returns the id of the Foo1.
+	 * 
+	 * @return the id of the Foo1
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Foo1.
+	 * 
+	 * @return the name of the Foo1
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the description of the Foo.
+	 * 
+	 * @return the description of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getDescription() {
+		return this.description;
+	}
+
+	/**
+	 * Sets the name of the Foo1.
+	 * 
+	 * @param name
+	 *            the name to set for Foo1
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Sets the description of the Foo.
+	 * 
+	 * @param description
+	 *            the description to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setDescription(String description) {
+		this.description = description;
+	}
+}
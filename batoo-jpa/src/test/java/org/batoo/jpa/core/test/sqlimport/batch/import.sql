@@ -0,0 +1,9 @@
+-- consecutive inserts are batched, the update flushes the batch
+insert into Foo (id, name, description) values (1, 'value1_1', 'value2_1');
+insert into Foo (id, name, description) values (2, 'value1_2', 'value2_2');
+insert into Foo (id, name, description) values (3, 'value1_3', 'value2_3');
+insert into Foo (id, name, description) values (4, 'value1_4', 'value2_4');
+insert into Foo (id, name, description) values (5, 'value1_5', 'value2_5');
+update Foo set description = 'updated' where id = 1;
+insert into Foo (id, name, description) values (6, 'value1_6', 'value2_6');
+insert into Foo (id, name, description) values (7, 'value1_7', 'value2_7');
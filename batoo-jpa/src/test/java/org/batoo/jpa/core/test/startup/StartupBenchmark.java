@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.startup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.parser.AndroidPersistenceParserImpl;
+import org.junit.Test;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Measures the cost of deploying synthetic persistence units of increasing size.
+ * <p>
+ * Not part of the regular test run, run explicitly with the log level set to INFO or above. The shape of the units is controlled by
+ * the system properties <code>startup.entities</code> (comma separated sizes), <code>startup.inheritanceDepth</code>,
+ * <code>startup.associations</code>, <code>startup.elementCollections</code> and <code>startup.namedQueries</code>. The database is
+ * selected with the <code>testMode</code> and <code>javax.persistence.jdbc.*</code> system properties as in the regular tests.
+ * <p>
+ * For each unit the time of parsing, of each startup phase and of the whole deployment is reported, together with the heap retained by
+ * the entity manager factory and the garbage collections that took place during the deployment.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class StartupBenchmark extends BaseCoreTest {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(StartupBenchmark.class);
+
+	private static final String DEFAULT_ENTITIES = "100,500,1000,5000";
+
+	private static long collections() {
+		long count = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+
+		return count;
+	}
+
+	private static long collectionTime() {
+		long time = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, gc.getCollectionTime());
+		}
+
+		return time;
+	}
+
+	private static int getInteger(String key, int defaultValue) {
+		final String value = System.getProperty(key);
+
+		return value != null ? Integer.valueOf(value) : defaultValue;
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+
+			try {
+				Thread.sleep(50);
+			}
+			catch (final InterruptedException e) {}
+
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+
+		return used;
+	}
+
+	private void deploy(SyntheticUnit unit, boolean report) {
+		final Thread currentThread = Thread.currentThread();
+		final ClassLoader oldContextClassLoader = currentThread.getContextClassLoader();
+
+		final long heap = StartupBenchmark.usedHeap();
+		final long collections = StartupBenchmark.collections();
+		final long collectionTime = StartupBenchmark.collectionTime();
+
+		EntityManagerFactoryImpl emf = null;
+
+		currentThread.setContextClassLoader(unit.getClassLoader(oldContextClassLoader));
+		try {
+			final long start = System.currentTimeMillis();
+
+			final AndroidPersistenceParserImpl parser = new AndroidPersistenceParserImpl(unit.getProperties(), unit.getClassNames());
+
+			final long parsed = System.currentTimeMillis();
+
+			emf = new EntityManagerFactoryImpl("synthetic", parser);
+
+			final long deployed = System.currentTimeMillis();
+
+			if (report) {
+				final long gcs = StartupBenchmark.collections() - collections;
+				final long gcTime = StartupBenchmark.collectionTime() - collectionTime;
+				final long retained = StartupBenchmark.usedHeap() - heap;
+
+				this.report(unit, parsed - start, deployed - start, emf.getStartupTimings(), retained, gcs, gcTime);
+			}
+		}
+		finally {
+			currentThread.setContextClassLoader(oldContextClassLoader);
+
+			if (emf != null) {
+				emf.close();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected boolean lazySetup() {
+		return true;
+	}
+
+	private void report(SyntheticUnit unit, long parse, long total, Map<String, Long> timings, long retained, long gcs, long gcTime) {
+		final StringBuilder phases = new StringBuilder();
+		for (final Entry<String, Long> timing : timings.entrySet()) {
+			phases.append("\n\t").append(timing.getKey()).append(": ").append(timing.getValue()).append(" msecs");
+		}
+
+		StartupBenchmark.LOG.info("{0}\n\tparse: {1} msecs{2}\n\ttotal: {3} msecs\n\tretained heap: {4} KB\n\tgc: {5} collections, {6} msecs", //
+			unit, parse, phases, total, retained / 1024, gcs, gcTime);
+	}
+
+	/**
+	 * Measures the deployment of the synthetic persistence units.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testStartup() {
+		final int inheritanceDepth = StartupBenchmark.getInteger("startup.inheritanceDepth", 3);
+		final int associations = StartupBenchmark.getInteger("startup.associations", 2);
+		final int elementCollections = StartupBenchmark.getInteger("startup.elementCollections", 1);
+		final int namedQueries = StartupBenchmark.getInteger("startup.namedQueries", 1);
+
+		// warm up the code paths with a small unit
+		this.deploy(new SyntheticUnit(50, inheritanceDepth, associations, elementCollections, namedQueries), false);
+
+		for (final String entities : Splitter.on(",").trimResults().omitEmptyStrings().split(
+			System.getProperty("startup.entities", StartupBenchmark.DEFAULT_ENTITIES))) {
+			this.deploy(new SyntheticUnit(Integer.valueOf(entities), inheritanceDepth, associations, elementCollections, namedQueries), true);
+		}
+	}
+}
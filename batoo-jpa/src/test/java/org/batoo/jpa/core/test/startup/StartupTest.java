@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.startup;
+
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the staged startup of the entity manager factory.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class StartupTest extends BaseCoreTest {
+
+	/**
+	 * Tests that the named queries and the id generators are ready after the startup.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testStartup() {
+		final Foo foo = new Foo("foo");
+		this.persist(foo);
+		this.commit();
+
+		Assert.assertNotNull(foo.getId());
+
+		this.close();
+
+		final Foo foo2 = this.em().createNamedQuery(Foo.BY_NAME, Foo.class).setParameter("name", "foo").getSingleResult();
+		Assert.assertEquals(foo.getId(), foo2.getId());
+	}
+
+	/**
+	 * Tests that the time each startup phase took is recorded.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testTimings() {
+		final Map<String, Long> timings = this.emf().getStartupTimings();
+
+		Assert.assertEquals(7, timings.size());
+		Assert.assertTrue(timings.containsKey("link"));
+		Assert.assertTrue(timings.containsKey("ddl"));
+		Assert.assertTrue(timings.containsKey("generators"));
+		Assert.assertTrue(timings.containsKey("precompile"));
+		Assert.assertTrue(timings.containsKey("namedQueries"));
+		Assert.assertTrue(timings.containsKey("staticMetamodels"));
+		Assert.assertTrue(timings.containsKey("importSql"));
+
+		for (final Long time : timings.values()) {
+			Assert.assertTrue(time >= 0);
+		}
+	}
+}
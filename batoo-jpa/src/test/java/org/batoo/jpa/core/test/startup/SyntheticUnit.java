@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.startup;
+
+import java.util.Map;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Generates the entities of a synthetic persistence unit.
+ * <p>
+ * The entities are organized into single table hierarchies of <code>inheritanceDepth</code> levels. Each entity has a basic attribute
+ * and the requested number of many-to-one associations, element collections and named queries.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SyntheticUnit {
+
+	/**
+	 * The class loader that defines the generated entities.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private class SyntheticClassLoader extends ClassLoader {
+
+		public SyntheticClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			final int index = SyntheticUnit.this.indexOf(name);
+			if (index < 0) {
+				return super.findClass(name);
+			}
+
+			final byte[] bytes = SyntheticUnit.this.generate(index);
+
+			return this.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	private static final String PACKAGE = SyntheticUnit.class.getPackage().getName() + ".synthetic";
+	private static final String PREFIX = "Entity";
+
+	private static final String DESCRIPTOR_STRING = Type.getDescriptor(String.class);
+	private static final String DESCRIPTOR_INTEGER = Type.getDescriptor(Integer.class);
+	private static final String DESCRIPTOR_LIST = "Ljava/util/List;";
+	private static final String SIGNATURE_LIST = "Ljava/util/List<Ljava/lang/String;>;";
+
+	private final int entities;
+	private final int inheritanceDepth;
+	private final int associations;
+	private final int elementCollections;
+	private final int namedQueries;
+
+	/**
+	 * @param entities
+	 *            the number of entities
+	 * @param inheritanceDepth
+	 *            the depth of the hierarchies, 1 for no inheritance
+	 * @param associations
+	 *            the number of many-to-one associations per entity
+	 * @param elementCollections
+	 *            the number of element collections per entity
+	 * @param namedQueries
+	 *            the number of named queries per entity
+	 * 
+	 * @since 2.0.1
+	 */
+	public SyntheticUnit(int entities, int inheritanceDepth, int associations, int elementCollections, int namedQueries) {
+		super();
+
+		this.entities = entities;
+		this.inheritanceDepth = Math.max(1, inheritanceDepth);
+		this.associations = associations;
+		this.elementCollections = elementCollections;
+		this.namedQueries = namedQueries;
+	}
+
+	private void addAnnotation(FieldVisitor fv, Class<?> annotation) {
+		fv.visitAnnotation(Type.getDescriptor(annotation), true).visitEnd();
+	}
+
+	private void addConstructor(ClassWriter cw, String superName) {
+		final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V");
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private void addNamedQueries(ClassWriter cw, int index) {
+		final AnnotationVisitor namedQueries = cw.visitAnnotation(Type.getDescriptor(NamedQueries.class), true);
+		final AnnotationVisitor value = namedQueries.visitArray("value");
+
+		for (int i = 0; i < this.namedQueries; i++) {
+			final AnnotationVisitor namedQuery = value.visitAnnotation(null, Type.getDescriptor(NamedQuery.class));
+
+			namedQuery.visit("name", this.getEntityName(index) + ".query" + i);
+			namedQuery.visit("query", "select e from " + this.getEntityName(index) + " e where e.value" + index + " = :value" + i);
+			namedQuery.visitEnd();
+		}
+
+		value.visitEnd();
+		namedQueries.visitEnd();
+	}
+
+	/**
+	 * Generates the entity.
+	 * 
+	 * @param index
+	 *            the index of the entity
+	 * @return the bytecode of the entity
+	 * 
+	 * @since 2.0.1
+	 */
+	private byte[] generate(int index) {
+		final boolean root = (index % this.inheritanceDepth) == 0;
+
+		final String name = this.getInternalName(index);
+		final String superName = root ? Type.getInternalName(Object.class) : this.getInternalName(index - 1);
+
+		final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, name, null, superName, null);
+
+		cw.visitAnnotation(Type.getDescriptor(Entity.class), true).visitEnd();
+
+		if (this.namedQueries > 0) {
+			this.addNamedQueries(cw, index);
+		}
+
+		if (root) {
+			final FieldVisitor id = cw.visitField(Opcodes.ACC_PRIVATE, "id", SyntheticUnit.DESCRIPTOR_INTEGER, null, null);
+			this.addAnnotation(id, Id.class);
+			id.visitEnd();
+		}
+
+		cw.visitField(Opcodes.ACC_PRIVATE, "value" + index, SyntheticUnit.DESCRIPTOR_STRING, null, null).visitEnd();
+
+		for (int i = 0; i < this.associations; i++) {
+			// spread the associations over the unit deterministically
+			final int target = ((index * 31) + (i * 17) + 1) % this.entities;
+
+			final FieldVisitor association = cw.visitField(Opcodes.ACC_PRIVATE, "association" + index + "_" + i, //
+				"L" + this.getInternalName(target) + ";", null, null);
+			this.addAnnotation(association, ManyToOne.class);
+			association.visitEnd();
+		}
+
+		for (int i = 0; i < this.elementCollections; i++) {
+			final FieldVisitor elementCollection = cw.visitField(Opcodes.ACC_PRIVATE, "elements" + index + "_" + i, //
+				SyntheticUnit.DESCRIPTOR_LIST, SyntheticUnit.SIGNATURE_LIST, null);
+			this.addAnnotation(elementCollection, ElementCollection.class);
+			elementCollection.visitEnd();
+		}
+
+		this.addConstructor(cw, superName);
+
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Returns the names of the entity classes.
+	 * 
+	 * @return the names of the entity classes
+	 * 
+	 * @since 2.0.1
+	 */
+	public String[] getClassNames() {
+		final String[] classNames = new String[this.entities];
+
+		for (int i = 0; i < this.entities; i++) {
+			classNames[i] = SyntheticUnit.PACKAGE + "." + this.getEntityName(i);
+		}
+
+		return classNames;
+	}
+
+	/**
+	 * Returns a new class loader that defines the entities.
+	 * 
+	 * @param parent
+	 *            the parent class loader
+	 * @return the class loader
+	 * 
+	 * @since 2.0.1
+	 */
+	public ClassLoader getClassLoader(ClassLoader parent) {
+		return new SyntheticClassLoader(parent);
+	}
+
+	private String getEntityName(int index) {
+		return SyntheticUnit.PREFIX + index;
+	}
+
+	private String getInternalName(int index) {
+		return SyntheticUnit.PACKAGE.replace('.', '/') + "/" + this.getEntityName(index);
+	}
+
+	/**
+	 * Returns the properties to create the persistence unit with.
+	 * 
+	 * @return the properties
+	 * 
+	 * @since 2.0.1
+	 */
+	public Map<String, String> getProperties() {
+		final Map<String, String> properties = Maps.newHashMap();
+
+		properties.put("org.batoo.jpa.ddl", "DROP");
+
+		return properties;
+	}
+
+	private int indexOf(String className) {
+		final String prefix = SyntheticUnit.PACKAGE + "." + SyntheticUnit.PREFIX;
+		if (!className.startsWith(prefix)) {
+			return -1;
+		}
+
+		try {
+			final int index = Integer.parseInt(className.substring(prefix.length()));
+
+			return (index >= 0) && (index < this.entities) ? index : -1;
+		}
+		catch (final NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "SyntheticUnit [entities=" + this.entities + ", inheritanceDepth=" + this.inheritanceDepth + ", associations=" + this.associations
+			+ ", elementCollections=" + this.elementCollections + ", namedQueries=" + this.namedQueries + "]";
+	}
+}
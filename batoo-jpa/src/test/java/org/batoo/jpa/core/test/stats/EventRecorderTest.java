@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.stats;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.stats.EventRecorder;
+import org.batoo.jpa.core.stats.Statistics;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for the event recorder.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class EventRecorderTest extends BaseCoreTest {
+
+	private static class Recorder implements EventRecorder {
+
+		private final List<String> events = Lists.newArrayList();
+
+		@Override
+		public synchronized void collectionInitialized(String association, String ownerType, int size, long nanos) {
+			this.events.add("collection " + association + " " + ownerType + " " + size);
+		}
+
+		@Override
+		public synchronized void flushed(int inserts, int updates, int removes, long sortNanos, long nanos) {
+			Assert.assertTrue(sortNanos <= nanos);
+
+			this.events.add("flush " + inserts + " " + updates + " " + removes);
+		}
+
+		private synchronized List<String> getEvents() {
+			return Lists.newArrayList(this.events);
+		}
+
+		@Override
+		public synchronized void idGeneratorWaited(String generator, long nanos) {
+			this.events.add("id");
+		}
+
+		@Override
+		public synchronized void queryExecuted(String sql, int rows, long jdbcNanos, long hydrationNanos) {
+			this.events.add("query " + rows);
+		}
+
+		@Override
+		public synchronized void referenceInitialized(String entity, long nanos) {
+			this.events.add("reference " + entity);
+		}
+	}
+
+	/**
+	 * Tests the events are recorded while a recorder is installed.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testEvents() {
+		final Statistics statistics = this.emf().getStatistics();
+		final Recorder recorder = new Recorder();
+		statistics.setEventRecorder(recorder);
+
+		try {
+			final Foo foo = new Foo("foo");
+			new Bar(foo);
+			new Bar(foo);
+
+			this.persist(foo);
+			this.commit();
+			this.close();
+
+			Assert.assertTrue(recorder.getEvents().contains("id"));
+			Assert.assertTrue(recorder.getEvents().contains("flush 3 0 0"));
+
+			Assert.assertEquals(2, this.find(Foo.class, foo.getId()).getBars().size());
+			Assert.assertTrue(recorder.getEvents().contains("collection Foo.bars Foo 2"));
+			Assert.assertTrue(recorder.getEvents().contains("query 2"));
+			this.close();
+
+			Assert.assertEquals("foo", this.reference(Foo.class, foo.getId()).getName());
+			Assert.assertTrue(recorder.getEvents().contains("reference Foo"));
+
+			this.begin();
+			this.find(Foo.class, foo.getId()).setName("foo2");
+			this.commit();
+			Assert.assertTrue(recorder.getEvents().contains("flush 0 1 0"));
+		}
+		finally {
+			statistics.setEventRecorder(null);
+		}
+
+		final int size = recorder.getEvents().size();
+
+		this.find(Foo.class, 1);
+		Assert.assertEquals(size, recorder.getEvents().size());
+	}
+}
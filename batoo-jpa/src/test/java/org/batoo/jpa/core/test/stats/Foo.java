@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.stats;
+
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE)
+	private Integer id;
+
+	private String name;
+
+	@OneToMany(mappedBy = "foo", cascade = CascadeType.ALL)
+	private final List<Bar> bars = Lists.newArrayList();
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(String name) {
+		super();
+
+		this.name = name;
+	}
+
+	/**
+	 * Returns the bars of the Foo.
+	 * 
+	 * @return the bars of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public List<Bar> getBars() {
+		return this.bars;
+	}
+
+	/**
+	 * Returns the id of the Foo.
+	 * 
+	 * @return the id of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Foo.
+	 * 
+	 * @return the name of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the name of the Foo.
+	 * 
+	 * @param name
+	 *            the name to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.stats;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.BJPASettings;
+
+import org.batoo.jpa.core.stats.EntityStatistics;
+import org.batoo.jpa.core.stats.LatencyHistogram;
+import org.batoo.jpa.core.stats.NPlusOneStatistics;
+import org.batoo.jpa.core.stats.QueryStatistics;
+import org.batoo.jpa.core.stats.SqlStatistics;
+import org.batoo.jpa.core.stats.Statistics;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * Tests for the statistics.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class StatisticsTest extends BaseCoreTest {
+
+	private static final String QUERY = "select f from Foo f where f.name = :name";
+
+	private Foo persistFoo() {
+		final Foo foo = new Foo("foo");
+		new Bar(foo);
+		new Bar(foo);
+
+		this.persist(foo);
+		this.commit();
+		this.close();
+
+		return foo;
+	}
+
+	/**
+	 * Tests the collection initialization statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCollections() {
+		final Foo foo = this.persistFoo();
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+
+		Assert.assertEquals(2, this.find(Foo.class, foo.getId()).getBars().size());
+
+		Assert.assertEquals(1, statistics.getCollectionStatistics("Foo.bars").getInitializationCount());
+		Assert.assertEquals(2, statistics.getCollectionStatistics("Foo.bars").getElementCount());
+		Assert.assertEquals(2, statistics.getEntityStatistics("Bar").getLoadCount());
+	}
+
+	/**
+	 * Tests the entity statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testEntities() {
+		final Foo foo = this.persistFoo();
+
+		final Statistics statistics = this.emf().getStatistics();
+
+		Assert.assertEquals(1, statistics.getEntityStatistics("Foo").getInsertCount());
+		Assert.assertEquals(2, statistics.getEntityStatistics("Bar").getInsertCount());
+		Assert.assertEquals(1, statistics.getFlushes().getCount());
+		Assert.assertTrue(statistics.getIdGeneratorWaits().getCount() > 0);
+
+		this.begin();
+		final Foo foo2 = this.find(Foo.class, foo.getId());
+		foo2.setName("foo2");
+		this.commit();
+
+		this.begin();
+		this.remove(foo2);
+		this.commit();
+
+		final EntityStatistics fooStatistics = statistics.getEntityStatistics("Foo");
+		Assert.assertEquals(1, fooStatistics.getLoadCount());
+		Assert.assertEquals(1, fooStatistics.getUpdateCount());
+		Assert.assertEquals(1, fooStatistics.getDeleteCount());
+		Assert.assertEquals(2, statistics.getEntityStatistics("Bar").getDeleteCount());
+	}
+
+	/**
+	 * Tests the latency histogram.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testHistogram() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(1000000, histogram.getMax());
+		Assert.assertEquals(500500, histogram.getMean());
+
+		// within the precision of the sub buckets
+		Assert.assertTrue(Math.abs(histogram.getPercentile(50) - 500000) <= (500000 / 16));
+		Assert.assertTrue(Math.abs(histogram.getPercentile(99) - 990000) <= (990000 / 16));
+		Assert.assertEquals(1000000, histogram.getPercentile(100));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getPercentile(50));
+	}
+
+	/**
+	 * Tests the detection of the N+1 selects.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testNPlusOne() {
+		for (int i = 0; i < 5; i++) {
+			this.persistFoo();
+		}
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+
+		final EntityManager em = this.emf().createEntityManager(
+			Collections.<String, Object> singletonMap(BJPASettings.N_PLUS_ONE_THRESHOLD, "3"));
+		try {
+			final List<Foo> foos = em.createQuery("select f from Foo f", Foo.class).getResultList();
+			Assert.assertEquals(5, foos.size());
+
+			for (int i = 0; i < 2; i++) {
+				foos.get(i).getBars().size();
+			}
+
+			Assert.assertTrue(statistics.getNPlusOneStatistics().isEmpty());
+
+			for (int i = 2; i < 5; i++) {
+				foos.get(i).getBars().size();
+			}
+		}
+		finally {
+			em.close();
+		}
+
+		Assert.assertEquals(1, statistics.getNPlusOneStatistics().size());
+
+		final NPlusOneStatistics nPlusOne = statistics.getNPlusOneStatistics("Foo.bars");
+		Assert.assertEquals("Foo", nPlusOne.getOwnerType());
+		Assert.assertEquals(1, nPlusOne.getDetectionCount());
+		Assert.assertEquals(5, nPlusOne.getMaxLoadCount());
+
+		boolean found = false;
+		for (final StackTraceElement element : nPlusOne.getCallSite()) {
+			found |= "testNPlusOne".equals(element.getMethodName());
+		}
+
+		Assert.assertTrue(found);
+
+		// the detection is disabled by default
+		for (final Foo foo : this.cq("select f from Foo f", Foo.class).getResultList()) {
+			foo.getBars().size();
+		}
+
+		Assert.assertEquals(1, nPlusOne.getDetectionCount());
+	}
+
+	/**
+	 * Tests the query statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testQueries() {
+		this.persistFoo();
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+
+		for (int i = 0; i < 3; i++) {
+			this.cq(StatisticsTest.QUERY, Foo.class).setParameter("name", "foo").getResultList();
+		}
+
+		// queries are tracked by their JPQL as generated from the criteria
+		Assert.assertEquals(1, statistics.getQueryStatistics().size());
+
+		final QueryStatistics queryStatistics = statistics.getQueryStatistics().iterator().next();
+		Assert.assertSame(queryStatistics, statistics.getQueryStatistics(queryStatistics.getQuery()));
+		Assert.assertEquals(3, queryStatistics.getExecutionCount());
+		Assert.assertEquals(3, queryStatistics.getRowCount());
+		Assert.assertTrue(queryStatistics.getLatency().getTotal() > 0);
+
+		Assert.assertEquals(3, statistics.getJpqlCacheHitCount() + statistics.getJpqlCacheMissCount());
+		Assert.assertTrue(statistics.getJpqlCacheHitCount() >= 2);
+	}
+
+	/**
+	 * Tests the SQL statistics are collected only while the statistics are switched on.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testSql() {
+		this.persistFoo();
+
+		final Statistics statistics = this.emf().getStatistics();
+		statistics.clear();
+		statistics.setEnabled(false);
+
+		try {
+			this.cq(StatisticsTest.QUERY, Foo.class).setParameter("name", "foo").getResultList();
+
+			Assert.assertTrue(statistics.getSqlStatistics().isEmpty());
+		}
+		finally {
+			statistics.setEnabled(true);
+		}
+
+		for (int i = 0; i < 3; i++) {
+			this.cq(StatisticsTest.QUERY, Foo.class).setParameter("name", "foo").getResultList();
+		}
+
+		// the id generators run their own SQLs in the background
+		SqlStatistics sqlStatistics = null;
+		for (final SqlStatistics candidate : statistics.getSqlStatistics()) {
+			if (candidate.getSql().contains("FROM Foo")) {
+				Assert.assertNull(sqlStatistics);
+
+				sqlStatistics = candidate;
+			}
+		}
+
+		Assert.assertNotNull(sqlStatistics);
+		Assert.assertSame(sqlStatistics, statistics.getSqlStatistics(sqlStatistics.getSql()));
+		Assert.assertEquals(3, sqlStatistics.getExecutionCount());
+		Assert.assertEquals(3, sqlStatistics.getFetchLatency().getCount());
+
+		final LatencyHistogram execute = sqlStatistics.getExecuteLatency();
+		Assert.assertTrue(execute.getPercentile(50) > 0);
+		Assert.assertTrue(execute.getPercentile(50) <= execute.getPercentile(99));
+		Assert.assertTrue(execute.getPercentile(99) <= execute.getPercentile(99.9));
+		Assert.assertTrue(execute.getPercentile(99.9) <= execute.getMax());
+	}
+
+	/**
+	 * Tests the statistics can be switched off at runtime and are reachable through unwrap.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testSwitch() {
+		final Statistics statistics = this.emf().unwrap(Statistics.class);
+		Assert.assertSame(statistics, this.em().unwrap(Statistics.class));
+		Assert.assertTrue(statistics.isEnabled());
+
+		statistics.setEnabled(false);
+
+		this.persistFoo();
+
+		Assert.assertNull(statistics.getEntityStatistics("Foo"));
+		Assert.assertEquals(0, statistics.getFlushes().getCount());
+
+		statistics.setEnabled(true);
+	}
+}
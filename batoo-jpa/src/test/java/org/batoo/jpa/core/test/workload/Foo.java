@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.workload;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Foo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE)
+	private Integer id;
+
+	private String name;
+
+	private int quantity;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Foo() {
+		super();
+	}
+
+	/**
+	 * @param name
+	 *            the name
+	 * @param quantity
+	 *            the quantity
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo(String name, int quantity) {
+		super();
+
+		this.name = name;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Returns the id of the Foo.
+	 * 
+	 * @return the id of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Foo.
+	 * 
+	 * @return the name of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the quantity of the Foo.
+	 * 
+	 * @return the quantity of the Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getQuantity() {
+		return this.quantity;
+	}
+
+	/**
+	 * Sets the quantity of the Foo.
+	 * 
+	 * @param quantity
+	 *            the quantity to set for Foo
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
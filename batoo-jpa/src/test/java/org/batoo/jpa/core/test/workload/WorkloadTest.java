@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+
+package org.batoo.jpa.core.test.workload;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.BJPASettings;
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.core.workload.ReplayResult;
+import org.batoo.jpa.core.workload.WorkloadOperation;
+import org.batoo.jpa.core.workload.WorkloadReader;
+import org.batoo.jpa.core.workload.WorkloadRecord;
+import org.batoo.jpa.core.workload.WorkloadRecorder;
+import org.batoo.jpa.core.workload.WorkloadReplayer;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for the workload capture and replay.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class WorkloadTest extends BaseCoreTest {
+
+	private static final String QUERY = "select f from Foo f where f.name = :name";
+	private static final String UPDATE = "update Foo f set f.quantity = ?1 where f.name = ?2";
+
+	private File log;
+
+	private void capture() throws Exception {
+		this.log = File.createTempFile("workload", ".log");
+
+		System.setProperty(BJPASettings.WORKLOAD_CAPTURE, this.log.getAbsolutePath());
+
+		final EntityManagerFactoryImpl emf;
+		try {
+			emf = this.setupEmf();
+		}
+		finally {
+			System.clearProperty(BJPASettings.WORKLOAD_CAPTURE);
+		}
+
+		try {
+			final EntityManagerImpl em = emf.createEntityManager();
+
+			em.getTransaction().begin();
+			final Foo foo = new Foo("foo", 1);
+			em.persist(foo);
+			em.persist(new Foo("bar", 2));
+			em.getTransaction().commit();
+
+			em.getTransaction().begin();
+			em.find(Foo.class, foo.getId());
+			em.createQuery(WorkloadTest.QUERY, Foo.class).setParameter("name", "foo").setMaxResults(10).getResultList();
+			em.createQuery(WorkloadTest.UPDATE).setParameter(1, 3).setParameter(2, "bar").executeUpdate();
+			em.remove(foo);
+			em.getTransaction().commit();
+
+			em.close();
+		}
+		finally {
+			emf.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected boolean lazySetup() {
+		return true;
+	}
+
+	/**
+	 * Deletes the workload log.
+	 * 
+	 * @since 2.0.1
+	 */
+	@After
+	public void deleteLog() {
+		if (this.log != null) {
+			this.log.delete();
+		}
+	}
+
+	/**
+	 * Tests the operations of the entity manager are captured.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCapture() throws Exception {
+		this.capture();
+
+		final List<WorkloadRecord> records = Lists.newArrayList();
+
+		final WorkloadReader reader = new WorkloadReader(new FileInputStream(this.log));
+		try {
+			WorkloadRecord record;
+			while ((record = reader.read()) != null) {
+				records.add(record);
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		final List<WorkloadOperation> operations = Lists.newArrayList();
+		for (final WorkloadRecord record : records) {
+			operations.add(record.getOperation());
+
+			Assert.assertEquals(records.get(0).getSession(), record.getSession());
+			Assert.assertTrue(record.getNanos() >= 0);
+		}
+
+		Assert.assertEquals(Lists.newArrayList(WorkloadOperation.BEGIN, WorkloadOperation.PERSIST, WorkloadOperation.PERSIST,
+			WorkloadOperation.COMMIT, WorkloadOperation.BEGIN, WorkloadOperation.FIND, WorkloadOperation.QUERY, WorkloadOperation.UPDATE,
+			WorkloadOperation.REMOVE, WorkloadOperation.COMMIT, WorkloadOperation.CLOSE), operations);
+
+		final WorkloadRecord persist = records.get(1);
+		Assert.assertEquals("Foo", persist.getEntityName());
+		Assert.assertEquals("foo", persist.getValues().get("name"));
+		Assert.assertEquals(1, persist.getValues().get("quantity"));
+		Assert.assertFalse(persist.getValues().containsKey("id"));
+
+		final WorkloadRecord query = records.get(6);
+		Assert.assertTrue(query.getJpql().contains("f.name = :name"));
+		Assert.assertEquals(10, query.getMaxResults());
+		Assert.assertEquals("foo", query.getValues().get("name"));
+
+		final WorkloadRecord update = records.get(7);
+		Assert.assertEquals(3, update.getValues().get("1"));
+		Assert.assertEquals("bar", update.getValues().get("2"));
+
+		Assert.assertEquals(records.get(5).getId(), records.get(8).getId());
+	}
+
+	/**
+	 * Tests the distinct queries and values beyond the capacity of the dictionary are recorded.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDistinctStrings() throws Exception {
+		final int count = 12000;
+
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		final WorkloadRecorder recorder = new WorkloadRecorder(this.emf().getMetamodel(), os);
+		for (int i = 0; i < count; i++) {
+			final String jpql = "select f from Foo f where f.quantity = " + (i % 2 == 0 ? 0 : i);
+			final long start = System.nanoTime();
+
+			recorder.query(1, WorkloadOperation.QUERY, jpql, Collections.<String, Object> singletonMap("name", "foo" + i), 0, 0, start, 0);
+		}
+
+		recorder.close();
+
+		final WorkloadReader reader = new WorkloadReader(new ByteArrayInputStream(os.toByteArray()));
+		try {
+			for (int i = 0; i < count; i++) {
+				final WorkloadRecord record = reader.read();
+
+				Assert.assertEquals("select f from Foo f where f.quantity = " + (i % 2 == 0 ? 0 : i), record.getJpql());
+				Assert.assertEquals("foo" + i, record.getValues().get("name"));
+			}
+
+			Assert.assertNull(reader.read());
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Tests the captured workload is replayed against a fresh database.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of failure
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testReplay() throws Exception {
+		this.capture();
+
+		final ReplayResult result = new WorkloadReplayer(this.emf(), 2).replay(this.log);
+
+		for (final WorkloadOperation operation : WorkloadOperation.values()) {
+			Assert.assertEquals(operation.name(), 0, result.getFailureCount(operation));
+			Assert.assertEquals(operation.name(), result.getCapturedLatency(operation).getCount(), result.getReplayedLatency(operation).getCount());
+		}
+
+		Assert.assertEquals(2, result.getReplayedLatency(WorkloadOperation.PERSIST).getCount());
+		Assert.assertEquals(1, result.getReplayedLatency(WorkloadOperation.QUERY).getCount());
+
+		Assert.assertEquals(1, this.cq("select f from Foo f", Foo.class).getResultList().size());
+		Assert.assertEquals(3, this.cq(WorkloadTest.QUERY, Foo.class).setParameter("name", "bar").getSingleResult().getQuantity());
+	}
+}
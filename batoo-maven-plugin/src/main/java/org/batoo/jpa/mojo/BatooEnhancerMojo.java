@@ -25,18 +25,24 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.batoo.jpa.core.impl.instance.Enhancer;
+import org.batoo.jpa.parser.impl.acl.DeploymentIndex;
 import org.codehaus.plexus.util.FileUtils;
 
 /**
- * Generates the enhanced classes.
+ * Generates the enhanced classes and the deployment index of the persistent classes.
  * 
  * @goal enhance
  * @phase process-classes
@@ -72,6 +78,13 @@ public class BatooEnhancerMojo extends AbstractMojo {
 	 */
 	private String excludes;
 
+	/**
+	 * Generate the deployment index of the persistent classes, off by default.
+	 * 
+	 * @parameter expression="${batoojpa.index}" default-value="false"
+	 */
+	private boolean index;
+
 	/**
 	 * Comma seperated representation of includes.
 	 * 
@@ -141,6 +154,10 @@ public class BatooEnhancerMojo extends AbstractMojo {
 				throw new MojoExecutionException("Enhancement failed for " + classPath.getName());
 			}
 		}
+
+		if (this.index) {
+			this.writeIndex(cl);
+		}
 	}
 
 	/**
@@ -214,4 +231,49 @@ public class BatooEnhancerMojo extends AbstractMojo {
 
 		return false;
 	}
+
+	/**
+	 * Writes the deployment index of the persistent classes into the class directory.
+	 * 
+	 * @param cl
+	 *            the class loader
+	 * @throws MojoExecutionException
+	 *             if the index cannot be written
+	 * 
+	 * @since 2.0.1
+	 */
+	private void writeIndex(URLClassLoader cl) throws MojoExecutionException {
+		final File indexFile = new File(this.classes, DeploymentIndex.INDEX_FILE);
+
+		try {
+			final List<String> classNames = new ArrayList<String>();
+			final int classRootLength = this.classes.toString().length() + 1;
+
+			// all the classes are indexed regardless of the includes and excludes
+			for (final Object file : FileUtils.getFiles(this.classes, "**/*.class", "")) {
+				final String absolutePath = ((File) file).getAbsolutePath();
+				final String className = absolutePath.substring(classRootLength, absolutePath.length() - 6).replace('\\', '.').replace('/', '.');
+
+				if (absolutePath.endsWith(Enhancer.SUFFIX_ENHANCED + ".class")) {
+					continue;
+				}
+
+				final Class<?> clazz = cl.loadClass(className);
+				if ((clazz.getAnnotation(Entity.class) != null) || (clazz.getAnnotation(Embeddable.class) != null)
+					|| (clazz.getAnnotation(MappedSuperclass.class) != null)) {
+					classNames.add(className);
+				}
+			}
+
+			Collections.sort(classNames);
+
+			indexFile.getParentFile().mkdirs();
+			DeploymentIndex.write(new FileOutputStream(indexFile), DeploymentIndex.fingerprint(this.classes), classNames);
+
+			this.getLog().info("Deployment index written with " + classNames.size() + " persistent classes: " + indexFile);
+		}
+		catch (final Exception e) {
+			throw new MojoExecutionException("Unable to write the deployment index " + indexFile, e);
+		}
+	}
 }